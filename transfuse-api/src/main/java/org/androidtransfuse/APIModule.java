@@ -24,6 +24,11 @@ import android.os.Looper;
 import org.androidtransfuse.annotations.*;
 import org.androidtransfuse.aop.AsynchronousMethodInterceptor;
 import org.androidtransfuse.aop.UIThreadMethodInterceptor;
+import org.androidtransfuse.util.BoundedExecutor;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.Executor;
 
 @TransfuseModule
 @BindInterceptors({
@@ -36,4 +41,11 @@ public class APIModule {
     public Handler getHandler(){
         return new Handler(Looper.getMainLooper());
     }
+
+    @Provides
+    @Singleton
+    @Named(AsynchronousMethodInterceptor.EXECUTOR)
+    public Executor getAsynchronousExecutor(){
+        return new BoundedExecutor("Asynchronous");
+    }
 }
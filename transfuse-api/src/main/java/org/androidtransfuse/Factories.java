@@ -16,9 +16,9 @@
 package org.androidtransfuse;
 
 import org.androidtransfuse.scope.Scopes;
-import org.androidtransfuse.util.FactoryBuilderReflectionProxy;
 import org.androidtransfuse.util.GeneratedCodeRepository;
 import org.androidtransfuse.util.Namer;
+import org.androidtransfuse.util.TransfuseRuntimeException;
 
 /**
  * Static utility class which maps the `@Factory` annotated interface to the generated implementation.
@@ -30,6 +30,7 @@ public final class Factories {
     public static final String FACTORIES_REPOSITORY_NAME = Namer.name("Transfuse").append("Factories").build();
     public static final String FACTORIES_PACKAGE = "org.androidtransfuse";
     public static final String IMPL_EXT = "Factory";
+    public static final String BUILDER_NAME = Namer.name("Factory").append("Builder").build();
 
     private static final GeneratedCodeRepository<FactoryBuilder> REPOSITORY =
             new GeneratedCodeRepository<FactoryBuilder>(FACTORIES_PACKAGE, FACTORIES_REPOSITORY_NAME) {
@@ -37,11 +38,16 @@ public final class Factories {
                 @Override
                 public FactoryBuilder findClass(Class clazz) {
 
+                    // Factories generated in another compilation unit are missing from this repository
                     try {
-                        Class factoryClass = Class.forName(Namer.name(clazz.getName()).append(IMPL_EXT).build());
-                        return new FactoryBuilderReflectionProxy(factoryClass);
+                        Class builderClass = Class.forName(Namer.name(clazz.getName()).append(IMPL_EXT).build() + "$" + BUILDER_NAME);
+                        return (FactoryBuilder) builderClass.newInstance();
                     } catch (ClassNotFoundException e) {
                         return null;
+                    } catch (InstantiationException e) {
+                        throw new TransfuseRuntimeException("Unable to instantiate generated FactoryBuilder", e);
+                    } catch (IllegalAccessException e) {
+                        throw new TransfuseRuntimeException("Unable to access generated FactoryBuilder", e);
                     }
 
                 }
@@ -73,6 +79,8 @@ public final class Factories {
 
     public interface FactoryBuilder<T> {
 
+        String GET_METHOD = "get";
+
         T get();
 
         T get(Scopes scopes);
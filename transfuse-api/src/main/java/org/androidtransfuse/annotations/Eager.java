@@ -0,0 +1,54 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Within a `@TransfuseModule` configuration, marks scoped bindings to be constructed on a background thread as soon
+ * as the `@Application` is created, rather than on first injection.
+ *
+ * On a scoped `@Provides` method, the provided binding is warmed:
+ * [source,java]
+ * --
+ * @TransfuseModule
+ * public class ModuleExample{
+ *     @Provides
+ *     @Singleton
+ *     @Eager
+ *     public Catalog buildCatalog(CatalogParser parser){
+ *        return parser.parse();
+ *     }
+ * }
+ * --
+ *
+ * On the module itself, the listed scoped types are warmed, or every scoped `@Provides` method of the module if
+ * no types are listed.
+ *
+ * Warmed instances are built in dependency order, in parallel where the dependency graph allows.  An injection
+ * requesting an instance still under construction waits for that instance only.
+ *
+ * @author John Ericksen
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Eager {
+
+    Class<?>[] value() default {};
+}
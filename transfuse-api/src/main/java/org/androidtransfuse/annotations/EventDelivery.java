@@ -0,0 +1,43 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.annotations;
+
+/**
+ * Constants representing the thread an `@Observes` method is called on when its event is triggered.
+ *
+ * @see Observes
+ *
+ * @author John Ericksen
+ */
+public enum EventDelivery {
+
+    /**
+     * Called directly on the thread that triggered the event.
+     */
+    SYNCHRONOUS,
+    /**
+     * Called on a background thread, leaving the triggering thread free to continue.
+     */
+    BACKGROUND,
+    /**
+     * Posted to the UI thread `Handler`.
+     */
+    UI_THREAD,
+    /**
+     * Posted to the UI thread `Handler`, collapsing a burst of events into a single call with the latest event.
+     */
+    COALESCED
+}
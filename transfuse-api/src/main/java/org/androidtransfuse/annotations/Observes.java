@@ -50,6 +50,13 @@ import java.lang.annotation.Target;
  * public void listen(@Observes} Event event){...}
  * --
  *
+ * By default the observer is called on the thread that triggered the event.  The `delivery` property moves the call
+ * onto a background thread or the UI thread, or collapses bursts of events into a single UI thread call:
+ * [source,java]
+ * --
+ * public void listen(@Observes(delivery = EventDelivery.COALESCED) SensorEvent event){...}
+ * --
+ *
  * Transfuse automatically performs this registration housekeeping with a default, global singleton version of the
  * `EventManager` if the annotated method appears on an instance  injected by Transfuse.
  *
@@ -59,4 +66,6 @@ import java.lang.annotation.Target;
  */
 @Target({ElementType.METHOD, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
-public @interface Observes {}
+public @interface Observes {
+    EventDelivery delivery() default EventDelivery.SYNCHRONOUS;
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.annotations;
+
+import javax.inject.Scope;
+import java.lang.annotation.*;
+
+/**
+ * Scopes the annotated type to an `@Activity`, retaining its instance across configuration changes such as screen
+ * rotation.  Instances are handed from the destroyed Activity to its replacement through
+ * `Activity.onRetainNonConfigurationInstance()`, so presenters, loaders and in-flight request state are not rebuilt,
+ * and are released once the Activity finishes.
+ *
+ * Retained instances outlive the Activity that created them, so they must not hold references to it or to its
+ * Views.  Outside of an `@Activity` this annotation has no effect.
+ *
+ * @author John Ericksen
+ */
+@Scope
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Retained {}
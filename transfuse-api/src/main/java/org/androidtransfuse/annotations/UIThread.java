@@ -23,6 +23,9 @@ import java.lang.annotation.Target;
 /**
  * AOP method interceptor annotation which executes the annotated method within a `Handler.post()` call.
  *
+ * Methods returning a `Future` may be waited on from the UI thread itself; `get()` then runs the method inline instead
+ * of waiting on the posted call.
+ *
  * @see org.androidtransfuse.aop.UIThreadMethodInterceptor
  *
  * @author John Ericksen
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.aop;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completed `Future` used to return a value from the body of an `@Asynchronous` or `@UIThread` method declaring a
+ * `Future` return type:
+ *
+ * [source,java]
+ * --
+ * @Asynchronous
+ * public Future<User> loadUser(long id){
+ *     return new AsyncResult<User>(database.load(id));
+ * }
+ * --
+ *
+ * The caller receives an `InvocationFuture` which completes with this value once the method has run.
+ *
+ * @author John Ericksen
+ */
+public class AsyncResult<T> implements Future<T> {
+
+    private final T value;
+
+    public AsyncResult(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return true;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        return value;
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException {
+        return value;
+    }
+}
@@ -18,17 +18,75 @@ package org.androidtransfuse.aop;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.Executor;
+
 /**
- * Method interceptor which moves the given invocation onto a new Thread.
+ * Method interceptor which moves the given invocation onto a background thread.  Invocations are run on the
+ * `Executor` bound with the `@Named(AsynchronousMethodInterceptor.EXECUTOR)` qualifier, which defaults to a bounded
+ * `BoundedExecutor` pool.  A module may replace it by providing its own binding:
+ *
+ * [source,java]
+ * --
+ * @Provides @Singleton @Named(AsynchronousMethodInterceptor.EXECUTOR)
+ * public Executor getExecutor(){...}
+ * --
+ *
+ * The default pool names its threads `Asynchronous-N`.  While an invocation runs, the thread name also carries the
+ * intercepted class and method, e.g. `Asynchronous-1 ImageLoader.load`, to attribute work per component.
+ *
+ * Methods declaring a `Future` return type receive an `InvocationFuture`, completed with the value of the `Future`
+ * returned by the method body (see `AsyncResult`).  Other methods return `null` immediately.
+ *
+ * @see org.androidtransfuse.util.BoundedExecutor
  *
  * @author John Ericksen
  */
 public class AsynchronousMethodInterceptor implements MethodInterceptor {
 
+    public static final String EXECUTOR = "asynchronousExecutor";
+
+    private final Executor executor;
+
+    @Inject
+    public AsynchronousMethodInterceptor(@Named(EXECUTOR) Executor executor) {
+        this.executor = executor;
+    }
+
     @Override
     public Object invoke(MethodInvocation invocation) {
-        new Thread(new MethodInvocationRunnable(invocation)).start();
+        if(InvocationFuture.isFutureReturnType(invocation.getMethod().getReturnType())){
+            InvocationFuture future = new InvocationFuture(invocation);
+            executor.execute(new NamedThreadRunnable(invocation, future));
+            return future;
+        }
+        executor.execute(new NamedThreadRunnable(invocation, new MethodInvocationRunnable(invocation)));
         //asynchronous, so cannot return
         return null;
     }
+
+    private static final class NamedThreadRunnable implements Runnable {
+
+        private final MethodInvocation invocation;
+        private final Runnable delegate;
+
+        private NamedThreadRunnable(MethodInvocation invocation, Runnable delegate) {
+            this.invocation = invocation;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName();
+            thread.setName(threadName + " " + invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName());
+            try {
+                delegate.run();
+            }
+            finally {
+                thread.setName(threadName);
+            }
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * `Future` returned to the caller of an intercepted method which declares a `Future` return type.  When run, this
+ * proceeds with the invocation and completes with the value of the `Future` returned by the method body.  Exceptions
+ * thrown by the method, or by its returned `Future`, including Errors, are rethrown from `get()` as the direct cause of
+ * an `ExecutionException`.
+ *
+ * Listeners registered through `addListener()` are run on the given `Executor` once the future completes, so work may
+ * be chained without blocking a thread on `get()`.
+ *
+ * A future may be bound to the thread it is scheduled to run on, such as the UI thread for `@UIThread` methods.
+ * Calling `get()` from that thread would otherwise wait for a task queued behind the caller and never return, so the
+ * invocation is run inline instead, ahead of any work queued before it.  The scheduled run is then a no-op.  Calling
+ * `get()` from within the invocation itself throws an `IllegalStateException`.
+ *
+ * @author John Ericksen
+ */
+public class InvocationFuture<T> extends FutureTask<T> {
+
+    private final List<Listener> listeners = new ArrayList<Listener>();
+    private boolean completed = false;
+    private final Thread executingThread;
+
+    public InvocationFuture(MethodInvocation invocation) {
+        this(invocation, null);
+    }
+
+    /**
+     * @param invocation to proceed with
+     * @param executingThread thread this future is scheduled to run on, or null if it may run on any thread
+     */
+    public InvocationFuture(MethodInvocation invocation, Thread executingThread) {
+        super(new InvocationCallable<T>(invocation));
+        this.executingThread = executingThread;
+    }
+
+    /**
+     * Determines if an invocation of the given method may be completed through an `InvocationFuture`.
+     *
+     * @param returnType declared return type of the intercepted method
+     * @return true if the method returns a `Future` type which `InvocationFuture` can be assigned to
+     */
+    public static boolean isFutureReturnType(Class<?> returnType) {
+        return Future.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(InvocationFuture.class);
+    }
+
+    /**
+     * Runs the given listener on the given executor once this future completes, or immediately if it already has.
+     *
+     * @param listener to run
+     * @param executor to run the listener on
+     */
+    public void addListener(Runnable listener, Executor executor) {
+        boolean runNow;
+        synchronized (listeners){
+            runNow = completed;
+            if(!runNow){
+                listeners.add(new Listener(listener, executor));
+            }
+        }
+        if(runNow){
+            executor.execute(listener);
+        }
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        runIfExecutingThread();
+        return super.get();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        runIfExecutingThread();
+        return super.get(timeout, unit);
+    }
+
+    private void runIfExecutingThread() {
+        if(executingThread == Thread.currentThread()){
+            // a no-op if already run
+            run();
+            if(!isDone()){
+                throw new IllegalStateException("Future.get() called from within its own invocation, which would never complete");
+            }
+        }
+    }
+
+    @Override
+    protected void done() {
+        List<Listener> toRun;
+        synchronized (listeners){
+            completed = true;
+            toRun = new ArrayList<Listener>(listeners);
+            listeners.clear();
+        }
+        for (Listener listener : toRun) {
+            listener.executor.execute(listener.runnable);
+        }
+    }
+
+    private static final class Listener {
+        private final Runnable runnable;
+        private final Executor executor;
+
+        private Listener(Runnable runnable, Executor executor) {
+            this.runnable = runnable;
+            this.executor = executor;
+        }
+    }
+
+    private static final class InvocationCallable<T> implements Callable<T> {
+        private final MethodInvocation invocation;
+
+        private InvocationCallable(MethodInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public T call() throws Exception {
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable e) {
+                throw unwrapped(e);
+            }
+            if(result == null){
+                return null;
+            }
+            try {
+                return ((Future<T>) result).get();
+            } catch (ExecutionException e) {
+                if(e.getCause() == null){
+                    throw e;
+                }
+                throw unwrapped(e.getCause());
+            }
+        }
+
+        /**
+         * FutureTask wraps whatever `call()` throws in an `ExecutionException`, so the original cause is thrown as is
+         * to avoid wrapping it twice.  Errors are rethrown directly.
+         */
+        private static Exception unwrapped(Throwable cause) {
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            if(cause instanceof Exception){
+                return (Exception) cause;
+            }
+            return new UndeclaredThrowableException(cause);
+        }
+    }
+}
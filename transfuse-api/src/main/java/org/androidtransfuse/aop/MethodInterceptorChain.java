@@ -26,13 +26,21 @@ import java.lang.reflect.Method;
 /**
  * Defines a chain of interceptors to wrap the given method.
  *
+ * A chain is built once per proxied method and reused for every call.  The `MethodExecution` is stateless, receiving
+ * the call arguments on `invoke()`.  Generated proxies resolve the reflective `Method` once per proxy class, through
+ * `resolveMethod()`, into a static field returned by `MethodExecution.getMethod()`; the chain additionally caches the
+ * result so hand-written executions only look it up once per chain.
+ *
  * @author John Ericksen
  */
 public class MethodInterceptorChain {
 
+    public static final String RESOLVE_METHOD = "resolveMethod";
+
     private final MethodInterceptor[] methodInterceptors;
     private final MethodExecution methodExecution;
     private final Object proxy;
+    private volatile Method method;
 
     public MethodInterceptorChain(MethodExecution methodExecution, Object proxy, MethodInterceptor... methodInterceptorChains) {
         this.methodExecution = methodExecution;
@@ -48,6 +56,9 @@ public class MethodInterceptorChain {
      */
     public Object invoke(Object[] arguments) {
         try {
+            if (methodInterceptors.length == 1) {
+                return methodInterceptors[0].invoke(new SingleInterceptorInvocation(arguments));
+            }
             return new MethodInterceptorIterator(arguments).proceed();
         } catch (Throwable e) {
             throw new TransfuseInjectionException("Error while invoking Method Interceptor", e);
@@ -55,40 +66,54 @@ public class MethodInterceptorChain {
     }
 
     /**
-     * Class which encapsulates the iteration of the MethodInterceptors and final call to the MethodExecution instance.
+     * Looks up the given declared `Method`, used by generated proxies to initialize their static `Method` fields.
+     *
+     * @param type declaring the method
+     * @param name of the method
+     * @param parameterTypes of the method
+     * @return declared Method
      */
-    private final class MethodInterceptorIterator implements MethodInvocation {
-
-        private int i = -1;
-        private final Object[] arguments;
-
-        private MethodInterceptorIterator(Object[] arguments) {
-            this.arguments = arguments;
+    public static Method resolveMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new TransfuseInjectionException("Unable to find proxied method " + name + " on " + type.getName(), e);
         }
+    }
 
-        @Override
-        public Method getMethod() {
+    private Method getMethod() {
+        Method result = method;
+        if (result == null) {
             try {
-                return methodExecution.getMethod();
+                result = methodExecution.getMethod();
             } catch (Exception e) {
                 throw new TransfuseInjectionException("Error while calling getMethod", e);
             }
+            method = result;
+        }
+        return result;
+    }
+
+    /**
+     * Base invocation handed to the MethodInterceptors.  Instances are created per call as interceptors, such as the
+     * `AsynchronousMethodInterceptor`, may hold on to the invocation after the call returns.
+     */
+    private abstract class ChainInvocation implements MethodInvocation {
+
+        protected final Object[] arguments;
+
+        protected ChainInvocation(Object[] arguments) {
+            this.arguments = arguments;
         }
 
         @Override
-        public Object[] getArguments() {
-            return arguments;
+        public Method getMethod() {
+            return MethodInterceptorChain.this.getMethod();
         }
 
         @Override
-        public Object proceed() throws Throwable {
-            //recursively iterate through the method interceptors
-            i++;
-            if (i == methodInterceptors.length) {
-                return methodExecution.invoke();
-            } else {
-                return methodInterceptors[i].invoke(this);
-            }
+        public Object[] getArguments() {
+            return arguments;
         }
 
         @Override
@@ -102,6 +127,44 @@ public class MethodInterceptorChain {
         }
     }
 
+    /**
+     * Invocation used by the common case of a single MethodInterceptor, proceeding directly to the MethodExecution.
+     */
+    private final class SingleInterceptorInvocation extends ChainInvocation {
+
+        private SingleInterceptorInvocation(Object[] arguments) {
+            super(arguments);
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return methodExecution.invoke(arguments);
+        }
+    }
+
+    /**
+     * Class which encapsulates the iteration of the MethodInterceptors and final call to the MethodExecution instance.
+     */
+    private final class MethodInterceptorIterator extends ChainInvocation {
+
+        private int i = -1;
+
+        private MethodInterceptorIterator(Object[] arguments) {
+            super(arguments);
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            //recursively iterate through the method interceptors
+            i++;
+            if (i == methodInterceptors.length) {
+                return methodExecution.invoke(arguments);
+            } else {
+                return methodInterceptors[i].invoke(this);
+            }
+        }
+    }
+
     /**
      * Interface defining the `Method} to be invoked.
      */
@@ -119,9 +182,10 @@ public class MethodInterceptorChain {
 
         /**
          * Invokes the represented `Method}.
+         * @param arguments provided to the wrapped method
          * @return value returned by the method
          * @throws Throwable if an error occurs
          */
-        Object invoke() throws Throwable;
+        Object invoke(Object[] arguments) throws Throwable;
     }
-} 
\ No newline at end of file
+}
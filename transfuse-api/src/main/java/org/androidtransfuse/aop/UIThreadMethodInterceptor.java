@@ -22,7 +22,13 @@ import org.aopalliance.intercept.MethodInvocation;
 import javax.inject.Inject;
 
 /**
- * Method Interceptor that executes the given MethodInvocation
+ * Method Interceptor that executes the given MethodInvocation on the UI thread by posting it to the main `Handler`.
+ *
+ * Methods declaring a `Future` return type receive an `InvocationFuture`, completed with the value of the `Future`
+ * returned by the method body (see `AsyncResult`).  Other methods return `null` immediately.
+ *
+ * Blocking on the returned future from the UI thread does not deadlock: `get()` called on the UI thread runs the
+ * invocation inline, ahead of anything already posted to the `Handler` (see `InvocationFuture`).
  *
  * @author John Ericksen
  */
@@ -38,6 +44,12 @@ public class UIThreadMethodInterceptor implements MethodInterceptor {
     @Override
     public Object invoke(MethodInvocation invocation) {
 
+        if(InvocationFuture.isFutureReturnType(invocation.getMethod().getReturnType())){
+            InvocationFuture future = new InvocationFuture(invocation, handler.getLooper().getThread());
+            handler.post(future);
+            return future;
+        }
+
         handler.post(new MethodInvocationRunnable(invocation));
 
         //asynchronous, so cannot return
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * EventObserver which collapses a burst of events into a single call of the delegate observer.  Only the latest
+ * event triggered before the delegate is called on the given `Executor` is delivered; earlier pending events are
+ * dropped.  At most one delivery is scheduled on the executor at a time, and triggering does not allocate.
+ *
+ * @author John Ericksen
+ */
+public class CoalescingEventObserver<T> implements DeferredEventObserver<T>, Runnable {
+
+    private final EventObserver<T> delegate;
+    private final Executor executor;
+    private final AtomicReference<T> pending = new AtomicReference<T>();
+    private volatile boolean active = true;
+
+    public CoalescingEventObserver(EventObserver<T> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void trigger(T event) {
+        if(pending.getAndSet(event) == null){
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        T event = pending.getAndSet(null);
+        if(event != null && active){
+            delegate.trigger(event);
+        }
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+/**
+ * EventObserver which delivers events to its delegate later, on another thread.  Events still pending when the
+ * observer is deactivated are dropped, so an observer unregistered from the EventManager is not called afterwards.
+ *
+ * @author John Ericksen
+ */
+public interface DeferredEventObserver<T> extends EventObserver<T> {
+
+    String SET_ACTIVE = "setActive";
+
+    /**
+     * Enables or disables delivery of pending and future events.  Observers are active when constructed.
+     *
+     * @param active deliver events
+     */
+    void setActive(boolean active);
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+import android.os.Handler;
+import org.androidtransfuse.util.BoundedExecutor;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Source of the `Executor`s used to deliver events to `@Observes` methods which opt out of synchronous delivery.
+ *
+ * @see org.androidtransfuse.annotations.EventDelivery
+ *
+ * @author John Ericksen
+ */
+@Singleton
+public class EventExecutors {
+
+    public static final String GET_BACKGROUND_EXECUTOR = "getBackgroundExecutor";
+    public static final String GET_UI_THREAD_EXECUTOR = "getUIThreadExecutor";
+
+    private final Executor uiThreadExecutor;
+    private volatile ExecutorService backgroundExecutor;
+
+    @Inject
+    public EventExecutors(Handler handler) {
+        this.uiThreadExecutor = new HandlerExecutor(handler);
+    }
+
+    public Executor getBackgroundExecutor() {
+        ExecutorService result = backgroundExecutor;
+        if(result == null){
+            synchronized (this){
+                result = backgroundExecutor;
+                if(result == null){
+                    result = new BoundedExecutor("EventManager");
+                    backgroundExecutor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public Executor getUIThreadExecutor() {
+        return uiThreadExecutor;
+    }
+}
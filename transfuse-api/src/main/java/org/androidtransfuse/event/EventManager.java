@@ -18,15 +18,18 @@ package org.androidtransfuse.event;
 import org.androidtransfuse.util.TransfuseRuntimeException;
 
 import javax.inject.Singleton;
-import java.util.HashSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Centralized Bus for registering, unregistering and triggering events.  An event may be any object and the EventManager
@@ -64,32 +67,176 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * eventManager.register(Coffee.class, drinkCoffeeEventObserver);
  * --
  *
+ * Triggering does not lock or allocate per observer.  The resolved type hierarchy of each event class is cached and
+ * every event type maps to an immutable array of registered observers, which is replaced (copy-on-write) on each
+ * registration change.  Events triggered from within an observer are queued and delivered after the current
+ * observer returns, on the same thread.  Once `unregister()` returns, the given observer will not be called again and
+ * any calls in progress on other threads have completed.
+ *
+ * Observers registered through `registerWeak()` are only weakly referenced by the EventManager.  Once such an observer
+ * is garbage collected its registrations are purged automatically, so a component that is never unregistered is not
+ * kept alive by the EventManager.
  *
  * @author John Ericksen
  */
 @Singleton
 public class EventManager {
 
-    private final ReadWriteLock observersLock = new ReentrantReadWriteLock();
-    private final ConcurrentMap<Class, Set<EventObserver>> observers = new ConcurrentHashMap<Class, java.util.Set<EventObserver>>();
-    private final ThreadLocal<ConcurrentLinkedQueue<EventExecution>> executionQueue = new ExecutionQueueThreadLocal();
-    private final ThreadLocal<Boolean> executing = new BooleanThreadLocal();
+    private static final ObserverRegistration[] EMPTY = new ObserverRegistration[0];
+
+    private final Object registrationLock = new Object();
+    private final ConcurrentMap<Class, ObserverRegistration[]> observers = new ConcurrentHashMap<Class, ObserverRegistration[]>();
+    private final Map<ObserverKey, List<ObserverRegistration>> observerRegistrations = new HashMap<ObserverKey, List<ObserverRegistration>>();
+    private final ReferenceQueue<EventObserver> collectedObservers = new ReferenceQueue<EventObserver>();
+    private final ConcurrentMap<Class, Class[]> eventTypeHierarchy = new ConcurrentHashMap<Class, Class[]>();
+    private final ThreadLocal<TriggerState> triggerState = new TriggerStateThreadLocal();
+
+    /**
+     * Identifies an observer by equality without holding it strongly.  The hash is captured up front so a key whose
+     * observer has been collected can still be found (by identity) and purged.
+     */
+    private static final class ObserverKey extends WeakReference<EventObserver> {
+        private final int hash;
+
+        private ObserverKey(EventObserver observer, ReferenceQueue<EventObserver> queue) {
+            super(observer, queue);
+            this.hash = observer.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ObserverKey)) {
+                return false;
+            }
+            EventObserver observer = get();
+            return observer != null && observer.equals(((ObserverKey) o).get());
+        }
+    }
+
+    private static final class ObserverRegistration {
+        private final Class eventType;
+        private final ObserverKey key;
+        private final EventObserver strongObserver;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean registered = true;
+
+        private ObserverRegistration(Class eventType, ObserverKey key, EventObserver strongObserver) {
+            this.eventType = eventType;
+            this.key = key;
+            this.strongObserver = strongObserver;
+        }
+
+        public EventObserver getObserver() {
+            if(strongObserver != null){
+                return strongObserver;
+            }
+            return key.get();
+        }
+
+        public void trigger(Object event, TriggerState state) {
+            if(registered){
+                inFlight.incrementAndGet();
+                state.current = this;
+                try{
+                    EventObserver observer = getObserver();
+                    if(registered && observer != null){
+                        observer.trigger(event);
+                    }
+                }
+                catch (Exception e){
+                    throw new TransfuseRuntimeException("Exception caught during event trigger", e);
+                }
+                finally {
+                    state.current = null;
+                    if(inFlight.decrementAndGet() <= 1 && !registered){
+                        synchronized (this){
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Stops future calls to this observer and waits for calls in progress on other threads to complete.
+         *
+         * @param state trigger state of the calling thread
+         */
+        public void deactivate(TriggerState state) {
+            registered = false;
+            int self = state.current == this ? 1 : 0;
+            if(inFlight.get() > self){
+                synchronized (this){
+                    try{
+                        while(inFlight.get() > self){
+                            wait();
+                        }
+                    }
+                    catch (InterruptedException e){
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
 
-    private static final class EventExecution<T>{
-        private final T event;
-        private final EventObserver<T> observer;
+    /**
+     * Per-thread queue of pending events.  Each entry pairs an event with the observer snapshot of one of its types,
+     * so queuing an event does not allocate a wrapper per observer.
+     */
+    private static final class TriggerState {
+        private Object[] events = new Object[8];
+        private ObserverRegistration[][] targets = new ObserverRegistration[8][];
+        private int head = 0;
+        private int size = 0;
+        private int position = 0;
+        private boolean executing = false;
+        private ObserverRegistration current = null;
 
-        private EventExecution(T event, EventObserver<T> observer) {
-            this.event = event;
-            this.observer = observer;
+        public void add(Object event, ObserverRegistration[] registrations) {
+            if(size == events.length){
+                grow();
+            }
+            int tail = (head + size) & (events.length - 1);
+            events[tail] = event;
+            targets[tail] = registrations;
+            size++;
         }
 
-        public void trigger() {
-            try{
-                observer.trigger(event);
+        private void grow() {
+            int length = events.length;
+            Object[] newEvents = new Object[length << 1];
+            ObserverRegistration[][] newTargets = new ObserverRegistration[length << 1][];
+            for(int i = 0; i < size; i++){
+                newEvents[i] = events[(head + i) & (length - 1)];
+                newTargets[i] = targets[(head + i) & (length - 1)];
             }
-            catch (Exception e){
-                throw new TransfuseRuntimeException("Exception caught during event trigger", e);
+            events = newEvents;
+            targets = newTargets;
+            head = 0;
+        }
+
+        public void drain() {
+            while(size > 0){
+                Object event = events[head];
+                ObserverRegistration[] registrations = targets[head];
+                while(position < registrations.length){
+                    // advance before triggering so an exception does not redeliver to the same observer
+                    registrations[position++].trigger(event, this);
+                }
+                events[head] = null;
+                targets[head] = null;
+                head = (head + 1) & (events.length - 1);
+                size--;
+                position = 0;
             }
         }
     }
@@ -102,33 +249,110 @@ public class EventManager {
      * @param <T> relating type
      */
     public <T> void register(Class<T> event, EventObserver<T> observer){
+        register(event, observer, false);
+    }
+
+    /**
+     * Register the given observer to be triggered if the given event type is triggered, without holding a strong
+     * reference to the observer.  The registration is removed automatically once the observer is garbage collected,
+     * so the caller must keep the observer reachable for as long as it should receive events.
+     *
+     * @param event type
+     * @param observer event observer
+     * @param <T> relating type
+     */
+    public <T> void registerWeak(Class<T> event, EventObserver<T> observer){
+        register(event, observer, true);
+    }
+
+    private void register(Class<?> event, EventObserver<?> observer, boolean weak){
         if(event == null){
             throw new IllegalArgumentException("Null Event type passed to register");
         }
         if(observer == null){
             throw new IllegalArgumentException("Null observer passed to register");
         }
-        observersLock.writeLock().lock();
-        try{
-            nullSafeGet(event).add(observer);
-        }
-        finally {
-            observersLock.writeLock().unlock();
+        purgeCollectedObservers();
+        synchronized (registrationLock){
+            ObserverKey lookupKey = new ObserverKey(observer, null);
+            List<ObserverRegistration> registrations = observerRegistrations.get(lookupKey);
+            ObserverKey key;
+            if(registrations == null){
+                key = new ObserverKey(observer, collectedObservers);
+                registrations = new ArrayList<ObserverRegistration>();
+                observerRegistrations.put(key, registrations);
+            }
+            else{
+                for (ObserverRegistration registration : registrations) {
+                    if(registration.eventType.equals(event)){
+                        return;
+                    }
+                }
+                key = registrations.get(0).key;
+            }
+            ObserverRegistration registration = new ObserverRegistration(event, key, weak ? null : observer);
+            registrations.add(registration);
+
+            ObserverRegistration[] current = nullSafeGet(event);
+            ObserverRegistration[] updated = new ObserverRegistration[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = registration;
+            observers.put(event, updated);
         }
     }
 
-    private Set<EventObserver> nullSafeGet(Class<?> clazz) {
-        Set<EventObserver> result = observers.get(clazz);
+    private ObserverRegistration[] nullSafeGet(Class<?> clazz) {
+        ObserverRegistration[] result = observers.get(clazz);
         if (result == null) {
-            Set<EventObserver> value = new CopyOnWriteArraySet<EventObserver>();
-            result = observers.putIfAbsent(clazz, value);
-            if (result == null) {
-                result = value;
-            }
+            return EMPTY;
         }
         return result;
     }
 
+    private void removeRegistration(ObserverRegistration registration) {
+        ObserverRegistration[] current = nullSafeGet(registration.eventType);
+        for(int i = 0; i < current.length; i++){
+            if(current[i] == registration){
+                if(current.length == 1){
+                    observers.remove(registration.eventType);
+                }
+                else{
+                    ObserverRegistration[] updated = new ObserverRegistration[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    observers.put(registration.eventType, updated);
+                }
+                return;
+            }
+        }
+    }
+
+    private void purgeCollectedObservers() {
+        Reference<? extends EventObserver> collected = collectedObservers.poll();
+        while(collected != null){
+            synchronized (registrationLock){
+                List<ObserverRegistration> registrations = observerRegistrations.remove(collected);
+                if(registrations != null){
+                    for (ObserverRegistration registration : registrations) {
+                        registration.registered = false;
+                        removeRegistration(registration);
+                    }
+                }
+            }
+            collected = collectedObservers.poll();
+        }
+    }
+
+    /**
+     * @return the number of observers currently registered, strongly or weakly
+     */
+    protected int getObserverCount() {
+        purgeCollectedObservers();
+        synchronized (registrationLock){
+            return observerRegistrations.size();
+        }
+    }
+
     /**
      * Triggers an event through the EventManager.  This will call the registered EventObservers with the provided
      * event.
@@ -137,51 +361,42 @@ public class EventManager {
      */
     public void trigger(Object event){
 
-        Set<Class> eventTypes = getAllInheritedClasses(event.getClass());
+        purgeCollectedObservers();
 
-        observersLock.readLock().lock();
-        try{
-            for (Class eventType : eventTypes) {
-                if(observers.containsKey(eventType)){
-                    for (EventObserver eventObserver : observers.get(eventType)) {
-                        executionQueue.get().add(new EventExecution(event, eventObserver));
-                    }
-                }
-            }
+        TriggerState state = triggerState.get();
 
-            triggerQueue();
-        }
-        finally{
-            observersLock.readLock().unlock();
+        for (Class eventType : getAllInheritedClasses(event.getClass())) {
+            ObserverRegistration[] registrations = observers.get(eventType);
+            if(registrations != null && registrations.length > 0){
+                state.add(event, registrations);
+            }
         }
-    }
-
-    private void triggerQueue(){
 
         //avoid reentrant events
-        if(executing.get()){
+        if(state.executing){
             return;
         }
 
-        executing.set(true);
+        state.executing = true;
 
         try{
-            EventExecution execution = executionQueue.get().poll();
-            while(execution != null){
-                execution.trigger();
-                execution = executionQueue.get().poll();
-            }
+            state.drain();
         }
         finally{
-            executing.set(false);
+            state.executing = false;
         }
     }
 
-    private Set<Class> getAllInheritedClasses(Class type){
-        Set<Class> inheritedClasses = new HashSet<Class>();
+    private Class[] getAllInheritedClasses(Class type){
+        Class[] inheritedClasses = eventTypeHierarchy.get(type);
+        if(inheritedClasses == null){
+            Set<Class> inheritedClassSet = new LinkedHashSet<Class>();
 
-        addAllInheritedClasses(inheritedClasses, type);
+            addAllInheritedClasses(inheritedClassSet, type);
 
+            inheritedClasses = inheritedClassSet.toArray(new Class[inheritedClassSet.size()]);
+            eventTypeHierarchy.putIfAbsent(type, inheritedClasses);
+        }
         return inheritedClasses;
     }
 
@@ -203,29 +418,31 @@ public class EventManager {
      * @param observer Event Observer
      */
     public void unregister(EventObserver<?> observer){
-        observersLock.writeLock().lock();
-        try{
-            for (Map.Entry<Class, Set<EventObserver>> entry : observers.entrySet()) {
-                entry.getValue().remove(observer);
-            }
+        if(observer == null){
+            return;
         }
-        finally{
-            observersLock.writeLock().unlock();
+        purgeCollectedObservers();
+        List<ObserverRegistration> removed;
+        synchronized (registrationLock){
+            removed = observerRegistrations.remove(new ObserverKey(observer, null));
+            if(removed == null){
+                return;
+            }
+            for (ObserverRegistration registration : removed) {
+                removeRegistration(registration);
+            }
         }
 
-    }
-
-    private static class BooleanThreadLocal extends ThreadLocal<Boolean>{
-        @Override
-        protected Boolean initialValue() {
-            return false;
+        TriggerState state = triggerState.get();
+        for (ObserverRegistration registration : removed) {
+            registration.deactivate(state);
         }
     }
 
-    private static class ExecutionQueueThreadLocal extends ThreadLocal<ConcurrentLinkedQueue<EventExecution>> {
+    private static class TriggerStateThreadLocal extends ThreadLocal<TriggerState> {
         @Override
-        protected ConcurrentLinkedQueue<EventExecution> initialValue() {
-            return new ConcurrentLinkedQueue<EventExecution>();
+        protected TriggerState initialValue() {
+            return new TriggerState();
         }
     }
 }
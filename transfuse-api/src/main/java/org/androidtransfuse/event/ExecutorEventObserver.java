@@ -0,0 +1,61 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+import java.util.concurrent.Executor;
+
+/**
+ * EventObserver which hands each event to the given `Executor` before calling the delegate observer.  Used to
+ * implement `EventDelivery.BACKGROUND` and `EventDelivery.UI_THREAD` observers.
+ *
+ * @author John Ericksen
+ */
+public class ExecutorEventObserver<T> implements DeferredEventObserver<T> {
+
+    private final EventObserver<T> delegate;
+    private final Executor executor;
+    private volatile boolean active = true;
+
+    public ExecutorEventObserver(EventObserver<T> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void trigger(T event) {
+        executor.execute(new EventRunnable(event));
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    private final class EventRunnable implements Runnable {
+        private final T event;
+
+        private EventRunnable(T event) {
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            if(active){
+                delegate.trigger(event);
+            }
+        }
+    }
+}
@@ -23,36 +23,14 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author John Ericksen
  */
-public class ApplicationScope implements Scope {
+public class ApplicationScope extends IndexedScope {
 
     public static final String SEED_METHOD = "seed";
 
-    private final ConcurrentMap<ScopeKey, Object> scopeMap = new ConcurrentHashMap<ScopeKey, Object>();
-
-    @Override
-    public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
-        Object result = scopeMap.get(key);
-        if (result == null) {
-            Object value = provider.get();
-            result = scopeMap.putIfAbsent(key, value);
-            if (result == null) {
-                result = value;
-            }
-        }
-
-        return (T) result;
-    }
-
-    public <T> void seed(ScopeKey<T> key, Object object){
-        scopeMap.put(key, object);
-    }
-
     @Target(ElementType.TYPE)
     @Retention(RetentionPolicy.RUNTIME)
     @javax.inject.Scope
@@ -20,23 +20,35 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
- * Encapsulates a scope map utilizing the double-check locking algorithm.
+ * Encapsulates a scope map utilizing the double-check locking algorithm.  Each instance is constructed at most once,
+ * concurrent requests for a key under construction wait for it to finish.
  *
  * @author John Ericksen
  */
 public class ConcurrentDoubleLockingScope implements Scope {
 
     private final ConcurrentMap<ScopeKey, Object> singletonMap = new ConcurrentHashMap<ScopeKey, Object>();
+    private final SingleConstruction singleConstruction = new SingleConstruction(new SingleConstruction.Store() {
+        @Override
+        public Object lookup(ScopeKey<?> key) {
+            return singletonMap.get(key);
+        }
+
+        @Override
+        public Object putIfAbsent(ScopeKey<?> key, Object value) {
+            Object result = singletonMap.putIfAbsent(key, value);
+            if (result == null) {
+                result = value;
+            }
+            return result;
+        }
+    });
 
     @Override
     public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
         Object result = singletonMap.get(key);
         if (result == null) {
-            Object value = provider.get();
-            result = singletonMap.putIfAbsent(key, value);
-            if (result == null) {
-                result = value;
-            }
+            result = singleConstruction.construct(key, provider);
         }
 
         return (T) result;
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.androidtransfuse.util.BoundedExecutor;
+
+import javax.inject.Provider;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Constructs `@Eager` scoped instances on background threads during `Application.onCreate()`.
+ *
+ * The generated Application passes one scoped provider per eager binding, dependencies first.  Providers are run
+ * in that order across a small daemon pool, so independent instances are built in parallel while a dependent
+ * instance started before its dependency finished waits on that dependency through its scope.  An injection on the
+ * main thread requesting an instance still under construction waits for that instance only; an instance not yet
+ * started is simply built on the main thread, and the background task then finds it in scope.
+ *
+ * A failed construction is counted and otherwise ignored: the next injection retries it on the requesting thread,
+ * where the failure surfaces as usual.
+ *
+ * The timings of the last warm-up are available through `getCurrent()` for startup tracing:
+ * [source,java]
+ * --
+ * EagerWarmUp warmUp = EagerWarmUp.getCurrent();
+ * if(warmUp != null && warmUp.await(5, TimeUnit.SECONDS)){
+ *     Log.i("Startup", warmUp.getBackgroundNanos() / 1000000 + "ms moved off the main thread");
+ * }
+ * --
+ *
+ * @author John Ericksen
+ */
+public final class EagerWarmUp {
+
+    public static final String START_METHOD = "start";
+    public static final String EXECUTOR_NAME = "TransfuseWarmUp";
+
+    private static volatile EagerWarmUp current = null;
+
+    private final int count;
+    private final long startNanos = System.nanoTime();
+    private final CountDownLatch finished;
+    private final AtomicLong backgroundNanos = new AtomicLong();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile long elapsedNanos = 0;
+
+    private EagerWarmUp(int count) {
+        this.count = count;
+        this.finished = new CountDownLatch(count);
+    }
+
+    /**
+     * Starts constructing the given scoped providers in the background.
+     *
+     * @param providers scoped providers, ordered dependencies first
+     * @return warm-up handle
+     */
+    public static EagerWarmUp start(Provider<?>... providers) {
+        EagerWarmUp warmUp = new EagerWarmUp(providers.length);
+        current = warmUp;
+
+        if (providers.length > 0) {
+            BoundedExecutor executor = new BoundedExecutor(EXECUTOR_NAME,
+                    Math.min(BoundedExecutor.DEFAULT_THREADS, providers.length),
+                    providers.length,
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            for (Provider<?> provider : providers) {
+                executor.execute(warmUp.new WarmUpTask(provider));
+            }
+            // threads exit once the queue drains
+            executor.shutdown();
+        }
+
+        return warmUp;
+    }
+
+    /**
+     * @return the most recently started warm-up, or null if none was started
+     */
+    public static EagerWarmUp getCurrent() {
+        return current;
+    }
+
+    /**
+     * Waits for every instance to be constructed.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if the warm-up finished within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * @return number of eager bindings
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return total construction time spent on background threads, summed across threads
+     */
+    public long getBackgroundNanos() {
+        return backgroundNanos.get();
+    }
+
+    /**
+     * @return wall clock time from start to the last construction finishing, 0 while still running
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    private void finish(long runNanos, boolean success) {
+        backgroundNanos.addAndGet(runNanos);
+        if (success) {
+            completed.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        if (completed.get() + failed.get() == count) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+        finished.countDown();
+    }
+
+    private final class WarmUpTask implements Runnable {
+
+        private final Provider<?> provider;
+
+        private WarmUpTask(Provider<?> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                provider.get();
+                success = true;
+            } catch (RuntimeException e) {
+                // retried by the next injection
+            } finally {
+                finish(System.nanoTime() - start, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import javax.inject.Provider;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scope holding instances that may be dropped and rebuilt later, such as image caches or parsed data sets.
+ *
+ * Instances are held strongly in a least recently used tier bounded by total weight.  Instances evicted from that tier
+ * are demoted to a soft reference tier, and are promoted back if requested before the garbage collector clears them.
+ * A memory trim demotes the configured fraction of the strong tier, least recently used first; `onLowMemory()` and
+ * `TRIM_MEMORY_COMPLETE` demote all of it.
+ *
+ * Register a subclass configuring the bounds through `@DefineScope`:
+ *
+ * [source,java]
+ * ----
+ * public class ImageCacheScope extends EvictableScope {
+ *     public ImageCacheScope() {
+ *         super(32, 0.5f);
+ *     }
+ * }
+ * ----
+ *
+ * @author John Ericksen
+ */
+public class EvictableScope implements TrimmableScope {
+
+    // ComponentCallbacks2.TRIM_MEMORY_COMPLETE, not available on every supported api level
+    public static final int TRIM_MEMORY_COMPLETE = 80;
+
+    private static final int DEFAULT_MAX_WEIGHT = 64;
+    private static final float DEFAULT_TRIM_FRACTION = 0.5f;
+
+    private final int maxWeight;
+    private final float trimFraction;
+    private final LinkedHashMap<ScopeKey<?>, Entry> strong = new LinkedHashMap<ScopeKey<?>, Entry>(16, 0.75f, true);
+    private final Map<ScopeKey<?>, SoftEntry> soft = new HashMap<ScopeKey<?>, SoftEntry>();
+    private final ReferenceQueue<Object> clearedQueue = new ReferenceQueue<Object>();
+    private final SingleConstruction singleConstruction = new SingleConstruction(new SingleConstruction.Store() {
+        @Override
+        public Object lookup(ScopeKey<?> key) {
+            synchronized (EvictableScope.this) {
+                return find(key);
+            }
+        }
+
+        @Override
+        public Object putIfAbsent(ScopeKey<?> key, Object value) {
+            return EvictableScope.this.putIfAbsent(key, value);
+        }
+    });
+    private int weight = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    private static final class Entry {
+        private final Object value;
+        private final int weight;
+
+        private Entry(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static final class SoftEntry extends SoftReference<Object> {
+        private final ScopeKey<?> key;
+
+        private SoftEntry(ScopeKey<?> key, Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    public EvictableScope() {
+        this(DEFAULT_MAX_WEIGHT, DEFAULT_TRIM_FRACTION);
+    }
+
+    /**
+     * @param maxWeight total weight held in the strong tier, see `weigh()`
+     * @param trimFraction fraction of the strong tier weight demoted on `onTrimMemory()`
+     */
+    protected EvictableScope(int maxWeight, float trimFraction) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("EvictableScope maxWeight must be positive");
+        }
+        if (trimFraction < 0 || trimFraction > 1) {
+            throw new IllegalArgumentException("EvictableScope trimFraction must be between 0 and 1");
+        }
+        this.maxWeight = maxWeight;
+        this.trimFraction = trimFraction;
+    }
+
+    /**
+     * Weight of the given instance against `maxWeight`.  Defaults to 1, bounding the strong tier by entry count.
+     *
+     * @param key scoping key
+     * @param value scoped instance
+     * @return positive weight
+     */
+    protected int weigh(ScopeKey<?> key, Object value) {
+        return 1;
+    }
+
+    @Override
+    public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
+        Object result;
+        synchronized (this) {
+            result = find(key);
+            if (result == null) {
+                missCount++;
+            } else {
+                hitCount++;
+            }
+        }
+        if (result == null) {
+            result = singleConstruction.construct(key, provider);
+        }
+
+        return (T) result;
+    }
+
+    @Override
+    public synchronized void trimMemory(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE) {
+            demote(weight);
+        } else {
+            demote((int) Math.ceil(weight * trimFraction));
+        }
+    }
+
+    @Override
+    public synchronized void lowMemory() {
+        demote(weight);
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of instances demoted from the strong tier
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return total weight of the strong tier
+     */
+    public synchronized int getWeight() {
+        return weight;
+    }
+
+    private Object find(ScopeKey<?> key) {
+        expungeCleared();
+        Entry entry = strong.get(key);
+        if (entry != null) {
+            return entry.value;
+        }
+        SoftEntry softEntry = soft.remove(key);
+        if (softEntry != null) {
+            Object value = softEntry.get();
+            if (value != null) {
+                // promote back into the strong tier
+                add(key, value);
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private synchronized Object putIfAbsent(ScopeKey<?> key, Object value) {
+        Object existing = find(key);
+        if (existing != null) {
+            return existing;
+        }
+        add(key, value);
+        return value;
+    }
+
+    private void add(ScopeKey<?> key, Object value) {
+        Entry entry = new Entry(value, weigh(key, value));
+        strong.put(key, entry);
+        weight += entry.weight;
+        demote(weight - maxWeight);
+    }
+
+    private void demote(int targetWeight) {
+        int demoted = 0;
+        Iterator<Map.Entry<ScopeKey<?>, Entry>> iterator = strong.entrySet().iterator();
+        while (demoted < targetWeight && iterator.hasNext()) {
+            Map.Entry<ScopeKey<?>, Entry> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight;
+            demoted += eldest.getValue().weight;
+            evictionCount++;
+            soft.put(eldest.getKey(), new SoftEntry(eldest.getKey(), eldest.getValue().value, clearedQueue));
+        }
+    }
+
+    private void expungeCleared() {
+        Reference<?> cleared;
+        while ((cleared = clearedQueue.poll()) != null) {
+            SoftEntry softEntry = (SoftEntry) cleared;
+            if (soft.get(softEntry.key) == softEntry) {
+                soft.remove(softEntry.key);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import javax.inject.Provider;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Scope storing instances in an array slot indexed by `ScopeKey.getId()`.  Looking up an existing instance is a single
+ * volatile array read.  Writes, including growing the array, happen under a lock.  Each instance is constructed at most
+ * once, concurrent requests for a key under construction wait for it to finish.
+ *
+ * @author John Ericksen
+ */
+public class IndexedScope implements Scope {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Object writeLock = new Object();
+    private volatile AtomicReferenceArray<Object> slots = new AtomicReferenceArray<Object>(INITIAL_CAPACITY);
+    private final SingleConstruction singleConstruction = new SingleConstruction(new SingleConstruction.Store() {
+        @Override
+        public Object lookup(ScopeKey<?> key) {
+            return IndexedScope.this.lookup(key);
+        }
+
+        @Override
+        public Object putIfAbsent(ScopeKey<?> key, Object value) {
+            return IndexedScope.this.putIfAbsent(key, value);
+        }
+    });
+
+    @Override
+    public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
+        Object result = lookup(key);
+        if (result == null) {
+            result = singleConstruction.construct(key, provider);
+        }
+
+        return (T) result;
+    }
+
+    public <T> void seed(ScopeKey<T> key, Object object){
+        synchronized (writeLock) {
+            ensureCapacity(key.getId()).set(key.getId(), object);
+        }
+    }
+
+    protected Object lookup(ScopeKey<?> key){
+        int id = key.getId();
+        AtomicReferenceArray<Object> current = slots;
+        if (id < current.length()) {
+            return current.get(id);
+        }
+        return null;
+    }
+
+    protected Object putIfAbsent(ScopeKey<?> key, Object value){
+        synchronized (writeLock) {
+            AtomicReferenceArray<Object> current = ensureCapacity(key.getId());
+            Object existing = current.get(key.getId());
+            if (existing != null) {
+                return existing;
+            }
+            current.set(key.getId(), value);
+            return value;
+        }
+    }
+
+    private AtomicReferenceArray<Object> ensureCapacity(int id){
+        AtomicReferenceArray<Object> current = slots;
+        if (id < current.length()) {
+            return current;
+        }
+        int length = current.length();
+        while (length <= id) {
+            length <<= 1;
+        }
+        AtomicReferenceArray<Object> grown = new AtomicReferenceArray<Object>(length);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        slots = grown;
+        return grown;
+    }
+}
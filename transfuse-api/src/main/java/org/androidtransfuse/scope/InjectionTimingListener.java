@@ -0,0 +1,48 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Receives the timings recorded by components generated with the `transfuseInjectionTiming` processor option.  Register
+ * an implementation through `InjectionTimings.setListener()`, typically from the Application so that every later
+ * component reports to it.  Callbacks are made on the thread running the component lifecycle and should return quickly.
+ *
+ * @author John Ericksen
+ */
+public interface InjectionTimingListener {
+
+    /**
+     * Called once the given component has been injected.
+     *
+     * @param component generated component
+     * @param nanos time spent injecting
+     * @param scopedConstructions number of instances constructed during the injection, by scope annotation
+     */
+    void onInjection(Class<?> component, long nanos, Map<Class<? extends Annotation>, Integer> scopedConstructions);
+
+    /**
+     * Called after each generation phase of a generated lifecycle method.
+     *
+     * @param component generated component
+     * @param method lifecycle method name
+     * @param phase generation phase, such as `INJECTION` or `EVENT`
+     * @param nanos time spent in the phase
+     */
+    void onPhase(Class<?> component, String method, String phase, long nanos);
+}
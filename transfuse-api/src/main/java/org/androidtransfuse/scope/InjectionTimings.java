@@ -0,0 +1,186 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runtime support for components generated with the `transfuseInjectionTiming` processor option.  Generated lifecycle
+ * methods read `System.nanoTime()` around each generation phase and report through `phase()`, and trace the scoped
+ * instances constructed while injecting through `trace()`.  Timings are dropped until a listener is registered.
+ * Components generated without the option contain none of these calls.
+ *
+ * @author John Ericksen
+ */
+public final class InjectionTimings {
+
+    public static final String PHASE_METHOD = "phase";
+    public static final String TRACE_METHOD = "trace";
+    public static final String GET_SCOPES_METHOD = "getScopes";
+    public static final String FINISH_METHOD = "finish";
+
+    private static volatile InjectionTimingListener listener = null;
+
+    private InjectionTimings() {
+        // private utility class constructor
+    }
+
+    /**
+     * Registers the listener receiving all later timings, replacing any previous one.
+     *
+     * @param timingListener listener, or null to drop timings
+     */
+    public static void setListener(InjectionTimingListener timingListener) {
+        listener = timingListener;
+    }
+
+    public static InjectionTimingListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Reports a completed generation phase.
+     *
+     * @param component generated component
+     * @param method lifecycle method name
+     * @param phase generation phase
+     * @param start `System.nanoTime()` read when the phase started
+     */
+    public static void phase(Class<?> component, String method, String phase, long start) {
+        long nanos = System.nanoTime() - start;
+        InjectionTimingListener current = listener;
+        if (current != null) {
+            current.onPhase(component, method, phase, nanos);
+        }
+    }
+
+    /**
+     * Starts tracing the injection of the given component.  Inject through the returned trace's `getScopes()`, then
+     * restore the scopes returned by `finish()`.
+     *
+     * @param component generated component
+     * @param scopes component scopes
+     * @return trace
+     */
+    public static Trace trace(Class<?> component, Scopes scopes) {
+        return new Trace(component, scopes);
+    }
+
+    /**
+     * Injection of a single component.
+     */
+    public static final class Trace {
+
+        private final Class<?> component;
+        private final Scopes original;
+        private final Scopes scopes;
+        private final ConcurrentMap<Class<? extends Annotation>, AtomicInteger> constructions = new ConcurrentHashMap<Class<? extends Annotation>, AtomicInteger>();
+        private final long start;
+        private volatile boolean finished = false;
+
+        private Trace(Class<?> component, Scopes scopes) {
+            this.component = component;
+            this.original = scopes;
+            this.scopes = scopes.trace(this);
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * @return scopes counting the instances they construct against this trace
+         */
+        public Scopes getScopes() {
+            return scopes;
+        }
+
+        /**
+         * Ends the trace and reports it.  Instances constructed afterwards, for instance by a `Provider` called later,
+         * are not counted.
+         *
+         * @return the traced scopes, without counting
+         */
+        public Scopes finish() {
+            long nanos = System.nanoTime() - start;
+            finished = true;
+            InjectionTimingListener current = listener;
+            if (current != null) {
+                current.onInjection(component, nanos, getConstructions());
+            }
+            return original;
+        }
+
+        /**
+         * @return number of instances constructed so far, by scope annotation
+         */
+        public Map<Class<? extends Annotation>, Integer> getConstructions() {
+            Map<Class<? extends Annotation>, Integer> counts = new HashMap<Class<? extends Annotation>, Integer>();
+            for (Map.Entry<Class<? extends Annotation>, AtomicInteger> entry : constructions.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return Collections.unmodifiableMap(counts);
+        }
+
+        Scope count(Class<? extends Annotation> annotation, Scope scope) {
+            return new CountingScope(this, annotation, scope);
+        }
+
+        private void constructed(Class<? extends Annotation> annotation) {
+            if (finished) {
+                return;
+            }
+            AtomicInteger count = constructions.get(annotation);
+            if (count == null) {
+                AtomicInteger created = new AtomicInteger();
+                count = constructions.putIfAbsent(annotation, created);
+                if (count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    private static final class CountingScope implements Scope {
+
+        private final Trace trace;
+        private final Class<? extends Annotation> annotation;
+        private final Scope delegate;
+
+        private CountingScope(Trace trace, Class<? extends Annotation> annotation, Scope delegate) {
+            this.trace = trace;
+            this.annotation = annotation;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> T getScopedObject(ScopeKey<T> key, final Provider<T> provider) {
+            // the scope only calls the provider when it constructs the instance
+            return delegate.getScopedObject(key, new Provider<T>() {
+                @Override
+                public T get() {
+                    trace.constructed(annotation);
+                    return provider.get();
+                }
+            });
+        }
+    }
+}
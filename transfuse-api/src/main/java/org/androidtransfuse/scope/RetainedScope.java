@@ -0,0 +1,72 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import javax.inject.Provider;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Scope backing `@Retained`.  Each generated Activity creates one in `onCreate()`, or takes over the instance
+ * retained by the Activity it replaces, and calls `release()` from its final `onDestroy()`.
+ *
+ * @author John Ericksen
+ */
+public class RetainedScope implements Scope {
+
+    public static final String RELEASE_METHOD = "release";
+
+    private final ConcurrentMap<ScopeKey<?>, Object> retained = new ConcurrentHashMap<ScopeKey<?>, Object>();
+    private final SingleConstruction singleConstruction = new SingleConstruction(new SingleConstruction.Store() {
+        @Override
+        public Object lookup(ScopeKey<?> key) {
+            return retained.get(key);
+        }
+
+        @Override
+        public Object putIfAbsent(ScopeKey<?> key, Object value) {
+            Object result = retained.putIfAbsent(key, value);
+            if (result == null) {
+                result = value;
+            }
+            return result;
+        }
+    });
+
+    @Override
+    public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
+        Object result = retained.get(key);
+        if (result == null) {
+            result = singleConstruction.construct(key, provider);
+        }
+
+        return (T) result;
+    }
+
+    /**
+     * Drops every retained instance.  Later lookups construct new instances.
+     */
+    public void release() {
+        retained.clear();
+    }
+
+    /**
+     * @return number of retained instances
+     */
+    public int size() {
+        return retained.size();
+    }
+}
@@ -19,6 +19,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Interned key identifying a scoped instance by type and qualifier signature.  Each distinct signature is assigned a
+ * dense integer id when it is first interned, which slot-indexed scopes such as `IndexedScope` use in place of a hash
+ * lookup.  Generated code holds keys in static final fields so the interning lookup happens once per class.
+ *
  * @author John Ericksen
  */
 public final class ScopeKey<T> {
@@ -26,10 +30,12 @@ public final class ScopeKey<T> {
     public static final String GET_METHOD = "get";
 
     private static final ConcurrentMap<String, ScopeKey<?>> SCOPE_CACHE = new ConcurrentHashMap<String, ScopeKey<?>>();
+    private static int nextId = 0;
     private final String signature;
     private final Class<T> clazz;
+    private final int id;
 
-    private ScopeKey(Class<T> clazz, String signature){
+    private ScopeKey(Class<T> clazz, String signature, int id){
         if(signature == null){
             throw new IllegalArgumentException("ScopeKey signature cannot be null");
         }
@@ -38,21 +44,28 @@ public final class ScopeKey<T> {
         }
         this.signature = signature;
         this.clazz = clazz;
+        this.id = id;
     }
 
     public static <S> ScopeKey<S> get(Class<S> clazz, String signature){
         ScopeKey result = SCOPE_CACHE.get(signature);
         if (result == null) {
-            ScopeKey<S> value = new ScopeKey<S>(clazz, signature);
-            result = SCOPE_CACHE.putIfAbsent(signature, value);
-            if (result == null) {
-                result = value;
-            }
+            result = intern(clazz, signature);
         }
 
         return result;
     }
 
+    private static synchronized <S> ScopeKey<?> intern(Class<S> clazz, String signature){
+        // ids are handed out under the lock so that they stay dense
+        ScopeKey<?> result = SCOPE_CACHE.get(signature);
+        if (result == null) {
+            result = new ScopeKey<S>(clazz, signature, nextId++);
+            SCOPE_CACHE.put(signature, result);
+        }
+        return result;
+    }
+
     public static <S> ScopeKey<S> of(Class<S> inputClazz){
         return get(inputClazz, inputClazz.getName());
     }
@@ -61,6 +74,15 @@ public final class ScopeKey<T> {
         return get(clazz, this.signature + annotation);
     }
 
+    /**
+     * Dense id of this key, unique among the keys interned in this process.
+     *
+     * @return id
+     */
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return signature;
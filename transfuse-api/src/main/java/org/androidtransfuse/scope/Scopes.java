@@ -26,25 +26,78 @@ public class Scopes {
 
     public static final String ADD_SCOPE = "addScope";
     public static final String GET_SCOPE = "getScope";
+    public static final String GET_SCOPE_REFERENCE = "getScopeReference";
+    public static final String TRIM_MEMORY = "trimMemory";
+    public static final String LOW_MEMORY = "lowMemory";
 
     private final Map<Class<? extends Annotation>, Scope> scopeMapping;
+    private final Map<Class<? extends Annotation>, Scope> referenceMapping;
 
     public Scopes(){
-        this(new HashMap<Class<? extends Annotation>, Scope>());
+        this(new HashMap<Class<? extends Annotation>, Scope>(), new HashMap<Class<? extends Annotation>, Scope>());
     }
 
-    private Scopes(Map<Class<? extends Annotation>, Scope> scopeMapping){
+    private Scopes(Map<Class<? extends Annotation>, Scope> scopeMapping, Map<Class<? extends Annotation>, Scope> referenceMapping){
         //supporting immutable style
         this.scopeMapping = scopeMapping;
+        this.referenceMapping = referenceMapping;
     }
 
     public Scopes addScope(Class<? extends Annotation> key, Scope scope){
         Map<Class<? extends Annotation>, Scope> mapping = new HashMap<Class<? extends Annotation>, Scope>(scopeMapping);
         mapping.put(key, scope);
-        return new Scopes(mapping);
+        Map<Class<? extends Annotation>, Scope> references = new HashMap<Class<? extends Annotation>, Scope>(referenceMapping);
+        references.put(key, scope);
+        return new Scopes(mapping, references);
     }
 
     public Scope getScope(Class<? extends Annotation> key){
         return scopeMapping.get(key);
     }
+
+    /**
+     * Scope instance as registered, for `@ScopeReference` injections.  Unlike `getScope()` this is never a tracing
+     * wrapper, so it may be cast to its concrete type.
+     *
+     * @param key scope annotation
+     * @return registered scope
+     */
+    public Scope getScopeReference(Class<? extends Annotation> key){
+        return referenceMapping.get(key);
+    }
+
+    /**
+     * Copy whose scopes count the instances they construct against the given trace.
+     */
+    Scopes trace(InjectionTimings.Trace trace){
+        Map<Class<? extends Annotation>, Scope> mapping = new HashMap<Class<? extends Annotation>, Scope>();
+        for (Map.Entry<Class<? extends Annotation>, Scope> scopeEntry : scopeMapping.entrySet()) {
+            mapping.put(scopeEntry.getKey(), trace.count(scopeEntry.getKey(), scopeEntry.getValue()));
+        }
+        return new Scopes(mapping, referenceMapping);
+    }
+
+    /**
+     * Forwards `Application.onTrimMemory()` to the registered `TrimmableScope`s.
+     *
+     * @param level trim level
+     */
+    public void trimMemory(int level){
+        for (Scope scope : referenceMapping.values()) {
+            if(scope instanceof TrimmableScope){
+                ((TrimmableScope) scope).trimMemory(level);
+            }
+        }
+    }
+
+    /**
+     * Forwards `Application.onLowMemory()` to the registered `TrimmableScope`s.
+     */
+    public void lowMemory(){
+        for (Scope scope : referenceMapping.values()) {
+            if(scope instanceof TrimmableScope){
+                ((TrimmableScope) scope).lowMemory();
+            }
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import javax.inject.Provider;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Guarantees that a scoped instance is constructed by a single thread.  The first thread to miss on a key registers an
+ * in-flight construction and calls the provider; other threads asking for the same key wait for that construction
+ * instead of calling the provider themselves.
+ *
+ * A provider may request other scoped instances while it runs.  If waiting would deadlock, either because the current
+ * thread is already building the requested key or because the thread building it is (transitively) waiting on the
+ * current thread, the instance is built directly and the first stored instance wins, as before.
+ *
+ * @author John Ericksen
+ */
+class SingleConstruction {
+
+    /**
+     * Backing storage of a scope.
+     */
+    interface Store {
+
+        Object lookup(ScopeKey<?> key);
+
+        Object putIfAbsent(ScopeKey<?> key, Object value);
+    }
+
+    // shared across scopes, as a construction in one scope may wait on another
+    private static final ConcurrentMap<Thread, Construction> WAITING = new ConcurrentHashMap<Thread, Construction>();
+
+    private final ConcurrentMap<ScopeKey<?>, Construction> inFlight = new ConcurrentHashMap<ScopeKey<?>, Construction>();
+    private final Store store;
+
+    SingleConstruction(Store store) {
+        this.store = store;
+    }
+
+    public <T> Object construct(ScopeKey<T> key, Provider<T> provider) {
+        Thread current = Thread.currentThread();
+        Construction construction = null;
+
+        while (true) {
+            Object result = store.lookup(key);
+            if (result != null) {
+                return result;
+            }
+
+            if (construction == null) {
+                construction = new Construction(current);
+            }
+            Construction existing = inFlight.putIfAbsent(key, construction);
+            if (existing == null) {
+                return build(key, provider, construction);
+            }
+
+            if (existing.owner == current) {
+                // reentrant request for the key this thread is building
+                return store.putIfAbsent(key, provider.get());
+            }
+
+            WAITING.put(current, existing);
+            try {
+                if (waitsOn(existing.owner, current)) {
+                    return store.putIfAbsent(key, provider.get());
+                }
+                result = existing.await();
+            } finally {
+                WAITING.remove(current);
+            }
+            if (result != null) {
+                return result;
+            }
+            // the owning construction failed, retry
+        }
+    }
+
+    private <T> Object build(ScopeKey<T> key, Provider<T> provider, Construction construction) {
+        Object result = null;
+        try {
+            result = store.lookup(key);
+            if (result == null) {
+                result = store.putIfAbsent(key, provider.get());
+            }
+            return result;
+        } finally {
+            inFlight.remove(key, construction);
+            construction.complete(result);
+        }
+    }
+
+    private static boolean waitsOn(Thread owner, Thread current) {
+        Thread thread = owner;
+        // bounded walk of the waits-for chain
+        for (int i = 0; i <= WAITING.size() && thread != null; i++) {
+            if (thread == current) {
+                return true;
+            }
+            Construction waitingOn = WAITING.get(thread);
+            thread = waitingOn == null ? null : waitingOn.owner;
+        }
+        return false;
+    }
+
+    private static final class Construction {
+
+        private final Thread owner;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Object value;
+
+        private Construction(Thread owner) {
+            this.owner = owner;
+        }
+
+        private void complete(Object value) {
+            this.value = value;
+            latch.countDown();
+        }
+
+        private Object await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+    }
+}
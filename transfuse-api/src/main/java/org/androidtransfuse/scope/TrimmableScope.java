@@ -0,0 +1,37 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+/**
+ * Scope that may release instances under memory pressure.  The generated Application forwards its `onTrimMemory()` and
+ * `onLowMemory()` callbacks to every registered `TrimmableScope`.
+ *
+ * @author John Ericksen
+ */
+public interface TrimmableScope extends Scope {
+
+    /**
+     * Called from `Application.onTrimMemory()`.
+     *
+     * @param level trim level, as defined by `ComponentCallbacks2`
+     */
+    void trimMemory(int level);
+
+    /**
+     * Called from `Application.onLowMemory()`.
+     */
+    void lowMemory();
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size thread pool backed by a bounded queue.  Once the queue is full, submitted tasks are handed to the given
+ * `RejectedExecutionHandler`.  The default, `BlockingPolicy`, makes the submitting thread wait for queue capacity, so
+ * tasks always run on the pool.  `CallerRunsPolicy` must be opted into explicitly: on Android the caller is typically
+ * the UI thread, which would then run the background work itself.
+ *
+ * Threads are named after the pool, and the pool records queue depth, rejections and per task queue wait and run
+ * times so its size can be tuned against real workloads.
+ *
+ * @author John Ericksen
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+    public static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_QUEUE_CAPACITY = 128;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    public BoundedExecutor(String name) {
+        this(name, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, new BlockingPolicy());
+    }
+
+    public BoundedExecutor(String name, int threads, int queueCapacity, RejectedExecutionHandler rejectionPolicy) {
+        super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new NamedThreadFactory(name));
+        this.name = name;
+        setRejectedExecutionHandler(new CountingRejectionHandler(rejectionPolicy));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if(command == null){
+            throw new NullPointerException();
+        }
+        super.execute(new TimedRunnable(command));
+    }
+
+    private void record(long waitNanos, long runNanos) {
+        completed.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalRunNanos.addAndGet(runNanos);
+        long max = maxWaitNanos.get();
+        while(waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)){
+            max = maxWaitNanos.get();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * @return number of tasks handed to the rejection policy because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return number of tasks run to completion, including those that threw
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getAverageWaitNanos() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / count;
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long getAverageRunNanos() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalRunNanos.get() / count;
+    }
+
+    /**
+     * Back-pressure: blocks the submitting thread until the queue has room for the task.  Counted as a rejection, so
+     * `getRejectedCount()` reports how often submitters had to wait.
+     */
+    public static final class BlockingPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if(executor.isShutdown()){
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for queue capacity", e);
+            }
+        }
+    }
+
+    private final class TimedRunnable implements Runnable {
+        private final Runnable delegate;
+        private final long submitted = System.nanoTime();
+
+        private TimedRunnable(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try{
+                delegate.run();
+            }
+            finally {
+                record(start - submitted, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class CountingRejectionHandler implements RejectedExecutionHandler {
+        private final RejectedExecutionHandler delegate;
+
+        private CountingRejectionHandler(RejectedExecutionHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            rejected.incrementAndGet();
+            delegate.rejectedExecution(runnable, executor);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Pre-resolved, accessible handle to a constructor, used to call private constructors without repeating the reflective
+ * lookup on each injection.  Instances are looked up and cached through `InjectionUtil.getConstructorAccessor()`.
+ *
+ * @author John Ericksen
+ */
+public final class ConstructorAccessor<T> {
+
+    public static final String NEW_INSTANCE_METHOD = "newInstance";
+
+    private final Constructor<T> constructor;
+
+    ConstructorAccessor(Constructor<T> constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Instantiates the class by calling the constructor.
+     *
+     * @param args constructor argument values
+     * @return instance created by constructor
+     */
+    public T newInstance(Object... args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (InstantiationException e) {
+            throw new TransfuseInjectionException("InstantiationException Exception during constructor injection: " + constructor, e);
+        } catch (IllegalAccessException e) {
+            throw new TransfuseInjectionException("IllegalAccessException Exception during constructor injection: " + constructor, e);
+        } catch (InvocationTargetException e) {
+            throw new TransfuseInjectionException("InvocationTargetException Exception during constructor injection: " + constructor, e);
+        }
+    }
+}
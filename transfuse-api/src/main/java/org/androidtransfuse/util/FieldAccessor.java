@@ -0,0 +1,66 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import java.lang.reflect.Field;
+
+/**
+ * Pre-resolved, accessible handle to a field, used to read and write private fields without repeating the reflective
+ * lookup on each injection.  Instances are looked up and cached through `InjectionUtil.getFieldAccessor()`.
+ *
+ * @author John Ericksen
+ */
+public final class FieldAccessor {
+
+    public static final String GET_METHOD = "get";
+    public static final String SET_METHOD = "set";
+
+    private final Field field;
+
+    FieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    /**
+     * Returns the value of the field.
+     *
+     * @param returnType type of the field
+     * @param target object containing the field
+     * @param <T> type parameter
+     * @return field value
+     */
+    public <T> T get(Class<T> returnType, Object target) {
+        try {
+            return (T) field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new TransfuseInjectionException("IllegalAccessException Exception during field injection: " + field, e);
+        }
+    }
+
+    /**
+     * Updates the field with the given value.
+     *
+     * @param target object containing the field to update
+     * @param value object to update the field to
+     */
+    public void set(Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new TransfuseInjectionException("IllegalAccessException Exception during field injection: " + field, e);
+        }
+    }
+}
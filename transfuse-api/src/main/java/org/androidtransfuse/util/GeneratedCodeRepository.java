@@ -19,20 +19,31 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Looks up generated code by type, first through the generated `Repository`, then through `findClass()` for types
+ * generated in another compilation unit, such as a library or plugin, whose entries are not in the application's
+ * repository.  Results are cached.
+ *
  * @author John Ericksen
  */
 public abstract class GeneratedCodeRepository<T> {
 
-    private ConcurrentMap<Class, T> generatedMap = new ConcurrentHashMap<Class, T>();
+    private final ConcurrentMap<Class, T> generatedMap = new ConcurrentHashMap<Class, T>();
+    private final Repository<T> repository;
 
     public GeneratedCodeRepository(String repositoryPackage, String repositoryName) {
-        loadRepository(getClass().getClassLoader(), repositoryPackage, repositoryName);
+        repository = loadRepository(getClass().getClassLoader(), repositoryPackage, repositoryName);
     }
 
     public T get(Class clazz){
         T result = generatedMap.get(clazz);
         if (result == null) {
-            T value = findClass(clazz);
+            T value = null;
+            if(repository != null){
+                value = repository.get(clazz);
+            }
+            if(value == null){
+                value = findClass(clazz);
+            }
             if(value == null){
                 return null;
             }
@@ -45,23 +56,29 @@ public abstract class GeneratedCodeRepository<T> {
         return result;
     }
 
+    /**
+     * Finds generated code for a type missing from the generated repository.
+     *
+     * @param clazz requested type
+     * @return the generated code, or null if none was generated
+     */
     public abstract T findClass(Class clazz);
 
     /**
-     * Update the repository class from the given classloader.  If the given repository class cannot be instantiated
-     * then this method will throw a TransfuseRuntimeException.
+     * Instantiates the repository class from the given classloader.  Entries are built on request, not here.  If the
+     * given repository class cannot be instantiated then this method will throw a TransfuseRuntimeException.
      *
      * @throws TransfuseRuntimeException
      * @param classLoader
+     * @return the generated repository, or null if none was generated
      */
-    public final void loadRepository(ClassLoader classLoader, String repositoryPackage, String repositoryName){
+    private static <T> Repository<T> loadRepository(ClassLoader classLoader, String repositoryPackage, String repositoryName){
         try{
             Class repositoryClass = classLoader.loadClass(repositoryPackage + "." + repositoryName);
-            Repository<T> instance = (Repository<T>) repositoryClass.newInstance();
-            generatedMap.putAll(instance.get());
+            return (Repository<T>) repositoryClass.newInstance();
 
         } catch (ClassNotFoundException e) {
-            //nothing
+            return null;
         } catch (InstantiationException e) {
             throw new TransfuseRuntimeException("Unable to instantiate generated Repository", e);
         } catch (IllegalAccessException e) {
@@ -15,17 +15,25 @@
  */
 package org.androidtransfuse.util;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class for performing a variety of operations through reflection.  This functionality should be used sparingly
  * as frequent calls can cause performance issues.
  *
+ * Fields, methods and constructors are looked up and made accessible once per (class, member) and cached as
+ * `FieldAccessor`, `MethodAccessor` and `ConstructorAccessor` instances.  Generated code holds these accessors in
+ * static fields, so private injection costs a single reflective call per member.
+ *
  * @author John Ericksen
  */
 public final class InjectionUtil {
@@ -34,10 +42,82 @@ public final class InjectionUtil {
     public static final String SET_FIELD_METHOD = "setField";
     public static final String CALL_METHOD_METHOD = "callMethod";
     public static final String CALL_CONSTRUCTOR_METHOD = "callConstructor";
+    public static final String GET_FIELD_ACCESSOR_METHOD = "getFieldAccessor";
+    public static final String GET_METHOD_ACCESSOR_METHOD = "getMethodAccessor";
+    public static final String GET_CONSTRUCTOR_ACCESSOR_METHOD = "getConstructorAccessor";
+
+    private static final ConcurrentMap<AccessorKey, Object> ACCESSORS = new ConcurrentHashMap<AccessorKey, Object>();
 
     private InjectionUtil() {
         //singleton constructor
     }
+
+    /**
+     * Looks up the accessible handle to the given field.
+     *
+     * @param targetClass class declaring the field
+     * @param field name of the field
+     * @return cached FieldAccessor
+     */
+    public static FieldAccessor getFieldAccessor(Class<?> targetClass, String field) {
+        AccessorKey key = new AccessorKey(FieldAccessor.class, targetClass, field, null);
+        FieldAccessor accessor = (FieldAccessor) ACCESSORS.get(key);
+        if (accessor == null) {
+            try {
+                accessor = new FieldAccessor(makeAccessible(targetClass.getDeclaredField(field)));
+            } catch (NoSuchFieldException e) {
+                throw new TransfuseInjectionException(
+                        "NoSuchFieldException Exception during field injection: " + field + " in " + targetClass, e);
+            }
+            ACCESSORS.putIfAbsent(key, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Looks up the accessible handle to the given method.
+     *
+     * @param targetClass class declaring the method
+     * @param method the method name
+     * @param argClasses types of the method arguments
+     * @return cached MethodAccessor
+     */
+    public static MethodAccessor getMethodAccessor(Class<?> targetClass, String method, Class... argClasses) {
+        AccessorKey key = new AccessorKey(MethodAccessor.class, targetClass, method, argClasses);
+        MethodAccessor accessor = (MethodAccessor) ACCESSORS.get(key);
+        if (accessor == null) {
+            try {
+                accessor = new MethodAccessor(makeAccessible(targetClass.getDeclaredMethod(method, argClasses)));
+            } catch (NoSuchMethodException e) {
+                throw new TransfuseInjectionException("Exception during method injection: NoSuchMethodException", e);
+            }
+            ACCESSORS.putIfAbsent(key, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Looks up the accessible handle to the given constructor.
+     *
+     * @param targetClass instance type to construct
+     * @param argClasses argument types accepted by the constructor
+     * @param <T> relating type parameter
+     * @return cached ConstructorAccessor
+     */
+    public static <T> ConstructorAccessor<T> getConstructorAccessor(Class<T> targetClass, Class... argClasses) {
+        AccessorKey key = new AccessorKey(ConstructorAccessor.class, targetClass, null, argClasses);
+        ConstructorAccessor<T> accessor = (ConstructorAccessor<T>) ACCESSORS.get(key);
+        if (accessor == null) {
+            try {
+                accessor = new ConstructorAccessor<T>(makeAccessible(targetClass.getDeclaredConstructor(argClasses)));
+            } catch (NoSuchMethodException e) {
+                throw new TransfuseInjectionException("Exception during constructor injection: NoSuchMethodException", e);
+            }
+            ACCESSORS.putIfAbsent(key, accessor);
+        }
+        return accessor;
+    }
+
     /**
      * Returns the value of a field.
      *
@@ -49,35 +129,7 @@ public final class InjectionUtil {
      * @return field value
      */
     public static <T> T getField(Class<T> returnType, Class<?> targetClass, Object target, String field) {
-        try {
-            Field declaredField = targetClass.getDeclaredField(field);
-
-            return AccessController.doPrivileged(
-                    new GetFieldPrivilegedAction<T>(declaredField, target));
-
-        } catch (NoSuchFieldException e) {
-            throw new TransfuseInjectionException(
-                    "NoSuchFieldException Exception during field injection: " + field + " in " + target.getClass(), e);
-        } catch (PrivilegedActionException e) {
-            throw new TransfuseInjectionException("PrivilegedActionException Exception during field injection", e);
-        } catch (Exception e) {
-            throw new TransfuseInjectionException("Exception during field injection", e);
-        }
-    }
-
-    private static final class GetFieldPrivilegedAction<T> extends AccessibleElementPrivilegedAction<T, Field> {
-
-        private final Object target;
-
-        private GetFieldPrivilegedAction(Field classField, Object target) {
-            super(classField);
-            this.target = target;
-        }
-
-        @Override
-        public T run(Field classField) throws IllegalAccessException {
-            return (T) classField.get(target);
-        }
+        return getFieldAccessor(targetClass, field).get(returnType, target);
     }
 
     /**
@@ -89,39 +141,7 @@ public final class InjectionUtil {
      * @param value object to update the field to
      */
     public static void setField(Class<?> targetClass, Object target, String field, Object value) {
-        try {
-            Field classField = targetClass.getDeclaredField(field);
-
-            AccessController.doPrivileged(
-                    new SetFieldPrivilegedAction(classField, target, value));
-
-        } catch (NoSuchFieldException e) {
-            throw new TransfuseInjectionException(
-                    "NoSuchFieldException Exception during field injection: " + field + " in " + target.getClass(), e);
-        } catch (PrivilegedActionException e) {
-            throw new TransfuseInjectionException("PrivilegedActionException Exception during field injection", e);
-        } catch (Exception e) {
-            throw new TransfuseInjectionException("Exception during field injection", e);
-        }
-    }
-
-    private static final class SetFieldPrivilegedAction extends AccessibleElementPrivilegedAction<Void, Field> {
-
-        private final Object target;
-        private final Object value;
-
-        private SetFieldPrivilegedAction(Field classField, Object target, Object value) {
-            super(classField);
-            this.target = target;
-            this.value = value;
-        }
-
-        @Override
-        public Void run(Field classField) throws IllegalAccessException {
-            classField.set(target, value);
-
-            return null;
-        }
+        getFieldAccessor(targetClass, field).set(target, value);
     }
 
     /**
@@ -137,38 +157,9 @@ public final class InjectionUtil {
      * @return method return value
      */
     public static <T> T callMethod(Class<T> retClass, Class<?> targetClass, Object target, String method, Class[] argClasses, Object[] args) {
-        try {
-            Method classMethod = targetClass.getDeclaredMethod(method, argClasses);
-
-            return AccessController.doPrivileged(
-                    new SetMethodPrivilegedAction<T>(classMethod, target, args));
-
-        } catch (NoSuchMethodException e) {
-            throw new TransfuseInjectionException("Exception during method injection: NoSuchFieldException", e);
-        } catch (PrivilegedActionException e) {
-            throw new TransfuseInjectionException("PrivilegedActionException Exception during field injection", e);
-        } catch (Exception e) {
-            throw new TransfuseInjectionException("Exception during field injection", e);
-        }
+        return getMethodAccessor(targetClass, method, argClasses).invoke(retClass, target, args);
     }
 
-    private static final class SetMethodPrivilegedAction<T> extends AccessibleElementPrivilegedAction<T, Method> {
-
-        private final Object target;
-        private final Object[] args;
-
-        private SetMethodPrivilegedAction(Method classMethod, Object target, Object[] args) {
-            super(classMethod);
-            this.target = target;
-            this.args = args;
-        }
-
-        public T run(Method classMethod) throws InvocationTargetException, IllegalAccessException {
-            return (T) classMethod.invoke(target, args);
-        }
-    }
-
-
     /**
      * Instantiates a class by calling the constructor.
      *
@@ -179,35 +170,67 @@ public final class InjectionUtil {
      * @return instance created by constructor
      */
     public static <T> T callConstructor(Class<T> targetClass, Class[] argClasses, Object[] args) {
-        T output;
+        return getConstructorAccessor(targetClass, argClasses).newInstance(args);
+    }
 
+    private static <E extends AccessibleObject> E makeAccessible(E accessible) {
         try {
-            Constructor classConstructor = targetClass.getDeclaredConstructor(argClasses);
+            return AccessController.doPrivileged(new MakeAccessiblePrivilegedAction<E>(accessible));
+        } catch (PrivilegedActionException e) {
+            throw new TransfuseInjectionException("PrivilegedActionException Exception during injection", e);
+        }
+    }
 
-            output = AccessController.doPrivileged(
-                    new SetConstructorPrivilegedAction<T>(classConstructor, args));
+    private static final class MakeAccessiblePrivilegedAction<E extends AccessibleObject> implements PrivilegedExceptionAction<E> {
 
-        } catch (NoSuchMethodException e) {
-            throw new TransfuseInjectionException("Exception during method injection: NoSuchMethodException", e);
-        } catch (PrivilegedActionException e) {
-            throw new TransfuseInjectionException("PrivilegedActionException Exception during field injection", e);
-        } catch (Exception e) {
-            throw new TransfuseInjectionException("Exception during field injection", e);
+        private final E accessible;
+
+        private MakeAccessiblePrivilegedAction(E accessible) {
+            this.accessible = accessible;
+        }
+
+        @Override
+        public E run() {
+            accessible.setAccessible(true);
+            return accessible;
         }
-        return output;
     }
 
-    private static final class SetConstructorPrivilegedAction<T> extends AccessibleElementPrivilegedAction<T, Constructor> {
-        private final Object[] args;
+    private static final class AccessorKey {
+
+        private final Class<?> accessorType;
+        private final Class<?> targetClass;
+        private final String name;
+        private final Class[] argClasses;
+        private final int hashCode;
+
+        private AccessorKey(Class<?> accessorType, Class<?> targetClass, String name, Class[] argClasses) {
+            this.accessorType = accessorType;
+            this.targetClass = targetClass;
+            this.name = name;
+            this.argClasses = argClasses;
+            this.hashCode = 31 * (31 * (31 * accessorType.hashCode() + targetClass.hashCode())
+                    + (name == null ? 0 : name.hashCode())) + Arrays.hashCode(argClasses);
+        }
 
-        private SetConstructorPrivilegedAction(Constructor classConstructor, Object[] args) {
-            super(classConstructor);
-            this.args = args;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AccessorKey)) {
+                return false;
+            }
+            AccessorKey that = (AccessorKey) o;
+            return accessorType == that.accessorType
+                    && targetClass == that.targetClass
+                    && (name == null ? that.name == null : name.equals(that.name))
+                    && Arrays.equals(argClasses, that.argClasses);
         }
 
         @Override
-        public T run(Constructor classConstructor) throws InvocationTargetException, InstantiationException, IllegalAccessException {
-            return (T) classConstructor.newInstance(args);
+        public int hashCode() {
+            return hashCode;
         }
     }
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Pre-resolved, accessible handle to a method, used to call private methods without repeating the reflective lookup on
+ * each injection.  Instances are looked up and cached through `InjectionUtil.getMethodAccessor()`.
+ *
+ * @author John Ericksen
+ */
+public final class MethodAccessor {
+
+    public static final String INVOKE_METHOD = "invoke";
+
+    private final Method method;
+
+    MethodAccessor(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Calls the method with the provided arguments as parameters.
+     *
+     * @param returnType the method return value
+     * @param target the instance containing the method
+     * @param args method arguments used during invocation
+     * @param <T> relating type parameter
+     * @return method return value
+     */
+    public <T> T invoke(Class<T> returnType, Object target, Object... args) {
+        try {
+            return (T) method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new TransfuseInjectionException("IllegalAccessException Exception during method injection: " + method, e);
+        } catch (InvocationTargetException e) {
+            throw new TransfuseInjectionException("InvocationTargetException Exception during method injection: " + method, e);
+        }
+    }
+}
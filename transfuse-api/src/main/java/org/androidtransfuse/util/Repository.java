@@ -15,14 +15,19 @@
  */
 package org.androidtransfuse.util;
 
-import java.util.Map;
-
 /**
+ * Generated registry of code generated per type.  Implementations switch on the hash of the requested type name and
+ * build only the requested entry, so looking up one type does not load or instantiate the others.
+ *
  * @author John Ericksen
  */
 public interface Repository<T> {
 
     String GET_METHOD = "get";
 
-    Map<Class, T> get();
+    /**
+     * @param type registered type
+     * @return the generated entry for the given type, or null if the type is not registered
+     */
+    T get(Class type);
 }
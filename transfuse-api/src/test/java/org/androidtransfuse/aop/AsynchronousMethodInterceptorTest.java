@@ -0,0 +1,158 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author John Ericksen
+ */
+public class AsynchronousMethodInterceptorTest {
+
+    private static final String VALUE = "value";
+
+    private AsynchronousMethodInterceptor interceptor;
+    private MethodInvocation invocation;
+    private boolean executed;
+
+    public static class Target {
+        public Future<String> load() {
+            return new AsyncResult<String>(VALUE);
+        }
+
+        public void run() {}
+    }
+
+    @Before
+    public void setup() {
+        executed = false;
+        interceptor = new AsynchronousMethodInterceptor(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                executed = true;
+                runnable.run();
+            }
+        });
+        invocation = mock(MethodInvocation.class);
+    }
+
+    @Test
+    public void testFutureReturned() throws Throwable {
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("load"));
+        when(invocation.proceed()).thenReturn(new AsyncResult<String>(VALUE));
+
+        Object result = interceptor.invoke(invocation);
+
+        assertTrue(executed);
+        assertTrue(result instanceof InvocationFuture);
+        assertEquals(VALUE, ((Future) result).get());
+    }
+
+    @Test
+    public void testExceptionPropagated() throws Throwable {
+        IOException exception = new IOException();
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("load"));
+        when(invocation.proceed()).thenThrow(exception);
+
+        Future result = (Future) interceptor.invoke(invocation);
+
+        try {
+            result.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertEquals(exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void testErrorPropagated() throws Throwable {
+        AssertionError error = new AssertionError();
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("load"));
+        when(invocation.proceed()).thenThrow(error);
+
+        Future result = (Future) interceptor.invoke(invocation);
+
+        try {
+            result.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+    }
+
+    @Test
+    public void testVoidReturnsNull() throws Throwable {
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("run"));
+
+        assertNull(interceptor.invoke(invocation));
+        assertTrue(executed);
+    }
+
+    @Test
+    public void testThreadNamedPerInvocation() throws Throwable {
+        final String[] invocationThreadName = new String[1];
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("run"));
+        when(invocation.proceed()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) {
+                invocationThreadName[0] = Thread.currentThread().getName();
+                return null;
+            }
+        });
+        String threadName = Thread.currentThread().getName();
+
+        interceptor.invoke(invocation);
+
+        assertEquals(threadName + " Target.run", invocationThreadName[0]);
+        //restored once the invocation completes
+        assertEquals(threadName, Thread.currentThread().getName());
+    }
+
+    @Test
+    public void testListener() throws Throwable {
+        when(invocation.getMethod()).thenReturn(Target.class.getMethod("load"));
+        when(invocation.proceed()).thenReturn(new AsyncResult<String>(VALUE));
+
+        InvocationFuture future = (InvocationFuture) interceptor.invoke(invocation);
+        final boolean[] called = new boolean[1];
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                called[0] = true;
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runnable.run();
+            }
+        });
+
+        assertTrue(called[0]);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author John Ericksen
+ */
+public class InvocationFutureTest {
+
+    private static final String VALUE = "value";
+
+    private MethodInvocation invocation;
+
+    @Before
+    public void setup() throws Throwable {
+        invocation = mock(MethodInvocation.class);
+        when(invocation.proceed()).thenReturn(new AsyncResult<String>(VALUE));
+    }
+
+    @Test
+    public void testGetOnExecutingThreadRunsInline() throws Throwable {
+        InvocationFuture<String> future = new InvocationFuture<String>(invocation, Thread.currentThread());
+
+        assertEquals(VALUE, future.get());
+
+        //the scheduled run is a no-op
+        future.run();
+        verify(invocation).proceed();
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testGetOnOtherThreadWaits() throws Throwable {
+        InvocationFuture<String> future = new InvocationFuture<String>(invocation, new Thread());
+
+        future.get(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testGetWithinInvocation() throws Throwable {
+        final InvocationFuture<String> future = new InvocationFuture<String>(invocation, Thread.currentThread());
+        when(invocation.proceed()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock mockInvocation) throws Throwable {
+                return new AsyncResult<String>(future.get());
+            }
+        });
+
+        future.run();
+
+        try {
+            future.get();
+            fail("expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
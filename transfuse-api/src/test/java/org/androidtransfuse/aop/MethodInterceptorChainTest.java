@@ -15,6 +15,7 @@
  */
 package org.androidtransfuse.aop;
 
+import org.androidtransfuse.util.TransfuseInjectionException;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Before;
@@ -74,7 +75,7 @@ public class MethodInterceptorChainTest {
             verify(interceptor).invoke(any(MethodInvocation.class));
         }
 
-        verify(execution).invoke();
+        verify(execution).invoke(ARGUMENTS);
     }
 
     @Test
@@ -99,18 +100,70 @@ public class MethodInterceptorChainTest {
 
         interceptorChain.invoke(ARGUMENTS);
 
-        verify(methodExecution, times(2)).getMethod();
+        verify(methodExecution).getMethod();
+    }
+
+    @Test
+    public void testSingleInterceptor() throws Throwable {
+        MethodInterceptorChain.MethodExecution execution = mock(MethodInterceptorChain.MethodExecution.class);
+        when(execution.invoke(ARGUMENTS)).thenReturn("result");
+
+        MethodInterceptorChain interceptorChain = new MethodInterceptorChain(execution, proxy, new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) throws Throwable {
+                assertSame(proxy, invocation.getThis());
+                return invocation.proceed();
+            }
+        });
+
+        assertEquals("result", interceptorChain.invoke(ARGUMENTS));
+        verify(execution).invoke(ARGUMENTS);
+    }
+
+    @Test
+    public void testMethodLookupCached() throws Exception {
+        final Method mockMethod = MethodInterceptorChainTest.class.getMethod("targetMethod");
+
+        MethodInterceptorChain.MethodExecution methodExecution = mock(MethodInterceptorChain.MethodExecution.class);
+        when(methodExecution.getMethod()).thenReturn(mockMethod);
+
+        MethodInterceptorChain interceptorChain = new MethodInterceptorChain(methodExecution, proxy, new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) throws Throwable {
+                assertEquals(mockMethod, invocation.getMethod());
+                return invocation.proceed();
+            }
+        });
+
+        for (int i = 0; i < INTERCEPTOR_SIZE; i++) {
+            interceptorChain.invoke(ARGUMENTS);
+        }
+
+        verify(methodExecution).getMethod();
     }
 
     public void targetMethod() {
         //used to avoid mocking issues
     }
 
+    @Test
+    public void testResolveMethod() throws NoSuchMethodException {
+        assertEquals(MethodInterceptorChainTest.class.getDeclaredMethod("targetMethod"),
+                MethodInterceptorChain.resolveMethod(MethodInterceptorChainTest.class, "targetMethod"));
+    }
+
+    @Test(expected = TransfuseInjectionException.class)
+    public void testResolveMissingMethod() {
+        MethodInterceptorChain.resolveMethod(MethodInterceptorChainTest.class, "missingMethod");
+    }
+
     @Test
     public void verifyMethodNames() throws NoSuchMethodException {
+        Method resolveMethod = MethodInterceptorChain.class.getMethod(MethodInterceptorChain.RESOLVE_METHOD, Class.class, String.class, Class[].class);
+        assertNotNull(resolveMethod);
         Method getMethod = MethodInterceptorChain.MethodExecution.class.getMethod(MethodInterceptorChain.MethodExecution.GET_METHOD);
         assertNotNull(getMethod);
-        Method invokeMethod = MethodInterceptorChain.MethodExecution.class.getMethod(MethodInterceptorChain.MethodExecution.INVOKE);
+        Method invokeMethod = MethodInterceptorChain.MethodExecution.class.getMethod(MethodInterceptorChain.MethodExecution.INVOKE, Object[].class);
         assertNotNull(invokeMethod);
     }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author John Ericksen
+ */
+public class CoalescingEventObserverTest {
+
+    private List<Runnable> scheduled;
+    private List<String> delivered;
+    private CoalescingEventObserver<String> observer;
+
+    @Before
+    public void setup() {
+        scheduled = new ArrayList<Runnable>();
+        delivered = new ArrayList<String>();
+        observer = new CoalescingEventObserver<String>(new EventObserver<String>() {
+            @Override
+            public void trigger(String event) {
+                delivered.add(event);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                scheduled.add(runnable);
+            }
+        });
+    }
+
+    @Test
+    public void testBurstCoalesced() {
+        observer.trigger("one");
+        observer.trigger("two");
+        observer.trigger("three");
+
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+
+        assertEquals(1, delivered.size());
+        assertEquals("three", delivered.get(0));
+    }
+
+    @Test
+    public void testRescheduleAfterDelivery() {
+        observer.trigger("one");
+        scheduled.get(0).run();
+        observer.trigger("two");
+
+        assertEquals(2, scheduled.size());
+        scheduled.get(1).run();
+
+        assertEquals(2, delivered.size());
+        assertEquals("two", delivered.get(1));
+    }
+
+    @Test
+    public void testUnregisteredWhileQueued() {
+        EventManager eventManager = new EventManager();
+        eventManager.register(String.class, observer);
+
+        eventManager.trigger("one");
+        // as generated in the unregistering lifecycle method
+        eventManager.unregister(observer);
+        observer.setActive(false);
+
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+
+        assertTrue(delivered.isEmpty());
+    }
+}
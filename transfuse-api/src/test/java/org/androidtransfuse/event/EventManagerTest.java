@@ -19,6 +19,12 @@ import org.androidtransfuse.annotations.Observes;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -104,6 +110,154 @@ public class EventManagerTest {
         assertFalse(trigger.isTriggered());
     }
 
+    private interface EventInterface{}
+
+    private class InterfaceEvent implements EventInterface{}
+
+    private class InterfaceSubEvent extends InterfaceEvent implements EventInterface{}
+
+    @Test
+    public void testReentrantEventOrdering(){
+        final List<Object> delivered = new ArrayList<Object>();
+        final ObservesEvent nested = new ObservesEvent();
+
+        eventManager.register(String.class, new EventObserver<String>() {
+            @Override
+            public void trigger(String event) {
+                eventManager.trigger(nested);
+                delivered.add(event);
+            }
+        });
+        eventManager.register(ObservesEvent.class, new EventObserver<ObservesEvent>() {
+            @Override
+            public void trigger(ObservesEvent event) {
+                delivered.add(event);
+            }
+        });
+
+        eventManager.trigger("event");
+
+        assertEquals(2, delivered.size());
+        assertEquals("event", delivered.get(0));
+        assertEquals(nested, delivered.get(1));
+    }
+
+    @Test
+    public void testInterfaceTriggeredOnce(){
+        final List<Object> delivered = new ArrayList<Object>();
+
+        eventManager.register(EventInterface.class, new EventObserver<EventInterface>() {
+            @Override
+            public void trigger(EventInterface event) {
+                delivered.add(event);
+            }
+        });
+
+        eventManager.trigger(new InterfaceSubEvent());
+        eventManager.trigger(new InterfaceSubEvent());
+
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void testUnregisterDuringTrigger(){
+        final TargetEventTriggered trigger = new TargetEventTriggered();
+
+        eventManager.register(ObservesEvent.class, new EventObserver<ObservesEvent>() {
+            @Override
+            public void trigger(ObservesEvent event) {
+                eventManager.unregister(this);
+                eventManager.unregister(trigger);
+            }
+        });
+        eventManager.register(ObservesEvent.class, trigger);
+
+        eventManager.trigger(new ObservesEvent());
+
+        assertFalse(trigger.isTriggered());
+    }
+
+    @Test
+    public void testDuplicateRegistration(){
+        final List<Object> delivered = new ArrayList<Object>();
+        EventObserver<ObservesEvent> observer = new EventObserver<ObservesEvent>() {
+            @Override
+            public void trigger(ObservesEvent event) {
+                delivered.add(event);
+            }
+        };
+
+        eventManager.register(ObservesEvent.class, observer);
+        eventManager.register(ObservesEvent.class, observer);
+
+        eventManager.trigger(new ObservesEvent());
+
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void testWeakRegistration(){
+        TargetEventTriggered trigger = new TargetEventTriggered();
+        eventManager.registerWeak(ObservesEvent.class, trigger);
+
+        eventManager.trigger(new ObservesEvent());
+
+        assertTrue(trigger.isTriggered());
+    }
+
+    @Test
+    public void testWeakUnregister(){
+        TargetEventTriggered trigger = new TargetEventTriggered();
+        eventManager.registerWeak(ObservesEvent.class, trigger);
+        eventManager.unregister(trigger);
+
+        eventManager.trigger(new ObservesEvent());
+
+        assertFalse(trigger.isTriggered());
+    }
+
+    private static final class RecordingObserver implements EventObserver<ObservesEvent>{
+        private final List<Object> delivered;
+
+        private RecordingObserver(List<Object> delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void trigger(ObservesEvent event) {
+            delivered.add(event);
+        }
+    }
+
+    @Test
+    public void testWeakRegistrationCollected() throws InterruptedException {
+        List<Object> delivered = new ArrayList<Object>();
+        ReferenceQueue<EventObserver> queue = new ReferenceQueue<EventObserver>();
+
+        RecordingObserver observer = new RecordingObserver(delivered);
+        WeakReference<EventObserver> reference = new WeakReference<EventObserver>(observer, queue);
+        eventManager.registerWeak(ObservesEvent.class, observer);
+        assertEquals(1, eventManager.getObserverCount());
+        observer = null;
+
+        //weak references to the observer are cleared together, so once ours is enqueued the EventManager's is cleared
+        Reference<? extends EventObserver> collected = null;
+        for(int i = 0; i < 50 && collected == null; i++){
+            System.gc();
+            collected = queue.remove(100);
+        }
+        assertSame("observer was not collected", reference, collected);
+
+        eventManager.trigger(new ObservesEvent());
+        assertTrue(delivered.isEmpty());
+
+        //the EventManager's own reference is enqueued asynchronously after being cleared
+        for(int i = 0; i < 50 && eventManager.getObserverCount() > 0; i++){
+            Thread.sleep(10);
+        }
+        assertEquals(0, eventManager.getObserverCount());
+    }
+
     private void registerEvents(){
         eventManager.register(ObservesEvent.class, new EventObserver<ObservesEvent>() {
             @Override
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class ExecutorEventObserverTest {
+
+    private List<Runnable> scheduled;
+    private List<String> delivered;
+    private ExecutorEventObserver<String> observer;
+    private EventManager eventManager;
+
+    @Before
+    public void setup() {
+        scheduled = new ArrayList<Runnable>();
+        delivered = new ArrayList<String>();
+        observer = new ExecutorEventObserver<String>(new EventObserver<String>() {
+            @Override
+            public void trigger(String event) {
+                delivered.add(event);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                scheduled.add(runnable);
+            }
+        });
+        eventManager = new EventManager();
+        eventManager.register(String.class, observer);
+    }
+
+    @Test
+    public void testDelivered() {
+        eventManager.trigger("one");
+
+        assertTrue(delivered.isEmpty());
+        scheduled.get(0).run();
+
+        assertEquals(1, delivered.size());
+        assertEquals("one", delivered.get(0));
+    }
+
+    @Test
+    public void testUnregisteredWhileQueued() {
+        eventManager.trigger("one");
+        // as generated in the unregistering lifecycle method
+        eventManager.unregister(observer);
+        observer.setActive(false);
+
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void testReactivated() {
+        observer.setActive(false);
+        observer.setActive(true);
+        eventManager.trigger("one");
+        scheduled.get(0).run();
+
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void verifyMethodName() throws NoSuchMethodException {
+        assertNotNull(DeferredEventObserver.class.getMethod(DeferredEventObserver.SET_ACTIVE, boolean.class));
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class EagerWarmUpTest {
+
+    private static final ScopeKey<ScopeTarget> DEPENDENCY_KEY = ScopeKey.of(ScopeTarget.class).annotatedBy("@eagerDependency");
+    private static final ScopeKey<ScopeTarget> DEPENDENT_KEY = ScopeKey.of(ScopeTarget.class).annotatedBy("@eagerDependent");
+
+    private IndexedScope scope;
+    private AtomicInteger constructions;
+
+    private final class ScopedProvider implements Provider<ScopeTarget> {
+        private final ScopeKey<ScopeTarget> key;
+        private final Provider<ScopeTarget> unscoped;
+
+        private ScopedProvider(ScopeKey<ScopeTarget> key, Provider<ScopeTarget> unscoped) {
+            this.key = key;
+            this.unscoped = unscoped;
+        }
+
+        @Override
+        public ScopeTarget get() {
+            return scope.getScopedObject(key, unscoped);
+        }
+    }
+
+    private final class CountingProvider implements Provider<ScopeTarget> {
+        @Override
+        public ScopeTarget get() {
+            constructions.incrementAndGet();
+            return new ScopeTarget();
+        }
+    }
+
+    private final class DependentProvider implements Provider<ScopeTarget> {
+        @Override
+        public ScopeTarget get() {
+            // mirrors a constructor injection of the dependency
+            new ScopedProvider(DEPENDENCY_KEY, new CountingProvider()).get();
+            constructions.incrementAndGet();
+            return new ScopeTarget();
+        }
+    }
+
+    @Before
+    public void setup() {
+        scope = new IndexedScope();
+        constructions = new AtomicInteger();
+    }
+
+    @Test
+    public void testWarmUp() throws InterruptedException {
+        EagerWarmUp warmUp = EagerWarmUp.start(
+                new ScopedProvider(DEPENDENCY_KEY, new CountingProvider()),
+                new ScopedProvider(DEPENDENT_KEY, new DependentProvider()));
+
+        assertSame(warmUp, EagerWarmUp.getCurrent());
+        assertTrue(warmUp.await(10, TimeUnit.SECONDS));
+
+        assertTrue(warmUp.isFinished());
+        assertEquals(2, warmUp.getCount());
+        assertEquals(2, warmUp.getCompletedCount());
+        assertEquals(0, warmUp.getFailedCount());
+        assertEquals(2, constructions.get());
+        assertTrue(warmUp.getElapsedNanos() > 0);
+
+        // injections now hit the warmed instances
+        assertNotNull(new ScopedProvider(DEPENDENT_KEY, new DependentProvider()).get());
+        assertEquals(2, constructions.get());
+    }
+
+    @Test
+    public void testFailureRetriedByInjection() throws InterruptedException {
+        final AtomicInteger attempts = new AtomicInteger();
+        Provider<ScopeTarget> failingOnce = new Provider<ScopeTarget>() {
+            @Override
+            public ScopeTarget get() {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("first attempt");
+                }
+                return new ScopeTarget();
+            }
+        };
+
+        EagerWarmUp warmUp = EagerWarmUp.start(new ScopedProvider(DEPENDENCY_KEY, failingOnce));
+
+        assertTrue(warmUp.await(10, TimeUnit.SECONDS));
+        assertEquals(0, warmUp.getCompletedCount());
+        assertEquals(1, warmUp.getFailedCount());
+
+        assertNotNull(new ScopedProvider(DEPENDENCY_KEY, failingOnce).get());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testEmpty() throws InterruptedException {
+        EagerWarmUp warmUp = EagerWarmUp.start();
+
+        assertTrue(warmUp.await(0, TimeUnit.SECONDS));
+        assertEquals(0, warmUp.getCount());
+    }
+}
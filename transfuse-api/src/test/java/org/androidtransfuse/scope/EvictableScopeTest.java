@@ -0,0 +1,122 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class EvictableScopeTest {
+
+    private static final int MAX_WEIGHT = 4;
+
+    private static final class ScopeTargetProvider implements Provider<ScopeTarget> {
+        @Override
+        public ScopeTarget get() {
+            return new ScopeTarget();
+        }
+    }
+
+    private static final class SmallScope extends EvictableScope {
+        private SmallScope() {
+            super(MAX_WEIGHT, 0.5f);
+        }
+    }
+
+    private SmallScope scope;
+    private List<ScopeKey<ScopeTarget>> keys;
+    private List<ScopeTarget> targets;
+
+    @Before
+    public void setup() {
+        scope = new SmallScope();
+        keys = new ArrayList<ScopeKey<ScopeTarget>>();
+        targets = new ArrayList<ScopeTarget>();
+        for (int i = 0; i < MAX_WEIGHT; i++) {
+            ScopeKey<ScopeTarget> key = ScopeKey.of(ScopeTarget.class).annotatedBy("@evictable" + i);
+            keys.add(key);
+            targets.add(scope.getScopedObject(key, new ScopeTargetProvider()));
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        assertEquals(MAX_WEIGHT, scope.getMissCount());
+        assertEquals(0, scope.getHitCount());
+
+        assertSame(targets.get(0), scope.getScopedObject(keys.get(0), new ScopeTargetProvider()));
+
+        assertEquals(1, scope.getHitCount());
+        assertEquals(0, scope.getEvictionCount());
+        assertEquals(MAX_WEIGHT, scope.getWeight());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        // touch the first key so the second becomes the eldest
+        scope.getScopedObject(keys.get(0), new ScopeTargetProvider());
+        scope.getScopedObject(ScopeKey.of(ScopeTarget.class).annotatedBy("@evictableOverflow"), new ScopeTargetProvider());
+
+        assertEquals(1, scope.getEvictionCount());
+        assertEquals(MAX_WEIGHT, scope.getWeight());
+        assertSame(targets.get(0), scope.getScopedObject(keys.get(0), new ScopeTargetProvider()));
+    }
+
+    @Test
+    public void testSoftTierPromotion() {
+        scope.lowMemory();
+
+        assertEquals(0, scope.getWeight());
+        assertEquals(MAX_WEIGHT, scope.getEvictionCount());
+
+        // strongly reachable from the test, so the soft references are not cleared
+        for (int i = 0; i < MAX_WEIGHT; i++) {
+            assertSame(targets.get(i), scope.getScopedObject(keys.get(i), new ScopeTargetProvider()));
+        }
+        assertEquals(MAX_WEIGHT, scope.getWeight());
+    }
+
+    @Test
+    public void testTrimFraction() {
+        scope.trimMemory(20);
+
+        assertEquals(MAX_WEIGHT / 2, scope.getWeight());
+
+        scope.trimMemory(EvictableScope.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(0, scope.getWeight());
+    }
+
+    @Test
+    public void testScopesForwarding() {
+        Scopes scopes = new Scopes()
+                .addScope(Singleton.class, scope)
+                .addScope(ApplicationScope.ApplicationScopeQualifier.class, new IndexedScope());
+
+        scopes.trimMemory(EvictableScope.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(0, scope.getWeight());
+    }
+}
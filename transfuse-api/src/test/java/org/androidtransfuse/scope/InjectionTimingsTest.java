@@ -0,0 +1,146 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class InjectionTimingsTest {
+
+    private final List<String> phases = new ArrayList<String>();
+    private final List<Map<Class<? extends Annotation>, Integer>> injections = new ArrayList<Map<Class<? extends Annotation>, Integer>>();
+    private Scopes scopes;
+
+    private static final class ScopeTargetProvider implements Provider<ScopeTarget> {
+        @Override
+        public ScopeTarget get() {
+            return new ScopeTarget();
+        }
+    }
+
+    private static final class TrimCountingScope extends ConcurrentDoubleLockingScope implements TrimmableScope {
+        private int trims;
+
+        @Override
+        public void trimMemory(int level) {
+            trims++;
+        }
+
+        @Override
+        public void lowMemory() {
+            trims++;
+        }
+    }
+
+    @Before
+    public void setup() {
+        scopes = new Scopes()
+                .addScope(Singleton.class, new ConcurrentDoubleLockingScope())
+                .addScope(ApplicationScope.ApplicationScopeQualifier.class, new IndexedScope());
+
+        InjectionTimings.setListener(new InjectionTimingListener() {
+            @Override
+            public void onInjection(Class<?> component, long nanos, Map<Class<? extends Annotation>, Integer> scopedConstructions) {
+                injections.add(scopedConstructions);
+            }
+
+            @Override
+            public void onPhase(Class<?> component, String method, String phase, long nanos) {
+                phases.add(method + ":" + phase);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        InjectionTimings.setListener(null);
+    }
+
+    @Test
+    public void testConstructionCounts() {
+        InjectionTimings.Trace trace = InjectionTimings.trace(InjectionTimingsTest.class, scopes);
+        Scopes traced = trace.getScopes();
+
+        ScopeTarget first = traced.getScope(Singleton.class).getScopedObject(ScopeKey.of(ScopeTarget.class), new ScopeTargetProvider());
+        // served from the scope, not constructed
+        assertSame(first, traced.getScope(Singleton.class).getScopedObject(ScopeKey.of(ScopeTarget.class), new ScopeTargetProvider()));
+        traced.getScope(Singleton.class).getScopedObject(ScopeKey.of(ScopeTarget.class).annotatedBy("@other"), new ScopeTargetProvider());
+        traced.getScope(ApplicationScope.ApplicationScopeQualifier.class).getScopedObject(ScopeKey.of(ScopeTarget.class), new ScopeTargetProvider());
+
+        assertSame(scopes, trace.finish());
+
+        assertEquals(1, injections.size());
+        assertEquals(Integer.valueOf(2), injections.get(0).get(Singleton.class));
+        assertEquals(Integer.valueOf(1), injections.get(0).get(ApplicationScope.ApplicationScopeQualifier.class));
+        // the traced scopes share the underlying instances
+        assertSame(first, scopes.getScope(Singleton.class).getScopedObject(ScopeKey.of(ScopeTarget.class), new ScopeTargetProvider()));
+    }
+
+    @Test
+    public void testNotCountedAfterFinish() {
+        InjectionTimings.Trace trace = InjectionTimings.trace(InjectionTimingsTest.class, scopes);
+        trace.finish();
+
+        trace.getScopes().getScope(Singleton.class).getScopedObject(ScopeKey.of(ScopeTarget.class), new ScopeTargetProvider());
+
+        assertTrue(trace.getConstructions().isEmpty());
+    }
+
+    @Test
+    public void testScopeReference() {
+        ConcurrentDoubleLockingScope singletonScope = new ConcurrentDoubleLockingScope();
+        Scopes traced = InjectionTimings.trace(InjectionTimingsTest.class, scopes.addScope(Singleton.class, singletonScope)).getScopes();
+
+        // @ScopeReference injections cast to the registered type
+        assertSame(singletonScope, traced.getScopeReference(Singleton.class));
+        assertNotSame(singletonScope, traced.getScope(Singleton.class));
+    }
+
+    @Test
+    public void testTrimTraced() {
+        TrimCountingScope trimmableScope = new TrimCountingScope();
+        Scopes traced = InjectionTimings.trace(InjectionTimingsTest.class, scopes.addScope(Singleton.class, trimmableScope)).getScopes();
+
+        traced.trimMemory(EvictableScope.TRIM_MEMORY_COMPLETE);
+        traced.lowMemory();
+
+        assertEquals(2, trimmableScope.trims);
+    }
+
+    @Test
+    public void testPhase() {
+        InjectionTimings.phase(InjectionTimingsTest.class, "onCreate", "INJECTION", System.nanoTime());
+
+        InjectionTimings.setListener(null);
+        InjectionTimings.phase(InjectionTimingsTest.class, "onResume", "EVENT", System.nanoTime());
+
+        assertEquals(1, phases.size());
+        assertEquals("onCreate:INJECTION", phases.get(0));
+    }
+}
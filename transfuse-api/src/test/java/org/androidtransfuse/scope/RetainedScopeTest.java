@@ -0,0 +1,67 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.androidtransfuse.annotations.Retained;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Provider;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class RetainedScopeTest {
+
+    private static final ScopeKey<ScopeTarget> KEY = ScopeKey.of(ScopeTarget.class).annotatedBy("@retained");
+
+    private static final class ScopeTargetProvider implements Provider<ScopeTarget> {
+        @Override
+        public ScopeTarget get() {
+            return new ScopeTarget();
+        }
+    }
+
+    private RetainedScope scope;
+
+    @Before
+    public void setup() {
+        scope = new RetainedScope();
+    }
+
+    @Test
+    public void testRetainedAcrossLookups() {
+        ScopeTarget target = scope.getScopedObject(KEY, new ScopeTargetProvider());
+
+        // a replacing Activity registers the same RetainedScope instance
+        Scopes recreated = new Scopes().addScope(Retained.class, scope);
+
+        assertSame(target, recreated.getScope(Retained.class).getScopedObject(KEY, new ScopeTargetProvider()));
+        assertEquals(1, scope.size());
+    }
+
+    @Test
+    public void testRelease() {
+        ScopeTarget target = scope.getScopedObject(KEY, new ScopeTargetProvider());
+
+        scope.release();
+
+        assertEquals(0, scope.size());
+        assertNotSame(target, scope.getScopedObject(KEY, new ScopeTargetProvider()));
+    }
+}
@@ -64,4 +64,14 @@ public class ScopeKeyTest {
 
         assertNotEquals(one, two);
     }
+
+    @Test
+    public void testId(){
+        ScopeKey one = ScopeKey.of(ScopeKeyTest.class).annotatedBy("@Id");
+        ScopeKey two = ScopeKey.of(ScopeKeyTest.class).annotatedBy("@Id");
+        ScopeKey three = ScopeKey.of(ScopeKeyTest.class).annotatedBy("@OtherId");
+
+        assertEquals(one.getId(), two.getId());
+        assertNotEquals(one.getId(), three.getId());
+    }
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.scope;
+
+import org.junit.Test;
+
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class SingleConstructionTest {
+
+    private static final int THREADS = 8;
+
+    private static final class CountingProvider implements Provider<ScopeTarget> {
+
+        private final AtomicInteger constructions = new AtomicInteger();
+        private final CountDownLatch started;
+
+        private CountingProvider(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public ScopeTarget get() {
+            constructions.incrementAndGet();
+            try {
+                // give the other threads time to request the same key
+                started.await(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ScopeTarget();
+        }
+    }
+
+    @Test
+    public void testConcurrentDoubleLockingSingleConstruction() throws Exception {
+        verifySingleConstruction(new ConcurrentDoubleLockingScope(), "@concurrentSingle");
+    }
+
+    @Test
+    public void testIndexedSingleConstruction() throws Exception {
+        verifySingleConstruction(new IndexedScope(), "@indexedSingle");
+    }
+
+    @Test(timeout = 5000)
+    public void testConcurrentDoubleLockingReentrant() {
+        verifyReentrant(new ConcurrentDoubleLockingScope(), "@concurrentReentrant");
+    }
+
+    @Test(timeout = 5000)
+    public void testIndexedReentrant() {
+        verifyReentrant(new IndexedScope(), "@indexedReentrant");
+    }
+
+    @Test(timeout = 5000)
+    public void testIndexedFailureRetry() {
+        final IndexedScope scope = new IndexedScope();
+        final ScopeKey<ScopeTarget> key = ScopeKey.of(ScopeTarget.class).annotatedBy("@indexedFailure");
+
+        try {
+            scope.getScopedObject(key, new Provider<ScopeTarget>() {
+                @Override
+                public ScopeTarget get() {
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertNotNull(scope.getScopedObject(key, new CountingProvider(new CountDownLatch(0))));
+    }
+
+    private void verifySingleConstruction(final Scope scope, String annotation) throws Exception {
+        final ScopeKey<ScopeTarget> key = ScopeKey.of(ScopeTarget.class).annotatedBy(annotation);
+        final CountDownLatch started = new CountDownLatch(THREADS);
+        final CountingProvider provider = new CountingProvider(started);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<ScopeTarget>> results = new ArrayList<Future<ScopeTarget>>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<ScopeTarget>() {
+                    @Override
+                    public ScopeTarget call() {
+                        started.countDown();
+                        return scope.getScopedObject(key, provider);
+                    }
+                }));
+            }
+
+            ScopeTarget first = results.get(0).get();
+            for (Future<ScopeTarget> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, provider.constructions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void verifyReentrant(final Scope scope, String annotation) {
+        final ScopeKey<ScopeTarget> outerKey = ScopeKey.of(ScopeTarget.class).annotatedBy(annotation + "Outer");
+        final ScopeKey<ScopeTarget> innerKey = ScopeKey.of(ScopeTarget.class).annotatedBy(annotation + "Inner");
+        final ScopeTarget inner = new ScopeTarget();
+
+        ScopeTarget outer = scope.getScopedObject(outerKey, new Provider<ScopeTarget>() {
+            @Override
+            public ScopeTarget get() {
+                // another singleton, then the key under construction itself
+                assertSame(inner, scope.getScopedObject(innerKey, new Provider<ScopeTarget>() {
+                    @Override
+                    public ScopeTarget get() {
+                        return inner;
+                    }
+                }));
+                scope.getScopedObject(outerKey, new CountingProvider(new CountDownLatch(0)));
+                return new ScopeTarget();
+            }
+        });
+
+        assertSame(outer, scope.getScopedObject(outerKey, new CountingProvider(new CountDownLatch(0))));
+        assertSame(inner, scope.getScopedObject(innerKey, new CountingProvider(new CountDownLatch(0))));
+    }
+}
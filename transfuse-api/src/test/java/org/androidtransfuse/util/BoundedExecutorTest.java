@@ -0,0 +1,165 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class BoundedExecutorTest {
+
+    private BoundedExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setup() {
+        executor = new BoundedExecutor("test", 1, 1, new ThreadPoolExecutor.AbortPolicy());
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRejectionWhenFull() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        });
+        started.await();
+        executor.execute(new BlockingRunnable());
+
+        assertEquals(1, executor.getQueueDepth());
+
+        try {
+            executor.execute(new BlockingRunnable());
+            fail("Expected rejection");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void testBlockingPolicy() throws InterruptedException {
+        executor.shutdownNow();
+        executor = new BoundedExecutor("test", 1, 1, new BoundedExecutor.BlockingPolicy());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(3);
+        final Thread caller = Thread.currentThread();
+        final boolean[] ranOnCaller = new boolean[1];
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+                finished.countDown();
+            }
+        });
+        started.await();
+        for (int i = 0; i < 2; i++) {
+            if (i == 1) {
+                //the second task waits for queue capacity, released once the caller blocks
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        while (caller.getState() != Thread.State.WAITING) {
+                            Thread.yield();
+                        }
+                        release.countDown();
+                    }
+                }).start();
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ranOnCaller[0] |= Thread.currentThread() == caller;
+                    finished.countDown();
+                }
+            });
+        }
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertFalse(ranOnCaller[0]);
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+        final CountDownLatch finished = new CountDownLatch(2);
+        release.countDown();
+        for (int i = 0; i < 2; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    finished.countDown();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(2, executor.getCompletedCount());
+        assertTrue(executor.getMaxWaitNanos() >= executor.getAverageWaitNanos());
+    }
+
+    @Test
+    public void testThreadName() throws InterruptedException {
+        final String[] name = new String[1];
+        final CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                name[0] = Thread.currentThread().getName();
+                finished.countDown();
+            }
+        });
+        finished.await();
+
+        assertTrue(name[0].startsWith("test-"));
+    }
+
+    private final class BlockingRunnable implements Runnable {
+        @Override
+        public void run() {
+            await(release);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
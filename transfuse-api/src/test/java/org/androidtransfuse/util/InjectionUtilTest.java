@@ -100,6 +100,31 @@ public class InjectionUtilTest {
         assertEquals(TEST_VALUE, target.getSuperValue());
     }
 
+    @Test
+    public void testAccessorsCached() {
+        assertSame(InjectionUtil.getFieldAccessor(Target.class, "value"), InjectionUtil.getFieldAccessor(Target.class, "value"));
+        assertSame(InjectionUtil.getMethodAccessor(Target.class, "setPrivateValue", String.class),
+                InjectionUtil.getMethodAccessor(Target.class, "setPrivateValue", String.class));
+        assertSame(InjectionUtil.getConstructorAccessor(Target.class, String.class), InjectionUtil.getConstructorAccessor(Target.class, String.class));
+        assertNotSame(InjectionUtil.getConstructorAccessor(Target.class), InjectionUtil.getConstructorAccessor(Target.class, String.class));
+    }
+
+    @Test
+    public void testFieldAccessor() {
+        Target target = new Target();
+        FieldAccessor accessor = InjectionUtil.getFieldAccessor(Target.class, "value");
+
+        accessor.set(target, TEST_VALUE);
+
+        assertEquals(TEST_VALUE, target.getValue());
+        assertEquals(TEST_VALUE, accessor.get(String.class, target));
+    }
+
+    @Test(expected = TransfuseInjectionException.class)
+    public void testMissingFieldAccessor() {
+        InjectionUtil.getFieldAccessor(Target.class, "missing");
+    }
+
     @Test
     public void verifyMethodNames() throws NoSuchMethodException {
 
@@ -111,5 +136,12 @@ public class InjectionUtilTest {
         assertNotNull(getFieldMethod);
         Method setFieldMethod = InjectionUtil.class.getMethod(InjectionUtil.SET_FIELD_METHOD, Class.class, Object.class, String.class, Object.class);
         assertNotNull(setFieldMethod);
+        assertNotNull(InjectionUtil.class.getMethod(InjectionUtil.GET_FIELD_ACCESSOR_METHOD, Class.class, String.class));
+        assertNotNull(InjectionUtil.class.getMethod(InjectionUtil.GET_METHOD_ACCESSOR_METHOD, Class.class, String.class, Class[].class));
+        assertNotNull(InjectionUtil.class.getMethod(InjectionUtil.GET_CONSTRUCTOR_ACCESSOR_METHOD, Class.class, Class[].class));
+        assertNotNull(FieldAccessor.class.getMethod(FieldAccessor.GET_METHOD, Class.class, Object.class));
+        assertNotNull(FieldAccessor.class.getMethod(FieldAccessor.SET_METHOD, Object.class, Object.class));
+        assertNotNull(MethodAccessor.class.getMethod(MethodAccessor.INVOKE_METHOD, Class.class, Object.class, Object[].class));
+        assertNotNull(ConstructorAccessor.class.getMethod(ConstructorAccessor.NEW_INSTANCE_METHOD, Object[].class));
     }
 }
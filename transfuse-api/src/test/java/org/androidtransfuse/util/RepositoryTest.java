@@ -26,6 +26,6 @@ public class RepositoryTest {
 
     @Test
     public void testGetMethod() throws NoSuchMethodException {
-        assertNotNull(Repository.class.getMethod(Repository.GET_METHOD));
+        assertNotNull(Repository.class.getMethod(Repository.GET_METHOD, Class.class));
     }
 }
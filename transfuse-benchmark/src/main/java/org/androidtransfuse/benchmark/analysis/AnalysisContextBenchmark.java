@@ -0,0 +1,63 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.analysis;
+
+import org.androidtransfuse.adapter.ASTStringType;
+import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.model.InjectionNode;
+import org.androidtransfuse.model.InjectionSignature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building an `AnalysisContext` dependency chain of the given depth, checking each new dependent against the
+ * chain first as the `Analyzer` does.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisContextBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int depth;
+
+    private InjectionNode[] nodes;
+
+    @Setup
+    public void setup() {
+        nodes = new InjectionNode[depth];
+        for (int i = 0; i < depth; i++) {
+            nodes[i] = new InjectionNode(new InjectionSignature(new ASTStringType("Type" + i)));
+        }
+    }
+
+    @Benchmark
+    public AnalysisContext dependencyChain() {
+        AnalysisContext context = new AnalysisContext(null);
+        for (InjectionNode node : nodes) {
+            if (!context.isDependent(node.getASTType())) {
+                context = context.addDependent(node);
+            }
+        }
+        return context;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.aop;
+
+import org.androidtransfuse.aop.MethodInterceptorChain;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a direct call against calls through a `MethodInterceptorChain` with one and three pass-through
+ * interceptors.  The proxy below mirrors the code generated by the `AOPProxyGenerator`: one chain per proxied method,
+ * built at construction, and a stateless `MethodExecution` that unpacks the arguments array.
+ *
+ * Run with `-prof gc` to report the allocation per call.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInterceptorChainBenchmark {
+
+    private Target target;
+    private Target oneInterceptorProxy;
+    private Target threeInterceptorProxy;
+    private int value;
+
+    public static class Target {
+        public int add(int left, int right) {
+            return left + right;
+        }
+    }
+
+    public static class PassThroughInterceptor implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+    public static class TargetProxy extends Target {
+
+        private static final Method ADD_METHOD = MethodInterceptorChain.resolveMethod(TargetProxy.class, "add", int.class, int.class);
+
+        private final MethodInterceptorChain methodInterceptorChain;
+
+        public TargetProxy(MethodInterceptor... interceptors) {
+            methodInterceptorChain = new MethodInterceptorChain(new AddMethodExecution(), this, interceptors);
+        }
+
+        @Override
+        public int add(int left, int right) {
+            return (Integer) methodInterceptorChain.invoke(new Object[]{left, right});
+        }
+
+        private final class AddMethodExecution implements MethodInterceptorChain.MethodExecution {
+
+            @Override
+            public Method getMethod() {
+                return ADD_METHOD;
+            }
+
+            @Override
+            public Object invoke(Object[] arguments) {
+                return TargetProxy.super.add((Integer) arguments[0], (Integer) arguments[1]);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        target = new Target();
+        oneInterceptorProxy = new TargetProxy(new PassThroughInterceptor());
+        threeInterceptorProxy = new TargetProxy(new PassThroughInterceptor(), new PassThroughInterceptor(), new PassThroughInterceptor());
+        value = 42;
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.add(value, 1);
+    }
+
+    @Benchmark
+    public int oneInterceptor() {
+        return oneInterceptorProxy.add(value, 1);
+    }
+
+    @Benchmark
+    public int threeInterceptors() {
+        return threeInterceptorProxy.add(value, 1);
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.event;
+
+import org.androidtransfuse.annotations.EventDelivery;
+import org.androidtransfuse.event.CoalescingEventObserver;
+import org.androidtransfuse.event.EventManager;
+import org.androidtransfuse.event.EventObserver;
+import org.androidtransfuse.event.ExecutorEventObserver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares publisher throughput and latency of `EventManager.trigger()` for each `EventDelivery` mode, with an
+ * observer that performs a fixed amount of work per event.
+ *
+ * The UI thread is stood in for by a single thread executor, as a `Handler` is not available off device.  Both
+ * executors are bounded and run the event on the publisher once full, so the asynchronous modes report sustained
+ * throughput rather than the rate at which an unbounded queue can grow.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDeliveryBenchmark {
+
+    private static final int QUEUE_SIZE = 1024;
+
+    @Param({"SYNCHRONOUS", "BACKGROUND", "UI_THREAD", "COALESCED"})
+    public EventDelivery delivery;
+
+    @Param({"100"})
+    public int observerWork;
+
+    private EventManager eventManager;
+    private ThreadPoolExecutor backgroundExecutor;
+    private ThreadPoolExecutor uiThreadExecutor;
+    private EventObserver<Event> observer;
+
+    public static final class Event {}
+
+    @Setup
+    public void setup() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        backgroundExecutor = new ThreadPoolExecutor(processors, processors, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadPoolExecutor.CallerRunsPolicy());
+        uiThreadExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        EventObserver<Event> work = new EventObserver<Event>() {
+            @Override
+            public void trigger(Event event) {
+                Blackhole.consumeCPU(observerWork);
+            }
+        };
+
+        switch (delivery) {
+            case BACKGROUND:
+                observer = new ExecutorEventObserver<Event>(work, backgroundExecutor);
+                break;
+            case UI_THREAD:
+                observer = new ExecutorEventObserver<Event>(work, uiThreadExecutor);
+                break;
+            case COALESCED:
+                observer = new CoalescingEventObserver<Event>(work, uiThreadExecutor);
+                break;
+            default:
+                observer = work;
+        }
+
+        eventManager = new EventManager();
+        eventManager.register(Event.class, observer);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        backgroundExecutor.shutdown();
+        uiThreadExecutor.shutdown();
+        backgroundExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        uiThreadExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void trigger() {
+        eventManager.trigger(new Event());
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.processor;
+
+import org.androidtransfuse.TransfuseAnnotationProcessor;
+import org.androidtransfuse.processor.TransactionProcessorPoolFactory;
+import org.androidtransfuse.util.ManifestLocator;
+import org.openjdk.jmh.annotations.*;
+
+import javax.tools.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Transfuse annotation processor over a synthetic project of `components` Activities, each with constructor,
+ * field and method injections, using 1, 2, 4 and 8 processor threads (the `transfuseProcessorThreads` option).
+ *
+ * The processor runs in process through `javax.tools` with `-proc:only`, so the measurement covers analysis, code
+ * generation, manifest merging and writing the generated sources, but not compiling them.  The android jar is located
+ * through the local Maven repository at build time and may be overridden with `-Dandroid.jar=...`.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotationProcessorBenchmark {
+
+    private static final String ANDROID_JAR = "android.jar";
+    private static final String PACKAGE = "bench";
+    private static final int PACKAGES = 20;
+    private static final String MANIFEST = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<manifest package=\"" + PACKAGE + "\" xmlns:android=\"http://schemas.android.com/apk/res/android\">\n" +
+            "    <application android:label=\"bench\"/>\n" +
+            "</manifest>\n";
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1000"})
+    public int components;
+
+    private JavaCompiler compiler;
+    private File root;
+    private File manifest;
+    private List<File> sources;
+    private String classpath;
+    private File output;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("A JDK is required to run " + AnnotationProcessorBenchmark.class.getSimpleName());
+        }
+
+        root = createTempDirectory("transfuse-benchmark");
+        manifest = new File(root, "AndroidManifest.xml");
+        classpath = System.getProperty("java.class.path") + File.pathSeparator + getAndroidJar();
+        sources = new ArrayList<File>();
+
+        File sourceRoot = new File(root, "src");
+        sources.add(write(new File(sourceRoot, PACKAGE + "/SharedService.java"),
+                "package " + PACKAGE + ";\n" +
+                "@javax.inject.Singleton\n" +
+                "public class SharedService {\n" +
+                "    @javax.inject.Inject public SharedService() {}\n" +
+                "}\n"));
+        sources.add(write(new File(sourceRoot, PACKAGE + "/Dependency.java"),
+                "package " + PACKAGE + ";\n" +
+                "public class Dependency {\n" +
+                "    @javax.inject.Inject SharedService service;\n" +
+                "}\n"));
+
+        for (int i = 0; i < components; i++) {
+            String componentPackage = PACKAGE + ".c" + (i % PACKAGES);
+            sources.add(write(new File(sourceRoot, componentPackage.replace('.', '/') + "/Component" + i + ".java"),
+                    "package " + componentPackage + ";\n" +
+                    "import org.androidtransfuse.annotations.*;\n" +
+                    "import javax.inject.Inject;\n" +
+                    "@Activity(label = \"Component" + i + "\")\n" +
+                    "public class Component" + i + " {\n" +
+                    "    @Inject " + PACKAGE + ".Dependency dependency;\n" +
+                    "    private " + PACKAGE + ".SharedService service;\n" +
+                    "    @Inject public Component" + i + "(" + PACKAGE + ".SharedService service) { this.service = service; }\n" +
+                    "    @Inject public void setDependency(" + PACKAGE + ".Dependency dependency) {}\n" +
+                    "    @OnCreate public void onCreate() {}\n" +
+                    "}\n"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() throws IOException {
+        //the processor writes the merged manifest back out
+        write(manifest, MANIFEST);
+        output = createTempDirectory("transfuse-benchmark-out");
+    }
+
+    @TearDown(Level.Invocation)
+    public void clean() {
+        delete(output);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public boolean process() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            List<String> options = new ArrayList<String>();
+            Collections.addAll(options,
+                    "-proc:only",
+                    "-classpath", classpath,
+                    "-s", output.getAbsolutePath(),
+                    "-d", output.getAbsolutePath(),
+                    "-A" + ManifestLocator.ANDROID_MANIFEST_FILE_OPTION + "=" + manifest.getAbsolutePath(),
+                    "-A" + TransactionProcessorPoolFactory.PROCESSOR_THREADS_OPTION + "=" + threads);
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources));
+            task.setProcessors(Collections.singleton(new TransfuseAnnotationProcessor()));
+
+            //keep JAXB from resolving the shaded jar's unrelocated ContextFactory service entry
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(ClassLoader.getSystemClassLoader().getParent());
+            try {
+                if (!task.call()) {
+                    throw new IllegalStateException("Annotation processing failed: " + diagnostics.getDiagnostics());
+                }
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            }
+            return true;
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static String getAndroidJar() throws IOException {
+        String androidJar = System.getProperty(ANDROID_JAR);
+        if (androidJar == null) {
+            Properties properties = new Properties();
+            InputStream input = AnnotationProcessorBenchmark.class.getResourceAsStream("/benchmark.properties");
+            try {
+                properties.load(input);
+            } finally {
+                input.close();
+            }
+            androidJar = properties.getProperty(ANDROID_JAR);
+        }
+        return androidJar;
+    }
+
+    private static File createTempDirectory(String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        if (!directory.delete() || !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+        return directory;
+    }
+
+    private static File write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.processor;
+
+import org.androidtransfuse.config.SynchronizedFiler;
+import org.androidtransfuse.gen.FilerWriteQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Writes `files` generated sources from `threads` generating threads, either creating each file through the
+ * `SynchronizedFiler` on the generating thread or handing the rendered source to the `FilerWriteQueue`.
+ *
+ * The javac `Filer` is stood in for by an in-memory `Filer` spending `filerWork` tokens creating each file, the
+ * bookkeeping javac performs under the lock.  Each source spends `renderWork` tokens being rendered.  An invocation
+ * completes once every file has been written.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedSourceWriteBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String PACKAGE = "bench";
+
+    public enum Writer {SYNCHRONIZED, QUEUED}
+
+    @Param({"SYNCHRONIZED", "QUEUED"})
+    public Writer writer;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"500"})
+    public int files;
+
+    @Param({"2000"})
+    public int renderWork;
+
+    @Param({"500"})
+    public int filerWork;
+
+    private InMemoryFiler inMemoryFiler;
+    private Filer synchronizedFiler;
+    private FilerWriteQueue writeQueue;
+    private ExecutorService executorService;
+
+    @Setup
+    public void setup() {
+        inMemoryFiler = new InMemoryFiler();
+        synchronizedFiler = new SynchronizedFiler(inMemoryFiler);
+        writeQueue = new FilerWriteQueue(inMemoryFiler);
+        executorService = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public int write() throws Exception {
+        List<Future<?>> generated = new ArrayList<Future<?>>();
+        for (int i = 0; i < threads; i++) {
+            final int offset = i;
+            generated.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    for (int file = offset; file < files; file += threads) {
+                        writeSource(PACKAGE + ".Generated" + file);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : generated) {
+            future.get();
+        }
+        if (writer == Writer.QUEUED) {
+            writeQueue.flush();
+        }
+        return inMemoryFiler.size();
+    }
+
+    private void writeSource(String className) throws IOException {
+        OutputStream outputStream;
+        if (writer == Writer.QUEUED) {
+            outputStream = writeQueue.openSource(className);
+        } else {
+            outputStream = synchronizedFiler.createSourceFile(className).openOutputStream();
+        }
+        try {
+            outputStream.write(render(className));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private byte[] render(String className) {
+        Blackhole.consumeCPU(renderWork);
+        StringBuilder builder = new StringBuilder();
+        builder.append("package ").append(PACKAGE).append(";\n\npublic class ")
+                .append(className.substring(PACKAGE.length() + 1)).append(" {\n");
+        for (int i = 0; i < 20; i++) {
+            builder.append("    private java.lang.String field").append(i).append(" = \"").append(className).append("\";\n");
+        }
+        builder.append("}\n");
+        return builder.toString().getBytes(UTF_8);
+    }
+
+    private final class InMemoryFiler implements Filer {
+
+        private final ConcurrentMap<String, byte[]> sources = new ConcurrentHashMap<String, byte[]>();
+
+        @Override
+        public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+            Blackhole.consumeCPU(filerWork);
+            return new InMemorySource(name.toString());
+        }
+
+        @Override
+        public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) {
+            throw new UnsupportedOperationException();
+        }
+
+        public int size() {
+            return sources.size();
+        }
+
+        private final class InMemorySource extends SimpleJavaFileObject {
+
+            private final String className;
+
+            private InMemorySource(String className) {
+                super(URI.create("mem:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+                this.className = className;
+            }
+
+            @Override
+            public OutputStream openOutputStream() {
+                return new ByteArrayOutputStream() {
+                    @Override
+                    public void close() {
+                        sources.put(className, toByteArray());
+                    }
+                };
+            }
+        }
+    }
+}
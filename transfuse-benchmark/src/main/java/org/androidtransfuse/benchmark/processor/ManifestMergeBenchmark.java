@@ -0,0 +1,103 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.processor;
+
+import org.androidtransfuse.model.manifest.*;
+import org.androidtransfuse.processor.Merger;
+import org.androidtransfuse.processor.MergerException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges a generated manifest of `components` Activities, each with an intent filter and a meta-data entry, into a
+ * manifest holding the Activities generated by the previous round, as `GenerateModuleProcessor` does on each build.
+ *
+ * The manifests are rebuilt before each invocation, as merging updates the target in place.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManifestMergeBenchmark {
+
+    private static final String PACKAGE = "bench";
+
+    @Param({"10", "100", "1000"})
+    public int components;
+
+    private final Merger merger = new Merger();
+    private Manifest target;
+    private Manifest source;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        target = buildManifest("previous");
+        source = buildManifest("current");
+    }
+
+    @Benchmark
+    public Manifest merge() throws MergerException {
+        return merger.merge(Manifest.class, target, source);
+    }
+
+    private Manifest buildManifest(String label) {
+        List<Activity> activities = new ArrayList<Activity>();
+        for (int i = 0; i < components; i++) {
+            activities.add(buildActivity(i, label));
+        }
+
+        Application application = new Application();
+        application.setName(PACKAGE + ".BenchApplication");
+        application.setActivities(activities);
+        application.setGenerated(true);
+
+        Manifest manifest = new Manifest();
+        manifest.setApplicationPackage(PACKAGE);
+        manifest.setApplications(new ArrayList<Application>(Collections.singletonList(application)));
+        return manifest;
+    }
+
+    private Activity buildActivity(int index, String label) {
+        Action action = new Action();
+        action.setName(PACKAGE + ".ACTION_" + index);
+        action.setGenerated(true);
+
+        IntentFilter intentFilter = new IntentFilter();
+        intentFilter.setActions(new ArrayList<Action>(Collections.singletonList(action)));
+        intentFilter.setGenerated(true);
+
+        MetaData metaData = new MetaData();
+        metaData.setName(PACKAGE + ".meta" + index);
+        metaData.setValue(label);
+        metaData.setGenerated(true);
+
+        Activity activity = new Activity();
+        activity.setName(PACKAGE + ".Activity" + index);
+        activity.setLabel(label);
+        activity.setIntentFilters(new ArrayList<IntentFilter>(Collections.singletonList(intentFilter)));
+        activity.setMetaData(new ArrayList<MetaData>(Collections.singletonList(metaData)));
+        activity.setGenerated(true);
+        return activity;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.repository;
+
+import org.androidtransfuse.util.Repository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a generated repository of 16 entries and looking up one of them, as done by the first
+ * `Factories.get()` or `Bootstraps.inject()` call of an application.
+ *
+ * `eager` mirrors the previously generated repositories, which built every entry into a map on construction.  `lazy`
+ * mirrors the generated `get(Class)` switching on the type name hash, building only the requested entry.  Class
+ * loading is paid once per process and is not measured here; the eager repository additionally loaded every entry
+ * class up front.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryStartupBenchmark {
+
+    public interface Target0 {}
+    public interface Target1 {}
+    public interface Target2 {}
+    public interface Target3 {}
+    public interface Target4 {}
+    public interface Target5 {}
+    public interface Target6 {}
+    public interface Target7 {}
+    public interface Target8 {}
+    public interface Target9 {}
+    public interface Target10 {}
+    public interface Target11 {}
+    public interface Target12 {}
+    public interface Target13 {}
+    public interface Target14 {}
+    public interface Target15 {}
+
+    public static class Entry {
+        private final Class<?> target;
+
+        public Entry(Class<?> target) {
+            this.target = target;
+        }
+    }
+
+    public static class EagerRepository implements Repository<Entry> {
+
+        private final Map<Class, Entry> map = new HashMap<Class, Entry>();
+
+        public EagerRepository() {
+            map.put(Target0.class, new Entry(Target0.class));
+            map.put(Target1.class, new Entry(Target1.class));
+            map.put(Target2.class, new Entry(Target2.class));
+            map.put(Target3.class, new Entry(Target3.class));
+            map.put(Target4.class, new Entry(Target4.class));
+            map.put(Target5.class, new Entry(Target5.class));
+            map.put(Target6.class, new Entry(Target6.class));
+            map.put(Target7.class, new Entry(Target7.class));
+            map.put(Target8.class, new Entry(Target8.class));
+            map.put(Target9.class, new Entry(Target9.class));
+            map.put(Target10.class, new Entry(Target10.class));
+            map.put(Target11.class, new Entry(Target11.class));
+            map.put(Target12.class, new Entry(Target12.class));
+            map.put(Target13.class, new Entry(Target13.class));
+            map.put(Target14.class, new Entry(Target14.class));
+            map.put(Target15.class, new Entry(Target15.class));
+        }
+
+        @Override
+        public Entry get(Class type) {
+            return map.get(type);
+        }
+    }
+
+    public static class LazyRepository implements Repository<Entry> {
+
+        @Override
+        public Entry get(Class type) {
+            switch (type.getName().hashCode()) {
+                case -846833343:
+                    if (type == Target10.class) {
+                        return new Entry(Target10.class);
+                    }
+                    break;
+                case -846833342:
+                    if (type == Target11.class) {
+                        return new Entry(Target11.class);
+                    }
+                    break;
+                case -846833341:
+                    if (type == Target12.class) {
+                        return new Entry(Target12.class);
+                    }
+                    break;
+                case -846833340:
+                    if (type == Target13.class) {
+                        return new Entry(Target13.class);
+                    }
+                    break;
+                case -846833339:
+                    if (type == Target14.class) {
+                        return new Entry(Target14.class);
+                    }
+                    break;
+                case -846833338:
+                    if (type == Target15.class) {
+                        return new Entry(Target15.class);
+                    }
+                    break;
+                case 1219608782:
+                    if (type == Target0.class) {
+                        return new Entry(Target0.class);
+                    }
+                    break;
+                case 1219608783:
+                    if (type == Target1.class) {
+                        return new Entry(Target1.class);
+                    }
+                    break;
+                case 1219608784:
+                    if (type == Target2.class) {
+                        return new Entry(Target2.class);
+                    }
+                    break;
+                case 1219608785:
+                    if (type == Target3.class) {
+                        return new Entry(Target3.class);
+                    }
+                    break;
+                case 1219608786:
+                    if (type == Target4.class) {
+                        return new Entry(Target4.class);
+                    }
+                    break;
+                case 1219608787:
+                    if (type == Target5.class) {
+                        return new Entry(Target5.class);
+                    }
+                    break;
+                case 1219608788:
+                    if (type == Target6.class) {
+                        return new Entry(Target6.class);
+                    }
+                    break;
+                case 1219608789:
+                    if (type == Target7.class) {
+                        return new Entry(Target7.class);
+                    }
+                    break;
+                case 1219608790:
+                    if (type == Target8.class) {
+                        return new Entry(Target8.class);
+                    }
+                    break;
+                case 1219608791:
+                    if (type == Target9.class) {
+                        return new Entry(Target9.class);
+                    }
+                    break;
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Entry eager() {
+        return new EagerRepository().get(Target7.class);
+    }
+
+    @Benchmark
+    public Entry lazy() {
+        return new LazyRepository().get(Target7.class);
+    }
+}
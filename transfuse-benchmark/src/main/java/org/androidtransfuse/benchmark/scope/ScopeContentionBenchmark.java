@@ -0,0 +1,148 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.scope;
+
+import org.androidtransfuse.scope.ConcurrentDoubleLockingScope;
+import org.androidtransfuse.scope.IndexedScope;
+import org.androidtransfuse.scope.ScopeKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.inject.Provider;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads walk the same sequence of cold singletons, so most keys are requested by several threads while the
+ * first construction is still running.  Each construction burns a fixed amount of CPU.  `racing` reproduces the
+ * previous scopes, which called the provider without coordination and kept the first result.
+ *
+ * Sample mode reports the latency percentiles.  The provider calls and the wasted constructions, those whose result
+ * lost to another thread's instance, are reported as the `constructions` and `wastedConstructions` secondary results
+ * of the average time run, as JMH only reports auxiliary counters in the throughput and average time modes.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ScopeContentionBenchmark {
+
+    private static final int KEYS = 1 << 16;
+    private static final ScopeKey<Target>[] SCOPE_KEYS = buildScopeKeys();
+
+    @Param({"racing", "concurrent", "indexed"})
+    private String scopeType;
+
+    @Param({"1000"})
+    private int constructionTokens;
+
+    private org.androidtransfuse.scope.Scope scope;
+
+    public static class Target {}
+
+    /**
+     * Per thread position in the key sequence.  The public fields are summed across threads by JMH.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Walker {
+        public long constructions;
+        public long wastedConstructions;
+
+        private int index;
+        private Target constructed;
+        private Provider<Target> provider;
+
+        @Setup(Level.Trial)
+        public void buildProvider(final ScopeContentionBenchmark benchmark) {
+            provider = new Provider<Target>() {
+                @Override
+                public Target get() {
+                    constructions++;
+                    Blackhole.consumeCPU(benchmark.constructionTokens);
+                    constructed = new Target();
+                    return constructed;
+                }
+            };
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            index = 0;
+            constructions = 0;
+            wastedConstructions = 0;
+        }
+    }
+
+    public static class RacingScope implements org.androidtransfuse.scope.Scope {
+
+        private final ConcurrentMap<ScopeKey, Object> singletonMap = new ConcurrentHashMap<ScopeKey, Object>();
+
+        @Override
+        public <T> T getScopedObject(ScopeKey<T> key, Provider<T> provider) {
+            Object result = singletonMap.get(key);
+            if (result == null) {
+                Object value = provider.get();
+                result = singletonMap.putIfAbsent(key, value);
+                if (result == null) {
+                    result = value;
+                }
+            }
+
+            return (T) result;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        if ("racing".equals(scopeType)) {
+            scope = new RacingScope();
+        } else if ("concurrent".equals(scopeType)) {
+            scope = new ConcurrentDoubleLockingScope();
+        } else {
+            scope = new IndexedScope();
+        }
+    }
+
+    @Benchmark
+    public Object coldSingleton(Walker walker) {
+        // once the sequence is exhausted the remaining lookups of this iteration are warm
+        Object result = scope.getScopedObject(SCOPE_KEYS[walker.index++ % KEYS], walker.provider);
+        if (walker.constructed != null) {
+            if (walker.constructed != result) {
+                walker.wastedConstructions++;
+            }
+            walker.constructed = null;
+        }
+        return result;
+    }
+
+    // generic array creation is unchecked; every element is a ScopeKey<Target>
+    @SuppressWarnings("unchecked")
+    private static ScopeKey<Target>[] buildScopeKeys() {
+        ScopeKey<Target>[] scopeKeys = new ScopeKey[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            scopeKeys[i] = ScopeKey.get(Target.class, Target.class.getName() + "@contention" + i);
+        }
+        return scopeKeys;
+    }
+}
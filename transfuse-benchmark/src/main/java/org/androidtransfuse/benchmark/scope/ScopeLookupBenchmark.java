@@ -0,0 +1,80 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.scope;
+
+import org.androidtransfuse.scope.ConcurrentDoubleLockingScope;
+import org.androidtransfuse.scope.IndexedScope;
+import org.androidtransfuse.scope.ScopeKey;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves an existing singleton from a scope populated with the given number of keys.  `stringKeyed` mirrors the
+ * previously generated code, interning the `ScopeKey` by its signature on every call and looking it up in the
+ * `ConcurrentDoubleLockingScope` map.  `slotIndexed` uses a static final `ScopeKey` constant and the `IndexedScope`.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeLookupBenchmark {
+
+    private static final String SIGNATURE = "org.androidtransfuse.benchmark.scope.ScopeLookupBenchmark.Target@javax.inject.Named(value=target)";
+    private static final ScopeKey<Target> TARGET_KEY = ScopeKey.get(Target.class, SIGNATURE);
+
+    @Param({"10", "1000"})
+    private int keys;
+
+    private ConcurrentDoubleLockingScope concurrentScope;
+    private IndexedScope indexedScope;
+    private final Provider<Target> provider = new Provider<Target>() {
+        @Override
+        public Target get() {
+            return new Target();
+        }
+    };
+
+    public static class Target {}
+
+    @Setup
+    public void setup() {
+        concurrentScope = new ConcurrentDoubleLockingScope();
+        indexedScope = new IndexedScope();
+        for (int i = 0; i < keys; i++) {
+            ScopeKey<Target> key = ScopeKey.get(Target.class, SIGNATURE + i);
+            concurrentScope.getScopedObject(key, provider);
+            indexedScope.getScopedObject(key, provider);
+        }
+        concurrentScope.getScopedObject(TARGET_KEY, provider);
+        indexedScope.getScopedObject(TARGET_KEY, provider);
+    }
+
+    @Benchmark
+    public Target stringKeyed() {
+        return concurrentScope.getScopedObject(ScopeKey.get(Target.class, SIGNATURE), provider);
+    }
+
+    @Benchmark
+    public Target slotIndexed() {
+        return indexedScope.getScopedObject(TARGET_KEY, provider);
+    }
+}
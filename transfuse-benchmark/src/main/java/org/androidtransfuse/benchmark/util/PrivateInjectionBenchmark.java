@@ -0,0 +1,150 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.benchmark.util;
+
+import org.androidtransfuse.util.FieldAccessor;
+import org.androidtransfuse.util.InjectionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures injecting an object with 20 fields.
+ *
+ * `cold` repeats the reflective lookup and accessibility change for each field, the cost paid once per member when an
+ * accessor is first resolved, and previously paid on every injection.  `warm` injects through pre-resolved
+ * `FieldAccessor` handles, as held in static fields by the generated package helpers.  `publicFields` assigns the same
+ * fields directly, as generated for public members.
+ *
+ * @author John Ericksen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrivateInjectionBenchmark {
+
+    private static final int FIELD_COUNT = 20;
+
+    private final Object value = new Object();
+    private String[] fieldNames;
+    private FieldAccessor[] accessors;
+
+    public static class PrivateTarget {
+        private Object field0;
+        private Object field1;
+        private Object field2;
+        private Object field3;
+        private Object field4;
+        private Object field5;
+        private Object field6;
+        private Object field7;
+        private Object field8;
+        private Object field9;
+        private Object field10;
+        private Object field11;
+        private Object field12;
+        private Object field13;
+        private Object field14;
+        private Object field15;
+        private Object field16;
+        private Object field17;
+        private Object field18;
+        private Object field19;
+    }
+
+    public static class PublicTarget {
+        public Object field0;
+        public Object field1;
+        public Object field2;
+        public Object field3;
+        public Object field4;
+        public Object field5;
+        public Object field6;
+        public Object field7;
+        public Object field8;
+        public Object field9;
+        public Object field10;
+        public Object field11;
+        public Object field12;
+        public Object field13;
+        public Object field14;
+        public Object field15;
+        public Object field16;
+        public Object field17;
+        public Object field18;
+        public Object field19;
+    }
+
+    @Setup
+    public void setup() {
+        fieldNames = new String[FIELD_COUNT];
+        accessors = new FieldAccessor[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fieldNames[i] = "field" + i;
+            accessors[i] = InjectionUtil.getFieldAccessor(PrivateTarget.class, fieldNames[i]);
+        }
+    }
+
+    @Benchmark
+    public PrivateTarget cold() throws NoSuchFieldException, IllegalAccessException {
+        PrivateTarget target = new PrivateTarget();
+        for (String fieldName : fieldNames) {
+            Field field = PrivateTarget.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public PrivateTarget warm() {
+        PrivateTarget target = new PrivateTarget();
+        for (FieldAccessor accessor : accessors) {
+            accessor.set(target, value);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public PublicTarget publicFields() {
+        PublicTarget target = new PublicTarget();
+        target.field0 = value;
+        target.field1 = value;
+        target.field2 = value;
+        target.field3 = value;
+        target.field4 = value;
+        target.field5 = value;
+        target.field6 = value;
+        target.field7 = value;
+        target.field8 = value;
+        target.field9 = value;
+        target.field10 = value;
+        target.field11 = value;
+        target.field12 = value;
+        target.field13 = value;
+        target.field14 = value;
+        target.field15 = value;
+        target.field16 = value;
+        target.field17 = value;
+        target.field18 = value;
+        target.field19 = value;
+        return target;
+    }
+}
@@ -1,56 +0,0 @@
-/**
- * Copyright 2013 John Ericksen
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.androidtransfuse.bootstrap;
-
-import org.androidtransfuse.scope.ScopeKey;
-import org.androidtransfuse.scope.Scopes;
-import org.androidtransfuse.util.TransfuseRuntimeException;
-
-import java.lang.annotation.Annotation;
-
-/**
- * @author John Ericksen
- */
-public class BootstrapInjectorReflectionProxy<T> implements Bootstraps.BootstrapInjector<T> {
-
-    private Bootstraps.BootstrapInjector<T> injector;
-
-    public BootstrapInjectorReflectionProxy(Class<Bootstraps.BootstrapInjector<T>> injectorClass) {
-
-        try {
-            injector = injectorClass.newInstance();
-        } catch (InstantiationException e) {
-            throw new TransfuseRuntimeException("Unable to create Boostrap Type", e);
-        } catch (IllegalAccessException e) {
-            throw new TransfuseRuntimeException("Unable to create Boostrap Type", e);
-        }
-    }
-
-    @Override
-    public <S> Bootstraps.BootstrapInjector<T> add(Class<? extends Annotation> annotation, ScopeKey<S> scopeKey, S singleton) {
-        return injector.add(annotation, scopeKey, singleton);
-    }
-
-    @Override
-    public void inject(T input) {
-        injector.inject(input);
-    }
-
-    @Override
-    public void inject(Scopes scopes, T input) {
-        injector.inject(scopes, input);
-    }
-}
@@ -117,9 +117,11 @@ public class BootstrapProcessor extends AnnotationProcessorBase {
                 BootstrapsGenerator bootstrapsGenerator = coreFactory.buildBootstrapsGenerator();
                 bootstrapsGenerator.generate(bootstrapMap);
                 coreFactory.buildVirtualProxyGenerator().generateProxies();
+                coreFactory.buildPackageHelperGenerator().generate();
 
                 JCodeModel codeModel = coreFactory.getCodeModel();
                 codeModel.build(coreFactory.buildCodeWriter(), coreFactory.buildResourceWriter());
+                coreFactory.getWriteQueue().flush();
 
             } catch (IOException e) {
                 throw new TransfuseAnalysisException("Exception while writing Bootstrap class", e);
@@ -21,6 +21,7 @@ import org.androidtransfuse.scope.Scopes;
 import org.androidtransfuse.util.GeneratedCodeRepository;
 import org.androidtransfuse.util.Namer;
 import org.androidtransfuse.util.Providers;
+import org.androidtransfuse.util.TransfuseRuntimeException;
 
 import java.lang.annotation.Annotation;
 import java.util.HashMap;
@@ -42,11 +43,16 @@ public final class Bootstraps {
                 @Override
                 public BootstrapInjector findClass(Class clazz) {
 
+                    // Bootstraps generated in another compilation unit are missing from this repository
                     try {
                         Class bootstrapClass = Class.forName(Namer.name(clazz.getName()).append(IMPL_EXT).build());
-                        return new BootstrapInjectorReflectionProxy(bootstrapClass);
+                        return (BootstrapInjector) bootstrapClass.newInstance();
                     } catch (ClassNotFoundException e) {
                         return null;
+                    } catch (InstantiationException e) {
+                        throw new TransfuseRuntimeException("Unable to instantiate generated BootstrapInjector", e);
+                    } catch (IllegalAccessException e) {
+                        throw new TransfuseRuntimeException("Unable to access generated BootstrapInjector", e);
                     }
 
                 }
@@ -15,7 +15,6 @@
  */
 package org.androidtransfuse.bootstrap;
 
-import com.google.common.collect.ImmutableMap;
 import com.sun.codemodel.*;
 import org.androidtransfuse.adapter.PackageClass;
 import org.androidtransfuse.gen.AbstractRepositoryGenerator;
@@ -24,7 +23,6 @@ import org.androidtransfuse.gen.UniqueVariableNamer;
 import org.androidtransfuse.util.Repository;
 
 import javax.inject.Inject;
-import java.util.Map;
 
 /**
  * @author John Ericksen
@@ -40,7 +38,7 @@ public class BootstrapsGenerator extends AbstractRepositoryGenerator<JDefinedCla
     }
 
     @Override
-    protected Map<? extends JExpression, ? extends JExpression> generateMapping(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) throws JClassAlreadyExistsException {
-        return ImmutableMap.of(interfaceClass.dotclass(), JExpr._new(concreteType));
+    protected JExpression generateInstance(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) {
+        return JExpr._new(concreteType);
     }
 }
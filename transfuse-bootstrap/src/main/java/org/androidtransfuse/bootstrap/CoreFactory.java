@@ -25,6 +25,7 @@ import org.androidtransfuse.adapter.element.*;
 import org.androidtransfuse.analysis.AnalysisContext;
 import org.androidtransfuse.analysis.AnalysisContextFactory;
 import org.androidtransfuse.analysis.Analyzer;
+import org.androidtransfuse.analysis.ClassHierarchyCache;
 import org.androidtransfuse.analysis.InjectionPointFactory;
 import org.androidtransfuse.analysis.astAnalyzer.ASTAnalysis;
 import org.androidtransfuse.analysis.astAnalyzer.InjectionAnalyzer;
@@ -43,7 +44,7 @@ import org.androidtransfuse.gen.variableBuilder.*;
 import org.androidtransfuse.gen.variableDecorator.*;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.model.TypedExpression;
-import org.androidtransfuse.scope.ConcurrentDoubleLockingScope;
+import org.androidtransfuse.scope.IndexedScope;
 import org.androidtransfuse.scope.Scopes;
 import org.androidtransfuse.util.*;
 import org.androidtransfuse.validation.Validator;
@@ -73,7 +74,9 @@ public class CoreFactory {
     private final ClassNamer classNamer;
     private final ClassGenerationUtil generationUtil;
     private final ProviderGenerator.ProviderCache providerCache = new ProviderGenerator.ProviderCache();
-    private final Filer filer;
+    private final CustomScopeVariableBuilder.ScopeKeyCache scopeKeyCache = new CustomScopeVariableBuilder.ScopeKeyCache();
+    private final PackageHelperRepository packageHelperRepository = new PackageHelperRepository();
+    private final FilerWriteQueue writeQueue;
     private final ModuleRepositoryImpl moduleRepository = new ModuleRepositoryImpl();
     private final Validator validator;
     private final ScopePredicate scopePredicate = new ScopePredicate(astClassFactory);
@@ -83,7 +86,7 @@ public class CoreFactory {
 
     public CoreFactory(Elements elements, Messager messager, Filer filer, String namespace) {
         this.elements = elements;
-        this.filer = filer;
+        this.writeQueue = new FilerWriteQueue(filer);
         this.classNamer = new ClassNamer(namespace);
         this.validator = new Validator("Bootstrap: ", messager);
         this.generationUtil = new ClassGenerationUtil(
@@ -124,6 +127,10 @@ public class CoreFactory {
         return new ScopesGenerator(generationUtil, getModuleRepository());
     }
 
+    public PackageHelperGenerator buildPackageHelperGenerator() {
+        return new PackageHelperGenerator(packageHelperRepository, codeModel, variableNamer, generationUtil);
+    }
+
     public BootstrapsGenerator buildBootstrapsGenerator() {
         return new BootstrapsGenerator(generationUtil, variableNamer);
     }
@@ -158,6 +165,7 @@ public class CoreFactory {
     private Analyzer buildAnalyser(){
         Analyzer analyzer = new Analyzer();
         analyzer.setVariableInjectionBuilderProvider(Providers.of(buildVariableInjectionBuilder()));
+        analyzer.setHierarchyCacheProvider(Providers.of(new ClassHierarchyCache()));
 
         return analyzer;
     }
@@ -210,8 +218,8 @@ public class CoreFactory {
 
         InjectionNodeBuilderRepository scopeRepository = new InjectionNodeBuilderRepository(buildAnalysisRepository(), astClassFactory);
 
-        scopeRepository.putScopeAspectFactory(astClassFactory.getType(Singleton.class), astClassFactory.getType(ConcurrentDoubleLockingScope.class), new SingletonScopeAspectFactory(buildVariableFactoryBuilderFactory(), astClassFactory));
-        scopeRepository.putScopeAspectFactory(astClassFactory.getType(BootstrapModule.class), astClassFactory.getType(ConcurrentDoubleLockingScope.class), new SingletonScopeAspectFactory(buildVariableFactoryBuilderFactory(), astClassFactory));
+        scopeRepository.putScopeAspectFactory(astClassFactory.getType(Singleton.class), astClassFactory.getType(IndexedScope.class), new SingletonScopeAspectFactory(buildVariableFactoryBuilderFactory(), astClassFactory));
+        scopeRepository.putScopeAspectFactory(astClassFactory.getType(BootstrapModule.class), astClassFactory.getType(IndexedScope.class), new SingletonScopeAspectFactory(buildVariableFactoryBuilderFactory(), astClassFactory));
         scopeRepository.putType(Scopes.class, new ScopesInjectionNodeBuilder(buildAnalyser(), typedExpressionFactory));
 
         return scopeRepository;
@@ -224,7 +232,7 @@ public class CoreFactory {
                 if(modifier.equals(ASTAccessModifier.PUBLIC)){
                     return new PublicInvocationBuilder(new TypeInvocationHelper(astClassFactory, generationUtil), generationUtil);
                 }
-                return new PrivateInvocationBuilder(generationUtil);
+                return new PrivateInvocationBuilder(generationUtil, packageHelperRepository);
             }
         });
     }
@@ -234,11 +242,15 @@ public class CoreFactory {
     }
 
     public CodeWriter buildCodeWriter() {
-        return new FilerSourceCodeWriter(filer);
+        return new FilerSourceCodeWriter(writeQueue);
     }
 
     public CodeWriter buildResourceWriter(){
-        return new FilerResourceWriter(filer);
+        return new FilerResourceWriter(writeQueue);
+    }
+
+    public FilerWriteQueue getWriteQueue() {
+        return writeQueue;
     }
 
     private InjectionFragmentGenerator buildInjectionGenerator(){
@@ -292,7 +304,9 @@ public class CoreFactory {
 
         InstallProcessor installProcessor = new InstallProcessor(moduleRepository);
 
-        return new ModuleProcessor(bindProcessor, bindProviderProcessor,  bindingConfigurationFactory, providesProcessor, astClassFactory, defineScopeProcessor, installProcessor, moduleRepository, buildInjectionNodeRepositoryProvider());
+        EagerProcessor eagerProcessor = new EagerProcessor(new QualifierPredicate(astClassFactory), new ScopePredicate(astClassFactory), validator);
+
+        return new ModuleProcessor(bindProcessor, bindProviderProcessor,  bindingConfigurationFactory, providesProcessor, astClassFactory, defineScopeProcessor, installProcessor, eagerProcessor, moduleRepository, buildInjectionNodeRepositoryProvider());
     }
 
     public FactoryGenerator buildFactoryGenerator() {
@@ -313,7 +327,7 @@ public class CoreFactory {
     }
 
     public FactoriesGenerator buildFactoriesGenerator() {
-        return new FactoriesGenerator(generationUtil, classNamer, variableNamer);
+        return new FactoriesGenerator(generationUtil, variableNamer);
     }
 
     public VirtualProxyGenerator buildVirtualProxyGenerator(){
@@ -332,7 +346,7 @@ public class CoreFactory {
     }
 
     private VariableFactoryBuilderFactory2 buildVariableFactoryBuilderFactory(){
-        return new VariableFactoryBuilderFactory2(typedExpressionFactory, generationUtil, buildAnalyser(), buildProviderGenerator(), variableNamer);
+        return new VariableFactoryBuilderFactory2(typedExpressionFactory, generationUtil, buildAnalyser(), buildProviderGenerator(), variableNamer, scopeKeyCache);
     }
 
     public ModuleRepository getModuleRepository() {
@@ -15,7 +15,6 @@
  */
 package org.androidtransfuse.analysis;
 
-import com.google.common.collect.ImmutableMap;
 import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.analysis.repository.InjectionNodeBuilderRepository;
 import org.androidtransfuse.model.InjectionNode;
@@ -28,26 +27,18 @@ import java.util.Collection;
  */
 public class AnalysisContext {
 
-    private final ImmutableMap<ASTType, InjectionNode> dependents;
+    private final DependencyChain dependents;
     private final InjectionNodeBuilderRepository injectionNodeBuilders;
 
     @Inject
     public AnalysisContext(/*@Assisted*/ InjectionNodeBuilderRepository injectionNodeBuilders) {
-        this.dependents = ImmutableMap.of();
+        this.dependents = DependencyChain.EMPTY;
         this.injectionNodeBuilders = injectionNodeBuilders;
     }
 
     private AnalysisContext(InjectionNode node, AnalysisContext previousContext, InjectionNodeBuilderRepository injectionNodeBuilders) {
-        ImmutableMap.Builder<ASTType, InjectionNode> dependentsBuilder = ImmutableMap.builder();
-
-        dependentsBuilder.putAll(previousContext.dependents);
-        if(!previousContext.dependents.containsKey(node.getASTType())){
-            //avoid adding duplicate keys (result of dependency loops)
-            dependentsBuilder.put(node.getASTType(), node);
-        }
-
-        this.dependents = dependentsBuilder.build();
-
+        //shares the previous chain, duplicate keys (result of dependency loops) are not added
+        this.dependents = previousContext.dependents.add(node.getASTType(), node);
         this.injectionNodeBuilders = injectionNodeBuilders;
     }
 
@@ -56,7 +47,7 @@ public class AnalysisContext {
     }
 
     public boolean isDependent(ASTType astType) {
-        return dependents.containsKey(astType);
+        return dependents.contains(astType);
     }
 
     public InjectionNode getInjectionNode(ASTType astType) {
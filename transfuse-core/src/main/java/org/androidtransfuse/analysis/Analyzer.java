@@ -26,16 +26,24 @@ import org.androidtransfuse.model.InjectionSignature;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
-import java.util.*;
+import javax.inject.Singleton;
+import java.util.Collection;
 
 /**
  * Analysis class for ASTType Injection Analysis
  *
+ * Only the class hierarchy scan is shared between components, through the `ClassHierarchyCache`.  The `ASTAnalysis`
+ * results (injection points, AOP and scope aspects) are rebuilt per component: they resolve dependencies against the
+ * component's own `InjectionNodeBuilderRepository`, scope aspect factories record which scopes a component uses
+ * (`RetainedScopeAspectFactory`), and generators add aspects to the resulting `InjectionNode`s.
+ *
  * @author John Ericksen
  */
+@Singleton
 public class Analyzer {
 
     private Provider<VariableInjectionBuilder> variableInjectionBuilderProvider;
+    private Provider<ClassHierarchyCache> hierarchyCacheProvider;
 
     public InjectionNode analyze(InjectionSignature signature, AnalysisContext context){
         return analyze(signature, signature, context);
@@ -103,59 +111,20 @@ public class Analyzer {
     }
 
     private void scanClassHierarchy(ASTType type, InjectionNode injectionNode, AnalysisContext context) {
-        scanClassHierarchy(new HashSet<MethodSignature>(), new HashMap<String, Set<MethodSignature>>(), type, injectionNode, context);
-    }
-
-    private void scanClassHierarchy(Set<MethodSignature> scanned, Map<String, Set<MethodSignature>> packagePrivateScanned, ASTType type, InjectionNode injectionNode, AnalysisContext context){
-        for (ASTAnalysis analysis : context.getInjectionNodeBuilders().getAnalysisRepository()) {
+        for (ClassHierarchyCache.HierarchyLevel level : hierarchyCacheProvider.get().getHierarchy(type)) {
+            for (ASTAnalysis analysis : context.getInjectionNodeBuilders().getAnalysisRepository()) {
 
-            analysis.analyzeType(injectionNode, type, context);
+                analysis.analyzeType(injectionNode, level.getType(), context);
 
-            for (ASTMethod astMethod : type.getMethods()) {
-                if(!isOverridden(scanned, packagePrivateScanned, type, astMethod)){
-                    analysis.analyzeMethod(injectionNode, type, astMethod, context);
+                for (ASTMethod astMethod : level.getMethods()) {
+                    analysis.analyzeMethod(injectionNode, level.getType(), astMethod, context);
                 }
-            }
 
-            for (ASTField astField : type.getFields()) {
-                analysis.analyzeField(injectionNode, type, astField, context);
-            }
-        }
-
-        for (ASTMethod astMethod : type.getMethods()) {
-            MethodSignature signature = new MethodSignature(astMethod);
-            if(astMethod.getAccessModifier() == ASTAccessModifier.PUBLIC ||
-               astMethod.getAccessModifier() == ASTAccessModifier.PROTECTED){
-                scanned.add(signature);
-            }
-            else if(astMethod.getAccessModifier() == ASTAccessModifier.PACKAGE_PRIVATE){
-                if(!packagePrivateScanned.containsKey(type.getPackageClass().getPackage())){
-                    packagePrivateScanned.put(type.getPackageClass().getPackage(), new HashSet<MethodSignature>());
+                for (ASTField astField : level.getFields()) {
+                    analysis.analyzeField(injectionNode, level.getType(), astField, context);
                 }
-                packagePrivateScanned.get(type.getPackageClass().getPackage()).add(signature);
             }
         }
-
-        if (type.getSuperClass() != null) {
-            scanClassHierarchy(scanned, packagePrivateScanned, type.getSuperClass(), injectionNode, context);
-        }
-
-    }
-
-    private boolean isOverridden(Set<MethodSignature> scanned, Map<String, Set<MethodSignature>> packagePrivateScanned, ASTType type, ASTMethod method) {
-        MethodSignature signature = new MethodSignature(method);
-
-        if(method.getAccessModifier() == ASTAccessModifier.PRIVATE){
-            return false;
-        }
-
-        if(method.getAccessModifier() == ASTAccessModifier.PACKAGE_PRIVATE){
-            return packagePrivateScanned.containsKey(type.getPackageClass().getPackage()) &&
-                   packagePrivateScanned.get(type.getPackageClass().getPackage()).contains(signature);
-        }
-
-        // PUBLIC and PROTECTED handling
-        return scanned.contains(signature);
     }
 
     private VirtualProxyAspect getProxyAspect(InjectionNode injectionNode) {
@@ -169,4 +138,9 @@ public class Analyzer {
     public void setVariableInjectionBuilderProvider(Provider<VariableInjectionBuilder> variableInjectionBuilderProvider) {
         this.variableInjectionBuilderProvider = variableInjectionBuilderProvider;
     }
+
+    @Inject
+    public void setHierarchyCacheProvider(Provider<ClassHierarchyCache> hierarchyCacheProvider) {
+        this.hierarchyCacheProvider = hierarchyCacheProvider;
+    }
 }
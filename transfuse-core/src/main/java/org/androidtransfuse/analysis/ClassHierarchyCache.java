@@ -0,0 +1,180 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis;
+
+import org.androidtransfuse.ConfigurationScope;
+import org.androidtransfuse.adapter.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class hierarchies scanned by the `Analyzer`, shared by every component analysed in a processing round.
+ *
+ * Hierarchies are keyed by the unwrapped type, its name and implementation: a parameterized type shares the hierarchy
+ * of its raw type, as `ASTGenericTypeWrapper` delegates its members and superclass.  Types are rebuilt between rounds,
+ * so the cache lives in the `@ConfigurationScope` and is dropped with the round.
+ *
+ * @author John Ericksen
+ */
+@ConfigurationScope
+public class ClassHierarchyCache {
+
+    private final ConcurrentMap<HierarchyKey, List<HierarchyLevel>> hierarchies = new ConcurrentHashMap<HierarchyKey, List<HierarchyLevel>>();
+
+    /**
+     * Class hierarchy of the given type, the type itself first, along with the methods of each level that are not
+     * overridden lower in the hierarchy.
+     *
+     * @param type root type
+     * @return hierarchy levels
+     */
+    public List<HierarchyLevel> getHierarchy(ASTType type) {
+        ASTType rootType = unwrap(type);
+        HierarchyKey key = new HierarchyKey(rootType);
+        List<HierarchyLevel> hierarchy = hierarchies.get(key);
+        if (hierarchy == null) {
+            hierarchy = buildHierarchy(rootType);
+            List<HierarchyLevel> current = hierarchies.putIfAbsent(key, hierarchy);
+            if (current != null) {
+                hierarchy = current;
+            }
+        }
+        if (hierarchy.get(0).type != type) {
+            //the root level reports the requested type, analyses compare it (generics included) to the injected type
+            List<HierarchyLevel> requested = new ArrayList<HierarchyLevel>(hierarchy);
+            HierarchyLevel root = hierarchy.get(0);
+            requested.set(0, new HierarchyLevel(type, root.methods, root.fields));
+            hierarchy = Collections.unmodifiableList(requested);
+        }
+        return hierarchy;
+    }
+
+    protected int size() {
+        return hierarchies.size();
+    }
+
+    private ASTType unwrap(ASTType type) {
+        ASTType unwrapped = type;
+        while (unwrapped instanceof ASTGenericTypeWrapper) {
+            unwrapped = ((ASTGenericTypeWrapper) unwrapped).getWrappedType();
+        }
+        return unwrapped;
+    }
+
+    private List<HierarchyLevel> buildHierarchy(ASTType rootType) {
+        List<HierarchyLevel> hierarchy = new ArrayList<HierarchyLevel>();
+        Set<MethodSignature> scanned = new HashSet<MethodSignature>();
+        Map<String, Set<MethodSignature>> packagePrivateScanned = new HashMap<String, Set<MethodSignature>>();
+
+        for (ASTType type = rootType; type != null; type = type.getSuperClass()) {
+            List<ASTMethod> methods = new ArrayList<ASTMethod>();
+            List<MethodSignature> signatures = new ArrayList<MethodSignature>();
+            for (ASTMethod astMethod : type.getMethods()) {
+                MethodSignature signature = new MethodSignature(astMethod);
+                signatures.add(signature);
+                if(!isOverridden(scanned, packagePrivateScanned, type, astMethod, signature)){
+                    methods.add(astMethod);
+                }
+            }
+
+            hierarchy.add(new HierarchyLevel(type, methods, new ArrayList<ASTField>(type.getFields())));
+
+            int i = 0;
+            for (ASTMethod astMethod : type.getMethods()) {
+                MethodSignature signature = signatures.get(i++);
+                if(astMethod.getAccessModifier() == ASTAccessModifier.PUBLIC ||
+                   astMethod.getAccessModifier() == ASTAccessModifier.PROTECTED){
+                    scanned.add(signature);
+                }
+                else if(astMethod.getAccessModifier() == ASTAccessModifier.PACKAGE_PRIVATE){
+                    if(!packagePrivateScanned.containsKey(type.getPackageClass().getPackage())){
+                        packagePrivateScanned.put(type.getPackageClass().getPackage(), new HashSet<MethodSignature>());
+                    }
+                    packagePrivateScanned.get(type.getPackageClass().getPackage()).add(signature);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(hierarchy);
+    }
+
+    private boolean isOverridden(Set<MethodSignature> scanned, Map<String, Set<MethodSignature>> packagePrivateScanned, ASTType type, ASTMethod method, MethodSignature signature) {
+        if(method.getAccessModifier() == ASTAccessModifier.PRIVATE){
+            return false;
+        }
+
+        if(method.getAccessModifier() == ASTAccessModifier.PACKAGE_PRIVATE){
+            return packagePrivateScanned.containsKey(type.getPackageClass().getPackage()) &&
+                   packagePrivateScanned.get(type.getPackageClass().getPackage()).contains(signature);
+        }
+
+        // PUBLIC and PROTECTED handling
+        return scanned.contains(signature);
+    }
+
+    private static final class HierarchyKey {
+        private final Class<? extends ASTType> implementation;
+        private final String name;
+
+        private HierarchyKey(ASTType type) {
+            this.implementation = type.getClass();
+            this.name = type.getName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HierarchyKey)) {
+                return false;
+            }
+            HierarchyKey that = (HierarchyKey) o;
+            return implementation.equals(that.implementation) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * implementation.hashCode() + name.hashCode();
+        }
+    }
+
+    public static final class HierarchyLevel {
+        private final ASTType type;
+        private final List<ASTMethod> methods;
+        private final List<ASTField> fields;
+
+        private HierarchyLevel(ASTType type, List<ASTMethod> methods, List<ASTField> fields) {
+            this.type = type;
+            this.methods = methods;
+            this.fields = fields;
+        }
+
+        public ASTType getType() {
+            return type;
+        }
+
+        public List<ASTMethod> getMethods() {
+            return methods;
+        }
+
+        public List<ASTField> getFields() {
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis;
+
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.model.InjectionNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable chain of dependents, keyed by type.  Each addition shares the structure of the previous chain: lookups go
+ * through a hash array mapped trie (O(log32 n) for both add and lookup) and the insertion order is kept as a linked
+ * list of the added nodes.
+ *
+ * @author John Ericksen
+ */
+final class DependencyChain {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+    public static final DependencyChain EMPTY = new DependencyChain(EMPTY_NODE, null, 0);
+
+    private final Node root;
+    private final Link last;
+    private final int size;
+
+    private DependencyChain(Node root, Link last, int size) {
+        this.root = root;
+        this.last = last;
+        this.size = size;
+    }
+
+    /**
+     * Adds the given node under the given type.  If the type is already present (the result of a dependency loop) the
+     * original node is kept and this chain is returned.
+     *
+     * @param type key
+     * @param node dependent
+     * @return chain including the given dependent
+     */
+    public DependencyChain add(ASTType type, InjectionNode node) {
+        if (contains(type)) {
+            return this;
+        }
+        return new DependencyChain(put(root, new Entry(type.hashCode(), type, node), 0), new Link(node, last), size + 1);
+    }
+
+    public boolean contains(ASTType type) {
+        return get(type) != null;
+    }
+
+    public InjectionNode get(ASTType type) {
+        int hash = type.hashCode();
+        Node node = root;
+        int shift = 0;
+        while (true) {
+            if (shift >= Integer.SIZE) {
+                for (Object slot : node.slots) {
+                    Entry entry = (Entry) slot;
+                    if (entry.key.equals(type)) {
+                        return entry.value;
+                    }
+                }
+                return null;
+            }
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[index(node.bitmap, bit)];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                if (entry.hash == hash && entry.key.equals(type)) {
+                    return entry.value;
+                }
+                return null;
+            }
+            node = (Node) slot;
+            shift += BITS;
+        }
+    }
+
+    /**
+     * @return dependents in the order they were added
+     */
+    public List<InjectionNode> values() {
+        InjectionNode[] values = new InjectionNode[size];
+        int i = size;
+        for (Link link = last; link != null; link = link.previous) {
+            values[--i] = link.node;
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static Node put(Node node, Entry entry, int shift) {
+        if (shift >= Integer.SIZE) {
+            //full hash collision
+            return new Node(0, insert(node.slots, node.slots.length, entry));
+        }
+        int bit = bit(entry.hash, shift);
+        int index = index(node.bitmap, bit);
+        if ((node.bitmap & bit) == 0) {
+            return new Node(node.bitmap | bit, insert(node.slots, index, entry));
+        }
+        Object slot = node.slots[index];
+        Node child;
+        if (slot instanceof Entry) {
+            child = put(put(EMPTY_NODE, (Entry) slot, shift + BITS), entry, shift + BITS);
+        } else {
+            child = put((Node) slot, entry, shift + BITS);
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = child;
+        return new Node(node.bitmap, slots);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static Object[] insert(Object[] slots, int index, Object value) {
+        Object[] updated = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, updated, 0, index);
+        updated[index] = value;
+        System.arraycopy(slots, index, updated, index + 1, slots.length - index);
+        return updated;
+    }
+
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final ASTType key;
+        private final InjectionNode value;
+
+        private Entry(int hash, ASTType key, InjectionNode value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Link {
+        private final InjectionNode node;
+        private final Link previous;
+
+        private Link(InjectionNode node, Link previous) {
+            this.node = node;
+            this.previous = previous;
+        }
+    }
+}
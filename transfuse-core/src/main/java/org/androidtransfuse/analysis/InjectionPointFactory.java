@@ -155,7 +155,7 @@ public class InjectionPointFactory {
 
     private InjectionNode buildInjectionNode(InjectionNodeBuilderRepository repository, ASTBase target, InjectionSignature injectionSignature, AnalysisContext context) {
         //check type and qualifiers
-        InjectionNodeBuilder typeQualifierBuilder = get(repository.getTypeQualifierBindings(), injectionSignature);
+        InjectionNodeBuilder typeQualifierBuilder = get(repository.getTypeQualifierBindings(injectionSignature), injectionSignature);
 
         if(typeQualifierBuilder != null){
             return typeQualifierBuilder.buildInjectionNode(target, injectionSignature, context);
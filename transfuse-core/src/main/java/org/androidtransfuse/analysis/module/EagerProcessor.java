@@ -0,0 +1,113 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis.module;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableSet;
+import org.androidtransfuse.adapter.ASTAnnotation;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.analysis.repository.InjectionNodeBuilderRepository;
+import org.androidtransfuse.annotations.Provides;
+import org.androidtransfuse.model.InjectionSignature;
+import org.androidtransfuse.util.QualifierPredicate;
+import org.androidtransfuse.util.ScopePredicate;
+import org.androidtransfuse.validation.Validator;
+
+import javax.inject.Inject;
+
+/**
+ * Registers the `@Eager` bindings of a module, either listed on the module type, defaulting to every scoped
+ * `@Provides` method, or marked on individual `@Provides` methods.
+ *
+ * @author John Ericksen
+ */
+public class EagerProcessor implements TypeProcessor, MethodProcessor {
+
+    private final QualifierPredicate qualifierPredicate;
+    private final ScopePredicate scopePredicate;
+    private final Validator validator;
+
+    @Inject
+    public EagerProcessor(QualifierPredicate qualifierPredicate,
+                          ScopePredicate scopePredicate,
+                          Validator validator) {
+        this.qualifierPredicate = qualifierPredicate;
+        this.scopePredicate = scopePredicate;
+        this.validator = validator;
+    }
+
+    @Override
+    public ModuleConfiguration process(ASTType moduleType, ASTAnnotation typeAnnotation) {
+        ASTType[] types = typeAnnotation.getProperty("value", ASTType[].class);
+
+        ImmutableSet.Builder<InjectionSignature> signatures = ImmutableSet.builder();
+        if (types != null && types.length > 0) {
+            for (ASTType type : types) {
+                signatures.add(new InjectionSignature(type));
+            }
+        } else {
+            for (ASTMethod astMethod : moduleType.getMethods()) {
+                if (astMethod.isAnnotated(Provides.class) && isScoped(astMethod)) {
+                    signatures.add(buildSignature(astMethod));
+                }
+            }
+        }
+
+        return new EagerModuleConfiguration(signatures.build());
+    }
+
+    @Override
+    public ModuleConfiguration process(ASTType moduleType, ASTMethod astMethod, ASTAnnotation astAnnotation) {
+        if (!astMethod.isAnnotated(Provides.class)) {
+            validator.error("@Eager methods must be annotated with @Provides")
+                    .element(astMethod).annotation(astAnnotation).build();
+        } else if (!isScoped(astMethod)) {
+            validator.error("@Eager @Provides methods must be annotated with a scope annotation")
+                    .element(astMethod).annotation(astAnnotation).build();
+        }
+
+        return new EagerModuleConfiguration(ImmutableSet.of(buildSignature(astMethod)));
+    }
+
+    private boolean isScoped(ASTMethod astMethod) {
+        return !FluentIterable.from(astMethod.getAnnotations()).filter(scopePredicate).isEmpty();
+    }
+
+    private InjectionSignature buildSignature(ASTMethod astMethod) {
+        ImmutableSet<ASTAnnotation> qualifierAnnotations =
+                FluentIterable.from(astMethod.getAnnotations())
+                        .filter(qualifierPredicate).toSet();
+
+        return new InjectionSignature(astMethod.getReturnType(), qualifierAnnotations);
+    }
+
+    private static final class EagerModuleConfiguration implements ModuleConfiguration {
+
+        private final ImmutableSet<InjectionSignature> signatures;
+
+        private EagerModuleConfiguration(ImmutableSet<InjectionSignature> signatures) {
+            this.signatures = signatures;
+        }
+
+        @Override
+        public void setConfiguration(InjectionNodeBuilderRepository configurationRepository) {
+            for (InjectionSignature signature : signatures) {
+                configurationRepository.putEager(signature);
+            }
+        }
+    }
+}
@@ -48,6 +48,7 @@ public class ModuleProcessor {
                            ASTClassFactory astClassFactory,
                            DefineScopeProcessor defineScopeProcessor,
                            InstallProcessor installComponentProcessor,
+                           EagerProcessor eagerProcessor,
                            ModuleRepository moduleRepository,
                            Provider<InjectionNodeBuilderRepository> injectionNodeBuilderRepositoryProvider) {
         this.moduleRepository = moduleRepository;
@@ -55,6 +56,7 @@ public class ModuleProcessor {
         ImmutableMap.Builder<ASTType, MethodProcessor> methodProcessorsBuilder = ImmutableMap.builder();
 
         methodProcessorsBuilder.put(astClassFactory.getType(Provides.class), providesProcessor);
+        methodProcessorsBuilder.put(astClassFactory.getType(Eager.class), eagerProcessor);
 
         this.methodProcessors = methodProcessorsBuilder.build();
 
@@ -69,6 +71,7 @@ public class ModuleProcessor {
         typeProcessorsBuilder.put(astClassFactory.getType(DefineScopes.class),
                 configurationFactory.buildConfigurationComposite(defineScopeProcessor));
         typeProcessorsBuilder.put(astClassFactory.getType(Install.class), installComponentProcessor);
+        typeProcessorsBuilder.put(astClassFactory.getType(Eager.class), eagerProcessor);
 
 
         typeProcessors = typeProcessorsBuilder.build();
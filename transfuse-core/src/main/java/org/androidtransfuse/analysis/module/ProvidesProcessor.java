@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableSet;
 import org.androidtransfuse.adapter.*;
 import org.androidtransfuse.adapter.classes.ASTClassFactory;
 import org.androidtransfuse.analysis.repository.InjectionNodeBuilderRepository;
+import org.androidtransfuse.annotations.Eager;
 import org.androidtransfuse.annotations.Provides;
 import org.androidtransfuse.gen.variableBuilder.ProvidesInjectionNodeBuilderFactory;
 import org.androidtransfuse.gen.variableDecorator.GeneratedProviderInjectionNodeBuilder;
@@ -96,11 +97,12 @@ public class ProvidesProcessor implements MethodProcessor {
 
 
         ASTType providesType = astClassFactory.getType(Provides.class);
+        ASTType eagerType = astClassFactory.getType(Eager.class);
 
         for (ASTAnnotation annotation : nonQualifierAnnotations) {
-            if(!annotation.getASTType().equals(providesType)){
+            if(!annotation.getASTType().equals(providesType) && !annotation.getASTType().equals(eagerType)){
                 //error
-                validator.error("@Provides methods may only be annotated with scope or qualifier annotations")
+                validator.error("@Provides methods may only be annotated with @Eager, scope or qualifier annotations")
                         .element(astMethod).annotation(annotation).build();
             }
         }
@@ -28,6 +28,7 @@ import org.androidtransfuse.util.matcher.Matchers;
 import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,12 +37,13 @@ import java.util.Set;
  */
 public class InjectionNodeBuilderRepository {
 
-    private final Map<Matcher<InjectionSignature>, InjectionNodeBuilder> typeQualifierBindings = new HashMap<Matcher<InjectionSignature>, InjectionNodeBuilder>();
+    private final SignatureBindingIndex typeQualifierBindings = new SignatureBindingIndex();
     private final Map<ASTType, ScopeAspectFactory> scopeVariableBuilderMap = new HashMap<ASTType, ScopeAspectFactory>();
     private final Map<ASTType, ASTType> scopeAnnotations = new HashMap<ASTType, ASTType>();
     private final Map<InjectionSignature, ASTType> scoping = new HashMap<InjectionSignature, ASTType>();
     private final Map<ASTType, ASTType> interceptorAnnotationMap = new HashMap<ASTType, ASTType>();
     private final Set<ASTAnalysis> analysisSet = new HashSet<ASTAnalysis>();
+    private final Set<InjectionSignature> eager = new LinkedHashSet<InjectionSignature>();
     private final ASTClassFactory astClassFactory;
 
     @Inject
@@ -74,8 +76,8 @@ public class InjectionNodeBuilderRepository {
         this.typeQualifierBindings.put(matcher, variableBuilder);
     }
 
-    public Map<Matcher<InjectionSignature>, InjectionNodeBuilder> getTypeQualifierBindings() {
-        return typeQualifierBindings;
+    public Map<Matcher<InjectionSignature>, InjectionNodeBuilder> getTypeQualifierBindings(InjectionSignature signature) {
+        return typeQualifierBindings.get(signature);
     }
 
     public Set<ASTType> getScopes() {
@@ -99,6 +101,10 @@ public class InjectionNodeBuilderRepository {
         scopeAnnotations.put(scopeAnnotation, scopeType);
     }
 
+    private SignatureBindingIndex getTypeQualifierBindings() {
+        return typeQualifierBindings;
+    }
+
     private Map<ASTType, ScopeAspectFactory> getScopeVariableBuilderMap() {
         return scopeVariableBuilderMap;
     }
@@ -115,6 +121,14 @@ public class InjectionNodeBuilderRepository {
         return scoping.get(type);
     }
 
+    public void putEager(InjectionSignature signature) {
+        eager.add(signature);
+    }
+
+    public Set<InjectionSignature> getEager() {
+        return eager;
+    }
+
     public void putInterceptor(ASTType annotationType, ASTType interceptor) {
         interceptorAnnotationMap.put(annotationType, interceptor);
     }
@@ -141,5 +155,6 @@ public class InjectionNodeBuilderRepository {
         this.scopeAnnotations.putAll(repository.getScopeAnnotations());
         this.scoping.putAll(repository.getScoping());
         this.interceptorAnnotationMap.putAll(repository.getInterceptorAnnotationMap());
+        this.eager.addAll(repository.getEager());
     }
 }
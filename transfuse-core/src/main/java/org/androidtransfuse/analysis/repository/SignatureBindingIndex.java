@@ -0,0 +1,179 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.androidtransfuse.adapter.ASTAnnotation;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.gen.variableBuilder.InjectionNodeBuilder;
+import org.androidtransfuse.model.InjectionSignature;
+import org.androidtransfuse.util.matcher.*;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+
+import java.util.*;
+
+/**
+ * Binding table for InjectionSignature Matchers.  Matchers built from an exact type and/or an exact set of qualifier
+ * types are bucketed by raw type name and qualifier types, so a lookup only evaluates the Matchers that could possibly
+ * match.  Any other Matcher (subtype matching, custom Matchers, etc) is kept in a residual list which is evaluated on
+ * every lookup.
+ *
+ * @author John Ericksen
+ */
+public class SignatureBindingIndex {
+
+    private final Map<BindingKey, Map<Matcher<InjectionSignature>, InjectionNodeBuilder>> indexed = new HashMap<BindingKey, Map<Matcher<InjectionSignature>, InjectionNodeBuilder>>();
+    private final Map<Matcher<InjectionSignature>, InjectionNodeBuilder> residual = new HashMap<Matcher<InjectionSignature>, InjectionNodeBuilder>();
+
+    public void put(Matcher<InjectionSignature> matcher, InjectionNodeBuilder builder) {
+        BindingKey key = buildKey(matcher);
+        if (key == null) {
+            residual.put(matcher, builder);
+        } else {
+            getBucket(key).put(matcher, builder);
+        }
+    }
+
+    public void putAll(SignatureBindingIndex index) {
+        for (Map.Entry<BindingKey, Map<Matcher<InjectionSignature>, InjectionNodeBuilder>> bucketEntry : index.indexed.entrySet()) {
+            getBucket(bucketEntry.getKey()).putAll(bucketEntry.getValue());
+        }
+        residual.putAll(index.residual);
+    }
+
+    /**
+     * Finds all bindings matching the given signature.
+     *
+     * @param signature input
+     * @return matching Matcher to InjectionNodeBuilder entries
+     */
+    public Map<Matcher<InjectionSignature>, InjectionNodeBuilder> get(InjectionSignature signature) {
+        Map<Matcher<InjectionSignature>, InjectionNodeBuilder> matches = new LinkedHashMap<Matcher<InjectionSignature>, InjectionNodeBuilder>();
+
+        Set<String> qualifierTypes = new HashSet<String>();
+        for (ASTAnnotation annotation : signature.getAnnotations()) {
+            qualifierTypes.add(annotation.getASTType().getName());
+        }
+
+        addMatches(indexed.get(new BindingKey(signature.getType().getName(), qualifierTypes)), signature, matches);
+        addMatches(indexed.get(new BindingKey(null, qualifierTypes)), signature, matches);
+        addMatches(residual, signature, matches);
+
+        return matches;
+    }
+
+    private void addMatches(Map<Matcher<InjectionSignature>, InjectionNodeBuilder> candidates, InjectionSignature signature, Map<Matcher<InjectionSignature>, InjectionNodeBuilder> matches) {
+        if (candidates != null) {
+            for (Map.Entry<Matcher<InjectionSignature>, InjectionNodeBuilder> candidateEntry : candidates.entrySet()) {
+                if (candidateEntry.getKey().matches(signature)) {
+                    matches.put(candidateEntry.getKey(), candidateEntry.getValue());
+                }
+            }
+        }
+    }
+
+    private Map<Matcher<InjectionSignature>, InjectionNodeBuilder> getBucket(BindingKey key) {
+        if (!indexed.containsKey(key)) {
+            indexed.put(key, new HashMap<Matcher<InjectionSignature>, InjectionNodeBuilder>());
+        }
+        return indexed.get(key);
+    }
+
+    private BindingKey buildKey(Matcher<InjectionSignature> matcher) {
+        if (!(matcher instanceof InjectionSignatureMatcher)) {
+            return null;
+        }
+        InjectionSignatureMatcher signatureMatcher = (InjectionSignatureMatcher) matcher;
+
+        String typeName;
+        Matcher<? super ASTType> typeMatcher = signatureMatcher.getTypeMatcher();
+        if (typeMatcher instanceof MatchAny) {
+            typeName = null;
+        } else if (typeMatcher instanceof ASTTypeMatcher
+                && ((ASTTypeMatcher) typeMatcher).getType() != null
+                && !((ASTTypeMatcher) typeMatcher).isSubtypesAllowed()) {
+            typeName = ((ASTTypeMatcher) typeMatcher).getType().getName();
+        } else {
+            return null;
+        }
+
+        // both annotation Matchers require the input qualifiers to be exactly the given set of annotation types
+        Set<String> qualifierTypes = null;
+        for (Matcher<Collection<ASTAnnotation>> annotationMatcher : signatureMatcher.getAnnotationMatchers()) {
+            if (annotationMatcher instanceof ASTAnnotationMatcher) {
+                qualifierTypes = getAnnotationTypes(((ASTAnnotationMatcher) annotationMatcher).getAnnotations());
+            } else if (annotationMatcher instanceof ASTAnnotationTypeMatcher) {
+                qualifierTypes = getTypeNames(((ASTAnnotationTypeMatcher) annotationMatcher).getTypes());
+            } else {
+                return null;
+            }
+        }
+        if (qualifierTypes == null) {
+            return null;
+        }
+
+        return new BindingKey(typeName, qualifierTypes);
+    }
+
+    private Set<String> getAnnotationTypes(ImmutableSet<ASTAnnotation> annotations) {
+        Set<String> names = new HashSet<String>();
+        for (ASTAnnotation annotation : annotations) {
+            names.add(annotation.getASTType().getName());
+        }
+        return names;
+    }
+
+    private Set<String> getTypeNames(ImmutableSet<ASTType> types) {
+        Set<String> names = new HashSet<String>();
+        for (ASTType type : types) {
+            names.add(type.getName());
+        }
+        return names;
+    }
+
+    private static final class BindingKey {
+        private final String typeName;
+        private final Set<String> qualifierTypes;
+
+        private BindingKey(String typeName, Set<String> qualifierTypes) {
+            this.typeName = typeName;
+            this.qualifierTypes = qualifierTypes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BindingKey)) {
+                return false;
+            }
+
+            BindingKey that = (BindingKey) o;
+
+            return new EqualsBuilder()
+                    .append(typeName, that.typeName)
+                    .append(qualifierTypes, that.qualifierTypes)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append(typeName).append(qualifierTypes).hashCode();
+        }
+    }
+}
@@ -23,16 +23,25 @@ import org.androidtransfuse.transaction.AbstractCompletionTransactionWorker;
 import org.androidtransfuse.util.Repository;
 
 import javax.inject.Provider;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Common generation for Reposiory classes
+ * Common generation for Reposiory classes.
+ *
+ * The generated `get(Class)` switches on the hash of the requested type name, comparing the type itself only within the
+ * matching case, and builds only the requested entry.  Nothing is registered up front, so loading the repository does
+ * not load every registered class.
  *
  * @author John Ericksen
  */
 public abstract class AbstractRepositoryGenerator<T> extends AbstractCompletionTransactionWorker<Map<Provider<ASTType>, T>, JDefinedClass> {
 
+    private static final String GET_NAME = "getName";
+    private static final String HASH_CODE = "hashCode";
+
     private final ClassGenerationUtil generationUtil;
     private final UniqueVariableNamer namer;
 
@@ -40,6 +49,16 @@ public abstract class AbstractRepositoryGenerator<T> extends AbstractCompletionT
     private final Class<?> repositoryType;
     private final Class<?> contentType;
 
+    private static final class Entry {
+        private final JClass interfaceClass;
+        private final JExpression instance;
+
+        private Entry(JClass interfaceClass, JExpression instance) {
+            this.interfaceClass = interfaceClass;
+            this.instance = instance;
+        }
+    }
+
     public AbstractRepositoryGenerator(Class<?> repositoryType, ClassGenerationUtil generationUtil, UniqueVariableNamer namer, PackageClass repositoryName, Class<?> contentType){
         this.generationUtil = generationUtil;
         this.namer = namer;
@@ -65,16 +84,10 @@ public abstract class AbstractRepositoryGenerator<T> extends AbstractCompletionT
 
             factoryRepositoryClass._implements(generationUtil.ref(repositoryType).narrow(contentType));
 
-            //map definition
-            JClass mapType = generationUtil.ref(Map.class).narrow(Class.class, contentType);
-            JClass hashMapType = generationUtil.ref(HashMap.class).narrow(Class.class, contentType);
-            JVar registrationMap = factoryRepositoryClass.field(JMod.PRIVATE | JMod.FINAL, mapType, namer.generateName(mapType), JExpr._new(hashMapType));
-
-            //get factory map
-            JMethod getAll = factoryRepositoryClass.method(JMod.PUBLIC, mapType, Repository.GET_METHOD);
-            getAll.body()._return(registrationMap);
+            JMethod getMethod = factoryRepositoryClass.method(JMod.PUBLIC, contentType, Repository.GET_METHOD);
+            JVar typeParam = getMethod.param(Class.class, namer.generateName(Class.class));
 
-            generateRegistration(factoryRepositoryClass, aggregate, registrationMap);
+            generateLookup(getMethod.body(), typeParam, factoryRepositoryClass, aggregate);
 
             return factoryRepositoryClass;
         } catch (JClassAlreadyExistsException e) {
@@ -82,9 +95,9 @@ public abstract class AbstractRepositoryGenerator<T> extends AbstractCompletionT
         }
     }
 
-    private void generateRegistration(JDefinedClass factoryRepositoryClass, Map<Provider<ASTType>, T> processedAggregate, JVar registrationMap) throws JClassAlreadyExistsException{
-        // constructor registration block
-        JBlock factoryRegistrationBlock = factoryRepositoryClass.constructor(JMod.PUBLIC).body();
+    private void generateLookup(JBlock body, JVar typeParam, JDefinedClass factoryRepositoryClass, Map<Provider<ASTType>, T> processedAggregate) throws JClassAlreadyExistsException{
+        // grouped by name hash, sorted for stable output
+        Map<Integer, List<Entry>> hashedEntries = new TreeMap<Integer, List<Entry>>();
 
         for (Map.Entry<Provider<ASTType>, T> astTypeJDefinedClassEntry : processedAggregate.entrySet()) {
 
@@ -93,20 +106,34 @@ public abstract class AbstractRepositoryGenerator<T> extends AbstractCompletionT
 
             T mappedValue = astTypeJDefinedClassEntry.getValue();
             if(mappedValue != null){
-
-                Map<? extends JExpression, ? extends JExpression> mapping = generateMapping(factoryRepositoryClass, interfaceClass, mappedValue);
-
-                for (Map.Entry<? extends JExpression, ? extends JExpression> mappingEntry : mapping.entrySet()) {
-                    //register implementations
-                    factoryRegistrationBlock.add(registrationMap.invoke("put")
-                            .arg(mappingEntry.getKey())
-                            .arg(mappingEntry.getValue()));
+                int hash = astType.getPackageClass().getFullyQualifiedName().hashCode();
+                if(!hashedEntries.containsKey(hash)){
+                    hashedEntries.put(hash, new ArrayList<Entry>());
                 }
+                hashedEntries.get(hash).add(new Entry(interfaceClass, generateInstance(factoryRepositoryClass, interfaceClass, mappedValue)));
+            }
+        }
 
-
+        JSwitch typeSwitch = body._switch(typeParam.invoke(GET_NAME).invoke(HASH_CODE));
+        for (Map.Entry<Integer, List<Entry>> hashEntry : hashedEntries.entrySet()) {
+            JBlock caseBlock = typeSwitch._case(JExpr.lit(hashEntry.getKey())).body();
+            for (Entry entry : hashEntry.getValue()) {
+                caseBlock._if(typeParam.eq(entry.interfaceClass.dotclass()))._then()._return(entry.instance);
             }
+            caseBlock._break();
         }
+
+        body._return(JExpr._null());
     }
 
-    protected abstract Map<? extends JExpression, ? extends JExpression> generateMapping(JDefinedClass factoryRepositoryClass, JClass interfaceClass, T concreteType) throws JClassAlreadyExistsException;
+    /**
+     * Builds the entry returned for the given registered type.  The expression is evaluated on each lookup of the type.
+     *
+     * @param factoryRepositoryClass generated repository
+     * @param interfaceClass registered type
+     * @param concreteType generated code registered for the type
+     * @return entry expression
+     * @throws JClassAlreadyExistsException
+     */
+    protected abstract JExpression generateInstance(JDefinedClass factoryRepositoryClass, JClass interfaceClass, T concreteType) throws JClassAlreadyExistsException;
 }
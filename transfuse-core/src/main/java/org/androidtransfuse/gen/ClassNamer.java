@@ -23,12 +23,10 @@ import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.util.Namer;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author John Ericksen
@@ -44,29 +42,35 @@ public class ClassNamer {
         PROHIBITED_PACKAGES.put("com.sun.", "com.sun_.");
     }
 
-    private final ConcurrentMap<String, AtomicInteger> nameMap = new ConcurrentHashMap<String, AtomicInteger>();
+    private final NameCounters topLevelCounters = new NameCounters();
+    private final Provider<NameCounters> nestedCountersProvider;
     private final String namespace;
 
     @Inject
-    public ClassNamer(){
-        this(null);
+    public ClassNamer(Provider<NameCounters> nestedCountersProvider){
+        this(null, nestedCountersProvider);
     }
 
     public ClassNamer(String namespace) {
+        this(namespace, NameCounters.shared());
+    }
+
+    public ClassNamer(String namespace, Provider<NameCounters> nestedCountersProvider) {
         this.namespace = namespace;
+        this.nestedCountersProvider = nestedCountersProvider;
     }
 
     public static final class ClassNameBuilder{
         private final PackageClass packageClass;
-        private final ClassNamer classNamer;
+        private final NameCounters nameCounters;
         private final String namespace;
         private boolean namespaced;
         private String appendment;
 
-        public ClassNameBuilder(PackageClass packageClass, String namespace, ClassNamer classNamer) {
+        public ClassNameBuilder(PackageClass packageClass, String namespace, NameCounters nameCounters) {
             this.packageClass = packageClass;
             this.namespace = namespace;
-            this.classNamer = classNamer;
+            this.nameCounters = nameCounters;
         }
 
         public ClassNameBuilder namespaced(){
@@ -82,7 +86,7 @@ public class ClassNamer {
         public PackageClass build(){
             return new PackageClass(
                     getPackage(packageClass.getPackage()),
-                    generateName(namespaced, packageClass.getClassName(), appendment, classNamer));
+                    generateName(namespaced, packageClass.getClassName(), appendment, nameCounters));
         }
 
         private String getPackage(String inputPackage){
@@ -99,7 +103,7 @@ public class ClassNamer {
             return validPackage;
         }
 
-        private String generateName(boolean namespaced, String fullClassName, String appendment, ClassNamer classNamer) {
+        private String generateName(boolean namespaced, String fullClassName, String appendment, NameCounters nameCounters) {
 
             //remove array notation
             String sanitizedFullClassName = fullClassName.replaceAll("\\[\\]", "");
@@ -126,8 +130,8 @@ public class ClassNamer {
 
             String nameRoot = namer.build();
 
-            if(classNamer != null){
-                namer.append(classNamer.get(nameRoot));
+            if(nameCounters != null){
+                namer.append(nameCounters.next(nameRoot));
             }
             return namer.build();
         }
@@ -149,12 +153,12 @@ public class ClassNamer {
         return className(new PackageClass(definedClass._package().name(), definedClass.name()));
     }
 
-    private static ClassNameBuilder className(PackageClass packageClass, String namespace, ClassNamer classNamer){
-        return new ClassNameBuilder(packageClass, namespace, classNamer);
+    private static ClassNameBuilder className(PackageClass packageClass, String namespace, NameCounters nameCounters){
+        return new ClassNameBuilder(packageClass, namespace, nameCounters);
     }
 
     public ClassNameBuilder numberedClassName(PackageClass packageClass){
-        return className(packageClass, namespace, this);
+        return className(packageClass, namespace, topLevelCounters);
     }
 
     public ClassNameBuilder numberedClassName(Class clazz) {
@@ -169,16 +173,19 @@ public class ClassNamer {
         return numberedClassName(new PackageClass(definedClass._package().name(), definedClass.name()));
     }
 
-    private int get(String name){
-        AtomicInteger result = nameMap.get(name);
-        if (result == null) {
-            AtomicInteger value = new AtomicInteger();
-            result = nameMap.putIfAbsent(name, value);
-            if (result == null) {
-                result = value;
-            }
-        }
+    /**
+     * Names a class nested within a generated class.  Nested names only need to be unique within their enclosing class,
+     * so they are numbered per code generation transaction rather than across the whole processor run.
+     */
+    public ClassNameBuilder numberedNestedClassName(PackageClass packageClass){
+        return className(packageClass, namespace, nestedCountersProvider.get());
+    }
+
+    public ClassNameBuilder numberedNestedClassName(Class clazz) {
+        return numberedNestedClassName(new PackageClass(clazz));
+    }
 
-        return result.getAndIncrement();
+    public ClassNameBuilder numberedNestedClassName(ASTType astType) {
+        return numberedNestedClassName(astType.getPackageClass());
     }
 }
@@ -15,15 +15,15 @@
  */
 package org.androidtransfuse.gen;
 
-import com.google.common.collect.ImmutableMap;
-import com.sun.codemodel.*;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
 import org.androidtransfuse.Factories;
 import org.androidtransfuse.adapter.PackageClass;
-import org.androidtransfuse.scope.Scopes;
 import org.androidtransfuse.util.Repository;
 
 import javax.inject.Inject;
-import java.util.Map;
 
 /**
  * @author John Ericksen
@@ -31,38 +31,14 @@ import java.util.Map;
 public class FactoriesGenerator extends AbstractRepositoryGenerator<JDefinedClass> {
 
     private static final PackageClass REPOSITORY_NAME = new PackageClass(Factories.FACTORIES_PACKAGE, Factories.FACTORIES_REPOSITORY_NAME);
-    private static final String GET_METHOD = "get";
-
-    private final ClassGenerationUtil generationUtil;
-    private final ClassNamer classNamer;
-    private final UniqueVariableNamer variableNamer;
 
     @Inject
-    public FactoriesGenerator(ClassGenerationUtil generationUtil, ClassNamer classNamer, UniqueVariableNamer variableNamer) {
+    public FactoriesGenerator(ClassGenerationUtil generationUtil, UniqueVariableNamer variableNamer) {
         super(Repository.class, generationUtil, variableNamer, REPOSITORY_NAME, Factories.FactoryBuilder.class);
-        this.generationUtil = generationUtil;
-        this.classNamer = classNamer;
-        this.variableNamer = variableNamer;
     }
 
     @Override
-    protected Map<? extends JExpression, ? extends JExpression> generateMapping(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) throws JClassAlreadyExistsException {
-
-        //factory builder
-        JDefinedClass factoryClass = factoryRepositoryClass._class(JMod.PRIVATE | JMod.FINAL | JMod.STATIC, classNamer.numberedClassName(interfaceClass).build().getClassName());
-        factoryClass._implements(generationUtil.ref(Factories.FactoryBuilder.class).narrow(interfaceClass));
-
-        //getter without given scopes
-        JMethod getMethod = factoryClass.method(JMod.PUBLIC, interfaceClass, Repository.GET_METHOD);
-
-        getMethod.body()._return(JExpr._new(concreteType));
-
-        //getter with scopes
-        JMethod getMethodWithScopes = factoryClass.method(JMod.PUBLIC, interfaceClass, GET_METHOD);
-        JVar scopes = getMethodWithScopes.param(generationUtil.ref(Scopes.class), variableNamer.generateName(Scopes.class));
-
-        getMethodWithScopes.body()._return(JExpr._new(concreteType).arg(scopes));
-
-        return ImmutableMap.of(interfaceClass.dotclass(), JExpr._new(factoryClass));
+    protected JExpression generateInstance(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) {
+        return JExpr._new(FactoryGenerator.getBuilder(concreteType));
     }
 }
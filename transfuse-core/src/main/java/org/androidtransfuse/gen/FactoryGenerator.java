@@ -37,6 +37,7 @@ import org.androidtransfuse.validation.Validator;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -117,6 +118,8 @@ public class FactoryGenerator {
 
             implClass._implements(interfaceClass);
 
+            generateBuilder(implClass, interfaceClass);
+
             for (ASTMethod interfaceMethod : descriptor.getMethods()) {
                 MirroredMethodGenerator mirroredMethodGenerator = mirroredMethodGeneratorFactory.buildMirroredMethodGenerator(interfaceMethod, false);
                 MethodDescriptor methodDescriptor = mirroredMethodGenerator.buildMethod(implClass);
@@ -142,4 +145,35 @@ public class FactoryGenerator {
             throw new TransfuseAnalysisException("Class already exists for generated type " + descriptor.getName(), e);
         }
     }
+
+    private void generateBuilder(JDefinedClass implClass, JClass interfaceClass) throws JClassAlreadyExistsException {
+        JDefinedClass builderClass = implClass._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, Factories.BUILDER_NAME);
+        builderClass._implements(generationUtil.ref(Factories.FactoryBuilder.class).narrow(interfaceClass));
+
+        //getter without given scopes
+        JMethod getMethod = builderClass.method(JMod.PUBLIC, interfaceClass, Factories.FactoryBuilder.GET_METHOD);
+        getMethod.body()._return(JExpr._new(implClass));
+
+        //getter with scopes
+        JMethod getMethodWithScopes = builderClass.method(JMod.PUBLIC, interfaceClass, Factories.FactoryBuilder.GET_METHOD);
+        JVar scopes = getMethodWithScopes.param(generationUtil.ref(Scopes.class), variableNamer.generateName(Scopes.class));
+        getMethodWithScopes.body()._return(JExpr._new(implClass).arg(scopes));
+    }
+
+    /**
+     * Finds the `FactoryBuilder` nested in the given generated Factory implementation.
+     *
+     * @param implClass generated Factory implementation
+     * @return nested builder
+     */
+    public static JDefinedClass getBuilder(JDefinedClass implClass) {
+        Iterator<JDefinedClass> nestedClasses = implClass.classes();
+        while (nestedClasses.hasNext()) {
+            JDefinedClass nestedClass = nestedClasses.next();
+            if (nestedClass.name().equals(Factories.BUILDER_NAME)) {
+                return nestedClass;
+            }
+        }
+        throw new TransfuseAnalysisException("FactoryBuilder missing from generated Factory " + implClass.fullName());
+    }
 }
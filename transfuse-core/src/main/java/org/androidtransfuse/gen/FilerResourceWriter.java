@@ -18,41 +18,29 @@ package org.androidtransfuse.gen;
 import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JPackage;
 
-import javax.annotation.processing.Filer;
 import javax.inject.Inject;
-import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Collection;
-import java.util.HashSet;
 
 public class FilerResourceWriter extends CodeWriter {
 
-    private final Filer filer;
-    private final Collection<OutputStream> openStreams = new HashSet<OutputStream>();
+    private final FilerWriteQueue writeQueue;
+    private final OpenStreamTracker openStreams = new OpenStreamTracker();
 
     @Inject
-    public FilerResourceWriter(Filer filer) {
-        this.filer = filer;
+    public FilerResourceWriter(FilerWriteQueue writeQueue) {
+        this.writeQueue = writeQueue;
     }
 
     @Override
     public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
-        FileObject resource = filer.createResource(StandardLocation.SOURCE_OUTPUT, pkg.name(), fileName);
-
-        OutputStream os = resource.openOutputStream();
-        openStreams.add(os);
-
-        return os;
+        return openStreams.track(writeQueue.openResource(StandardLocation.SOURCE_OUTPUT, pkg.name(), fileName));
     }
 
 
     @Override
     public void close() throws IOException {
-        for (OutputStream openStream : openStreams) {
-            openStream.flush();
-            openStream.close();
-        }
+        openStreams.closeAll();
     }
 }
\ No newline at end of file
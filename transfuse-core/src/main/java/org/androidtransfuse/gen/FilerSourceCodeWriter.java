@@ -19,13 +19,9 @@ import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JPackage;
 import org.androidtransfuse.adapter.PackageClass;
 
-import javax.annotation.processing.Filer;
 import javax.inject.Inject;
-import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Collection;
-import java.util.HashSet;
 
 /**
  * Adapter class to allow codemodel to write its output source and source files to the Java Annotation Processor Filer
@@ -34,23 +30,18 @@ import java.util.HashSet;
  */
 public class FilerSourceCodeWriter extends CodeWriter {
 
-    private final Filer filer;
-    private final Collection<OutputStream> openStreams = new HashSet<OutputStream>();
+    private final FilerWriteQueue writeQueue;
+    private final OpenStreamTracker openStreams = new OpenStreamTracker();
 
     @Inject
-    public FilerSourceCodeWriter(Filer filer) {
-        this.filer = filer;
+    public FilerSourceCodeWriter(FilerWriteQueue writeQueue) {
+        this.writeQueue = writeQueue;
     }
 
     @Override
     public OutputStream openBinary(JPackage jPackage, String fileName) throws IOException {
         //generate a source file based on package and filename
-        JavaFileObject sourceFile = filer.createSourceFile(toQualifiedClassName(jPackage, fileName));
-
-        OutputStream os = sourceFile.openOutputStream();
-        openStreams.add(os);
-
-        return os;
+        return openStreams.track(writeQueue.openSource(toQualifiedClassName(jPackage, fileName)));
     }
 
     private String toQualifiedClassName(JPackage pkg, String fileName) {
@@ -59,9 +50,6 @@ public class FilerSourceCodeWriter extends CodeWriter {
 
     @Override
     public void close() throws IOException {
-        for (OutputStream openStream : openStreams) {
-            openStream.flush();
-            openStream.close();
-        }
+        openStreams.closeAll();
     }
 }
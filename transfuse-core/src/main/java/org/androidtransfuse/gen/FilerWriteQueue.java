@@ -0,0 +1,233 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.tools.JavaFileManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands finished generated files to a single writer thread, which performs the `Filer` calls.
+ *
+ * Generating threads render into memory and submit the result on `close()`, blocking only while the bounded queue is
+ * full.  The javac `Filer` is not thread safe, so it is only ever called from the writer thread, which is started on
+ * demand and exits once idle.  Call `flush()` before the end of the round to make sure every submitted file has been
+ * created; write failures are reported there, by file name.
+ *
+ * @author John Ericksen
+ */
+@Singleton
+public class FilerWriteQueue {
+
+    private static final int CAPACITY = 64;
+    // keeps the writer thread between submissions, rather than starting one per file
+    private static final long IDLE_MILLIS = 100;
+
+    private final Filer filer;
+    private final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<PendingWrite>(CAPACITY);
+    private int pending = 0;
+    private boolean writing = false;
+    private Map<String, IOException> failures = new LinkedHashMap<String, IOException>();
+
+    @Inject
+    public FilerWriteQueue(Filer filer) {
+        this.filer = filer;
+    }
+
+    /**
+     * Opens an in-memory stream, written to a source file of the given name once closed.
+     *
+     * @param className fully qualified class name
+     * @return output stream
+     */
+    public OutputStream openSource(final String className) {
+        return new PendingOutputStream(new PendingWrite(className) {
+            @Override
+            public OutputStream open() throws IOException {
+                return filer.createSourceFile(className).openOutputStream();
+            }
+        });
+    }
+
+    /**
+     * Opens an in-memory stream, written to the given resource once closed.
+     *
+     * @param location resource location
+     * @param pkg resource package
+     * @param name resource name
+     * @return output stream
+     */
+    public OutputStream openResource(final JavaFileManager.Location location, final String pkg, final String name) {
+        return new PendingOutputStream(new PendingWrite(pkg + "/" + name) {
+            @Override
+            public OutputStream open() throws IOException {
+                return filer.createResource(location, pkg, name).openOutputStream();
+            }
+        });
+    }
+
+    /**
+     * Waits for every submitted file to be written.
+     *
+     * @throws IOException naming the first file that failed to be written since the last flush
+     */
+    public void flush() throws IOException {
+        Map<String, IOException> flushed = flushFailures();
+        if (!flushed.isEmpty()) {
+            Map.Entry<String, IOException> failure = flushed.entrySet().iterator().next();
+            throw new IOException("Unable to write generated file " + failure.getKey(), failure.getValue());
+        }
+    }
+
+    /**
+     * Waits for every submitted file to be written, returning rather than throwing the write failures.
+     *
+     * @return failures since the last flush, keyed by the name of the file that failed to be written
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public synchronized Map<String, IOException> flushFailures() throws InterruptedIOException {
+        while (pending > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing generated files");
+            }
+        }
+        if (failures.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, IOException> flushed = failures;
+        failures = new LinkedHashMap<String, IOException>();
+        return flushed;
+    }
+
+    private void submit(PendingWrite write) throws IOException {
+        synchronized (this) {
+            pending++;
+            if (!writing) {
+                writing = true;
+                Thread writer = new Thread(new Writer(), "transfuse-filer-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+        }
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written(write.name, null);
+            throw new InterruptedIOException("Interrupted while submitting generated file");
+        }
+    }
+
+    private synchronized void written(String name, IOException writeFailure) {
+        pending--;
+        if (writeFailure != null) {
+            failures.put(name, writeFailure);
+        }
+        notifyAll();
+    }
+
+    private synchronized boolean finished() {
+        if (pending == 0) {
+            writing = false;
+            return true;
+        }
+        return false;
+    }
+
+    private final class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            while (true) {
+                PendingWrite write = null;
+                try {
+                    write = queue.poll(IDLE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // exits below once idle
+                }
+                if (write != null) {
+                    written(write.name, write.write());
+                } else if (finished()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private abstract static class PendingWrite {
+
+        private final String name;
+        private byte[] content;
+
+        protected PendingWrite(String name) {
+            this.name = name;
+        }
+
+        public abstract OutputStream open() throws IOException;
+
+        public IOException write() {
+            try {
+                OutputStream outputStream = open();
+                try {
+                    outputStream.write(content);
+                } finally {
+                    outputStream.close();
+                }
+                return null;
+            } catch (IOException e) {
+                return e;
+            } catch (RuntimeException e) {
+                return new IOException("Unable to write generated file", e);
+            } finally {
+                content = null;
+            }
+        }
+    }
+
+    private final class PendingOutputStream extends ByteArrayOutputStream {
+
+        private final PendingWrite write;
+        private boolean closed = false;
+
+        private PendingOutputStream(PendingWrite write) {
+            super(2048);
+            this.write = write;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                write.content = toByteArray();
+                submit(write);
+            }
+        }
+    }
+}
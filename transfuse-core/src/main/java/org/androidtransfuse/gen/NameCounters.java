@@ -0,0 +1,60 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen;
+
+import javax.inject.Provider;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sequential counters, one per name root, used to number generated names.
+ *
+ * Provided per code generation transaction so that the numbers given to variables and nested classes depend only on
+ * the order of generation within the transaction, and not on how concurrent transactions interleave.
+ *
+ * @author John Ericksen
+ */
+public class NameCounters {
+
+    private final ConcurrentMap<String, AtomicInteger> nameMap = new ConcurrentHashMap<String, AtomicInteger>();
+
+    public int next(String nameRoot){
+        AtomicInteger result = nameMap.get(nameRoot);
+        if (result == null) {
+            AtomicInteger value = new AtomicInteger();
+            result = nameMap.putIfAbsent(nameRoot, value);
+            if (result == null) {
+                result = value;
+            }
+        }
+
+        return result.getAndIncrement();
+    }
+
+    /**
+     * Provides a single set of counters shared by every caller, for use outside of a code generation scope.
+     */
+    public static Provider<NameCounters> shared(){
+        final NameCounters counters = new NameCounters();
+        return new Provider<NameCounters>() {
+            @Override
+            public NameCounters get() {
+                return counters;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Tracks the streams opened by a `CodeWriter` that have not been closed yet.  Codemodel closes each generated file as
+ * soon as it is written, after which the stream is no longer referenced here.
+ *
+ * @author John Ericksen
+ */
+class OpenStreamTracker {
+
+    private final Collection<OutputStream> openStreams = new HashSet<OutputStream>();
+
+    public synchronized OutputStream track(OutputStream outputStream) {
+        OutputStream trackedStream = new TrackedOutputStream(outputStream);
+        openStreams.add(trackedStream);
+        return trackedStream;
+    }
+
+    public void closeAll() throws IOException {
+        for (OutputStream openStream : snapshot()) {
+            // flushes before closing
+            openStream.close();
+        }
+    }
+
+    private synchronized Collection<OutputStream> snapshot() {
+        return new HashSet<OutputStream>(openStreams);
+    }
+
+    private synchronized void closed(OutputStream outputStream) {
+        openStreams.remove(outputStream);
+    }
+
+    private final class TrackedOutputStream extends FilterOutputStream {
+
+        private TrackedOutputStream(OutputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            // FilterOutputStream writes byte by byte
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                closed(this);
+            }
+        }
+    }
+}
@@ -20,20 +20,29 @@ import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.util.Namer;
 
+import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Generates a unique name for the given type.
+ * Generates a unique name for the given type.  Names are numbered by the `NameCounters` of the current code generation
+ * transaction, so they are unique within the code generated by that transaction.
  *
  * @author John Ericksen
  */
 @Singleton
 public class UniqueVariableNamer {
 
-    private final ConcurrentMap<String, AtomicInteger> nameMap = new ConcurrentHashMap<String, AtomicInteger>();
+    private final Provider<NameCounters> nameCountersProvider;
+
+    public UniqueVariableNamer() {
+        this(NameCounters.shared());
+    }
+
+    @Inject
+    public UniqueVariableNamer(Provider<NameCounters> nameCountersProvider) {
+        this.nameCountersProvider = nameCountersProvider;
+    }
 
     public String generateName(Class clazz) {
         return generateName(clazz.getName());
@@ -74,19 +83,6 @@ public class UniqueVariableNamer {
 
         String nameRoot = builder.toString();
 
-        return Namer.name(nameRoot).append(nullSafeIterGet(nameRoot)).build();
-    }
-
-    private int nullSafeIterGet(String name){
-        AtomicInteger result = nameMap.get(name);
-        if (result == null) {
-            AtomicInteger value = new AtomicInteger();
-            result = nameMap.putIfAbsent(name, value);
-            if (result == null) {
-                result = value;
-            }
-        }
-
-        return result.getAndIncrement();
+        return Namer.name(nameRoot).append(nameCountersProvider.get().next(nameRoot)).build();
     }
 }
@@ -30,6 +30,9 @@ public class PackageHelperDescriptor {
     private final Map<FieldReference, String> fieldSetMapping = new HashMap<FieldReference, String>();
     private final Map<FieldReference, String> fieldGetMapping = new HashMap<FieldReference, String>();
     private final Map<MethodCall, String> methodCallMapping = new HashMap<MethodCall, String>();
+    private final Map<ConstructorCall, String> privateConstructorMapping = new HashMap<ConstructorCall, String>();
+    private final Map<FieldReference, String> privateFieldMapping = new HashMap<FieldReference, String>();
+    private final Map<MethodCall, String> privateMethodMapping = new HashMap<MethodCall, String>();
 
     public PackageHelperDescriptor(PackageClass name) {
         this.name = name;
@@ -54,4 +57,16 @@ public class PackageHelperDescriptor {
     public Map<MethodCall, String> getMethodCallMapping() {
         return methodCallMapping;
     }
+
+    public Map<ConstructorCall, String> getPrivateConstructorMapping() {
+        return privateConstructorMapping;
+    }
+
+    public Map<FieldReference, String> getPrivateFieldMapping() {
+        return privateFieldMapping;
+    }
+
+    public Map<MethodCall, String> getPrivateMethodMapping() {
+        return privateMethodMapping;
+    }
 }
@@ -22,6 +22,10 @@ import org.androidtransfuse.adapter.ASTVoidType;
 import org.androidtransfuse.adapter.PackageClass;
 import org.androidtransfuse.gen.ClassGenerationUtil;
 import org.androidtransfuse.gen.UniqueVariableNamer;
+import org.androidtransfuse.util.ConstructorAccessor;
+import org.androidtransfuse.util.FieldAccessor;
+import org.androidtransfuse.util.InjectionUtil;
+import org.androidtransfuse.util.MethodAccessor;
 
 import javax.inject.Inject;
 import java.util.List;
@@ -80,6 +84,19 @@ public class PackageHelperGenerator {
             for (Map.Entry<FieldReference, String> fieldSetEntry : packageHelper.getFieldSetMapping().entrySet()) {
                 buildFieldSet(fieldSetEntry.getKey(), fieldSetEntry.getValue(), packageHelperClass);
             }
+
+            //private accessors
+            for (Map.Entry<ConstructorCall, String> constructorEntry : packageHelper.getPrivateConstructorMapping().entrySet()) {
+                buildPrivateConstructorAccessor(constructorEntry.getKey(), constructorEntry.getValue(), packageHelperClass);
+            }
+
+            for (Map.Entry<MethodCall, String> methodEntry : packageHelper.getPrivateMethodMapping().entrySet()) {
+                buildPrivateMethodAccessor(methodEntry.getKey(), methodEntry.getValue(), packageHelperClass);
+            }
+
+            for (Map.Entry<FieldReference, String> fieldEntry : packageHelper.getPrivateFieldMapping().entrySet()) {
+                buildPrivateFieldAccessor(fieldEntry.getKey(), fieldEntry.getValue(), packageHelperClass);
+            }
         }
     }
 
@@ -148,6 +165,39 @@ public class PackageHelperGenerator {
         body.assign(containerParam.ref(fieldReference.getName()), inputParam);
     }
 
+    private void buildPrivateConstructorAccessor(ConstructorCall constructorCall, String accessorName, JDefinedClass helperClass) {
+        JClass typeRef = generationUtil.ref(constructorCall.getType());
+        //InjectionUtil.getConstructorAccessor(Class<T> targetClass, Class... argClasses)
+        JInvocation accessorLookup = generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.GET_CONSTRUCTOR_ACCESSOR_METHOD)
+                .arg(typeRef.dotclass());
+        for (ASTType paramType : constructorCall.getParamTypes()) {
+            accessorLookup.arg(generationUtil.ref(paramType).dotclass());
+        }
+
+        helperClass.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, generationUtil.ref(ConstructorAccessor.class).narrow(typeRef), accessorName, accessorLookup);
+    }
+
+    private void buildPrivateMethodAccessor(MethodCall methodCall, String accessorName, JDefinedClass helperClass) {
+        //InjectionUtil.getMethodAccessor(Class targetClass, String method, Class... argClasses)
+        JInvocation accessorLookup = generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.GET_METHOD_ACCESSOR_METHOD)
+                .arg(generationUtil.ref(methodCall.getType()).dotclass())
+                .arg(methodCall.getMethodName());
+        for (ASTType paramType : methodCall.getParamTypes()) {
+            accessorLookup.arg(generationUtil.ref(paramType).dotclass());
+        }
+
+        helperClass.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, MethodAccessor.class, accessorName, accessorLookup);
+    }
+
+    private void buildPrivateFieldAccessor(FieldReference fieldReference, String accessorName, JDefinedClass helperClass) {
+        //InjectionUtil.getFieldAccessor(Class targetClass, String field)
+        JInvocation accessorLookup = generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.GET_FIELD_ACCESSOR_METHOD)
+                .arg(generationUtil.ref(fieldReference.getVariableType()).dotclass())
+                .arg(fieldReference.getName());
+
+        helperClass.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, FieldAccessor.class, accessorName, accessorLookup);
+    }
+
     private JDefinedClass buildPackageHelper(PackageClass helperClassName) {
         try {
             return generationUtil.defineClass(helperClassName);
@@ -30,6 +30,7 @@ public class PackageHelperRepository {
 
     private static final String PRE_METHOD = "access";
     private static final String PACKAGE_HELPER_NAME = "PackageHelper";
+    private static final String PRE_ACCESSOR = "accessor";
 
     private final Map<PackageClass, PackageHelperDescriptor> packageHelpers = new HashMap<PackageClass, PackageHelperDescriptor>();
 
@@ -102,6 +103,45 @@ public class PackageHelperRepository {
         return new ProtectedAccessorMethod(helperClass.getName(), helperClass.getFieldSetMapping().get(fieldReference));
     }
 
+    public synchronized PrivateAccessorField getPrivateConstructorAccessor(ASTType type, List<ASTType> parameterTypes) {
+        ConstructorCall constructorCall = new ConstructorCall(type, parameterTypes);
+
+        PackageHelperDescriptor helperClass = getPackageHelper(type);
+        Map<ConstructorCall, String> mapping = helperClass.getPrivateConstructorMapping();
+
+        if (!mapping.containsKey(constructorCall)) {
+            mapping.put(constructorCall, PRE_ACCESSOR + "$INIT$" + mapping.size());
+        }
+
+        return new PrivateAccessorField(helperClass.getName(), mapping.get(constructorCall));
+    }
+
+    public synchronized PrivateAccessorField getPrivateMethodAccessor(ASTType returnType, ASTType containingType, String methodName, List<ASTType> paramTypes) {
+        MethodCall methodCall = new MethodCall(containingType, returnType, methodName, paramTypes);
+
+        PackageHelperDescriptor helperClass = getPackageHelper(containingType);
+        Map<MethodCall, String> mapping = helperClass.getPrivateMethodMapping();
+
+        if (!mapping.containsKey(methodCall)) {
+            mapping.put(methodCall, PRE_ACCESSOR + "$M$" + methodName + "$" + mapping.size());
+        }
+
+        return new PrivateAccessorField(helperClass.getName(), mapping.get(methodCall));
+    }
+
+    public synchronized PrivateAccessorField getPrivateFieldAccessor(ASTType fieldType, ASTType containingType, String fieldName) {
+        FieldReference fieldReference = new FieldReference(fieldType, containingType, fieldName);
+
+        PackageHelperDescriptor helperClass = getPackageHelper(containingType);
+        Map<FieldReference, String> mapping = helperClass.getPrivateFieldMapping();
+
+        if (!mapping.containsKey(fieldReference)) {
+            mapping.put(fieldReference, PRE_ACCESSOR + "$F$" + fieldName);
+        }
+
+        return new PrivateAccessorField(helperClass.getName(), mapping.get(fieldReference));
+    }
+
     protected Collection<PackageHelperDescriptor> getPackageHelpers() {
         return packageHelpers.values();
     }
@@ -19,86 +19,72 @@ import com.sun.codemodel.*;
 import org.androidtransfuse.adapter.*;
 import org.androidtransfuse.gen.ClassGenerationUtil;
 import org.androidtransfuse.model.TypedExpression;
-import org.androidtransfuse.util.InjectionUtil;
+import org.androidtransfuse.util.ConstructorAccessor;
+import org.androidtransfuse.util.FieldAccessor;
+import org.androidtransfuse.util.MethodAccessor;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Invocation Builder for building privately scoped elements.
  *
+ * Private elements are accessed through accessor handles held in static fields on the package helper of the
+ * containing type, so the reflective lookup happens once per member rather than once per injection.
+ *
  * @author John Ericksen
  */
 public class PrivateInvocationBuilder implements ModifiedInvocationBuilder {
 
     private final ClassGenerationUtil generationUtil;
+    private final PackageHelperRepository packageHelperRepository;
 
     @Inject
-    public PrivateInvocationBuilder(ClassGenerationUtil generationUtil) {
+    public PrivateInvocationBuilder(ClassGenerationUtil generationUtil, PackageHelperRepository packageHelperRepository) {
         this.generationUtil = generationUtil;
+        this.packageHelperRepository = packageHelperRepository;
     }
 
     @Override
     public JExpression buildConstructorCall(ASTConstructor constructor, ASTType type, List<? extends JExpression> parameters) {
 
-        //InjectionUtil.setConstructor(Class<T> targetClass, Class[] argClasses,Object[] args)
-        JInvocation constructorInvocation = generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.CALL_CONSTRUCTOR_METHOD)
-                .arg(generationUtil.ref(type).dotclass());
-
-        //add classes
-        JArray classArray = JExpr.newArray(generationUtil.ref(Class.class));
-        for (ASTParameter parameterType : constructor.getParameters()) {
-            classArray.add(generationUtil.ref(parameterType.getASTType()).dotclass());
-        }
-        constructorInvocation.arg(classArray);
-
-        //add args
-        constructorInvocation.arg(buildArgsArray(parameters));
+        PrivateAccessorField accessor = packageHelperRepository.getPrivateConstructorAccessor(type, getParameterTypes(constructor.getParameters()));
 
-        return constructorInvocation;
+        //ConstructorAccessor<T>.newInstance(Object... args)
+        return accessor.ref(generationUtil).invoke(ConstructorAccessor.NEW_INSTANCE_METHOD)
+                .arg(buildArgsArray(parameters));
     }
 
     @Override
     public JInvocation buildMethodCall(boolean cast, ASTMethod method, List<? extends JExpression> parameters, TypedExpression expression) {
 
-        JClass targetType = generationUtil.ref(expression.getType());
-        //InjectionUtil.getInstance().setMethod(Class targetClass, Object target, String method, Class[] argClasses,Object[] args)
-        JInvocation methodInvocation = generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.CALL_METHOD_METHOD)
+        PrivateAccessorField accessor = packageHelperRepository.getPrivateMethodAccessor(method.getReturnType(), expression.getType(), method.getName(), getParameterTypes(method.getParameters()));
+
+        //MethodAccessor.invoke(Class<T> returnType, Object target, Object... args)
+        return accessor.ref(generationUtil).invoke(MethodAccessor.INVOKE_METHOD)
                 .arg(generationUtil.ref(method.getReturnType()).dotclass())
-                .arg(targetType.dotclass())
                 .arg(expression.getExpression())
-                .arg(method.getName());
-
-        //add classes
-        JArray classArray = JExpr.newArray(generationUtil.ref(Class.class));
-        for (ASTParameter parameter : method.getParameters()) {
-            classArray.add(generationUtil.ref(parameter.getASTType()).dotclass());
-        }
-        methodInvocation.arg(classArray);
-
-        //add args
-        methodInvocation.arg(buildArgsArray(parameters));
-
-        return methodInvocation;
+                .arg(buildArgsArray(parameters));
     }
 
     @Override
     public JExpression buildFieldGet(boolean cast, ASTField field, TypedExpression targetExpression) {
-        //InjectionUtil.getInstance().getField(Class returnType, Class targetClass, Object target, String field)
-        return generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.GET_FIELD_METHOD)
+        PrivateAccessorField accessor = packageHelperRepository.getPrivateFieldAccessor(field.getASTType(), targetExpression.getType(), field.getName());
+
+        //FieldAccessor.get(Class<T> returnType, Object target)
+        return accessor.ref(generationUtil).invoke(FieldAccessor.GET_METHOD)
                 .arg(generationUtil.ref(field.getASTType()).dotclass())
-                .arg(generationUtil.ref(targetExpression.getType()).dotclass())
-                .arg(targetExpression.getExpression())
-                .arg(field.getName());
+                .arg(targetExpression.getExpression());
     }
 
     @Override
     public JStatement buildFieldSet(boolean cast, ASTField field, TypedExpression expression, TypedExpression containerExpression) {
-        //InjectionUtil.getInstance().setField(Class targetClass, Object target, String field, Object value)
-        return generationUtil.ref(InjectionUtil.class).staticInvoke(InjectionUtil.SET_FIELD_METHOD)
-                .arg(generationUtil.ref(containerExpression.getType()).dotclass())
+        PrivateAccessorField accessor = packageHelperRepository.getPrivateFieldAccessor(field.getASTType(), containerExpression.getType(), field.getName());
+
+        //FieldAccessor.set(Object target, Object value)
+        return accessor.ref(generationUtil).invoke(FieldAccessor.SET_METHOD)
                 .arg(containerExpression.getExpression())
-                .arg(field.getName())
                 .arg(expression.getExpression());
     }
 
@@ -109,4 +95,12 @@ public class PrivateInvocationBuilder implements ModifiedInvocationBuilder {
         }
         return argArray;
     }
+
+    private List<ASTType> getParameterTypes(List<ASTParameter> parameters) {
+        List<ASTType> parameterTypes = new ArrayList<ASTType>();
+        for (ASTParameter parameter : parameters) {
+            parameterTypes.add(parameter.getASTType());
+        }
+        return parameterTypes;
+    }
 }
@@ -40,7 +40,6 @@ import java.util.*;
 public class AOPProxyGenerator {
 
     private static final String SUPER_REF = "super";
-    private static final String CLASS_GET_METHOD = "getMethod";
     private static final String AOPPROXY_EXT = "AOPProxy";
     private static final String METHOD_INTERCEPTOR_INVOKE = "invoke";
 
@@ -178,16 +177,29 @@ public class AOPProxyGenerator {
                             variableNamer.generateName(parameter.getASTType())));
         }
 
-        //aop interceptor
+        //aop interceptor chain, built once per proxied method
         Map<InjectionNode, JFieldVar> interceptorNameMap = interceptorFields.get(methodInterceptorEntry.getKey());
 
+        JClass chainType = generationUtil.ref(MethodInterceptorChain.class);
+        JFieldVar chainField = definedClass.field(JMod.PRIVATE | JMod.FINAL, chainType, variableNamer.generateName(chainType));
+
+        JInvocation newInterceptorChain = JExpr._new(chainType)
+                .arg(JExpr._new(buildMethodExecution(definedClass, method)))
+                .arg(JExpr._this());
+
+        for (InjectionNode interceptor : methodInterceptorEntry.getValue()) {
+            newInterceptorChain.arg(interceptorNameMap.get(interceptor));
+        }
+
+        constructorBody.assign(chainField, newInterceptorChain);
+
         JArray paramArray = JExpr.newArray(generationUtil.ref(Object.class));
 
         for (ASTParameter astParameter : method.getParameters()) {
             paramArray.add(parameterMap.get(astParameter));
         }
 
-        JInvocation interceptorInvocation = buildInterceptorChain(definedClass, method, parameterMap, methodInterceptorEntry.getValue(), interceptorNameMap).invoke(METHOD_INTERCEPTOR_INVOKE);
+        JInvocation interceptorInvocation = chainField.invoke(METHOD_INTERCEPTOR_INVOKE);
         interceptorInvocation.arg(paramArray);
 
         if (method.getReturnType().equals(ASTVoidType.VOID)) {
@@ -197,40 +209,34 @@ public class AOPProxyGenerator {
         }
     }
 
-    private JExpression buildInterceptorChain(JDefinedClass definedClass, ASTMethod method, Map<ASTParameter, JVar> parameterMap, Set<InjectionNode> interceptors, Map<InjectionNode, JFieldVar> interceptorNameMap) {
+    private JDefinedClass buildMethodExecution(JDefinedClass definedClass, ASTMethod method) {
 
         try {
-            JDefinedClass methodExecutionClass = definedClass._class(JMod.PRIVATE | JMod.FINAL, classNamer.numberedClassName(MethodInterceptorChain.MethodExecution.class).build().getClassName());
+            JDefinedClass methodExecutionClass = definedClass._class(JMod.PRIVATE | JMod.FINAL, classNamer.numberedNestedClassName(MethodInterceptorChain.MethodExecution.class).build().getClassName());
             methodExecutionClass._implements(MethodInterceptorChain.MethodExecution.class);
 
-            //setup constructor with needed parameters
-            JMethod constructor = methodExecutionClass.constructor(JMod.PUBLIC);
-            JBlock constructorBody = constructor.body();
-            List<JExpression> methodParameters = new ArrayList<JExpression>();
-            for (ASTParameter parameter : method.getParameters()) {
-                JType parameterType = parameterMap.get(parameter).type();
-                JVar param = constructor.param(parameterType, variableNamer.generateName(parameterType));
-                JFieldVar field = methodExecutionClass.field(JMod.PRIVATE, parameterType, variableNamer.generateName(parameterType));
-                constructorBody.assign(field, param);
-                methodParameters.add(field);
+            //reflective Method, resolved once per proxy class
+            JInvocation resolveMethodInvocation = generationUtil.ref(MethodInterceptorChain.class)
+                    .staticInvoke(MethodInterceptorChain.RESOLVE_METHOD)
+                    .arg(definedClass.dotclass())
+                    .arg(method.getName());
+
+            for (ASTParameter astParameter : method.getParameters()) {
+                resolveMethodInvocation.arg(generationUtil.ref(astParameter.getASTType()).dotclass());
             }
 
+            JClass methodType = generationUtil.ref(Method.class);
+            JFieldVar methodField = definedClass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, methodType, variableNamer.generateName(methodType), resolveMethodInvocation);
 
             //getMethod()
             JMethod getMethod = methodExecutionClass.method(JMod.PUBLIC, Method.class, MethodInterceptorChain.MethodExecution.GET_METHOD);
             getMethod.annotate(Override.class);
+            getMethod.body()._return(methodField);
 
-            JInvocation getMethodInvocation = definedClass.dotclass().invoke(CLASS_GET_METHOD).arg(method.getName());
-            getMethod.body()._return(getMethodInvocation);
-            getMethod._throws(NoSuchMethodException.class);
-
-            for (ASTParameter astParameter : method.getParameters()) {
-                getMethodInvocation.arg(generationUtil.ref(astParameter.getASTType()).dotclass());
-            }
-
-            //invoke()
+            //invoke(Object[])
             JMethod invokeMethod = methodExecutionClass.method(JMod.PUBLIC, Object.class, MethodInterceptorChain.MethodExecution.INVOKE);
             invokeMethod.annotate(Override.class);
+            JVar arguments = invokeMethod.param(JMod.FINAL, generationUtil.ref(Object.class).array(), variableNamer.generateName(Object.class));
 
             //add all throws of contained method
             for (ASTType throwable : method.getThrowsTypes()) {
@@ -239,8 +245,16 @@ public class AOPProxyGenerator {
 
             JInvocation superCall = definedClass.staticRef(SUPER_REF).invoke(method.getName());
 
-            for (JExpression methodParam : methodParameters) {
-                superCall.arg(methodParam);
+            List<ASTParameter> parameters = method.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                ASTType parameterType = parameters.get(i).getASTType();
+                JClass castType;
+                if (parameterType instanceof ASTPrimitiveType) {
+                    castType = generationUtil.ref(((ASTPrimitiveType) parameterType).getObjectClass());
+                } else {
+                    castType = generationUtil.ref(parameterType);
+                }
+                superCall.arg(JExpr.cast(castType, arguments.component(JExpr.lit(i))));
             }
 
             if (method.getReturnType().equals(ASTVoidType.VOID)) {
@@ -250,21 +264,7 @@ public class AOPProxyGenerator {
                 invokeMethod.body()._return(superCall);
             }
 
-            JInvocation methodExecutionInvocation = JExpr._new(methodExecutionClass);
-
-            for (ASTParameter astParameter : method.getParameters()) {
-                methodExecutionInvocation.arg(parameterMap.get(astParameter));
-            }
-
-            JInvocation newInterceptorInvocation = JExpr._new(generationUtil.ref(MethodInterceptorChain.class))
-                    .arg(methodExecutionInvocation)
-                    .arg(JExpr._this());
-
-            for (InjectionNode interceptor : interceptors) {
-                newInterceptorInvocation.arg(interceptorNameMap.get(interceptor));
-            }
-
-            return newInterceptorInvocation;
+            return methodExecutionClass;
         } catch (JClassAlreadyExistsException e) {
             throw new TransfuseAnalysisException("Class already defined while generating inner class", e);
         }
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen.scopeBuilder;
+
+import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.analysis.astAnalyzer.ScopeAspect;
+
+/**
+ * Builds the `@Retained` scope aspect for a single component, recording whether its injection graph uses the scope
+ * at all so the retained scope plumbing is only generated where needed.
+ *
+ * @author John Ericksen
+ */
+public class RetainedScopeAspectFactory implements ScopeAspectFactory {
+
+    private final ScopeAspectFactory delegate;
+    private boolean used = false;
+
+    public RetainedScopeAspectFactory(ScopeAspectFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ScopeAspect buildAspect(AnalysisContext context) {
+        used = true;
+        return delegate.buildAspect(context);
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+}
@@ -26,6 +26,10 @@ import org.androidtransfuse.scope.Scope;
 import org.androidtransfuse.scope.ScopeKey;
 import org.androidtransfuse.scope.Scopes;
 
+import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author John Ericksen
  */
@@ -36,17 +40,55 @@ public class CustomScopeVariableBuilder implements VariableBuilder {
     private final ProviderGenerator providerGenerator;
     private final ClassGenerationUtil generationUtil;
     private final UniqueVariableNamer namer;
+    private final ScopeKeyCache scopeKeyCache;
+
+    /**
+     * Tracks the ScopeKey constants declared on each generated class by scope key signature, so each signature maps to
+     * exactly one field.  Fields are numbered per class, keeping the names unique regardless of the signature.
+     */
+    @Singleton
+    public static final class ScopeKeyCache {
+
+        private final Map<JDefinedClass, Map<String, JFieldVar>> scopeKeyFields = new HashMap<JDefinedClass, Map<String, JFieldVar>>();
+
+        public synchronized JFieldVar getCached(JDefinedClass holder, ASTType type, String scopeKeySignature, ClassGenerationUtil generationUtil) {
+            if (!scopeKeyFields.containsKey(holder)) {
+                scopeKeyFields.put(holder, new HashMap<String, JFieldVar>());
+            }
+            Map<String, JFieldVar> holderFields = scopeKeyFields.get(holder);
+
+            if (!holderFields.containsKey(scopeKeySignature)) {
+                JClass injectionNodeClassRef = generationUtil.ref(type);
+                JClass scopeKeyRef = generationUtil.ref(ScopeKey.class).narrow(injectionNodeClassRef.erasure());
+
+                JFieldVar scopeKeyField = holder.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, scopeKeyRef, buildFieldName(type, holderFields.size()),
+                        generationUtil.ref(ScopeKey.class).staticInvoke(ScopeKey.GET_METHOD).arg(injectionNodeClassRef.dotclass()).arg(JExpr.lit(scopeKeySignature)));
+
+                holderFields.put(scopeKeySignature, scopeKeyField);
+            }
+
+            return holderFields.get(scopeKeySignature);
+        }
+
+        private String buildFieldName(ASTType type, int index){
+            String name = type.getName();
+            String simpleName = name.substring(name.lastIndexOf('.') + 1).replaceAll("[^A-Za-z0-9_]", "_");
+            return "SCOPE_KEY_" + simpleName + "_" + index;
+        }
+    }
 
     public CustomScopeVariableBuilder(ASTType scopeKey,
                                       TypedExpressionFactory typedExpressionFactory,
                                       ProviderGenerator providerGenerator,
                                       ClassGenerationUtil generationUtil,
-                                      UniqueVariableNamer namer) {
+                                      UniqueVariableNamer namer,
+                                      ScopeKeyCache scopeKeyCache) {
         this.typedExpressionFactory = typedExpressionFactory;
         this.providerGenerator = providerGenerator;
         this.generationUtil = generationUtil;
         this.namer = namer;
         this.scopeKey = scopeKey;
+        this.scopeKeyCache = scopeKeyCache;
     }
 
     @Override
@@ -70,7 +112,7 @@ public class CustomScopeVariableBuilder implements VariableBuilder {
             }
         });
 
-        JExpression expression = scopeVar.invoke(Scope.GET_SCOPED_OBJECT).arg(buildScopeKey(injectionNode)).arg(provider);
+        JExpression expression = scopeVar.invoke(Scope.GET_SCOPED_OBJECT).arg(buildScopeKey(injectionBuilderContext.getDefinedClass(), injectionNode)).arg(provider);
 
         JVar decl = injectionBuilderContext.getBlock().decl(generationUtil.ref(injectionNode.getASTType()),
                 namer.generateName(injectionNode), expression);
@@ -78,11 +120,18 @@ public class CustomScopeVariableBuilder implements VariableBuilder {
         return typedExpressionFactory.build(injectionNode.getASTType(), decl);
     }
 
-    private JInvocation buildScopeKey(InjectionNode injectionNode){
+    /**
+     * Declares the ScopeKey as a static final constant on the outermost generated class so it is interned once, when
+     * the class initializes, instead of on every injection.
+     */
+    private JFieldVar buildScopeKey(JDefinedClass definedClass, InjectionNode injectionNode){
         InjectionSignature signature = injectionNode.getTypeSignature();
 
-        JClass injectionNodeClassRef = generationUtil.ref(injectionNode.getASTType());
+        JDefinedClass holder = definedClass;
+        while (holder.outer() instanceof JDefinedClass) {
+            holder = (JDefinedClass) holder.outer();
+        }
 
-        return generationUtil.ref(ScopeKey.class).staticInvoke(ScopeKey.GET_METHOD).arg(injectionNodeClassRef.dotclass()).arg(JExpr.lit(signature.buildScopeKeySignature()));
+        return scopeKeyCache.getCached(holder, injectionNode.getASTType(), signature.buildScopeKeySignature(), generationUtil);
     }
 }
@@ -75,4 +75,18 @@ public class ProvidesVariableBuilder extends ConsistentTypeVariableBuilder {
                 paramExpressions,
                 new TypedExpression(module.getASTType(), moduleVar));
     }
+
+    /**
+     * Nodes built to call the `@Provides` method: the module followed by the method parameters, in declaration order.
+     *
+     * @return dependencies
+     */
+    public List<InjectionNode> getDependencies() {
+        List<InjectionNode> dependencies = new ArrayList<InjectionNode>();
+        dependencies.add(module);
+        for (ASTParameter parameter : method.getParameters()) {
+            dependencies.add(dependencyAnalysis.get(parameter));
+        }
+        return dependencies;
+    }
 }
@@ -43,6 +43,6 @@ public class ScopeReferenceVariableBuilder extends ConsistentTypeVariableBuilder
     @Override
     public JExpression buildExpression(InjectionBuilderContext context, InjectionNode injectionNode) {
         JExpression scopesVar = context.getScopeVar();
-        return scopesVar.invoke(Scopes.GET_SCOPE).arg(generationUtil.ref(scopeAnnotation).dotclass());
+        return scopesVar.invoke(Scopes.GET_SCOPE_REFERENCE).arg(generationUtil.ref(scopeAnnotation).dotclass());
     }
 }
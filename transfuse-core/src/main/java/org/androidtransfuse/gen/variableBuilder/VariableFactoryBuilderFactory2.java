@@ -35,19 +35,21 @@ public class VariableFactoryBuilderFactory2 {
     private final Analyzer analyzer;
     private final ProviderGenerator providerGenerator;
     private final UniqueVariableNamer namer;
-
+    private final CustomScopeVariableBuilder.ScopeKeyCache scopeKeyCache;
 
     @Inject
     public VariableFactoryBuilderFactory2(TypedExpressionFactory typedExpressionFactory,
                                           ClassGenerationUtil generationUtil,
                                           Analyzer analyzer,
                                           ProviderGenerator providerGenerator,
-                                          UniqueVariableNamer namer) {
+                                          UniqueVariableNamer namer,
+                                          CustomScopeVariableBuilder.ScopeKeyCache scopeKeyCache) {
         this.typedExpressionFactory = typedExpressionFactory;
         this.generationUtil = generationUtil;
         this.analyzer = analyzer;
         this.providerGenerator = providerGenerator;
         this.namer = namer;
+        this.scopeKeyCache = scopeKeyCache;
     }
 
     public FactoryVariableBuilder buildFactoryVariableBuilder(ASTType factoryType) {
@@ -63,6 +65,6 @@ public class VariableFactoryBuilderFactory2 {
     }
 
     public CustomScopeVariableBuilder buildScopeVariableBuilder(ASTType scopeKey){
-        return new CustomScopeVariableBuilder(scopeKey, typedExpressionFactory, providerGenerator, generationUtil, namer);
+        return new CustomScopeVariableBuilder(scopeKey, typedExpressionFactory, providerGenerator, generationUtil, namer, scopeKeyCache);
     }
 }
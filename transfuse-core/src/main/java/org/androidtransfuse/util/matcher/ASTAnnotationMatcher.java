@@ -56,6 +56,10 @@ public class ASTAnnotationMatcher implements Matcher<Collection<ASTAnnotation>>
         return true;
     }
 
+    public ImmutableSet<ASTAnnotation> getAnnotations() {
+        return annotation;
+    }
+
     private boolean annotationsEquals(ASTAnnotation astAnnotation, ASTAnnotation inputAnnotations) {
         if(!astAnnotation.getASTType().equals(inputAnnotations.getASTType())){
             return false;
@@ -53,4 +53,8 @@ public class ASTAnnotationTypeMatcher implements Matcher<Collection<ASTAnnotatio
 
         return true;
     }
+
+    public ImmutableSet<ASTType> getTypes() {
+        return types;
+    }
 }
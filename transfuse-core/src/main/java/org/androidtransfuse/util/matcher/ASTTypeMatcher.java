@@ -51,4 +51,12 @@ public class ASTTypeMatcher implements Matcher<ASTType> {
 
         return astType.equals(this.astType);
     }
+
+    public ASTType getType() {
+        return astType;
+    }
+
+    public boolean isSubtypesAllowed() {
+        return subtypesAllowed && !ignoreGenerics;
+    }
 }
@@ -51,4 +51,12 @@ public class InjectionSignatureMatcher implements Matcher<InjectionSignature> {
 
         return true;
     }
+
+    public Matcher<? super ASTType> getTypeMatcher() {
+        return astTypeMatcher;
+    }
+
+    public Collection<Matcher<Collection<ASTAnnotation>>> getAnnotationMatchers() {
+        return annotationMatchers;
+    }
 }
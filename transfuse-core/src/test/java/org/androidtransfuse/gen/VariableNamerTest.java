@@ -20,6 +20,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.inject.Provider;
+
 /**
  * @author John Ericksen
  */
@@ -49,5 +51,23 @@ public class VariableNamerTest {
         Assert.assertEquals(Namer.name("a").append("0").build(), variableNamer.generateName(A.class));
     }
 
+    @Test
+    public void testNamesPerTransaction() {
+        final NameCounters[] transactionCounters = {new NameCounters()};
+        UniqueVariableNamer transactionNamer = new UniqueVariableNamer(new Provider<NameCounters>() {
+            @Override
+            public NameCounters get() {
+                return transactionCounters[0];
+            }
+        });
+
+        Assert.assertEquals(Namer.name("fieldInjectable").append("0").build(), transactionNamer.generateName(FieldInjectable.class));
+        Assert.assertEquals(Namer.name("fieldInjectable").append("1").build(), transactionNamer.generateName(FieldInjectable.class));
+
+        transactionCounters[0] = new NameCounters();
+
+        Assert.assertEquals(Namer.name("fieldInjectable").append("0").build(), transactionNamer.generateName(FieldInjectable.class));
+    }
+
 
 }
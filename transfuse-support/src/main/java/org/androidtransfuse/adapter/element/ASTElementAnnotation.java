@@ -51,9 +51,12 @@ public class ASTElementAnnotation implements ASTAnnotation {
 
     @Override
     public ImmutableSet<String> getPropertyNames() {
-        return FluentIterable.from(annotationMirror.getElementValues().keySet())
-                .transform(new ExtractElementName())
-                .toSet();
+        //completes compiler symbols
+        synchronized (elementConverterFactory.getCompletionLock()) {
+            return FluentIterable.from(annotationMirror.getElementValues().keySet())
+                    .transform(new ExtractElementName())
+                    .toSet();
+        }
     }
 
     public AnnotationMirror getAnnotationMirror() {
@@ -69,12 +72,15 @@ public class ASTElementAnnotation implements ASTAnnotation {
 
     @Override
     public <T> T getProperty(String value, Class<T> type) {
-        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationMirror.getElementValues().entrySet()) {
-            if (value.equals(entry.getKey().getSimpleName().toString())) {
-                return entry.getValue().accept(elementConverterFactory.buildAnnotationValueConverter(type), null);
+        //completes compiler symbols
+        synchronized (elementConverterFactory.getCompletionLock()) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationMirror.getElementValues().entrySet()) {
+                if (value.equals(entry.getKey().getSimpleName().toString())) {
+                    return entry.getValue().accept(elementConverterFactory.buildAnnotationValueConverter(type), null);
+                }
             }
+            return null;
         }
-        return null;
     }
 
     @Override
@@ -73,12 +73,25 @@ public class ASTElementFactory {
      * @param typeElement required input Element
      * @return ASTType constructed using teh input Element
      */
-    public synchronized ASTType getType(TypeElement typeElement) {
-        if (!typeCache.containsKey(typeElement)) {
-            typeCache.put(typeElement, buildType(typeElement));
+    public ASTType getType(TypeElement typeElement) {
+        //building a type completes compiler symbols, guarded by the same monitor as the (possibly synchronized) Elements
+        synchronized (getCompletionLock()) {
+            if (!typeCache.containsKey(typeElement)) {
+                typeCache.put(typeElement, buildType(typeElement));
+            }
+
+            return typeCache.get(typeElement);
         }
+    }
 
-        return typeCache.get(typeElement);
+    /**
+     * Monitor held while completing compiler symbols, shared with the (possibly synchronized) Elements.  Element
+     * adapters completing symbols lazily, outside of `getType()`, must hold it as well.
+     *
+     * @return completion monitor
+     */
+    public Object getCompletionLock() {
+        return elements;
     }
 
     public ASTType getType(Class clazz){
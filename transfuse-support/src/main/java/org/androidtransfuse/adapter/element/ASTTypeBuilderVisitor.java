@@ -44,6 +44,10 @@ public class ASTTypeBuilderVisitor extends SimpleTypeVisitor6<ASTType, Void> imp
         this.astElementFactoryProvider = astElementFactoryProvider;
     }
 
+    public Object getCompletionLock() {
+        return astElementFactoryProvider.get().getCompletionLock();
+    }
+
     @Override
     public ASTType visitPrimitive(PrimitiveType primitiveType, Void v) {
         return ASTPrimitiveType.valueOf(primitiveType.getKind().name());
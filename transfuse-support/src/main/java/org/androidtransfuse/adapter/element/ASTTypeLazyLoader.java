@@ -40,11 +40,14 @@ public abstract class ASTTypeLazyLoader<T extends Element> {
      *
      * @return ASTType
      */
-    public synchronized ASTType getASTType() {
-        if (astType == null) {
-            astType = buildASTType(element, astTypeBuilderVisitor);
+    public ASTType getASTType() {
+        //completes compiler symbols
+        synchronized (astTypeBuilderVisitor.getCompletionLock()) {
+            if (astType == null) {
+                astType = buildASTType(element, astTypeBuilderVisitor);
+            }
+            return astType;
         }
-        return astType;
     }
 
     protected abstract ASTType buildASTType(T element, ASTTypeBuilderVisitor astTypeBuilderVisitor);
@@ -40,6 +40,10 @@ public class ElementConverterFactory {
         this.astFactory = astFactory;
     }
 
+    public Object getCompletionLock() {
+        return astElementFactoryProvider.get().getCompletionLock();
+    }
+
     public <T> ASTTypeElementConverter<T> buildTypeConverter(Class<T> clazz) {
         return new ASTTypeElementConverter<T>(clazz, astElementFactoryProvider.get());
     }
@@ -17,18 +17,30 @@ package org.androidtransfuse.transaction;
 
 import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JPackage;
 import org.androidtransfuse.util.TransfuseRuntimeException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
+ * Runs the given worker and writes the classes it generated into the given `JCodeModel`.
+ *
+ * Codemodel writes and closes each class in turn.  Once written, the classes are detached from their packages and the
+ * code model is released, as completed transactions and their results (which reference their code model) are held
+ * until processing completes.  This keeps the retained model limited to the result classes themselves, rather than
+ * every helper generated alongside them.
+ *
  * @author John Ericksen
  */
 public class CodeGenerationScopedTransactionWorker<V, R> extends AbstractCompletionTransactionWorker<V, R> {
 
-    private final JCodeModel codeModel;
-    private final CodeWriter codeWriter;
-    private final CodeWriter resourceWriter;
+    private JCodeModel codeModel;
+    private CodeWriter codeWriter;
+    private CodeWriter resourceWriter;
     private final TransactionWorker<V, R> worker;
 
     public CodeGenerationScopedTransactionWorker(JCodeModel codeModel,
@@ -47,10 +59,30 @@ public class CodeGenerationScopedTransactionWorker<V, R> extends AbstractComplet
             R result = worker.run(value);
 
             codeModel.build(codeWriter, resourceWriter);
+            release();
 
             return result;
         } catch (IOException e) {
             throw new TransfuseRuntimeException("Unable to perform code generation", e);
         }
     }
+
+    private void release() {
+        Iterator<JPackage> packages = codeModel.packages();
+        while (packages.hasNext()) {
+            JPackage codeModelPackage = packages.next();
+            List<JDefinedClass> written = new ArrayList<JDefinedClass>();
+            Iterator<JDefinedClass> classes = codeModelPackage.classes();
+            while (classes.hasNext()) {
+                written.add(classes.next());
+            }
+            for (JDefinedClass definedClass : written) {
+                codeModelPackage.remove(definedClass);
+            }
+        }
+
+        codeModel = null;
+        codeWriter = null;
+        resourceWriter = null;
+    }
 }
@@ -0,0 +1,333 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.transaction;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a set of TransactionProcessors (stages) according to their declared dependencies.  A stage is executed once
+ * all of its dependencies have executed and report complete, so independent stages do not wait on each other as
+ * they would in a fixed chain of processors.  If a stage does not complete its dependents are skipped and retried
+ * in a later call to execute(), following the same retry semantics as the TransactionProcessorChain.
+ *
+ * Stages must be added after their dependencies, which keeps the graph acyclic and gives a topological order in
+ * which stages are run if no Executor is given.  With an Executor, every stage is started as soon as its own
+ * dependencies finish.  The Executor should not be shared with bounded TransactionProcessorPools run by the stages,
+ * as a stage blocks while its pool runs.
+ *
+ * Each stage records its execution time, reported along with the critical path through the graph by
+ * getTimingReport().
+ *
+ * @author John Ericksen
+ */
+public class TransactionProcessorGraph implements TransactionProcessor<Void, Void> {
+
+    private final List<Stage> stages = new ArrayList<Stage>();
+    private final Executor executor;
+
+    public TransactionProcessorGraph() {
+        this(null);
+    }
+
+    /**
+     * @param executor Executor to run independent stages on concurrently, or null to run them serially
+     */
+    public TransactionProcessorGraph(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a stage to the graph.
+     *
+     * @param name stage name, used in the timing report
+     * @param processor processor to execute
+     * @param dependencies previously added stages which must complete before this stage is executed
+     * @return the added stage, for use as a dependency of later stages
+     */
+    public Stage add(String name, TransactionProcessor<?, ?> processor, Stage... dependencies) {
+        for (Stage dependency : dependencies) {
+            if (!stages.contains(dependency)) {
+                throw new TransfuseTransactionException("Dependency " + dependency.getName() + " of " + name + " must be added to the graph first");
+            }
+        }
+        Stage stage = new Stage(name, processor, ImmutableList.copyOf(dependencies));
+        stages.add(stage);
+        return stage;
+    }
+
+    public List<Stage> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    @Override
+    public void execute() {
+        final BlockingQueue<Stage> finished = new LinkedBlockingQueue<Stage>();
+        Set<Stage> started = new HashSet<Stage>();
+        Set<Stage> done = new HashSet<Stage>();
+        Throwable failure = null;
+        final long start = System.nanoTime();
+        int running = 0;
+
+        while (started.size() < stages.size() || running > 0) {
+            for (final Stage stage : stages) {
+                if (!started.contains(stage) && done.containsAll(stage.getDependencies())) {
+                    started.add(stage);
+                    if (stage.isReady()) {
+                        running++;
+                        Runnable stageRunnable = new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    stage.execute(start);
+                                } finally {
+                                    finished.add(stage);
+                                }
+                            }
+                        };
+                        if (executor == null) {
+                            stageRunnable.run();
+                        } else {
+                            executor.execute(stageRunnable);
+                        }
+                    } else {
+                        done.add(stage);
+                    }
+                }
+            }
+
+            if (running > 0) {
+                Stage finishedStage = take(finished);
+                running--;
+                done.add(finishedStage);
+                if (failure == null) {
+                    failure = finishedStage.getFailure();
+                }
+            }
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private Stage take(BlockingQueue<Stage> finished) {
+        try {
+            return finished.take();
+        } catch (InterruptedException e) {
+            throw new TransfuseTransactionException("Transaction graph interrupted", e);
+        }
+    }
+
+    @Override
+    public boolean isComplete() {
+        for (Stage stage : stages) {
+            if (!stage.getProcessor().isComplete()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ImmutableSet<Exception> getErrors() {
+        ImmutableSet.Builder<Exception> exceptions = ImmutableSet.builder();
+        for (Stage stage : stages) {
+            exceptions.addAll(stage.getProcessor().getErrors());
+        }
+        return exceptions.build();
+    }
+
+    @Override
+    public Map<Void, Void> getResults() {
+        return new HashMap<Void, Void>();
+    }
+
+    /**
+     * Determines the chain of dependent stages with the greatest total execution time.
+     *
+     * @return stages of the critical path, in execution order
+     */
+    public List<Stage> getCriticalPath() {
+        Map<Stage, Long> pathTime = new HashMap<Stage, Long>();
+        Map<Stage, Stage> pathPredecessor = new HashMap<Stage, Stage>();
+        Stage last = null;
+
+        //stages are stored in topological order
+        for (Stage stage : stages) {
+            long dependencyTime = 0;
+            Stage predecessor = null;
+            for (Stage dependency : stage.getDependencies()) {
+                if (predecessor == null || pathTime.get(dependency) > dependencyTime) {
+                    dependencyTime = pathTime.get(dependency);
+                    predecessor = dependency;
+                }
+            }
+            if (predecessor != null) {
+                pathPredecessor.put(stage, predecessor);
+            }
+            pathTime.put(stage, dependencyTime + stage.getTotalTime(TimeUnit.NANOSECONDS));
+            if (last == null || pathTime.get(stage) > pathTime.get(last)) {
+                last = stage;
+            }
+        }
+
+        LinkedList<Stage> criticalPath = new LinkedList<Stage>();
+        for (Stage stage = last; stage != null; stage = pathPredecessor.get(stage)) {
+            criticalPath.addFirst(stage);
+        }
+        return criticalPath;
+    }
+
+    /**
+     * Builds a report of each stage's start offset and duration in the most recent execution, its total time across all
+     * executions, and the critical path through the graph.
+     *
+     * @return timing report
+     */
+    public String getTimingReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("Transaction timing (stage: last start +offset / last duration / total):");
+        for (Stage stage : stages) {
+            report.append("\n    ").append(stage.getName()).append(": ");
+            if (stage.getExecutions() == 0) {
+                report.append("not run");
+            } else {
+                report.append('+').append(toMillis(stage.lastStart)).append("ms / ")
+                        .append(toMillis(stage.lastDuration)).append("ms / ")
+                        .append(toMillis(stage.totalDuration)).append("ms");
+                if (!stage.getProcessor().isComplete()) {
+                    report.append(" (incomplete)");
+                }
+            }
+        }
+
+        List<Stage> criticalPath = getCriticalPath();
+        long criticalTime = 0;
+        List<String> names = new ArrayList<String>();
+        for (Stage stage : criticalPath) {
+            criticalTime += stage.totalDuration;
+            names.add(stage.getName());
+        }
+        report.append("\n    critical path: ");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                report.append(" -> ");
+            }
+            report.append(names.get(i));
+        }
+        report.append(" (").append(toMillis(criticalTime)).append("ms)");
+
+        return report.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * A named TransactionProcessor within the graph along with its dependencies and execution timing.
+     */
+    public static final class Stage {
+
+        private final String name;
+        private final TransactionProcessor<?, ?> processor;
+        private final ImmutableList<Stage> dependencies;
+        private volatile long lastStart;
+        private volatile long lastDuration;
+        private volatile long totalDuration;
+        private volatile int executions;
+        private volatile Throwable failure;
+
+        private Stage(String name, TransactionProcessor<?, ?> processor, ImmutableList<Stage> dependencies) {
+            this.name = name;
+            this.processor = processor;
+            this.dependencies = dependencies;
+        }
+
+        private boolean isReady() {
+            for (Stage dependency : dependencies) {
+                if (!dependency.getProcessor().isComplete()) {
+                    return false;
+                }
+            }
+            return !processor.isComplete();
+        }
+
+        private void execute(long graphStart) {
+            long start = System.nanoTime();
+            failure = null;
+            try {
+                processor.execute();
+            } catch (RuntimeException e) {
+                failure = e;
+            } catch (Error e) {
+                failure = e;
+            } finally {
+                lastStart = start - graphStart;
+                lastDuration = System.nanoTime() - start;
+                totalDuration += lastDuration;
+                executions++;
+            }
+        }
+
+        private Throwable getFailure() {
+            return failure;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TransactionProcessor<?, ?> getProcessor() {
+            return processor;
+        }
+
+        public ImmutableList<Stage> getDependencies() {
+            return dependencies;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        public long getLastStart(TimeUnit unit) {
+            return unit.convert(lastStart, TimeUnit.NANOSECONDS);
+        }
+
+        public long getLastDuration(TimeUnit unit) {
+            return unit.convert(lastDuration, TimeUnit.NANOSECONDS);
+        }
+
+        public long getTotalTime(TimeUnit unit) {
+            return unit.convert(totalDuration, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -18,9 +18,11 @@ package org.androidtransfuse.transaction;
 import com.google.common.collect.ImmutableSet;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -33,11 +35,27 @@ import java.util.concurrent.TimeUnit;
  * Additionally, if any external processors depend on code generated in a Transaction, this approach will generate
  * as much as possible despite encountering any errors.
  *
+ * By default transactions are run one at a time on a dedicated thread.  If constructed with a shared Executor the
+ * transactions are run concurrently on that Executor, each within its own code generation scope.  In either case
+ * results are reported in submission order.
+ *
  * @author John Ericksen
  */
 public class TransactionProcessorPool<V, R> implements TransactionProcessor<V, R> {
 
     private final List<Transaction<V, R>> transactions = new ArrayList<Transaction<V, R>>();
+    private final Executor executor;
+
+    public TransactionProcessorPool() {
+        this(null);
+    }
+
+    /**
+     * @param executor shared Executor to run transactions on concurrently, or null to run them serially
+     */
+    public TransactionProcessorPool(Executor executor) {
+        this.executor = executor;
+    }
 
     /**
      * Submit a new transaction to the collection of transactions to execute.
@@ -52,6 +70,14 @@ public class TransactionProcessorPool<V, R> implements TransactionProcessor<V, R
      * Executes the submitted work and if all transactions complete, executes the aggregate on the aggregateWorker.
      */
     public void execute() {
+        if (executor == null) {
+            executeSerially();
+        } else {
+            executeConcurrently();
+        }
+    }
+
+    private void executeSerially() {
 
         ExecutorService executorService = Executors.newSingleThreadExecutor();
 
@@ -69,8 +95,48 @@ public class TransactionProcessorPool<V, R> implements TransactionProcessor<V, R
         }
     }
 
+    private void executeConcurrently() {
+        List<Transaction<V, R>> incomplete = new ArrayList<Transaction<V, R>>();
+        for (Transaction<V, R> transaction : transactions) {
+            if (!transaction.isComplete()) {
+                incomplete.add(transaction);
+            }
+        }
+
+        CountDownLatch latch = new CountDownLatch(incomplete.size());
+        for (Transaction<V, R> transaction : incomplete) {
+            executor.execute(new CountDownRunnable(transaction, latch));
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new TransfuseTransactionException("Pool executor interrupted", e);
+        }
+    }
+
+    private static final class CountDownRunnable implements Runnable {
+
+        private final Runnable delegate;
+        private final CountDownLatch latch;
+
+        private CountDownRunnable(Runnable delegate, CountDownLatch latch) {
+            this.delegate = delegate;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            try {
+                delegate.run();
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+
     public Map<V, R> getResults() {
-        Map<V, R> aggregate = new HashMap<V, R>();
+        Map<V, R> aggregate = new LinkedHashMap<V, R>();
 
         for (Transaction<V, R> transaction : transactions) {
             if (transaction.isComplete() && transaction.getResult() != null) {
@@ -15,8 +15,7 @@
  */
 package org.androidtransfuse.transaction;
 
-import com.sun.codemodel.CodeWriter;
-import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.*;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +25,11 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+
 /**
  * @author John Ericksen
  */
@@ -47,6 +51,7 @@ public class CodeGenerationScopedTransactionWorkerTest {
         mockCodeWriter = PowerMockito.mock(CodeWriter.class);
         mockResourceWriter = PowerMockito.mock(CodeWriter.class);
         mockWorker = PowerMockito.mock(TransactionWorker.class);
+        PowerMockito.when(mockCodeModel.packages()).thenReturn(Collections.<JPackage>emptyList().iterator());
 
         worker = new CodeGenerationScopedTransactionWorker<Object, Object>(mockCodeModel, mockCodeWriter, mockResourceWriter, mockWorker);
     }
@@ -65,4 +70,35 @@ public class CodeGenerationScopedTransactionWorkerTest {
 
         Assert.assertTrue(worker.isComplete());
     }
+
+    @Test
+    public void testWrittenClassesReleased() throws Exception {
+        JCodeModel codeModel = new JCodeModel();
+        final JDefinedClass definedClass = codeModel._class("example.Generated");
+        codeModel._class("example.GeneratedHelper");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CodeWriter codeWriter = new CodeWriter() {
+            @Override
+            public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+                return output;
+            }
+
+            @Override
+            public void close() throws IOException {
+                // noop
+            }
+        };
+
+        CodeGenerationScopedTransactionWorker<Object, Object> releasingWorker = new CodeGenerationScopedTransactionWorker<Object, Object>(codeModel, codeWriter, codeWriter, new AbstractCompletionTransactionWorker<Object, Object>() {
+            @Override
+            public Object innerRun(Object value) {
+                return definedClass;
+            }
+        });
+
+        Assert.assertSame(definedClass, releasingWorker.run(null));
+        Assert.assertTrue(output.toString().contains("class GeneratedHelper"));
+        Assert.assertFalse(codeModel._package("example").classes().hasNext());
+        Assert.assertTrue(releasingWorker.isComplete());
+    }
 }
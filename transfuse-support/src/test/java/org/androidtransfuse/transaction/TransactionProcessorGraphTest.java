@@ -0,0 +1,271 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.transaction;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+public class TransactionProcessorGraphTest {
+
+    private TransactionProcessorGraph graph;
+    private TransactionProcessor mockProcessor1;
+    private TransactionProcessor mockProcessor2;
+    private TransactionProcessor mockProcessor3;
+
+    @Before
+    public void setUp() throws Exception {
+        mockProcessor1 = Mockito.mock(TransactionProcessor.class);
+        mockProcessor2 = Mockito.mock(TransactionProcessor.class);
+        mockProcessor3 = Mockito.mock(TransactionProcessor.class);
+
+        graph = new TransactionProcessorGraph();
+    }
+
+    @Test
+    public void testExecutionOrder() {
+        TransactionProcessorGraph.Stage first = graph.add("first", mockProcessor1);
+        graph.add("second", mockProcessor2, first);
+
+        CompletingAnswer completing1 = new CompletingAnswer(mockProcessor1);
+        CompletingAnswer completing2 = new CompletingAnswer(mockProcessor2);
+        Mockito.doAnswer(completing1).when(mockProcessor1).execute();
+        Mockito.doAnswer(completing2).when(mockProcessor2).execute();
+
+        graph.execute();
+
+        InOrder inOrder = Mockito.inOrder(mockProcessor1, mockProcessor2);
+        inOrder.verify(mockProcessor1).execute();
+        inOrder.verify(mockProcessor2).execute();
+        assertTrue(graph.isComplete());
+    }
+
+    @Test
+    public void testDependencyIncomplete() {
+        TransactionProcessorGraph.Stage first = graph.add("first", mockProcessor1);
+        TransactionProcessorGraph.Stage second = graph.add("second", mockProcessor2, first);
+        graph.add("third", mockProcessor3, second);
+
+        Mockito.when(mockProcessor1.isComplete()).thenReturn(false);
+
+        graph.execute();
+
+        Mockito.verify(mockProcessor1).execute();
+        Mockito.verify(mockProcessor2, Mockito.never()).execute();
+        Mockito.verify(mockProcessor3, Mockito.never()).execute();
+        assertFalse(graph.isComplete());
+    }
+
+    @Test
+    public void testIndependentOfIncompleteSibling() {
+        TransactionProcessorGraph.Stage first = graph.add("first", mockProcessor1);
+        graph.add("second", mockProcessor2);
+        graph.add("third", mockProcessor3, first);
+
+        Mockito.when(mockProcessor1.isComplete()).thenReturn(true);
+        Mockito.when(mockProcessor2.isComplete()).thenReturn(false);
+        Mockito.when(mockProcessor3.isComplete()).thenReturn(false);
+
+        graph.execute();
+
+        Mockito.verify(mockProcessor2).execute();
+        Mockito.verify(mockProcessor3).execute();
+    }
+
+    @Test
+    public void testCompleteStageSkipped() {
+        TransactionProcessorGraph.Stage first = graph.add("first", mockProcessor1);
+        graph.add("second", mockProcessor2, first);
+
+        Mockito.when(mockProcessor1.isComplete()).thenReturn(true);
+        Mockito.when(mockProcessor2.isComplete()).thenReturn(true);
+
+        graph.execute();
+
+        Mockito.verify(mockProcessor1, Mockito.never()).execute();
+        Mockito.verify(mockProcessor2, Mockito.never()).execute();
+    }
+
+    @Test(expected = TransfuseTransactionException.class)
+    public void testDependencyNotAdded() {
+        TransactionProcessorGraph other = new TransactionProcessorGraph();
+        TransactionProcessorGraph.Stage foreign = other.add("foreign", mockProcessor1);
+
+        graph.add("second", mockProcessor2, foreign);
+    }
+
+    @Test
+    public void testFailurePropagated() {
+        TransactionProcessorGraph.Stage first = graph.add("first", mockProcessor1);
+        graph.add("second", mockProcessor2);
+        graph.add("third", mockProcessor3, first);
+
+        IllegalStateException failure = new IllegalStateException();
+        Mockito.doThrow(failure).when(mockProcessor1).execute();
+
+        try {
+            graph.execute();
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+
+        Mockito.verify(mockProcessor2).execute();
+        Mockito.verify(mockProcessor3, Mockito.never()).execute();
+    }
+
+    @Test
+    public void testConcurrentStages() throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            graph = new TransactionProcessorGraph(executor);
+
+            //each root stage waits for the other to start, which only completes if they run concurrently
+            final CountDownLatch started = new CountDownLatch(2);
+            TransactionProcessor root1 = new AwaitingProcessor(started);
+            TransactionProcessor root2 = new AwaitingProcessor(started);
+
+            TransactionProcessorGraph.Stage first = graph.add("first", root1);
+            TransactionProcessorGraph.Stage second = graph.add("second", root2);
+            graph.add("third", mockProcessor3, first, second);
+
+            graph.execute();
+
+            assertTrue(root1.isComplete());
+            assertTrue(root2.isComplete());
+            Mockito.verify(mockProcessor3).execute();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCriticalPath() {
+        TransactionProcessorGraph.Stage fast = graph.add("fast", new SleepingProcessor(0));
+        TransactionProcessorGraph.Stage slow = graph.add("slow", new SleepingProcessor(50));
+        graph.add("last", new SleepingProcessor(0), fast, slow);
+
+        graph.execute();
+
+        List<TransactionProcessorGraph.Stage> criticalPath = graph.getCriticalPath();
+        assertEquals(2, criticalPath.size());
+        assertEquals("slow", criticalPath.get(0).getName());
+        assertEquals("last", criticalPath.get(1).getName());
+        assertTrue(slow.getTotalTime(TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(1, slow.getExecutions());
+
+        String report = graph.getTimingReport();
+        assertTrue(report.contains("fast"));
+        assertTrue(report.contains("critical path: slow -> last"));
+    }
+
+    private static final class CompletingAnswer implements Answer<Void> {
+
+        private final TransactionProcessor processor;
+
+        private CompletingAnswer(TransactionProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public Void answer(InvocationOnMock invocation) throws Throwable {
+            Mockito.when(processor.isComplete()).thenReturn(true);
+            return null;
+        }
+    }
+
+    private abstract static class CompletableProcessor implements TransactionProcessor<Void, Void> {
+
+        private volatile boolean complete = false;
+
+        @Override
+        public void execute() {
+            run();
+            complete = true;
+        }
+
+        protected abstract void run();
+
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public ImmutableSet<Exception> getErrors() {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public Map<Void, Void> getResults() {
+            return new HashMap<Void, Void>();
+        }
+    }
+
+    private static final class AwaitingProcessor extends CompletableProcessor {
+
+        private final CountDownLatch started;
+
+        private AwaitingProcessor(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        protected void run() {
+            started.countDown();
+            try {
+                assertTrue(started.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new TransactionRuntimeException(e);
+            }
+        }
+    }
+
+    private static final class SleepingProcessor extends CompletableProcessor {
+
+        private final long millis;
+
+        private SleepingProcessor(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        protected void run() {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                throw new TransactionRuntimeException(e);
+            }
+        }
+    }
+}
@@ -20,7 +20,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author John Ericksen
@@ -82,4 +86,47 @@ public class TransactionProcessorPoolTest {
         Assert.assertEquals(1, results.size());
         Assert.assertEquals(TEST_OUTPUT, results.get(TEST_INPUT));
     }
+
+    @Test
+    public void testConcurrentResultsInSubmissionOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TransactionProcessorPool<String, String> concurrentPool = new TransactionProcessorPool<String, String>(executor);
+            List<String> inputs = new ArrayList<String>();
+            for (int i = 0; i < 100; i++) {
+                String input = TEST_INPUT + i;
+                inputs.add(input);
+                concurrentPool.submit(new Transaction<String, String>(input, new AbstractCompletionTransactionWorker<String, String>() {
+                    @Override
+                    public String innerRun(String value) {
+                        return value + TEST_OUTPUT;
+                    }
+                }));
+            }
+
+            concurrentPool.execute();
+
+            Assert.assertTrue(concurrentPool.isComplete());
+            Assert.assertEquals(inputs, new ArrayList<String>(concurrentPool.getResults().keySet()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentFailure() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TransactionProcessorPool<String, String> concurrentPool = new TransactionProcessorPool<String, String>(executor);
+            Transaction<String, String> transaction = Mockito.mock(Transaction.class);
+            Mockito.doThrow(new TransactionRuntimeException("failure")).when(transaction).run();
+
+            concurrentPool.submit(transaction);
+            concurrentPool.execute();
+
+            Assert.assertFalse(concurrentPool.isComplete());
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package org.androidtransfuse;
 
 import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.adapter.classes.ReloadableASTClassFactory;
@@ -26,12 +27,15 @@ import org.androidtransfuse.bootstrap.Bootstrap;
 import org.androidtransfuse.bootstrap.Bootstraps;
 import org.androidtransfuse.config.EnterableScope;
 import org.androidtransfuse.config.TransfuseAndroidModule;
+import org.androidtransfuse.experiment.generators.InjectionTimingInstrumentation;
+import org.androidtransfuse.gen.FilerWriteQueue;
 import org.androidtransfuse.model.manifest.Manifest;
 import org.androidtransfuse.model.r.RBuilder;
 import org.androidtransfuse.model.r.RResource;
-import org.androidtransfuse.model.r.RResourceComposite;
 import org.androidtransfuse.plugins.PluginModule;
 import org.androidtransfuse.processor.GenerateModuleProcessor;
+import org.androidtransfuse.processor.IncrementalCache;
+import org.androidtransfuse.processor.TransactionProcessorPoolFactory;
 import org.androidtransfuse.processor.TransfuseProcessor;
 import org.androidtransfuse.scope.ScopeKey;
 import org.androidtransfuse.util.Logger;
@@ -49,9 +53,10 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.annotation.Annotation;
-import java.util.Collection;
-import java.util.Set;
+import java.util.*;
 
 import static com.google.common.collect.Collections2.transform;
 
@@ -81,6 +86,17 @@ import static com.google.common.collect.Collections2.transform;
 @AutoService(Processor.class)
 public class TransfuseAnnotationProcessor extends AnnotationProcessorBase {
 
+    //in submission order
+    private static final ImmutableList<Class<? extends Annotation>> ROOT_ANNOTATIONS = ImmutableList.of(
+            Application.class,
+            TransfuseModule.class,
+            ImplementedBy.class,
+            Factory.class,
+            Activity.class,
+            BroadcastReceiver.class,
+            Service.class,
+            Fragment.class);
+
     @Inject
     private ASTElementConverterFactory astElementConverterFactory;
     @Inject
@@ -101,8 +117,15 @@ public class TransfuseAnnotationProcessor extends AnnotationProcessorBase {
     @Inject
     private Provider<TransfuseProcessor> processorProvider;
     @Inject
+    private IncrementalCache incrementalCache;
+    @Inject
     private Elements elements;
+    @Inject
+    private FilerWriteQueue writeQueue;
     private boolean baseModuleConfiguration = false;
+    private boolean writeFailed = false;
+    private String rResourceClassName = null;
+    private RResource rResource = null;
 
     @Override
     public void init(final ProcessingEnvironment processingEnv) {
@@ -118,58 +141,120 @@ public class TransfuseAnnotationProcessor extends AnnotationProcessorBase {
 
         long start = System.currentTimeMillis();
 
-        //setup transfuse processor with manifest and R classes
         File manifestFile = manifestLocator.findManifest();
-        Manifest manifest = manifestParser.readManifest(manifestFile);
 
-        RResourceComposite r = new RResourceComposite(
-                buildR(rBuilder, manifest.getApplicationPackage() + ".R"),
-                buildR(rBuilder, "android.R"));
+        Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> roots = buildRoots(roundEnvironment);
+
+        if (incrementalCache.skipRound(manifestFile, roots, roundEnvironment.processingOver())) {
+            return true;
+        }
+
+        //setup transfuse processor with manifest and R classes
+        Manifest manifest = manifestParser.readManifest(manifestFile);
+        String rClassName = manifest.getApplicationPackage() + ".R";
+        RResource r = getR(rClassName, roundEnvironment);
 
         configurationScope.enter();
+        try {
+            configurationScope.seed(ScopeKey.of(File.class).annotatedBy("@javax.inject.Named(value=" + TransfuseAndroidModule.MANIFEST_FILE + ")"), manifestFile);
+            configurationScope.seed(ScopeKey.of(RResource.class), r);
+            configurationScope.seed(ScopeKey.of(Manifest.class).annotatedBy("@javax.inject.Named(value=" + TransfuseAndroidModule.ORIGINAL_MANIFEST + ")"), manifest);
 
-        configurationScope.seed(ScopeKey.of(File.class).annotatedBy("@javax.inject.Named(value=" + TransfuseAndroidModule.MANIFEST_FILE + ")"), manifestFile);
-        configurationScope.seed(ScopeKey.of(RResource.class), r);
-        configurationScope.seed(ScopeKey.of(Manifest.class).annotatedBy("@javax.inject.Named(value=" + TransfuseAndroidModule.ORIGINAL_MANIFEST + ")"), manifest);
+            TransfuseProcessor transfuseProcessor = processorProvider.get();
 
-        TransfuseProcessor transfuseProcessor = processorProvider.get();
+            if (!baseModuleConfiguration) {
+                transfuseProcessor.submit(TransfuseModule.class, reloadableASTClassFactory.apply(PluginModule.class));
+                transfuseProcessor.submit(TransfuseModule.class, reloadableASTElementFactory.apply(elements.getTypeElement(APIModule.class.getName())));
+                baseModuleConfiguration = true;
+            }
 
-        if (!baseModuleConfiguration) {
-            transfuseProcessor.submit(TransfuseModule.class, reloadableASTClassFactory.apply(PluginModule.class));
-            transfuseProcessor.submit(TransfuseModule.class, reloadableASTElementFactory.apply(elements.getTypeElement(APIModule.class.getName())));
-            baseModuleConfiguration = true;
-        }
+            //roots of earlier rounds skipped by incremental processing, before a change was found in this round
+            for (Map.Entry<Class<? extends Annotation>, List<Provider<ASTType>>> skippedEntry : incrementalCache.takeSkippedRoots().entrySet()) {
+                transfuseProcessor.submit(skippedEntry.getKey(), skippedEntry.getValue());
+            }
 
-        transfuseProcessor.submit(Application.class, buildASTCollection(roundEnvironment, Application.class));
-        transfuseProcessor.submit(TransfuseModule.class, buildASTCollection(roundEnvironment, TransfuseModule.class));
-        transfuseProcessor.submit(ImplementedBy.class, buildASTCollection(roundEnvironment, ImplementedBy.class));
-        transfuseProcessor.submit(Factory.class, buildASTCollection(roundEnvironment, Factory.class));
-        transfuseProcessor.submit(Activity.class, buildASTCollection(roundEnvironment, Activity.class));
-        transfuseProcessor.submit(BroadcastReceiver.class, buildASTCollection(roundEnvironment, BroadcastReceiver.class));
-        transfuseProcessor.submit(Service.class, buildASTCollection(roundEnvironment, Service.class));
-        transfuseProcessor.submit(Fragment.class, buildASTCollection(roundEnvironment, Fragment.class));
+            for (Map.Entry<Class<? extends Annotation>, Collection<Provider<ASTType>>> rootEntry : roots.entrySet()) {
+                transfuseProcessor.submit(rootEntry.getKey(), rootEntry.getValue());
+            }
 
-        transfuseProcessor.execute();
+            transfuseProcessor.execute();
 
-        if (roundEnvironment.processingOver()) {
-            transfuseProcessor.checkForErrors();
-        }
+            //generated sources must be created before the round ends to be compiled in the next one
+            flushGeneratedFiles();
 
-        //todo: debug logging
-        // logger.info("Transfuse took " + (System.currentTimeMillis() - start) + "ms to process");
+            if (roundEnvironment.processingOver()) {
+                transfuseProcessor.reportTimings();
+                transfuseProcessor.checkForErrors();
+                if (!writeFailed) {
+                    incrementalCache.write(manifestFile, rClassName);
+                }
+            }
 
-        configurationScope.exit();
+            //todo: debug logging
+            // logger.info("Transfuse took " + (System.currentTimeMillis() - start) + "ms to process");
+        } finally {
+            configurationScope.exit();
+        }
 
         return true;
     }
 
-    private RResource buildR(RBuilder rBuilder, String className) {
+    /**
+     * Reports each generated file that failed to be written as a compilation error, leaving the rest of the round to
+     * complete.
+     */
+    private void flushGeneratedFiles() {
+        try {
+            for (Map.Entry<String, IOException> failure : writeQueue.flushFailures().entrySet()) {
+                logger.error("Unable to write generated file " + failure.getKey(), failure.getValue());
+                writeFailed = true;
+            }
+        } catch (InterruptedIOException e) {
+            logger.error("Unable to write generated files", e);
+            writeFailed = true;
+        }
+    }
+
+    /**
+     * Indexes the application and android R classes together, application resources taking precedence.  The index is
+     * reused by later rounds unless the application R class is one of their root elements.
+     */
+    private RResource getR(String rClassName, RoundEnvironment roundEnvironment) {
+        if (rResource == null || !rClassName.equals(rResourceClassName) || isRootElement(roundEnvironment, rClassName)) {
+            List<ASTType> rInnerTypes = new ArrayList<ASTType>();
+            rInnerTypes.addAll(getRInnerTypes("android.R"));
+            rInnerTypes.addAll(getRInnerTypes(rClassName));
+
+            rResource = rBuilder.buildR(rInnerTypes);
+            rResourceClassName = rClassName;
+        }
+        return rResource;
+    }
+
+    private Collection<ASTType> getRInnerTypes(String className) {
         TypeElement rTypeElement = elements.getTypeElement(className);
         if (rTypeElement != null) {
-            Collection<ASTType> rInnerTypes = wrapASTCollection(ElementFilter.typesIn(rTypeElement.getEnclosedElements()));
-            return rBuilder.buildR(rInnerTypes);
+            return wrapASTCollection(ElementFilter.typesIn(rTypeElement.getEnclosedElements()));
+        }
+        return Collections.emptyList();
+    }
+
+    private boolean isRootElement(RoundEnvironment roundEnvironment, String className) {
+        for (TypeElement rootType : ElementFilter.typesIn(roundEnvironment.getRootElements())) {
+            if (rootType.getQualifiedName().contentEquals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> buildRoots(RoundEnvironment roundEnvironment) {
+        Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> roots =
+                new LinkedHashMap<Class<? extends Annotation>, Collection<Provider<ASTType>>>();
+        for (Class<? extends Annotation> rootAnnotation : ROOT_ANNOTATIONS) {
+            roots.put(rootAnnotation, buildASTCollection(roundEnvironment, rootAnnotation));
         }
-        return null;
+        return roots;
     }
 
     private Collection<Provider<ASTType>> buildASTCollection(RoundEnvironment round, Class<? extends Annotation> annotation) {
@@ -186,6 +271,10 @@ public class TransfuseAnnotationProcessor extends AnnotationProcessorBase {
     public Set<String> getSupportedOptions() {
         return ImmutableSet.of(
                 GenerateModuleProcessor.MANIFEST_PROCESSING_OPTION,
-                ManifestLocator.ANDROID_MANIFEST_FILE_OPTION);
+                ManifestLocator.ANDROID_MANIFEST_FILE_OPTION,
+                TransactionProcessorPoolFactory.PROCESSOR_THREADS_OPTION,
+                TransfuseProcessor.TIMING_REPORT_OPTION,
+                IncrementalCache.INCREMENTAL_INDEX_OPTION,
+                InjectionTimingInstrumentation.INJECTION_TIMING_OPTION);
     }
 }
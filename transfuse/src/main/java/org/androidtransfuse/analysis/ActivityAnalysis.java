@@ -29,10 +29,13 @@ import org.androidtransfuse.experiment.generators.*;
 import org.androidtransfuse.gen.GeneratorFactory;
 import org.androidtransfuse.gen.componentBuilder.ListenerRegistrationGenerator;
 import org.androidtransfuse.gen.componentBuilder.NonConfigurationInstanceGenerator;
+import org.androidtransfuse.gen.scopeBuilder.CustomScopeAspectFactoryFactory;
+import org.androidtransfuse.gen.scopeBuilder.RetainedScopeAspectFactory;
 import org.androidtransfuse.gen.variableBuilder.*;
 import org.androidtransfuse.intentFactory.ActivityIntentFactoryStrategy;
 import org.androidtransfuse.model.InjectionSignature;
 import org.androidtransfuse.scope.ApplicationScope;
+import org.androidtransfuse.scope.RetainedScope;
 import org.androidtransfuse.util.AndroidLiterals;
 
 import javax.inject.Inject;
@@ -70,6 +73,7 @@ public class ActivityAnalysis implements Analysis<ComponentDescriptor> {
     private final OnCreateInjectionGenerator.InjectionGeneratorFactory onCreateInjectionGeneratorFactory;
     private final ScopesGeneration.ScopesGenerationFactory scopesGenerationFactory;
     private final ComponentAnalysis componentAnalysis;
+    private final CustomScopeAspectFactoryFactory customScopeAspectFactoryFactory;
 
     @Inject
     public ActivityAnalysis(InjectionNodeBuilderRepositoryFactory injectionNodeBuilderRepositoryFactory,
@@ -93,7 +97,8 @@ public class ActivityAnalysis implements Analysis<ComponentDescriptor> {
                             NonConfigurationInstanceGenerator.NonconfigurationInstanceGeneratorFactory nonConfigurationInstanceGeneratorFactory,
                             OnCreateInjectionGenerator.InjectionGeneratorFactory onCreateInjectionGeneratorFactory,
                             ScopesGeneration.ScopesGenerationFactory scopesGenerationFactory,
-                            ComponentAnalysis componentAnalysis) {
+                            ComponentAnalysis componentAnalysis,
+                            CustomScopeAspectFactoryFactory customScopeAspectFactoryFactory) {
         this.injectionNodeBuilderRepositoryFactory = injectionNodeBuilderRepositoryFactory;
         this.analysisContextFactory = analysisContextFactory;
         this.astElementFactory = astElementFactory;
@@ -116,6 +121,7 @@ public class ActivityAnalysis implements Analysis<ComponentDescriptor> {
         this.onCreateInjectionGeneratorFactory = onCreateInjectionGeneratorFactory;
         this.scopesGenerationFactory = scopesGenerationFactory;
         this.componentAnalysis = componentAnalysis;
+        this.customScopeAspectFactoryFactory = customScopeAspectFactoryFactory;
     }
 
     public ComponentDescriptor analyze(ASTType input) {
@@ -196,6 +202,11 @@ public class ActivityAnalysis implements Analysis<ComponentDescriptor> {
         injectionNodeBuilderRepository.addRepository(
                 injectionNodeBuilderRepositoryFactory.buildModuleConfiguration());
 
+        //@Retained, tracked per Activity
+        ASTType retainedType = astElementFactory.getType(Retained.class);
+        injectionNodeBuilderRepository.putScopeAspectFactory(retainedType, astElementFactory.getType(RetainedScope.class),
+                new RetainedScopeAspectFactory(customScopeAspectFactoryFactory.buildScopeBuilder(retainedType)));
+
         return injectionNodeBuilderRepository;
 
     }
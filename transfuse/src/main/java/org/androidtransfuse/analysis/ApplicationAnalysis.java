@@ -27,8 +27,10 @@ import org.androidtransfuse.experiment.ComponentDescriptor;
 import org.androidtransfuse.experiment.ScopesGeneration;
 import org.androidtransfuse.experiment.generators.ApplicationManifestEntryGenerator;
 import org.androidtransfuse.experiment.generators.ApplicationScopeSeedGenerator;
+import org.androidtransfuse.experiment.generators.EagerWarmUpGenerator;
 import org.androidtransfuse.experiment.generators.ObservesExpressionGenerator;
 import org.androidtransfuse.experiment.generators.OnCreateInjectionGenerator;
+import org.androidtransfuse.experiment.generators.ScopeMemoryTrimGenerator;
 import org.androidtransfuse.gen.variableBuilder.ProviderInjectionNodeBuilderFactory;
 import org.androidtransfuse.model.InjectionSignature;
 import org.androidtransfuse.scope.ApplicationScope;
@@ -55,6 +57,8 @@ public class ApplicationAnalysis implements Analysis<ComponentDescriptor> {
     private final ScopesGeneration.ScopesGenerationFactory scopesGenerationFactory;
     private final ComponentAnalysis componentAnalysis;
     private final ApplicationScopeSeedGenerator applicationScopeSeedGenerator;
+    private final ScopeMemoryTrimGenerator scopeMemoryTrimGenerator;
+    private final EagerWarmUpGenerator eagerWarmUpGenerator;
 
     @Inject
     public ApplicationAnalysis(InjectionNodeBuilderRepositoryFactory variableBuilderRepositoryFactory,
@@ -67,7 +71,9 @@ public class ApplicationAnalysis implements Analysis<ComponentDescriptor> {
                                ApplicationManifestEntryGenerator applicationManifestEntryGenerator,
                                ScopesGeneration.ScopesGenerationFactory scopesGenerationFactory,
                                ComponentAnalysis componentAnalysis,
-                               ApplicationScopeSeedGenerator applicationScopeSeedGenerator) {
+                               ApplicationScopeSeedGenerator applicationScopeSeedGenerator,
+                               ScopeMemoryTrimGenerator scopeMemoryTrimGenerator,
+                               EagerWarmUpGenerator eagerWarmUpGenerator) {
         this.variableBuilderRepositoryFactory = variableBuilderRepositoryFactory;
         this.astElementFactory = astElementFactory;
         this.astTypeBuilderVisitor = astTypeBuilderVisitor;
@@ -79,6 +85,8 @@ public class ApplicationAnalysis implements Analysis<ComponentDescriptor> {
         this.scopesGenerationFactory = scopesGenerationFactory;
         this.componentAnalysis = componentAnalysis;
         this.applicationScopeSeedGenerator = applicationScopeSeedGenerator;
+        this.scopeMemoryTrimGenerator = scopeMemoryTrimGenerator;
+        this.eagerWarmUpGenerator = eagerWarmUpGenerator;
     }
 
     public ComponentDescriptor analyze(ASTType astType) {
@@ -116,6 +124,8 @@ public class ApplicationAnalysis implements Analysis<ComponentDescriptor> {
                     getASTMethod("onTerminate")
             ));
             applicationDescriptor.getGenerators().add(applicationScopeSeedGenerator);
+            applicationDescriptor.getGenerators().add(eagerWarmUpGenerator);
+            applicationDescriptor.getGenerators().add(scopeMemoryTrimGenerator);
         }
 
         //add manifest elements
@@ -16,10 +16,12 @@
 package org.androidtransfuse.analysis.astAnalyzer;
 
 import org.androidtransfuse.TransfuseAnalysisException;
+import org.androidtransfuse.adapter.ASTAnnotation;
 import org.androidtransfuse.adapter.ASTMethod;
 import org.androidtransfuse.adapter.ASTParameter;
 import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.annotations.EventDelivery;
 import org.androidtransfuse.annotations.Observes;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.validation.Validator;
@@ -71,7 +73,21 @@ public class ObservesAnalysis extends ASTAnalysisAdaptor {
             }
             ObservesAspect aspect = injectionNode.getAspect(ObservesAspect.class);
 
-            aspect.addObserver(firstParameter.getASTType(), astMethod);
+            aspect.addObserver(firstParameter.getASTType(), getDelivery(astMethod, firstParameter), astMethod);
         }
     }
+
+    private EventDelivery getDelivery(ASTMethod astMethod, ASTParameter parameter) {
+        ASTAnnotation observesAnnotation;
+        if (astMethod.isAnnotated(Observes.class)) {
+            observesAnnotation = astMethod.getASTAnnotation(Observes.class);
+        } else {
+            observesAnnotation = parameter.getASTAnnotation(Observes.class);
+        }
+        EventDelivery delivery = observesAnnotation.getProperty("delivery", EventDelivery.class);
+        if (delivery == null) {
+            return EventDelivery.SYNCHRONOUS;
+        }
+        return delivery;
+    }
 }
@@ -18,6 +18,7 @@ package org.androidtransfuse.analysis.astAnalyzer;
 import org.androidtransfuse.adapter.ASTMethod;
 import org.androidtransfuse.adapter.ASTMethodUniqueSignatureDecorator;
 import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.annotations.EventDelivery;
 
 import java.util.*;
 
@@ -26,25 +27,50 @@ import java.util.*;
  */
 public class ObservesAspect {
 
-    private final Map<ASTType, Set<ASTMethod>> observesMap = new HashMap<ASTType, Set<ASTMethod>>();
+    private final Map<ASTType, Map<EventDelivery, Set<ASTMethod>>> observesMap = new HashMap<ASTType, Map<EventDelivery, Set<ASTMethod>>>();
 
     public void addObserver(ASTType event, ASTMethod method){
+        addObserver(event, EventDelivery.SYNCHRONOUS, method);
+    }
+
+    public void addObserver(ASTType event, EventDelivery delivery, ASTMethod method){
         if(!observesMap.containsKey(event)){
-            observesMap.put(event, new HashSet<ASTMethod>());
+            observesMap.put(event, new EnumMap<EventDelivery, Set<ASTMethod>>(EventDelivery.class));
+        }
+        Map<EventDelivery, Set<ASTMethod>> deliveryMap = observesMap.get(event);
+        if(!deliveryMap.containsKey(delivery)){
+            deliveryMap.put(delivery, new HashSet<ASTMethod>());
         }
 
-        observesMap.get(event).add(new ASTMethodUniqueSignatureDecorator(method));
+        deliveryMap.get(delivery).add(new ASTMethodUniqueSignatureDecorator(method));
     }
 
     public Set<ASTType> getEvents(){
         return observesMap.keySet();
     }
 
-    public Set<ASTMethod> getObserverMethods(ASTType event){
+    public Set<EventDelivery> getDeliveries(ASTType event){
         if(observesMap.containsKey(event)){
-            return observesMap.get(event);
+            return observesMap.get(event).keySet();
+        }
+
+        return Collections.emptySet();
+    }
+
+    public Set<ASTMethod> getObserverMethods(ASTType event, EventDelivery delivery){
+        if(observesMap.containsKey(event) && observesMap.get(event).containsKey(delivery)){
+            return observesMap.get(event).get(delivery);
         }
 
         return Collections.emptySet();
     }
+
+    public Set<ASTMethod> getObserverMethods(ASTType event){
+        Set<ASTMethod> methods = new HashSet<ASTMethod>();
+        for (EventDelivery delivery : getDeliveries(event)) {
+            methods.addAll(getObserverMethods(event, delivery));
+        }
+
+        return methods;
+    }
 }
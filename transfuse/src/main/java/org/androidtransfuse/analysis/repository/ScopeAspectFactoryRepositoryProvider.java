@@ -21,7 +21,7 @@ import org.androidtransfuse.annotations.TransfuseModule;
 import org.androidtransfuse.gen.scopeBuilder.CustomScopeAspectFactoryFactory;
 import org.androidtransfuse.gen.scopeBuilder.SingletonScopeAspectFactory;
 import org.androidtransfuse.scope.ApplicationScope;
-import org.androidtransfuse.scope.ConcurrentDoubleLockingScope;
+import org.androidtransfuse.scope.IndexedScope;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -50,10 +50,10 @@ public class ScopeAspectFactoryRepositoryProvider implements Provider<InjectionN
     public InjectionNodeBuilderRepository get() {
         InjectionNodeBuilderRepository scopedVariableBuilderRepository = new InjectionNodeBuilderRepository(astClassFactory);
 
-        ASTType concurrentScopeType = astClassFactory.getType(ConcurrentDoubleLockingScope.class);
+        ASTType singletonScopeType = astClassFactory.getType(IndexedScope.class);
 
-        scopedVariableBuilderRepository.putScopeAspectFactory(astClassFactory.getType(TransfuseModule.class), concurrentScopeType, singletonScopeAspectFactory);
-        scopedVariableBuilderRepository.putScopeAspectFactory(astClassFactory.getType(Singleton.class), concurrentScopeType, singletonScopeAspectFactory);
+        scopedVariableBuilderRepository.putScopeAspectFactory(astClassFactory.getType(TransfuseModule.class), singletonScopeType, singletonScopeAspectFactory);
+        scopedVariableBuilderRepository.putScopeAspectFactory(astClassFactory.getType(Singleton.class), singletonScopeType, singletonScopeAspectFactory);
         scopedVariableBuilderRepository.putScopeAspectFactory(
                 astClassFactory.getType(ApplicationScope.ApplicationScopeQualifier.class),
                 astClassFactory.getType(ApplicationScope.class), customScopeAspectFactoryFactory.buildScopeBuilder(astClassFactory.getType(ApplicationScope.ApplicationScopeQualifier.class)));
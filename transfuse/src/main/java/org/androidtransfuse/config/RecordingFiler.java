@@ -0,0 +1,74 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.config;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Records the location of each file created through the delegate Filer, so incremental builds can verify that
+ * previously generated output is still present.
+ *
+ * @author John Ericksen
+ */
+public class RecordingFiler implements Filer {
+
+    private final Filer delegate;
+    private final Set<URI> created = Collections.synchronizedSet(new LinkedHashSet<URI>());
+
+    public RecordingFiler(Filer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence charSequence, Element... elements) throws IOException {
+        return record(delegate.createSourceFile(charSequence, elements));
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence charSequence, Element... elements) throws IOException {
+        return record(delegate.createClassFile(charSequence, elements));
+    }
+
+    @Override
+    public FileObject createResource(JavaFileManager.Location location, CharSequence charSequence, CharSequence charSequence1, Element... elements) throws IOException {
+        return record(delegate.createResource(location, charSequence, charSequence1, elements));
+    }
+
+    @Override
+    public FileObject getResource(JavaFileManager.Location location, CharSequence charSequence, CharSequence charSequence1) throws IOException {
+        return delegate.getResource(location, charSequence, charSequence1);
+    }
+
+    private <T extends FileObject> T record(T fileObject) {
+        created.add(fileObject.toUri());
+        return fileObject;
+    }
+
+    public Set<URI> getCreated() {
+        synchronized (created) {
+            return new LinkedHashSet<URI>(created);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.config;
+
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes access to the compiler's Elements utility, which completes symbols on demand and is not safe to call from
+ * concurrent transactions.  ASTElementFactory builds types while holding this instance's monitor, so model lookups
+ * and type building never interleave.
+ *
+ * @author John Ericksen
+ */
+public class SynchronizedElements implements Elements {
+
+    private final Elements delegate;
+
+    public SynchronizedElements(Elements delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized PackageElement getPackageElement(CharSequence name) {
+        return delegate.getPackageElement(name);
+    }
+
+    @Override
+    public synchronized TypeElement getTypeElement(CharSequence name) {
+        return delegate.getTypeElement(name);
+    }
+
+    @Override
+    public synchronized Map<? extends ExecutableElement, ? extends AnnotationValue> getElementValuesWithDefaults(AnnotationMirror a) {
+        return delegate.getElementValuesWithDefaults(a);
+    }
+
+    @Override
+    public synchronized String getDocComment(Element e) {
+        return delegate.getDocComment(e);
+    }
+
+    @Override
+    public synchronized boolean isDeprecated(Element e) {
+        return delegate.isDeprecated(e);
+    }
+
+    @Override
+    public synchronized Name getBinaryName(TypeElement type) {
+        return delegate.getBinaryName(type);
+    }
+
+    @Override
+    public synchronized PackageElement getPackageOf(Element type) {
+        return delegate.getPackageOf(type);
+    }
+
+    @Override
+    public synchronized List<? extends Element> getAllMembers(TypeElement type) {
+        return delegate.getAllMembers(type);
+    }
+
+    @Override
+    public synchronized List<? extends AnnotationMirror> getAllAnnotationMirrors(Element e) {
+        return delegate.getAllAnnotationMirrors(e);
+    }
+
+    @Override
+    public synchronized boolean hides(Element hider, Element hidden) {
+        return delegate.hides(hider, hidden);
+    }
+
+    @Override
+    public synchronized boolean overrides(ExecutableElement overrider, ExecutableElement overridden, TypeElement type) {
+        return delegate.overrides(overrider, overridden, type);
+    }
+
+    @Override
+    public synchronized String getConstantExpression(Object value) {
+        return delegate.getConstantExpression(value);
+    }
+
+    @Override
+    public synchronized void printElements(Writer w, Element... elements) {
+        delegate.printElements(w, elements);
+    }
+
+    @Override
+    public synchronized Name getName(CharSequence cs) {
+        return delegate.getName(cs);
+    }
+
+    public synchronized boolean isFunctionalInterface(TypeElement type) {
+        return delegate.isFunctionalInterface(type);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.config;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+
+/**
+ * @author John Ericksen
+ */
+public class SynchronizedMessager implements Messager {
+
+    private final Messager delegate;
+
+    public SynchronizedMessager(Messager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+        delegate.printMessage(kind, msg);
+    }
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+        delegate.printMessage(kind, msg, e);
+    }
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+        delegate.printMessage(kind, msg, e, a);
+    }
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v) {
+        delegate.printMessage(kind, msg, e, a, v);
+    }
+}
@@ -31,9 +31,11 @@ import org.androidtransfuse.analysis.repository.InjectionNodeBuilderRepositoryPr
 import org.androidtransfuse.annotations.*;
 import org.androidtransfuse.bootstrap.BootstrapModule;
 import org.androidtransfuse.bootstrap.Namespace;
+import org.androidtransfuse.experiment.generators.InjectionTimingInstrumentation;
 import org.androidtransfuse.gen.ClassGenerationStrategy;
 import org.androidtransfuse.gen.InjectionBuilderContextFactory;
 import org.androidtransfuse.gen.InstantiationStrategyFactory;
+import org.androidtransfuse.gen.NameCounters;
 import org.androidtransfuse.gen.invocationBuilder.DefaultInvocationBuilderStrategy;
 import org.androidtransfuse.gen.invocationBuilder.InvocationBuilderStrategy;
 import org.androidtransfuse.gen.variableDecorator.ExpressionDecoratorFactory;
@@ -113,22 +115,28 @@ public class TransfuseAndroidModule {
         return new JCodeModel();
     }
 
+    @Provides
+    @CodeGenerationScope
+    public NameCounters getNameCounters(){
+        return new NameCounters();
+    }
+
     @Provides
     @Singleton
     public Elements getElements(ProcessingEnvironment processingEnvironment){
-        return processingEnvironment.getElementUtils();
+        return new SynchronizedElements(processingEnvironment.getElementUtils());
     }
 
     @Provides
     @Singleton
     public Messager getMessenger(ProcessingEnvironment processingEnvironment){
-        return processingEnvironment.getMessager();
+        return new SynchronizedMessager(processingEnvironment.getMessager());
     }
 
     @Provides
     @Singleton
-    public Logger getLogger(ProcessingEnvironment processingEnvironment){
-        return new MessagerLogger(getLogPreprend(), processingEnvironment.getMessager());
+    public Logger getLogger(Messager messager){
+        return new MessagerLogger(getLogPreprend(), messager);
     }
 
     @Provides
@@ -139,8 +147,14 @@ public class TransfuseAndroidModule {
 
     @Provides
     @Singleton
-    public Filer getFiler(ProcessingEnvironment processingEnvironment){
-        return new SynchronizedFiler(processingEnvironment.getFiler());
+    public Filer getFiler(RecordingFiler recordingFiler){
+        return new SynchronizedFiler(recordingFiler);
+    }
+
+    @Provides
+    @Singleton
+    public RecordingFiler getRecordingFiler(ProcessingEnvironment processingEnvironment){
+        return new RecordingFiler(processingEnvironment.getFiler());
     }
 
     @Provides
@@ -155,6 +169,30 @@ public class TransfuseAndroidModule {
         return processingEnvironment.getOptions().get(GenerateModuleProcessor.MANIFEST_PROCESSING_OPTION);
     }
 
+    @Provides
+    @Named(TransactionProcessorPoolFactory.PROCESSOR_THREADS_OPTION)
+    public String getProcessorThreads(ProcessingEnvironment processingEnvironment){
+        return processingEnvironment.getOptions().get(TransactionProcessorPoolFactory.PROCESSOR_THREADS_OPTION);
+    }
+
+    @Provides
+    @Named(IncrementalCache.INCREMENTAL_INDEX_OPTION)
+    public String getIncrementalIndex(ProcessingEnvironment processingEnvironment){
+        return processingEnvironment.getOptions().get(IncrementalCache.INCREMENTAL_INDEX_OPTION);
+    }
+
+    @Provides
+    @Named(TransfuseProcessor.TIMING_REPORT_OPTION)
+    public String getTimingReport(ProcessingEnvironment processingEnvironment){
+        return processingEnvironment.getOptions().get(TransfuseProcessor.TIMING_REPORT_OPTION);
+    }
+
+    @Provides
+    @Named(InjectionTimingInstrumentation.INJECTION_TIMING_OPTION)
+    public String getInjectionTiming(ProcessingEnvironment processingEnvironment){
+        return processingEnvironment.getOptions().get(InjectionTimingInstrumentation.INJECTION_TIMING_OPTION);
+    }
+
     @Provides
     @Singleton
     public ProcessingEnvironment getProcessingEnvironment(){
@@ -184,9 +222,10 @@ public class TransfuseAndroidModule {
     @Provides
     public FactoryProcessor getFactoryProcessor(Provider<FactoryTransactionWorker> factoryTransactionWorkerProvider,
                                                 Provider<FactoriesTransactionWorker> factoriesTransactionWorkerProvider,
-                                                ScopedTransactionBuilder scopedTransactionBuilder) {
+                                                ScopedTransactionBuilder scopedTransactionBuilder,
+                                                TransactionProcessorPoolFactory transactionProcessorPoolFactory) {
         TransactionProcessorPool<Provider<ASTType>, JDefinedClass> factoryProcessor =
-                new TransactionProcessorPool<Provider<ASTType>, JDefinedClass>();
+                transactionProcessorPoolFactory.buildPool();
         TransactionProcessorPool<Map<Provider<ASTType>, JDefinedClass>, Void> factoriesProcessor =
                 new TransactionProcessorPool<Map<Provider<ASTType>, JDefinedClass>, Void>();
 
@@ -60,9 +60,16 @@ public class ComponentBuilder {
         public void build() {
             for (GenerationPhase phase : GenerationPhase.values()) {
                 if(generators.containsKey(phase)){
+                    boolean instrumented = instrumentation != null && phase != GenerationPhase.RETURN;
+                    if(instrumented){
+                        instrumentation.beforePhase(phase, getMethod(), descriptor.getMethod().body());
+                    }
                     for (ComponentMethodGenerator componentMethodGenerator : generators.get(phase)) {
                         componentMethodGenerator.generate(getMethod(), descriptor.getMethod().body());
                     }
+                    if(instrumented){
+                        instrumentation.afterPhase(phase, getMethod(), descriptor.getMethod().body());
+                    }
                 }
             }
         }
@@ -104,6 +111,7 @@ public class ComponentBuilder {
     private final Map<MethodSignature, MethodMetaData> methodData = new HashMap<MethodSignature, MethodMetaData>();
     private JDefinedClass definedClass = null;
     private JVar scopes;
+    private PhaseInstrumentation instrumentation = null;
 
     @Inject
     public ComponentBuilder(ClassGenerationUtil generationUtil,
@@ -169,6 +177,10 @@ public class ComponentBuilder {
         return descriptor.getAnalysisContext();
     }
 
+    public void setInstrumentation(PhaseInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     public void setScopes(JVar scopes) {
         this.scopes = scopes;
     }
@@ -16,8 +16,10 @@
 package org.androidtransfuse.experiment;
 
 import com.sun.codemodel.JDefinedClass;
+import org.androidtransfuse.experiment.generators.InjectionTimingInstrumentation;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 /**
  * @author John Ericksen
@@ -25,10 +27,16 @@ import javax.inject.Inject;
 public class ComponentGenerator {
 
     private ComponentBuilderFactory componentBuilderFactory;
+    private InjectionTimingInstrumentation.InjectionTimingInstrumentationFactory instrumentationFactory;
+    private final boolean injectionTiming;
 
     @Inject
-    public ComponentGenerator(ComponentBuilderFactory componentBuilderFactory) {
+    public ComponentGenerator(ComponentBuilderFactory componentBuilderFactory,
+                              InjectionTimingInstrumentation.InjectionTimingInstrumentationFactory instrumentationFactory,
+                              @Named(InjectionTimingInstrumentation.INJECTION_TIMING_OPTION) String injectionTimingOption) {
         this.componentBuilderFactory = componentBuilderFactory;
+        this.instrumentationFactory = instrumentationFactory;
+        this.injectionTiming = Boolean.parseBoolean(injectionTimingOption);
     }
 
     public JDefinedClass build(ComponentDescriptor descriptor) {
@@ -38,6 +46,9 @@ public class ComponentGenerator {
         }
 
         ComponentBuilder builder = componentBuilderFactory.build(descriptor);
+        if (injectionTiming) {
+            builder.setInstrumentation(instrumentationFactory.build(builder));
+        }
 
         //pre injection phase
         for (Generation generator : descriptor.getGenerators()) {
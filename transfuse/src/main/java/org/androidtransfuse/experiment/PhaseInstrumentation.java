@@ -0,0 +1,32 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment;
+
+import com.sun.codemodel.JBlock;
+import org.androidtransfuse.model.MethodDescriptor;
+
+/**
+ * Generates code around each generation phase of a component method.  Phases are wrapped in the order they are
+ * generated; the `RETURN` phase is not wrapped.
+ *
+ * @author John Ericksen
+ */
+public interface PhaseInstrumentation {
+
+    void beforePhase(GenerationPhase phase, MethodDescriptor methodDescriptor, JBlock block);
+
+    void afterPhase(GenerationPhase phase, MethodDescriptor methodDescriptor, JBlock block);
+}
@@ -56,7 +56,7 @@ public class ApplicationScopeSeedGenerator implements Generation {
                 // get ApplicationScope
                 JClass applicationScopeType = generationUtil.ref(ApplicationScope.class);
                 JVar scopeVar = block.decl(applicationScopeType, namer.generateName(ApplicationScope.class),
-                        JExpr.cast(applicationScopeType, builder.getScopes().invoke(Scopes.GET_SCOPE)
+                        JExpr.cast(applicationScopeType, builder.getScopes().invoke(Scopes.GET_SCOPE_REFERENCE)
                                 .arg(generationUtil.ref(ApplicationScope.ApplicationScopeQualifier.class).dotclass()))
                 );
 
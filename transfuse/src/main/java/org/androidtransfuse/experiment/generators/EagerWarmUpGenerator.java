@@ -0,0 +1,168 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment.generators;
+
+import com.sun.codemodel.*;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.analysis.InjectionPointFactory;
+import org.androidtransfuse.analysis.astAnalyzer.ASTInjectionAspect;
+import org.androidtransfuse.analysis.astAnalyzer.ScopeAspect;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.experiment.*;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.androidtransfuse.gen.ProviderGenerator;
+import org.androidtransfuse.gen.variableBuilder.ProvidesVariableBuilder;
+import org.androidtransfuse.gen.variableBuilder.VariableBuilder;
+import org.androidtransfuse.model.FieldInjectionPoint;
+import org.androidtransfuse.model.InjectionNode;
+import org.androidtransfuse.model.InjectionSignature;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.model.MethodInjectionPoint;
+import org.androidtransfuse.scope.EagerWarmUp;
+import org.androidtransfuse.util.AndroidLiterals;
+import org.androidtransfuse.validation.Validator;
+
+import javax.inject.Inject;
+import java.util.*;
+
+/**
+ * Starts the background construction of the `@Eager` bindings once the Application scope has been seeded in
+ * `onCreate()`.  Scoped providers are handed to `EagerWarmUp` ordered dependencies first, so a pool thread never
+ * waits on an instance queued behind it.  Nothing is generated if no binding is marked `@Eager`.
+ *
+ * @author John Ericksen
+ */
+public class EagerWarmUpGenerator implements Generation {
+
+    private final ASTElementFactory astElementFactory;
+    private final InjectionPointFactory injectionPointFactory;
+    private final ProviderGenerator providerGenerator;
+    private final ClassGenerationUtil generationUtil;
+    private final Validator validator;
+
+    @Inject
+    public EagerWarmUpGenerator(ASTElementFactory astElementFactory,
+                                InjectionPointFactory injectionPointFactory,
+                                ProviderGenerator providerGenerator,
+                                ClassGenerationUtil generationUtil,
+                                Validator validator) {
+        this.astElementFactory = astElementFactory;
+        this.injectionPointFactory = injectionPointFactory;
+        this.providerGenerator = providerGenerator;
+        this.generationUtil = generationUtil;
+        this.validator = validator;
+    }
+
+    @Override
+    public void schedule(final ComponentBuilder builder, ComponentDescriptor descriptor) {
+        AnalysisContext context = builder.getAnalysisContext();
+        Set<InjectionSignature> eagerSignatures = context.getInjectionNodeBuilders().getEager();
+        if (eagerSignatures.isEmpty()) {
+            return;
+        }
+
+        Map<InjectionSignature, InjectionNode> eagerNodes = new LinkedHashMap<InjectionSignature, InjectionNode>();
+        for (InjectionSignature signature : eagerSignatures) {
+            InjectionNode injectionNode = injectionPointFactory.buildInjectionNode(signature.getAnnotations(), signature.getType(), signature.getType(), context);
+            if (injectionNode.containsAspect(ScopeAspect.class)) {
+                eagerNodes.put(signature, injectionNode);
+            } else {
+                validator.error("@Eager binding " + signature + " must be scoped")
+                        .element(descriptor.getTarget()).build();
+            }
+        }
+
+        final List<InjectionNode> ordered = orderDependenciesFirst(eagerNodes);
+
+        ASTMethod onCreateMethod = astElementFactory.findMethod(AndroidLiterals.APPLICATION, "onCreate");
+        builder.add(onCreateMethod, GenerationPhase.POSTSCOPES, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                JInvocation startInvocation = generationUtil.ref(EagerWarmUp.class).staticInvoke(EagerWarmUp.START_METHOD);
+                for (InjectionNode injectionNode : ordered) {
+                    JDefinedClass providerClass = providerGenerator.generateProvider(injectionNode, false);
+                    startInvocation.arg(JExpr._new(providerClass).arg(builder.getScopes()));
+                }
+                block.add(startInvocation);
+            }
+        });
+    }
+
+    private List<InjectionNode> orderDependenciesFirst(Map<InjectionSignature, InjectionNode> eagerNodes) {
+        Map<InjectionNode, Set<InjectionNode>> dependencies = new HashMap<InjectionNode, Set<InjectionNode>>();
+        for (InjectionNode eagerNode : eagerNodes.values()) {
+            Set<InjectionNode> eagerDependencies = new LinkedHashSet<InjectionNode>();
+            collectEagerDependencies(eagerNode, eagerNodes, eagerDependencies, new HashSet<InjectionNode>());
+            eagerDependencies.remove(eagerNode);
+            dependencies.put(eagerNode, eagerDependencies);
+        }
+
+        List<InjectionNode> ordered = new ArrayList<InjectionNode>();
+        Set<InjectionNode> visited = new HashSet<InjectionNode>();
+        for (InjectionNode eagerNode : eagerNodes.values()) {
+            visit(eagerNode, dependencies, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private void visit(InjectionNode eagerNode, Map<InjectionNode, Set<InjectionNode>> dependencies, Set<InjectionNode> visited, List<InjectionNode> ordered) {
+        // cycles among eager bindings are broken at the first revisit, the scopes resolve them at runtime
+        if (visited.add(eagerNode)) {
+            for (InjectionNode dependency : dependencies.get(eagerNode)) {
+                visit(dependency, dependencies, visited, ordered);
+            }
+            ordered.add(eagerNode);
+        }
+    }
+
+    private void collectEagerDependencies(InjectionNode injectionNode, Map<InjectionSignature, InjectionNode> eagerNodes, Set<InjectionNode> eagerDependencies, Set<InjectionNode> visited) {
+        for (InjectionNode dependency : getDependencies(injectionNode)) {
+            if (visited.add(dependency)) {
+                InjectionNode eagerNode = eagerNodes.get(dependency.getSignature());
+                if (eagerNode != null) {
+                    eagerDependencies.add(eagerNode);
+                } else {
+                    collectEagerDependencies(dependency, eagerNodes, eagerDependencies, visited);
+                }
+            }
+        }
+    }
+
+    private List<InjectionNode> getDependencies(InjectionNode injectionNode) {
+        List<InjectionNode> dependencies = new ArrayList<InjectionNode>();
+        ASTInjectionAspect injectionAspect = injectionNode.getAspect(ASTInjectionAspect.class);
+        if (injectionAspect != null) {
+            if (injectionAspect.getConstructorInjectionPoint() != null) {
+                dependencies.addAll(injectionAspect.getConstructorInjectionPoint().getInjectionNodes());
+            }
+            for (ASTInjectionAspect.InjectionGroup injectionGroup : injectionAspect.getGroups()) {
+                for (FieldInjectionPoint fieldInjectionPoint : injectionGroup.getFieldInjectionPoints()) {
+                    dependencies.add(fieldInjectionPoint.getInjectionNode());
+                }
+                for (MethodInjectionPoint methodInjectionPoint : injectionGroup.getMethodInjectionPoints()) {
+                    dependencies.addAll(methodInjectionPoint.getInjectionNodes());
+                }
+            }
+        }
+        // @Provides bindings carry the module and method parameters in their variable builder
+        VariableBuilder variableBuilder = injectionNode.getAspect(VariableBuilder.class);
+        if (variableBuilder instanceof ProvidesVariableBuilder) {
+            dependencies.addAll(((ProvidesVariableBuilder) variableBuilder).getDependencies());
+        }
+        return dependencies;
+    }
+}
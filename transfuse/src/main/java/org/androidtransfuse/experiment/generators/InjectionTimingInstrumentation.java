@@ -0,0 +1,106 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment.generators;
+
+import com.sun.codemodel.*;
+import org.androidtransfuse.adapter.ASTVoidType;
+import org.androidtransfuse.annotations.Factory;
+import org.androidtransfuse.experiment.ComponentBuilder;
+import org.androidtransfuse.experiment.GenerationPhase;
+import org.androidtransfuse.experiment.PhaseInstrumentation;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.androidtransfuse.gen.UniqueVariableNamer;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.scope.InjectionTimings;
+
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Times each generation phase of the generated lifecycle methods, reporting to `InjectionTimings`.  The `INJECTION`
+ * phase additionally traces the scoped instances constructed while injecting.  Enabled by the `transfuseInjectionTiming`
+ * processor option; nothing is generated otherwise.
+ *
+ * Phases of methods returning a value may end in a return statement, so only their `INJECTION` phase is timed.
+ *
+ * @author John Ericksen
+ */
+public class InjectionTimingInstrumentation implements PhaseInstrumentation {
+
+    public static final String INJECTION_TIMING_OPTION = "transfuseInjectionTiming";
+
+    private final ComponentBuilder builder;
+    private final ClassGenerationUtil generationUtil;
+    private final UniqueVariableNamer namer;
+    private final Deque<JVar> phaseStarts = new ArrayDeque<JVar>();
+    private final Deque<JVar> traces = new ArrayDeque<JVar>();
+
+    @Factory
+    public interface InjectionTimingInstrumentationFactory {
+        InjectionTimingInstrumentation build(ComponentBuilder builder);
+    }
+
+    @Inject
+    public InjectionTimingInstrumentation(/*@Assisted*/ ComponentBuilder builder,
+                                          ClassGenerationUtil generationUtil,
+                                          UniqueVariableNamer namer) {
+        this.builder = builder;
+        this.generationUtil = generationUtil;
+        this.namer = namer;
+    }
+
+    @Override
+    public void beforePhase(GenerationPhase phase, MethodDescriptor methodDescriptor, JBlock block) {
+        if (!isTimed(phase, methodDescriptor)) {
+            return;
+        }
+        if (isTraced(phase)) {
+            JClass traceType = generationUtil.ref(InjectionTimings.Trace.class);
+            JVar trace = block.decl(traceType, namer.generateName(traceType),
+                    generationUtil.ref(InjectionTimings.class).staticInvoke(InjectionTimings.TRACE_METHOD)
+                            .arg(builder.getDefinedClass().dotclass())
+                            .arg(builder.getScopes()));
+            block.assign(builder.getScopes(), trace.invoke(InjectionTimings.GET_SCOPES_METHOD));
+            traces.push(trace);
+        }
+        phaseStarts.push(block.decl(generationUtil.type(long.class), namer.generateName("phaseStart"),
+                generationUtil.ref(System.class).staticInvoke("nanoTime")));
+    }
+
+    @Override
+    public void afterPhase(GenerationPhase phase, MethodDescriptor methodDescriptor, JBlock block) {
+        if (!isTimed(phase, methodDescriptor)) {
+            return;
+        }
+        block.add(generationUtil.ref(InjectionTimings.class).staticInvoke(InjectionTimings.PHASE_METHOD)
+                .arg(builder.getDefinedClass().dotclass())
+                .arg(JExpr.lit(methodDescriptor.getASTMethod().getName()))
+                .arg(JExpr.lit(phase.name()))
+                .arg(phaseStarts.pop()));
+        if (isTraced(phase)) {
+            block.assign(builder.getScopes(), traces.pop().invoke(InjectionTimings.FINISH_METHOD));
+        }
+    }
+
+    private boolean isTimed(GenerationPhase phase, MethodDescriptor methodDescriptor) {
+        return phase == GenerationPhase.INJECTION || ASTVoidType.VOID.equals(methodDescriptor.getASTMethod().getReturnType());
+    }
+
+    private boolean isTraced(GenerationPhase phase) {
+        return phase == GenerationPhase.INJECTION && builder.getScopes() != null;
+    }
+}
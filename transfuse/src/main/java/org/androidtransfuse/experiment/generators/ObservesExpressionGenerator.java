@@ -23,9 +23,14 @@ import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.adapter.classes.ASTClassFactory;
 import org.androidtransfuse.analysis.InjectionPointFactory;
 import org.androidtransfuse.analysis.astAnalyzer.ObservesAspect;
+import org.androidtransfuse.annotations.EventDelivery;
 import org.androidtransfuse.annotations.Factory;
+import org.androidtransfuse.event.CoalescingEventObserver;
+import org.androidtransfuse.event.DeferredEventObserver;
+import org.androidtransfuse.event.EventExecutors;
 import org.androidtransfuse.event.EventManager;
 import org.androidtransfuse.event.EventObserver;
+import org.androidtransfuse.event.ExecutorEventObserver;
 import org.androidtransfuse.experiment.*;
 import org.androidtransfuse.gen.*;
 import org.androidtransfuse.model.InjectionNode;
@@ -35,9 +40,11 @@ import org.androidtransfuse.model.TypedExpression;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author John Ericksen
@@ -98,19 +105,23 @@ public class ObservesExpressionGenerator implements Generation {
             public void generate(MethodDescriptor methodDescriptor, JBlock block) {
                 try {
                     //mapping from event type -> observer
-                    Map<JClass, JVar> observerTuples = getObservers(builder, builder.getExpressionMap());
+                    final Set<JVar> deferredObservers = new HashSet<JVar>();
+                    Map<JVar, JClass> observerTuples = getObservers(builder, builder.getExpressionMap(), deferredObservers);
 
                     if (!observerTuples.isEmpty()) {
-                        final JVar eventManager = getEventManager(builder, builder.getExpressionMap(), builder.getScopes());
+                        final JVar eventManager = getInjectedField(builder, astClassFactory.getType(EventManager.class), builder.getExpressionMap(), builder.getScopes());
 
-                        for (final Map.Entry<JClass, JVar> tupleEntry : observerTuples.entrySet()) {
+                        for (final Map.Entry<JVar, JClass> tupleEntry : observerTuples.entrySet()) {
 
                             builder.add(registerMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
                                 @Override
                                 public void generate(MethodDescriptor methodDescriptor, JBlock block) {
-                                    block.invoke(eventManager, "register")
-                                            .arg(tupleEntry.getKey().dotclass())
-                                            .arg(tupleEntry.getValue());
+                                    if (deferredObservers.contains(tupleEntry.getKey())) {
+                                        block.invoke(tupleEntry.getKey(), DeferredEventObserver.SET_ACTIVE).arg(JExpr.TRUE);
+                                    }
+                                    block.invoke(eventManager, "registerWeak")
+                                            .arg(tupleEntry.getValue().dotclass())
+                                            .arg(tupleEntry.getKey());
                                 }
                             });
 
@@ -118,7 +129,11 @@ public class ObservesExpressionGenerator implements Generation {
                                 @Override
                                 public void generate(MethodDescriptor methodDescriptor, JBlock block) {
                                     block.invoke(eventManager, "unregister")
-                                            .arg(tupleEntry.getValue());
+                                            .arg(tupleEntry.getKey());
+                                    if (deferredObservers.contains(tupleEntry.getKey())) {
+                                        //drops events already handed to the executor
+                                        block.invoke(tupleEntry.getKey(), DeferredEventObserver.SET_ACTIVE).arg(JExpr.FALSE);
+                                    }
                                 }
                             });
                         }
@@ -131,25 +146,24 @@ public class ObservesExpressionGenerator implements Generation {
         });
     }
 
-    private JVar getEventManager(final ComponentBuilder builder, final Map<InjectionNode, TypedExpression> expressionMap, final JExpression scopes) {
+    private JVar getInjectedField(final ComponentBuilder builder, ASTType type, final Map<InjectionNode, TypedExpression> expressionMap, final JExpression scopes) {
 
-        ASTType eventManagerType = astClassFactory.getType(EventManager.class);
-        final InjectionNode eventManagerInjectionNode = injectionPointFactory.buildInjectionNode(eventManagerType, builder.getAnalysisContext());
-        final JVar eventManagerVar = builder.getDefinedClass().field(JMod.PRIVATE, generationUtil.type(eventManagerType), variableNamer.generateName(eventManagerType));
+        final InjectionNode injectionNode = injectionPointFactory.buildInjectionNode(type, builder.getAnalysisContext());
+        final JVar fieldVar = builder.getDefinedClass().field(JMod.PRIVATE, generationUtil.type(type), variableNamer.generateName(type));
 
         builder.add(creationMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
             @Override
             public void generate(MethodDescriptor methodDescriptor, JBlock block) {
 
                 try {
-                    Map<InjectionNode, TypedExpression> eventManagerExpressionMap = injectionFragmentGenerator.buildFragment(block,
+                    Map<InjectionNode, TypedExpression> fieldExpressionMap = injectionFragmentGenerator.buildFragment(block,
                             instantiationStrategyFactory.buildMethodStrategy(block, scopes),
                             builder.getDefinedClass(),
-                            eventManagerInjectionNode,
+                            injectionNode,
                             scopes,
                             expressionMap);
-                    TypedExpression expression = eventManagerExpressionMap.get(eventManagerInjectionNode);
-                    block.assign(eventManagerVar, expression.getExpression());
+                    TypedExpression expression = fieldExpressionMap.get(injectionNode);
+                    block.assign(fieldVar, expression.getExpression());
 
                 } catch (JClassAlreadyExistsException e) {
                     throw new TransfuseAnalysisException("Tried to generate a class that already exists", e);
@@ -158,11 +172,12 @@ public class ObservesExpressionGenerator implements Generation {
             }
         });
 
-        return eventManagerVar;
+        return fieldVar;
     }
 
-    private Map<JClass, JVar> getObservers(final ComponentBuilder builder, Map<InjectionNode, TypedExpression> expressionMap) throws JClassAlreadyExistsException {
-        Map<JClass, JVar> observerTuples = new HashMap<JClass, JVar>();
+    private Map<JVar, JClass> getObservers(final ComponentBuilder builder, Map<InjectionNode, TypedExpression> expressionMap, Set<JVar> deferredObservers) throws JClassAlreadyExistsException {
+        Map<JVar, JClass> observerTuples = new LinkedHashMap<JVar, JClass>();
+        JVar eventExecutors = null;
 
         for (Map.Entry<InjectionNode, TypedExpression> expressionEntry : expressionMap.entrySet()) {
 
@@ -172,51 +187,81 @@ public class ObservesExpressionGenerator implements Generation {
                 final JExpression observerExpression = expressionEntry.getValue().getExpression();
 
                 for (ASTType event : aspect.getEvents()) {
+                    for (EventDelivery delivery : aspect.getDeliveries(event)) {
 
-                    //generate inner class EventObserver<E> (E = event)
-                    JClass eventRef = generationUtil.ref(event);
-                    JClass targetRef = generationUtil.ref(typedExpression.getType());
+                        //generate inner class EventObserver<E> (E = event)
+                        JClass eventRef = generationUtil.ref(event);
+                        JClass targetRef = generationUtil.ref(typedExpression.getType());
 
-                    final JDefinedClass observerClass = builder.getDefinedClass()._class(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, classNamer.numberedClassName(typedExpression.getType()).build().getClassName());
+                        final JDefinedClass observerClass = builder.getDefinedClass()._class(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, classNamer.numberedNestedClassName(typedExpression.getType()).build().getClassName());
 
-                    //target variable
-                    JFieldVar targetField = observerClass.field(JMod.PRIVATE, targetRef, variableNamer.generateName(typedExpression.getType()));
+                        //target variable
+                        JFieldVar targetField = observerClass.field(JMod.PRIVATE, targetRef, variableNamer.generateName(typedExpression.getType()));
 
-                    //match default constructor public WeakObserver(T target){
-                    JMethod constructor = observerClass.constructor(JMod.PUBLIC);
-                    JVar constTargetParam = constructor.param(targetRef, variableNamer.generateName(targetRef));
-                    constructor.body().assign(targetField, constTargetParam);
+                        //match default constructor public WeakObserver(T target){
+                        JMethod constructor = observerClass.constructor(JMod.PUBLIC);
+                        JVar constTargetParam = constructor.param(targetRef, variableNamer.generateName(targetRef));
+                        constructor.body().assign(targetField, constTargetParam);
 
-                    observerClass._implements(generationUtil.ref(EventObserver.class).narrow(eventRef));
+                        observerClass._implements(generationUtil.ref(EventObserver.class).narrow(eventRef));
 
-                    JMethod triggerMethod = observerClass.method(JMod.PUBLIC, codeModel.VOID, EventObserver.TRIGGER);
-                    triggerMethod.annotate(Override.class);
-                    JVar eventParam = triggerMethod.param(eventRef, variableNamer.generateName(event));
-                    JBlock triggerBody = triggerMethod.body();
+                        JMethod triggerMethod = observerClass.method(JMod.PUBLIC, codeModel.VOID, EventObserver.TRIGGER);
+                        triggerMethod.annotate(Override.class);
+                        JVar eventParam = triggerMethod.param(eventRef, variableNamer.generateName(event));
+                        JBlock triggerBody = triggerMethod.body();
 
-                    List<JExpression> parameters = new ArrayList<JExpression>();
-                    parameters.add(eventParam);
+                        List<JExpression> parameters = new ArrayList<JExpression>();
+                        parameters.add(eventParam);
 
-                    for (ASTMethod observerMethod : aspect.getObserverMethods(event)) {
-                        triggerBody.add(invocationBuilder.buildMethodCall(
-                                new ASTJDefinedClassType(observerClass),
-                                expressionEntry.getKey().getASTType(),
-                                observerMethod,
-                                parameters,
-                                new TypedExpression(typedExpression.getType(), targetField)));
-                    }
-
-                    final JFieldVar observerField = builder.getDefinedClass().field(JMod.PRIVATE, observerClass, variableNamer.generateName(EventObserver.class));
-
-                    observerTuples.put(eventRef, observerField);
+                        for (ASTMethod observerMethod : aspect.getObserverMethods(event, delivery)) {
+                            triggerBody.add(invocationBuilder.buildMethodCall(
+                                    new ASTJDefinedClassType(observerClass),
+                                    expressionEntry.getKey().getASTType(),
+                                    observerMethod,
+                                    parameters,
+                                    new TypedExpression(typedExpression.getType(), targetField)));
+                        }
 
-                    builder.add(creationMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
-                        @Override
-                        public void generate(MethodDescriptor methodDescriptor, JBlock block) {
-                            block.assign(observerField, JExpr._new(observerClass).arg(observerExpression));
+                        final JFieldVar observerField;
+                        final JExpression observerInstance;
+                        JExpression instance = JExpr._new(observerClass).arg(observerExpression);
+
+                        if (delivery == EventDelivery.SYNCHRONOUS) {
+                            observerField = builder.getDefinedClass().field(JMod.PRIVATE, observerClass, variableNamer.generateName(EventObserver.class));
+                            observerInstance = instance;
+                        } else {
+                            if (eventExecutors == null) {
+                                eventExecutors = getInjectedField(builder, astClassFactory.getType(EventExecutors.class), expressionMap, builder.getScopes());
+                            }
+                            JClass wrapperRef;
+                            JExpression executor;
+                            switch (delivery) {
+                                case BACKGROUND:
+                                    wrapperRef = generationUtil.ref(ExecutorEventObserver.class).narrow(eventRef);
+                                    executor = eventExecutors.invoke(EventExecutors.GET_BACKGROUND_EXECUTOR);
+                                    break;
+                                case UI_THREAD:
+                                    wrapperRef = generationUtil.ref(ExecutorEventObserver.class).narrow(eventRef);
+                                    executor = eventExecutors.invoke(EventExecutors.GET_UI_THREAD_EXECUTOR);
+                                    break;
+                                default:
+                                    wrapperRef = generationUtil.ref(CoalescingEventObserver.class).narrow(eventRef);
+                                    executor = eventExecutors.invoke(EventExecutors.GET_UI_THREAD_EXECUTOR);
+                            }
+                            observerField = builder.getDefinedClass().field(JMod.PRIVATE, wrapperRef, variableNamer.generateName(EventObserver.class));
+                            observerInstance = JExpr._new(wrapperRef).arg(instance).arg(executor);
+                            deferredObservers.add(observerField);
                         }
-                    });
 
+                        observerTuples.put(observerField, eventRef);
+
+                        builder.add(creationMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
+                            @Override
+                            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                                block.assign(observerField, observerInstance);
+                            }
+                        });
+                    }
                 }
             }
         }
@@ -70,7 +70,8 @@ public class OnCreateInjectionGenerator implements Generation {
     @Override
     public void schedule(final ComponentBuilder builder, final ComponentDescriptor descriptor) {
 
-        builder.add(method, GenerationPhase.INJECTION, new ComponentMethodGenerator() {
+        // analyzed ahead of the injection code so POSTSCOPES generators know which scopes the graph uses
+        builder.add(method, GenerationPhase.SCOPES, new ComponentMethodGenerator() {
             @Override
             public void generate(MethodDescriptor methodDescriptor, JBlock block) {
                 for (ASTParameter astParameter : methodDescriptor.getASTMethod().getParameters()) {
@@ -78,7 +79,12 @@ public class OnCreateInjectionGenerator implements Generation {
                 }
 
                 descriptor.setRootInjectionNode(injectionPointFactory.buildInjectionNode(target, builder.getAnalysisContext()));
+            }
+        });
 
+        builder.add(method, GenerationPhase.INJECTION, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
                 if(!validator.isInError()) {
 
                     try {
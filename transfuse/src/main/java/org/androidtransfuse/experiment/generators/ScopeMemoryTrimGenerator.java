@@ -0,0 +1,100 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment.generators;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JInvocation;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.adapter.ASTPrimitiveType;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.analysis.module.ModuleRepository;
+import org.androidtransfuse.experiment.*;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.androidtransfuse.gen.ScopesGenerator;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.scope.Scopes;
+import org.androidtransfuse.scope.TrimmableScope;
+import org.androidtransfuse.util.AndroidLiterals;
+
+import javax.inject.Inject;
+
+/**
+ * Forwards the Application `onTrimMemory()` and `onLowMemory()` callbacks to the `TrimmableScope`s registered through
+ * `@DefineScope`.  Nothing is generated if no such scope is registered.  `onTrimMemory()` is only overridden when the
+ * target api level defines it.
+ *
+ * @author John Ericksen
+ */
+public class ScopeMemoryTrimGenerator implements Generation {
+
+    private final ASTElementFactory astElementFactory;
+    private final ModuleRepository repository;
+    private final ClassGenerationUtil generationUtil;
+    private final SuperGenerator.SuperGeneratorFactory superGeneratorFactory;
+
+    @Inject
+    public ScopeMemoryTrimGenerator(ASTElementFactory astElementFactory,
+                                    ModuleRepository repository,
+                                    ClassGenerationUtil generationUtil,
+                                    SuperGenerator.SuperGeneratorFactory superGeneratorFactory) {
+        this.astElementFactory = astElementFactory;
+        this.repository = repository;
+        this.generationUtil = generationUtil;
+        this.superGeneratorFactory = superGeneratorFactory;
+    }
+
+    @Override
+    public void schedule(ComponentBuilder builder, ComponentDescriptor descriptor) {
+        if (!containsTrimmableScope()) {
+            return;
+        }
+
+        ASTMethod onLowMemoryMethod = astElementFactory.findMethod(AndroidLiterals.APPLICATION, "onLowMemory");
+        builder.add(onLowMemoryMethod, GenerationPhase.EVENT, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                block.add(buildScopes().invoke(Scopes.LOW_MEMORY));
+            }
+        });
+
+        final ASTMethod onTrimMemoryMethod = astElementFactory.findMethod(AndroidLiterals.APPLICATION, "onTrimMemory", ASTPrimitiveType.INT);
+        if (onTrimMemoryMethod != null) {
+            superGeneratorFactory.build(onTrimMemoryMethod).schedule(builder, descriptor);
+            builder.add(onTrimMemoryMethod, GenerationPhase.EVENT, new ComponentMethodGenerator() {
+                @Override
+                public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                    block.add(buildScopes().invoke(Scopes.TRIM_MEMORY)
+                            .arg(methodDescriptor.getParameter(onTrimMemoryMethod.getParameters().get(0)).getExpression()));
+                }
+            });
+        }
+    }
+
+    private JInvocation buildScopes() {
+        return generationUtil.ref(ScopesGenerator.TRANSFUSE_SCOPES_UTIL).staticInvoke(ScopesGenerator.GET_INSTANCE);
+    }
+
+    private boolean containsTrimmableScope() {
+        ASTType trimmableScopeType = astElementFactory.getType(TrimmableScope.class);
+        for (ASTType scopeType : repository.buildModuleConfiguration().getScopeAnnotations().values()) {
+            if (scopeType.inheritsFrom(trimmableScopeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -15,9 +15,7 @@
  */
 package org.androidtransfuse.gen;
 
-import com.google.common.collect.ImmutableMap;
 import com.sun.codemodel.JClass;
-import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpression;
 import org.androidtransfuse.Components;
@@ -25,7 +23,6 @@ import org.androidtransfuse.adapter.PackageClass;
 import org.androidtransfuse.util.Repository;
 
 import javax.inject.Inject;
-import java.util.Map;
 
 /**
  * @author John Ericksen
@@ -40,7 +37,7 @@ public class ComponentsGenerator extends AbstractRepositoryGenerator<JDefinedCla
     }
 
     @Override
-    protected Map<? extends JExpression, ? extends JExpression> generateMapping(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) throws JClassAlreadyExistsException {
-        return ImmutableMap.of(interfaceClass.dotclass(), concreteType.dotclass());
+    protected JExpression generateInstance(JDefinedClass factoryRepositoryClass, JClass interfaceClass, JDefinedClass concreteType) {
+        return concreteType.dotclass();
     }
 }
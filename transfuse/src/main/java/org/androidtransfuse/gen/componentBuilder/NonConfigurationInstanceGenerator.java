@@ -23,17 +23,23 @@ import org.androidtransfuse.adapter.PackageClass;
 import org.androidtransfuse.adapter.element.ASTElementFactory;
 import org.androidtransfuse.analysis.astAnalyzer.NonConfigurationAspect;
 import org.androidtransfuse.annotations.Factory;
+import org.androidtransfuse.annotations.Retained;
 import org.androidtransfuse.experiment.*;
 import org.androidtransfuse.gen.ClassGenerationUtil;
 import org.androidtransfuse.gen.ClassNamer;
 import org.androidtransfuse.gen.InvocationBuilder;
 import org.androidtransfuse.gen.UniqueVariableNamer;
+import org.androidtransfuse.gen.scopeBuilder.RetainedScopeAspectFactory;
+import org.androidtransfuse.gen.scopeBuilder.ScopeAspectFactory;
 import org.androidtransfuse.gen.variableDecorator.TypedExpressionFactory;
 import org.androidtransfuse.model.FieldInjectionPoint;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.model.MethodDescriptor;
 import org.androidtransfuse.model.TypedExpression;
+import org.androidtransfuse.scope.RetainedScope;
+import org.androidtransfuse.scope.Scopes;
 import org.androidtransfuse.util.AndroidLiterals;
+import org.androidtransfuse.validation.Validator;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -42,111 +48,215 @@ import java.util.List;
 import java.util.Map;
 
 /**
+ * Carries `@NonConfigurationInstance` fields and the `@Retained` scope across configuration changes through
+ * `onRetainNonConfigurationInstance()` and `getLastNonConfigurationInstance()`.
+ *
  * @author John Ericksen
  */
 public class NonConfigurationInstanceGenerator implements Generation {
 
+    private static final String GET_LAST_NON_CONFIGURATION_INSTANCE = "getLastNonConfigurationInstance";
+    private static final String ON_RETAIN_NON_CONFIGURATION_INSTANCE = "onRetainNonConfigurationInstance";
+
     private final UniqueVariableNamer variableNamer;
     private final ClassNamer classNamer;
     private final ClassGenerationUtil generationUtil;
     private final InvocationBuilder invocationBuilder;
     private final TypedExpressionFactory typeExpressionFactory;
     private final ASTElementFactory astElementFactory;
+    private final Validator validator;
     private final ASTMethod creationMethod;
 
+    /**
+     * Holder type carried through `onRetainNonConfigurationInstance()`, defined by the first phase that needs it.
+     */
+    private static final class NonConfigurationInstance {
+        private JDefinedClass definedClass;
+        private JMethod constructor;
+        private JFieldVar holderRetainedScopeField;
+        private JFieldVar retainedScopeField;
+        private Boolean retainable;
+    }
+
     @Factory public interface NonconfigurationInstanceGeneratorFactory{
         NonConfigurationInstanceGenerator build(ASTMethod creationMethod);
     }
 
     @Inject
-    public NonConfigurationInstanceGenerator(/*@Assisted*/ ASTMethod creationMethod, UniqueVariableNamer variableNamer, ClassNamer classNamer, ClassGenerationUtil generationUtil, InvocationBuilder invocationBuilder, TypedExpressionFactory typeExpressionFactory, ASTElementFactory astElementFactory) {
+    public NonConfigurationInstanceGenerator(/*@Assisted*/ ASTMethod creationMethod, UniqueVariableNamer variableNamer, ClassNamer classNamer, ClassGenerationUtil generationUtil, InvocationBuilder invocationBuilder, TypedExpressionFactory typeExpressionFactory, ASTElementFactory astElementFactory, Validator validator) {
         this.variableNamer = variableNamer;
         this.classNamer = classNamer;
         this.generationUtil = generationUtil;
         this.invocationBuilder = invocationBuilder;
         this.typeExpressionFactory = typeExpressionFactory;
         this.astElementFactory = astElementFactory;
+        this.validator = validator;
         this.creationMethod = creationMethod;
     }
 
     @Override
-    public void schedule(final ComponentBuilder builder, ComponentDescriptor descriptor) {
+    public void schedule(final ComponentBuilder builder, final ComponentDescriptor descriptor) {
+
+        final NonConfigurationInstance nonConfigurationInstance = new NonConfigurationInstance();
+
+        builder.add(creationMethod, GenerationPhase.POSTSCOPES, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                // the injection graph is analyzed during SCOPES, so the retained scope is known to be used by now
+                if (isRetainedScopeUsed(builder) && isRetainable(nonConfigurationInstance, descriptor)) {
+                    defineHolder(builder, nonConfigurationInstance);
+                    configureRetainedScope(nonConfigurationInstance);
+                    installRetainedScope(builder, block, nonConfigurationInstance);
+                }
+            }
+        });
 
         builder.add(creationMethod, GenerationPhase.POSTINJECTION, new ComponentMethodGenerator() {
             @Override
             public void generate(MethodDescriptor methodDescriptor, JBlock block) {
                 final List<InjectionNode> nonConfigurationComponents = buildNonConfigurationComponents(builder.getExpressionMap());
 
-                if (!nonConfigurationComponents.isEmpty()) {
-                    try {
-                        //generate holder type
-                        final JDefinedClass nonConfigurationInstance = builder.getDefinedClass()._class(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, classNamer.numberedClassName(new PackageClass(null, "NonConfigurationInstance")).build().getClassName());
-
-                        JMethod constructor = nonConfigurationInstance.constructor(JMod.PRIVATE);
-                        final Map<FieldInjectionPoint, JFieldVar> fieldMap = configureConstructor(constructor, nonConfigurationInstance, nonConfigurationComponents);
-
-                        builder.add(creationMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
-                            @Override
-                            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
-
-                                //add on create init
-                                //super.getLastNonConfigurationInstance()
-                                JVar bodyVar = block.decl(nonConfigurationInstance, variableNamer.generateName(nonConfigurationInstance), JExpr.cast(nonConfigurationInstance, JExpr.invoke("getLastNonConfigurationInstance")));
-                                JBlock conditional = block._if(bodyVar.ne(JExpr._null()))._then();
-
-                                //assign variables
-                                for (InjectionNode nonConfigurationComponent : nonConfigurationComponents) {
-
-                                    NonConfigurationAspect aspect = nonConfigurationComponent.getAspect(NonConfigurationAspect.class);
-                                    for (FieldInjectionPoint nonConfigurationField : aspect.getFields()) {
-                                        TypedExpression fieldExpression = typeExpressionFactory.build(nonConfigurationField.getInjectionNode().getASTType(), JExpr.ref(bodyVar, fieldMap.get(nonConfigurationField)));
-                                        conditional.add(
-                                                invocationBuilder.buildFieldSet(
-                                                        new ASTJDefinedClassType(builder.getDefinedClass()),
-                                                        fieldExpression,
-                                                        nonConfigurationField,
-                                                        builder.getExpressionMap().get(nonConfigurationComponent).getExpression())
-                                        );
-                                    }
+                if (!nonConfigurationComponents.isEmpty() && isRetainable(nonConfigurationInstance, descriptor)) {
+                    defineHolder(builder, nonConfigurationInstance);
+                    final Map<FieldInjectionPoint, JFieldVar> fieldMap = configureConstructor(nonConfigurationInstance, nonConfigurationComponents);
+
+                    builder.add(creationMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
+                        @Override
+                        public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                            JDefinedClass holder = nonConfigurationInstance.definedClass;
+
+                            //add on create init
+                            //super.getLastNonConfigurationInstance()
+                            JVar bodyVar = block.decl(holder, variableNamer.generateName(holder), JExpr.cast(holder, JExpr.invoke(GET_LAST_NON_CONFIGURATION_INSTANCE)));
+                            JBlock conditional = block._if(bodyVar.ne(JExpr._null()))._then();
+
+                            //assign variables
+                            for (InjectionNode nonConfigurationComponent : nonConfigurationComponents) {
+
+                                NonConfigurationAspect aspect = nonConfigurationComponent.getAspect(NonConfigurationAspect.class);
+                                for (FieldInjectionPoint nonConfigurationField : aspect.getFields()) {
+                                    TypedExpression fieldExpression = typeExpressionFactory.build(nonConfigurationField.getInjectionNode().getASTType(), JExpr.ref(bodyVar, fieldMap.get(nonConfigurationField)));
+                                    conditional.add(
+                                            invocationBuilder.buildFieldSet(
+                                                    new ASTJDefinedClassType(builder.getDefinedClass()),
+                                                    fieldExpression,
+                                                    nonConfigurationField,
+                                                    builder.getExpressionMap().get(nonConfigurationComponent).getExpression())
+                                    );
                                 }
                             }
-                        });
-
-                        ASTMethod onRetainNonConfigurationInstanceMethod = astElementFactory.findMethod(AndroidLiterals.ACTIVITY, "onRetainNonConfigurationInstance");
-                        builder.add(onRetainNonConfigurationInstanceMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
-                            @Override
-                            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
-                                JInvocation construction = JExpr._new(nonConfigurationInstance);
-                                JVar instanceDecl = block.decl(nonConfigurationInstance, variableNamer.generateName(nonConfigurationInstance)
-                                        , construction);
-
-                                for (InjectionNode injectionNode : nonConfigurationComponents) {
-
-                                    NonConfigurationAspect aspect = injectionNode.getAspect(NonConfigurationAspect.class);
-                                    for (FieldInjectionPoint fieldInjectionPoint : aspect.getFields()) {
-                                        construction.arg(invocationBuilder.buildFieldGet(
-                                                new ASTJDefinedClassType(builder.getDefinedClass()),
-                                                fieldInjectionPoint.getField(),
-                                                injectionNode.getASTType(),
-                                                builder.getExpressionMap().get(injectionNode)
-                                        ));
-                                    }
-                                }
+                        }
+                    });
+                }
+
+                if (nonConfigurationInstance.definedClass != null) {
+                    ASTMethod onRetainNonConfigurationInstanceMethod = astElementFactory.findMethod(AndroidLiterals.ACTIVITY, ON_RETAIN_NON_CONFIGURATION_INSTANCE);
+                    builder.add(onRetainNonConfigurationInstanceMethod, GenerationPhase.REGISTRATION, new ComponentMethodGenerator() {
+                        @Override
+                        public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                            JDefinedClass holder = nonConfigurationInstance.definedClass;
+                            JInvocation construction = JExpr._new(holder);
+                            JVar instanceDecl = block.decl(holder, variableNamer.generateName(holder), construction);
 
-                                block._return(instanceDecl);
+                            //constructor parameters in order: retained scope first, then the fields
+                            if (nonConfigurationInstance.retainedScopeField != null) {
+                                construction.arg(nonConfigurationInstance.retainedScopeField);
                             }
-                        });
+                            for (InjectionNode injectionNode : nonConfigurationComponents) {
 
+                                NonConfigurationAspect aspect = injectionNode.getAspect(NonConfigurationAspect.class);
+                                for (FieldInjectionPoint fieldInjectionPoint : aspect.getFields()) {
+                                    construction.arg(invocationBuilder.buildFieldGet(
+                                            new ASTJDefinedClassType(builder.getDefinedClass()),
+                                            fieldInjectionPoint.getField(),
+                                            injectionNode.getASTType(),
+                                            builder.getExpressionMap().get(injectionNode)
+                                    ));
+                                }
+                            }
 
-                    } catch (JClassAlreadyExistsException e) {
-                        throw new TransfuseAnalysisException("Class already defined", e);
-                    }
+                            block._return(instanceDecl);
+                        }
+                    });
                 }
             }
         });
     }
 
-    private Map<FieldInjectionPoint, JFieldVar> configureConstructor(JMethod constructor, JDefinedClass nonConfigurationInstance, List<InjectionNode> nonConfigurationComponents) {
+    /**
+     * FragmentActivity declares `onRetainNonConfigurationInstance()` final, leaving nothing to carry state through.
+     */
+    private boolean isRetainable(NonConfigurationInstance nonConfigurationInstance, ComponentDescriptor descriptor) {
+        if (nonConfigurationInstance.retainable == null) {
+            ASTMethod componentMethod = astElementFactory.findMethod(descriptor.getType(), ON_RETAIN_NON_CONFIGURATION_INSTANCE);
+            nonConfigurationInstance.retainable = componentMethod == null || !componentMethod.isFinal();
+            if (!nonConfigurationInstance.retainable) {
+                validator.error("@NonConfigurationInstance fields and the @Retained scope require overriding " +
+                        ON_RETAIN_NON_CONFIGURATION_INSTANCE + "(), which is final in " + descriptor.getType().getName())
+                        .element(descriptor.getTarget()).build();
+            }
+        }
+        return nonConfigurationInstance.retainable;
+    }
+
+    private void defineHolder(ComponentBuilder builder, NonConfigurationInstance nonConfigurationInstance) {
+        if (nonConfigurationInstance.definedClass == null) {
+            try {
+                nonConfigurationInstance.definedClass = builder.getDefinedClass()._class(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, classNamer.numberedNestedClassName(new PackageClass(null, "NonConfigurationInstance")).build().getClassName());
+                nonConfigurationInstance.constructor = nonConfigurationInstance.definedClass.constructor(JMod.PRIVATE);
+            } catch (JClassAlreadyExistsException e) {
+                throw new TransfuseAnalysisException("Class already defined", e);
+            }
+        }
+    }
+
+    private boolean isRetainedScopeUsed(ComponentBuilder builder) {
+        ScopeAspectFactory retainedScopeAspectFactory = builder.getAnalysisContext().getInjectionNodeBuilders()
+                .getScopeAspectFactory(astElementFactory.getType(Retained.class));
+
+        return retainedScopeAspectFactory instanceof RetainedScopeAspectFactory &&
+                ((RetainedScopeAspectFactory) retainedScopeAspectFactory).isUsed();
+    }
+
+    private void configureRetainedScope(NonConfigurationInstance nonConfigurationInstance) {
+        JClass retainedScopeType = generationUtil.ref(RetainedScope.class);
+        JVar param = nonConfigurationInstance.constructor.param(retainedScopeType, variableNamer.generateName(RetainedScope.class));
+        JFieldVar field = nonConfigurationInstance.definedClass.field(JMod.PRIVATE, retainedScopeType, variableNamer.generateName(RetainedScope.class));
+        nonConfigurationInstance.constructor.body().assign(field, param);
+        nonConfigurationInstance.holderRetainedScopeField = field;
+    }
+
+    /**
+     * Takes over the scope retained by the previous Activity instance, or creates a new one, and registers it with the
+     * Scopes used for injection.  The scope is released when the Activity finishes.
+     */
+    private void installRetainedScope(ComponentBuilder builder, JBlock block, NonConfigurationInstance nonConfigurationInstance) {
+        JClass retainedScopeType = generationUtil.ref(RetainedScope.class);
+        final JFieldVar retainedScopeField = builder.getDefinedClass().field(JMod.PRIVATE, retainedScopeType, variableNamer.generateName(RetainedScope.class));
+        JDefinedClass holder = nonConfigurationInstance.definedClass;
+
+        JVar lastInstanceVar = block.decl(holder, variableNamer.generateName(holder), JExpr.cast(holder, JExpr.invoke(GET_LAST_NON_CONFIGURATION_INSTANCE)));
+        block.assign(retainedScopeField, JOp.cond(lastInstanceVar.eq(JExpr._null()),
+                JExpr._new(retainedScopeType),
+                lastInstanceVar.ref(nonConfigurationInstance.holderRetainedScopeField)));
+        block.assign(builder.getScopes(), builder.getScopes().invoke(Scopes.ADD_SCOPE)
+                .arg(generationUtil.ref(Retained.class).dotclass())
+                .arg(retainedScopeField));
+
+        ASTMethod onDestroyMethod = astElementFactory.findMethod(AndroidLiterals.ACTIVITY, "onDestroy");
+        builder.add(onDestroyMethod, GenerationPhase.EVENT, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                // final onDestroy(), not a configuration change
+                block._if(JExpr.invoke("isFinishing"))._then().invoke(retainedScopeField, RetainedScope.RELEASE_METHOD);
+            }
+        });
+
+        nonConfigurationInstance.retainedScopeField = retainedScopeField;
+    }
+
+    private Map<FieldInjectionPoint, JFieldVar> configureConstructor(NonConfigurationInstance nonConfigurationInstance, List<InjectionNode> nonConfigurationComponents) {
+        JMethod constructor = nonConfigurationInstance.constructor;
         Map<FieldInjectionPoint, JFieldVar> fieldMap = new HashMap<FieldInjectionPoint, JFieldVar>();
         for (InjectionNode injectionNode : nonConfigurationComponents) {
             NonConfigurationAspect aspect = injectionNode.getAspect(NonConfigurationAspect.class);
@@ -154,7 +264,7 @@ public class NonConfigurationInstanceGenerator implements Generation {
                 //add all fields to constructor in order
                 JClass fieldNodeType = generationUtil.ref(fieldInjectionPoint.getInjectionNode().getASTType());
                 JVar param = constructor.param(fieldNodeType, variableNamer.generateName(fieldInjectionPoint.getInjectionNode()));
-                JFieldVar field = nonConfigurationInstance.field(JMod.PRIVATE, fieldNodeType, variableNamer.generateName(injectionNode));
+                JFieldVar field = nonConfigurationInstance.definedClass.field(JMod.PRIVATE, fieldNodeType, variableNamer.generateName(injectionNode));
                 constructor.body().assign(field, param);
                 fieldMap.put(fieldInjectionPoint, field);
             }
@@ -42,7 +42,7 @@ import java.util.List;
  *
  * @author John Ericksen
  */
-public class Service extends Mergeable implements Identified {
+public class Service extends Mergeable implements Comparable<Service>, Identified {
 
     private Boolean enabled;
     private Boolean exported;
@@ -144,6 +144,11 @@ public class Service extends Mergeable implements Identified {
         this.metaData = metaData;
     }
 
+    @Override
+    public int compareTo(Service service) {
+        return getName().compareTo(service.getName());
+    }
+
     @Override
     @XmlTransient
     public String getIdentifier() {
@@ -21,4 +21,13 @@ package org.androidtransfuse.model.r;
 public interface RResource {
 
     ResourceIdentifier getResourceIdentifier(Integer id);
+
+    /**
+     * Reverse lookup of a resource id.
+     *
+     * @param type R inner type simple name, such as `layout` or `id`
+     * @param name R field name
+     * @return id or null if not found
+     */
+    Integer getResourceId(String type, String name);
 }
@@ -46,4 +46,16 @@ public class RResourceComposite implements RResource {
         }
         return null;
     }
+
+    @Override
+    public Integer getResourceId(String type, String name) {
+
+        for (RResource resource : resources) {
+            Integer id = resource.getResourceId(type, name);
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
 }
@@ -21,17 +21,147 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
+ * Index of R class constants, by id and by R inner type and field name.
+ *
+ * Both directions are open addressing tables over primitive arrays, avoiding a boxed key and a map entry for each of
+ * the potentially tens of thousands of resources an application and its libraries define.  Adding an id or a type and
+ * name already present replaces the previous entry.
+ *
  * @author John Ericksen
  */
 public class RResourceMapping implements RResource {
 
-    private final Map<Integer, ResourceIdentifier> resourceMap = new HashMap<Integer, ResourceIdentifier>();
+    private static final int INITIAL_CAPACITY = 256;
+    // golden ratio multiplier, the high bits are folded in so ids differing only by their type byte spread as well
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    // R inner type simple names, shared by every resource of that type
+    private final Map<ASTType, String> typeNames = new HashMap<ASTType, String>();
+
+    // id to identifier, an empty slot holds a null identifier
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private ResourceIdentifier[] identifiers = new ResourceIdentifier[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // type and name to id, an empty slot holds a null name
+    private String[] reverseTypes = new String[INITIAL_CAPACITY];
+    private String[] reverseNames = new String[INITIAL_CAPACITY];
+    private int[] reverseIds = new int[INITIAL_CAPACITY];
+    private int reverseSize = 0;
 
     public void addResource(ASTType rInnerType, String name, Integer id) {
-        resourceMap.put(id, new ResourceIdentifier(rInnerType, name));
+        if (id == null) {
+            // non constant fields, such as styleable arrays
+            return;
+        }
+        ResourceIdentifier identifier = new ResourceIdentifier(rInnerType, name);
+
+        if (2 * (size + 1) > ids.length) {
+            resize(ids.length * 2);
+        }
+        int slot = findSlot(ids, identifiers, id);
+        if (identifiers[slot] == null) {
+            size++;
+        }
+        ids[slot] = id;
+        identifiers[slot] = identifier;
+
+        String typeName = getTypeName(rInnerType);
+        if (2 * (reverseSize + 1) > reverseNames.length) {
+            resizeReverse(reverseNames.length * 2);
+        }
+        int reverseSlot = findReverseSlot(reverseTypes, reverseNames, typeName, name);
+        if (reverseNames[reverseSlot] == null) {
+            reverseSize++;
+        }
+        reverseTypes[reverseSlot] = typeName;
+        reverseNames[reverseSlot] = name;
+        reverseIds[reverseSlot] = id;
     }
 
     public ResourceIdentifier getResourceIdentifier(Integer id) {
-        return resourceMap.get(id);
+        if (id == null) {
+            return null;
+        }
+        return identifiers[findSlot(ids, identifiers, id)];
+    }
+
+    public Integer getResourceId(String type, String name) {
+        int slot = findReverseSlot(reverseTypes, reverseNames, type, name);
+        if (reverseNames[slot] == null) {
+            return null;
+        }
+        return reverseIds[slot];
+    }
+
+    /**
+     * @return number of distinct ids indexed
+     */
+    public int size() {
+        return size;
+    }
+
+    private String getTypeName(ASTType rInnerType) {
+        String typeName = typeNames.get(rInnerType);
+        if (typeName == null) {
+            String qualifiedName = rInnerType.getName();
+            typeName = qualifiedName.substring(Math.max(qualifiedName.lastIndexOf('.'), qualifiedName.lastIndexOf('$')) + 1);
+            typeNames.put(rInnerType, typeName);
+        }
+        return typeName;
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash * HASH_MULTIPLIER;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private static int findSlot(int[] ids, ResourceIdentifier[] identifiers, int id) {
+        int mask = ids.length - 1;
+        int slot = mix(id) & mask;
+        while (identifiers[slot] != null && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int findReverseSlot(String[] types, String[] names, String type, String name) {
+        int mask = names.length - 1;
+        int slot = mix(31 * type.hashCode() + name.hashCode()) & mask;
+        while (names[slot] != null && !(names[slot].equals(name) && types[slot].equals(type))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] resizedIds = new int[capacity];
+        ResourceIdentifier[] resizedIdentifiers = new ResourceIdentifier[capacity];
+        for (int i = 0; i < ids.length; i++) {
+            if (identifiers[i] != null) {
+                int slot = findSlot(resizedIds, resizedIdentifiers, ids[i]);
+                resizedIds[slot] = ids[i];
+                resizedIdentifiers[slot] = identifiers[i];
+            }
+        }
+        ids = resizedIds;
+        identifiers = resizedIdentifiers;
+    }
+
+    private void resizeReverse(int capacity) {
+        String[] resizedTypes = new String[capacity];
+        String[] resizedNames = new String[capacity];
+        int[] resizedIds = new int[capacity];
+        for (int i = 0; i < reverseNames.length; i++) {
+            if (reverseNames[i] != null) {
+                int slot = findReverseSlot(resizedTypes, resizedNames, reverseTypes[i], reverseNames[i]);
+                resizedTypes[slot] = reverseTypes[i];
+                resizedNames[slot] = reverseNames[i];
+                resizedIds[slot] = reverseIds[i];
+            }
+        }
+        reverseTypes = resizedTypes;
+        reverseNames = resizedNames;
+        reverseIds = resizedIds;
     }
 }
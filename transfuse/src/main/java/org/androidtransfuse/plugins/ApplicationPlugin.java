@@ -29,7 +29,7 @@ public class ApplicationPlugin implements TransfusePlugin{
     @Override
     public void run(ConfigurationRepository repository) {
         repository.component(Application.class).method("onCreate").event(OnCreate.class).superCall().registration();
-        repository.component(Application.class).method("onLowMemory").event(OnLowMemory.class);
+        repository.component(Application.class).method("onLowMemory").event(OnLowMemory.class).superCall();
         repository.component(Application.class).method("onTerminate").event(OnTerminate.class);
         repository.component(Application.class).method("onConfigurationChanged", AndroidLiterals.CONTENT_CONFIGURATION).event(OnConfigurationChanged.class);
     }
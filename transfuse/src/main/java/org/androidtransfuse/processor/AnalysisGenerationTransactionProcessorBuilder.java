@@ -45,9 +45,10 @@ public class AnalysisGenerationTransactionProcessorBuilder implements Transactio
             Provider<JCodeModel> codeModelProvider,
             Provider<FilerSourceCodeWriter> sourceCodeWriterProvider,
             Provider<FilerResourceWriter> resourceCodeWriterProvider,
-            ScopedTransactionFactory scopedTransactionFactory) {
+            ScopedTransactionFactory scopedTransactionFactory,
+            TransactionProcessorPoolFactory transactionProcessorPoolFactory) {
         this.scopedTransactionFactory = scopedTransactionFactory;
-        transactionProcessor = new TransactionProcessorPool<Provider<ASTType>, JDefinedClass>();
+        transactionProcessor = transactionProcessorPoolFactory.buildPool();
         this.workerProvider = new CodeGenerationWrapperProvider<Provider<ASTType>, JDefinedClass>(workerProvider, codeModelProvider, sourceCodeWriterProvider, resourceCodeWriterProvider);
     }
 
@@ -93,6 +93,8 @@ public class GenerateModuleProcessor extends AbstractCompletionTransactionWorker
 
             for (Application application : mergedManifest.getApplications()) {
                 Collections.sort(application.getActivities());
+                Collections.sort(application.getReceivers());
+                Collections.sort(application.getServices());
             }
 
             mergedManifest.updatePackages();
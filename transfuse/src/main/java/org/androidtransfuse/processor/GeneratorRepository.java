@@ -17,8 +17,8 @@ package org.androidtransfuse.processor;
 
 import com.google.common.collect.ImmutableMap;
 import org.androidtransfuse.adapter.ASTType;
-import org.androidtransfuse.transaction.TransactionProcessor;
 import org.androidtransfuse.transaction.TransactionProcessorBuilder;
+import org.androidtransfuse.transaction.TransactionProcessorGraph;
 
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
@@ -30,9 +30,9 @@ import java.util.Map;
 public class GeneratorRepository {
 
     private final ImmutableMap<Class<? extends Annotation>, TransactionProcessorBuilder<Provider<ASTType>, ?>> componentBuilders;
-    private final TransactionProcessor processor;
+    private final TransactionProcessorGraph processor;
 
-    public GeneratorRepository(ImmutableMap<Class<? extends Annotation>, TransactionProcessorBuilder<Provider<ASTType>, ?>> componentBuilders, TransactionProcessor processor) {
+    public GeneratorRepository(ImmutableMap<Class<? extends Annotation>, TransactionProcessorBuilder<Provider<ASTType>, ?>> componentBuilders, TransactionProcessorGraph processor) {
         this.componentBuilders = componentBuilders;
         this.processor = processor;
     }
@@ -45,7 +45,7 @@ public class GeneratorRepository {
         return componentBuilders;
     }
 
-    public TransactionProcessor getProcessor() {
+    public TransactionProcessorGraph getProcessor() {
         return processor;
     }
 }
@@ -35,21 +35,27 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Configures the Processor chain
+ * Configures the Processor graph.  Each stage runs as soon as the stages it depends on have completed.  Stages also
+ * depend directly on the stages upstream of them, so Components waits on Modules, ImplementedBy and Factories, and
+ * the utilities wait on both Components and Factories:
  *
  *[ditaa]
  * --
- *     +---------+             +--------------+    +----------+          +-----------------+
- * -+->| Modules +-------+--+->| Component(s) +-+->| Manifest |---+-+-+->| Package Helpers |
- *  |  +---------+       |  |  +--------------+ |  +----------+   | | |  +-----------------+
- *  |                    |  |                   |                 | | |
- *  |  +---------------+ |  |                   |  +------------+ | | |  +-----------------+
- *  +->| ImplementedBy +-+  |                   +->| Components |-+ | +->| Virtual Proxies |
- *     +---------------+    |                      +------------+   | |  +-----------------+
- *                          |                                       | |
- *                          |  +-------------+     +-----------+    | |  +-------------+
- *                          +->| Factory(s)  +---->| Factories +----+ +->| Scopes Util |
- *                             +-------------+     +-----------+         +-------------+
+ *  +---------+   +----------+   +-----------+   +--------------+   +------------+    +----------+
+ *  | Modules +-->| Implem.. +-->| Factories +-->| Component(s) +-->| Components +-+->| Manifest |
+ *  +---------+   |    By    |   +-----+-----+   +--------------+   +------------+ |  +----------+
+ *                +----------+         |                                           |
+ *                                     |                                           |  +-----------------+
+ *                                     +-------------------------------------------+->| Package Helpers |
+ *                                                                                 |  +-----------------+
+ *                                                                                 |
+ *                                                                                 |  +-----------------+
+ *                                                                                 +->| Virtual Proxies |
+ *                                                                                 |  +-----------------+
+ *                                                                                 |
+ *                                                                                 |  +-------------+
+ *                                                                                 +->| Scopes Util |
+ *                                                                                    +-------------+
  * --
  * @author John Ericksen
  */
@@ -72,6 +78,7 @@ public class GeneratorRepositoryProvider implements Provider<GeneratorRepository
     private final Provider<VirtualProxyTransactionWorker> virtualProxyTransactionWorkerProvider;
     private final Provider<ScopesGeneratorWorker> scopesGeneratorWorkerProvider;
     private final ScopedTransactionBuilder scopedTransactionBuilder;
+    private final TransactionProcessorPoolFactory transactionProcessorPoolFactory;
 
     @Inject
     public GeneratorRepositoryProvider(FactoryProcessor factoryProcessor,
@@ -90,7 +97,8 @@ public class GeneratorRepositoryProvider implements Provider<GeneratorRepository
                                        Provider<ComponentsGenerator> componentsGeneratorProvider,
                                        Provider<VirtualProxyTransactionWorker> virtualProxyTransactionWorkerProvider,
                                        Provider<ScopesGeneratorWorker> scopesGeneratorWorkerProvider,
-                                       ScopedTransactionBuilder scopedTransactionBuilder) {
+                                       ScopedTransactionBuilder scopedTransactionBuilder,
+                                       TransactionProcessorPoolFactory transactionProcessorPoolFactory) {
         this.factoryProcessor = factoryProcessor;
         this.analysisGenerationFactory = analysisGenerationFactory;
         this.activityAnalysisProvider = activityAnalysisProvider;
@@ -108,6 +116,7 @@ public class GeneratorRepositoryProvider implements Provider<GeneratorRepository
         this.virtualProxyTransactionWorkerProvider = virtualProxyTransactionWorkerProvider;
         this.scopesGeneratorWorkerProvider = scopesGeneratorWorkerProvider;
         this.scopedTransactionBuilder = scopedTransactionBuilder;
+        this.transactionProcessorPoolFactory = transactionProcessorPoolFactory;
     }
 
     @Override
@@ -120,10 +129,6 @@ public class GeneratorRepositoryProvider implements Provider<GeneratorRepository
         processorMapBuilder.put(TransfuseModule.class, moduleProcessorBuilder);
         processorMapBuilder.put(ImplementedBy.class, implementedByProcessorBuilder);
 
-        TransactionProcessor<Provider<ASTType>, Void> configurationProcessors = new TransactionProcessorComposite<Provider<ASTType>, Void>(
-                ImmutableSet.of(moduleProcessorBuilder.getTransactionProcessor(),
-                        implementedByProcessorBuilder.getTransactionProcessor()));
-
         // Component processing
         Map<Class<? extends Annotation>, Provider<? extends Analysis<ComponentDescriptor>>> analyzers =
                 new HashMap<Class<? extends Annotation>, Provider<? extends Analysis<ComponentDescriptor>>>();
@@ -144,35 +149,33 @@ public class GeneratorRepositoryProvider implements Provider<GeneratorRepository
 
         TransactionProcessor<Provider<ASTType>, JDefinedClass> componentsProcessor = new TransactionProcessorComposite<Provider<ASTType>, JDefinedClass>(componentProcessors.build());
 
-        // Manifest processing (depends on components)
-        TransactionProcessor<Void, Void> manifestProcessor = new TransactionProcessorPredefined(ImmutableSet.of(new Transaction<Void, Void>(generateModuleProcessor)));
-        TransactionProcessor<Void, Void> componentProcessorCompletion = new TransactionProcessorChain(
+        processorMapBuilder.put(Factory.class, factoryProcessor);
 
+        TransactionProcessorGraph processor = transactionProcessorPoolFactory.buildGraph();
+
+        // Module and ImplementedBy configuration, which all generation depends on
+        TransactionProcessorGraph.Stage modules = processor.add("Modules", moduleProcessorBuilder.getTransactionProcessor());
+        TransactionProcessorGraph.Stage implementedBy = processor.add("ImplementedBy", implementedByProcessorBuilder.getTransactionProcessor(), modules);
+
+        // Factories register their module bindings, which component analysis reads, so Components follow Factories
+        TransactionProcessorGraph.Stage factories = processor.add("Factories", factoryProcessor.getTransactionProcessor(), modules, implementedBy);
+        TransactionProcessorGraph.Stage components = processor.add("Components",
                 new TransactionProcessorChannel<Provider<ASTType>, JDefinedClass, JDefinedClass>(
                         componentsProcessor,
                         componentsRepositoryProcessor,
                         scopedTransactionBuilder.buildFactory(componentsGeneratorProvider)),
-                manifestProcessor);
-
-        ImmutableSet.Builder<TransactionProcessor<?, ?>> configurationDependentBuilders = ImmutableSet.builder();
+                modules, implementedBy, factories);
 
-        configurationDependentBuilders.add(componentProcessorCompletion);
-
-        processorMapBuilder.put(Factory.class, factoryProcessor);
-
-        // Package Helper processing (to be run last)
-        TransactionProcessor<Void, Void> packageHelperProcessor = new TransactionProcessorPredefined(
-                ImmutableSet.of(
-                        scopedTransactionBuilder.build(packageHelperTransactionWorkerProvider),
-                        scopedTransactionBuilder.build(virtualProxyTransactionWorkerProvider),
-                        scopedTransactionBuilder.build(scopesGeneratorWorkerProvider)));
-
-        TransactionProcessor<?, ?> configurationDependentProcessors =
-                new TransactionProcessorComposite(configurationDependentBuilders.build());
-
-        TransactionProcessor<Void, Void> processor = new TransactionProcessorChain(configurationProcessors,
-                new TransactionProcessorChain(factoryProcessor.getTransactionProcessor(),
-                new TransactionProcessorChain(configurationDependentProcessors, packageHelperProcessor)));
+        // Manifest processing (depends on components)
+        processor.add("Manifest", new TransactionProcessorPredefined(ImmutableSet.of(new Transaction<Void, Void>(generateModuleProcessor))), components);
+
+        // Utilities aggregating registrations made while generating components and factories
+        processor.add("Package Helpers", new TransactionProcessorPredefined(ImmutableSet.of(
+                scopedTransactionBuilder.build(packageHelperTransactionWorkerProvider))), components, factories);
+        processor.add("Virtual Proxies", new TransactionProcessorPredefined(ImmutableSet.of(
+                scopedTransactionBuilder.build(virtualProxyTransactionWorkerProvider))), components, factories);
+        processor.add("Scopes Util", new TransactionProcessorPredefined(ImmutableSet.of(
+                scopedTransactionBuilder.build(scopesGeneratorWorkerProvider))), components, factories);
 
         return new GeneratorRepository(processorMapBuilder.build(), processor);
     }
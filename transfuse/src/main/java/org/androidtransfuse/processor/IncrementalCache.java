@@ -0,0 +1,319 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.processor;
+
+import org.androidtransfuse.TransfuseAnalysisException;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.config.RecordingFiler;
+import org.androidtransfuse.util.Logger;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.*;
+
+/**
+ * Incremental processing support, enabled by pointing the `transfuseIncrementalIndex` annotation processor option at
+ * a file in the build directory.
+ *
+ * After a successful build the index records a StructuralFingerprint of every annotated root type (Activities,
+ * Modules, Factories, etc), keyed by processing round, a hash of the processing environment (manifest, R class,
+ * processor options and processor jar) and the files Transfuse generated.  On the next build, if every root of a
+ * round has an unchanged fingerprint, the environment is unchanged and the generated files still exist, the round is
+ * skipped and the previous output is reused.  Edits that do not change declarations, such as method bodies, therefore
+ * skip annotation processing entirely.
+ *
+ * Transfuse aggregates components into the manifest, the Components registry, package helpers and other utility
+ * classes, so any change regenerates everything rather than only the changed components.  If a change is only
+ * detected in a later round, the roots skipped in earlier rounds are resubmitted.  The build must keep the previously
+ * generated sources (or their compiled classes) between builds.
+ *
+ * @author John Ericksen
+ */
+@Singleton
+public class IncrementalCache {
+
+    public static final String INCREMENTAL_INDEX_OPTION = "transfuseIncrementalIndex";
+
+    private static final String INDEX_VERSION = "1";
+    private static final String VERSION_KEY = "version";
+    private static final String ENVIRONMENT_KEY = "environment";
+    private static final String R_KEY = "r";
+    private static final String ROOT_PREFIX = "root.";
+    private static final String OUTPUT_PREFIX = "output.";
+
+    private final File indexFile;
+    private final RecordingFiler recordingFiler;
+    private final Provider<StructuralFingerprint> fingerprintProvider;
+    private final ASTElementFactory astElementFactory;
+    private final Elements elements;
+    private final ProcessingEnvironment processingEnvironment;
+    private final Logger logger;
+
+    private final Map<String, String> rootFingerprints = new HashMap<String, String>();
+    private final Map<Class<? extends Annotation>, List<Provider<ASTType>>> skippedRoots =
+            new LinkedHashMap<Class<? extends Annotation>, List<Provider<ASTType>>>();
+    private Properties previousIndex;
+    private Boolean skipping = null;
+    private int round = 0;
+
+    @Inject
+    public IncrementalCache(@Named(INCREMENTAL_INDEX_OPTION) String indexPath,
+                            RecordingFiler recordingFiler,
+                            Provider<StructuralFingerprint> fingerprintProvider,
+                            ASTElementFactory astElementFactory,
+                            Elements elements,
+                            ProcessingEnvironment processingEnvironment,
+                            Logger logger) {
+        this.indexFile = indexPath == null ? null : new File(indexPath);
+        this.recordingFiler = recordingFiler;
+        this.fingerprintProvider = fingerprintProvider;
+        this.astElementFactory = astElementFactory;
+        this.elements = elements;
+        this.processingEnvironment = processingEnvironment;
+        this.logger = logger;
+    }
+
+    public boolean isEnabled() {
+        return indexFile != null;
+    }
+
+    /**
+     * Fingerprints the roots of the current round and determines if the round may be skipped, reusing the output of the
+     * previous build.
+     *
+     * @param manifestFile AndroidManifest.xml
+     * @param roots annotated root types of this round, by annotation
+     * @param processingOver true if this is the final round
+     * @return true if the round is unchanged and should not be processed
+     */
+    public boolean skipRound(File manifestFile, Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> roots, boolean processingOver) {
+        if (!isEnabled()) {
+            return false;
+        }
+        round++;
+
+        StructuralFingerprint fingerprint = fingerprintProvider.get();
+        Map<String, String> roundFingerprints = new HashMap<String, String>();
+        for (Map.Entry<Class<? extends Annotation>, Collection<Provider<ASTType>>> rootEntry : roots.entrySet()) {
+            for (Provider<ASTType> root : rootEntry.getValue()) {
+                ASTType rootType = root.get();
+                roundFingerprints.put(ROOT_PREFIX + round + "." + rootEntry.getKey().getSimpleName() + "." + rootType.getName(),
+                        fingerprint.fingerprint(rootType));
+            }
+        }
+        rootFingerprints.putAll(roundFingerprints);
+
+        if (skipping == null) {
+            previousIndex = readIndex();
+            skipping = previousIndex != null &&
+                    roundUnchanged(roundFingerprints) &&
+                    environmentHash(manifestFile, previousIndex.getProperty(R_KEY)).equals(previousIndex.getProperty(ENVIRONMENT_KEY)) &&
+                    outputsExist();
+            if (skipping) {
+                logger.info("No structural changes found, reusing previously generated code");
+            } else if (indexFile.exists() && !indexFile.delete()) {
+                throw new TransfuseAnalysisException("Unable to delete incremental index " + indexFile);
+            }
+        } else if (skipping && !roundUnchanged(roundFingerprints)) {
+            logger.info("Structural changes found in round " + round + ", regenerating");
+            skipping = false;
+        }
+
+        if (skipping && processingOver && !allRootsSeen()) {
+            skipping = false;
+        }
+
+        if (skipping) {
+            for (Map.Entry<Class<? extends Annotation>, Collection<Provider<ASTType>>> rootEntry : roots.entrySet()) {
+                if (!skippedRoots.containsKey(rootEntry.getKey())) {
+                    skippedRoots.put(rootEntry.getKey(), new ArrayList<Provider<ASTType>>());
+                }
+                skippedRoots.get(rootEntry.getKey()).addAll(rootEntry.getValue());
+            }
+        }
+
+        return skipping;
+    }
+
+    /**
+     * Returns the roots of skipped rounds which must be processed after a change is found in a later round.
+     *
+     * @return skipped roots, by annotation
+     */
+    public Map<Class<? extends Annotation>, List<Provider<ASTType>>> takeSkippedRoots() {
+        Map<Class<? extends Annotation>, List<Provider<ASTType>>> roots =
+                new LinkedHashMap<Class<? extends Annotation>, List<Provider<ASTType>>>(skippedRoots);
+        skippedRoots.clear();
+        return roots;
+    }
+
+    /**
+     * Writes the index of a successful build.
+     *
+     * @param manifestFile AndroidManifest.xml, as written by this build
+     * @param rClassName application R class name
+     */
+    public void write(File manifestFile, String rClassName) {
+        if (!isEnabled() || Boolean.TRUE.equals(skipping)) {
+            return;
+        }
+        Properties index = new Properties();
+        index.setProperty(VERSION_KEY, INDEX_VERSION);
+        index.setProperty(R_KEY, rClassName);
+        index.setProperty(ENVIRONMENT_KEY, environmentHash(manifestFile, rClassName));
+        for (Map.Entry<String, String> rootEntry : rootFingerprints.entrySet()) {
+            index.setProperty(rootEntry.getKey(), rootEntry.getValue());
+        }
+        int output = 0;
+        for (URI created : recordingFiler.getCreated()) {
+            if (exists(created)) {
+                index.setProperty(OUTPUT_PREFIX + output++, created.toString());
+            }
+        }
+
+        File parent = indexFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new TransfuseAnalysisException("Unable to create directory for incremental index " + indexFile);
+        }
+        try {
+            OutputStream outputStream = new FileOutputStream(indexFile);
+            try {
+                index.store(outputStream, "Transfuse incremental index");
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new TransfuseAnalysisException("Unable to write incremental index " + indexFile, e);
+        }
+    }
+
+    private Properties readIndex() {
+        if (!indexFile.exists()) {
+            return null;
+        }
+        Properties index = new Properties();
+        try {
+            InputStream inputStream = new FileInputStream(indexFile);
+            try {
+                index.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            logger.warning("Unable to read incremental index " + indexFile + ": " + e.getMessage());
+            return null;
+        }
+        if (!INDEX_VERSION.equals(index.getProperty(VERSION_KEY))) {
+            return null;
+        }
+        return index;
+    }
+
+    private boolean roundUnchanged(Map<String, String> roundFingerprints) {
+        String roundPrefix = ROOT_PREFIX + round + ".";
+        Map<String, String> previousRound = new HashMap<String, String>();
+        for (String key : previousIndex.stringPropertyNames()) {
+            if (key.startsWith(roundPrefix)) {
+                previousRound.put(key, previousIndex.getProperty(key));
+            }
+        }
+        return previousRound.equals(roundFingerprints);
+    }
+
+    private boolean allRootsSeen() {
+        for (String key : previousIndex.stringPropertyNames()) {
+            if (key.startsWith(ROOT_PREFIX) && !rootFingerprints.containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean outputsExist() {
+        for (String key : previousIndex.stringPropertyNames()) {
+            if (key.startsWith(OUTPUT_PREFIX)) {
+                try {
+                    if (!exists(new URI(previousIndex.getProperty(key)))) {
+                        return false;
+                    }
+                } catch (URISyntaxException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean exists(URI uri) {
+        return "file".equals(uri.getScheme()) && new File(uri).exists();
+    }
+
+    private String environmentHash(File manifestFile, String rClassName) {
+        List<String> environment = new ArrayList<String>();
+
+        environment.add(new TreeMap<String, String>(processingEnvironment.getOptions()).toString());
+
+        CodeSource codeSource = IncrementalCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null && "file".equals(codeSource.getLocation().getProtocol())) {
+            File processorLocation = new File(codeSource.getLocation().getPath());
+            environment.add(processorLocation + ":" + processorLocation.lastModified() + ":" + processorLocation.length());
+        }
+
+        environment.add(readManifest(manifestFile));
+
+        TypeElement rTypeElement = rClassName == null ? null : elements.getTypeElement(rClassName);
+        if (rTypeElement != null) {
+            List<ASTType> rTypes = new ArrayList<ASTType>();
+            for (TypeElement rInnerType : ElementFilter.typesIn(rTypeElement.getEnclosedElements())) {
+                rTypes.add(astElementFactory.getType(rInnerType));
+            }
+            environment.add(fingerprintProvider.get().fingerprint(rTypes));
+        }
+
+        return StructuralFingerprint.hash(environment);
+    }
+
+    private String readManifest(File manifestFile) {
+        try {
+            InputStream inputStream = new FileInputStream(manifestFile);
+            try {
+                ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    manifestBytes.write(buffer, 0, read);
+                }
+                return manifestBytes.toString("UTF-8");
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new TransfuseAnalysisException("Unable to read manifest " + manifestFile, e);
+        }
+    }
+}
@@ -56,11 +56,11 @@ public class ManifestManager {
         this.manifestPackage = originalManifest.getApplicationPackage();
     }
 
-    public void addApplication(Application application) {
+    public synchronized void addApplication(Application application) {
         this.applications.add(application);
     }
 
-    public void addPermission(Permission permission){
+    public synchronized void addPermission(Permission permission){
         try {
             updateMergeTags(Permission.class, permission);
             permissions.add(permission);
@@ -69,7 +69,7 @@ public class ManifestManager {
         }
     }
     
-    public void addUsesFeature(UsesFeature usesFeature){
+    public synchronized void addUsesFeature(UsesFeature usesFeature){
         try {
             updateMergeTags(UsesFeature.class, usesFeature);
             usesFeatures.add(usesFeature);
@@ -78,7 +78,7 @@ public class ManifestManager {
         }
     }
 
-    public void addUsesPermission(UsesPermission usesPermission) {
+    public synchronized void addUsesPermission(UsesPermission usesPermission) {
         try {
             updateMergeTags(UsesPermission.class, usesPermission);
             usesPermissions.add(usesPermission);
@@ -87,11 +87,11 @@ public class ManifestManager {
         }
     }
 
-    public void setUsesSdk(UsesSDK usesSdk) {
+    public synchronized void setUsesSdk(UsesSDK usesSdk) {
         this.usesSdk = usesSdk;
     }
 
-    public void addActivity(Activity activity) {
+    public synchronized void addActivity(Activity activity) {
         try {
             updateMergeTags(Activity.class, activity);
             updateMergeTags(IntentFilter.class, activity.getIntentFilters());
@@ -102,7 +102,7 @@ public class ManifestManager {
         }
     }
 
-    public void addBroadcastReceiver(Receiver broadcastReceiver) {
+    public synchronized void addBroadcastReceiver(Receiver broadcastReceiver) {
         try {
             updateMergeTags(Receiver.class, broadcastReceiver);
             updateMergeTags(IntentFilter.class, broadcastReceiver.getIntentFilters());
@@ -119,7 +119,7 @@ public class ManifestManager {
         }
     }
 
-    public void addService(Service service) {
+    public synchronized void addService(Service service) {
         try {
             updateMergeTags(Service.class, service);
             updateMergeTags(IntentFilter.class, service.getIntentFilters());
@@ -130,7 +130,7 @@ public class ManifestManager {
         }
     }
 
-    public Manifest getManifest() throws MergerException {
+    public synchronized Manifest getManifest() throws MergerException {
         Manifest manifest = new Manifest();
         manifest.setApplicationPackage(manifestPackage);
 
@@ -18,9 +18,8 @@ package org.androidtransfuse.processor;
 import org.androidtransfuse.TransfuseAnalysisException;
 import org.androidtransfuse.model.Identified;
 import org.androidtransfuse.model.Mergeable;
-import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.MethodUtils;
 
-import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
@@ -28,12 +27,48 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Merges `Mergeable` beans property by property, following the `@Merge` and `@MergeCollection` annotations on their
+ * accessors.  The writable properties of each class are resolved once into a merge plan and reused by later merges.
+ *
  * @author John Ericksen
  */
 public class Merger {
 
+    private static final ConcurrentMap<Class<?>, MergeProperty[]> MERGE_PLANS = new ConcurrentHashMap<Class<?>, MergeProperty[]>();
+
+    private static final class MergeProperty {
+        private final Class<?> type;
+        private final Method getter;
+        private final Method setter;
+        private final String tag;
+        private final MergeCollection mergeCollection;
+        private final boolean collection;
+
+        private MergeProperty(Class<?> type, Method getter, Method setter, String tag, MergeCollection mergeCollection) {
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.tag = tag;
+            this.mergeCollection = mergeCollection;
+            this.collection = Collection.class.isAssignableFrom(type);
+            // skips the access check on each invocation
+            getter.setAccessible(true);
+            setter.setAccessible(true);
+        }
+
+        private Object get(Object target) throws IllegalAccessException, InvocationTargetException {
+            return getter.invoke(target);
+        }
+
+        private void set(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+            setter.invoke(target, value);
+        }
+    }
+
     public <T> T merge(Class<? extends T> targetClass, T target, T source) throws MergerException {
 
         if (target == null) {
@@ -52,41 +87,58 @@ public class Merger {
     private <T extends Mergeable> T mergeMergeable(Class<? extends T> targetClass, T target, T source) throws MergerException {
 
         try {
+            for (MergeProperty property : getMergePlan(targetClass)) {
+                if (property.collection) {
+                    property.set(target, mergeList(property, target, source));
+                }
 
-            BeanInfo beanInfo = Introspector.getBeanInfo(targetClass);
+                property.set(target, mergeProperties(property, target, source));
+            }
+        } catch (IllegalAccessException e) {
+            throw new MergerException("IllegalAccessException while trying to merge", e);
+        } catch (InvocationTargetException e) {
+            throw new MergerException("InvocationTargetException while trying to merge", e);
+        }
 
-            PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
+        return target;
+    }
 
-            for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-                Method getter = propertyDescriptor.getReadMethod();
-                Method setter = propertyDescriptor.getWriteMethod();
+    private MergeProperty[] getMergePlan(Class<?> targetClass) throws MergerException {
+        MergeProperty[] plan = MERGE_PLANS.get(targetClass);
+        if (plan == null) {
+            plan = buildMergePlan(targetClass);
+            MERGE_PLANS.putIfAbsent(targetClass, plan);
+        }
+        return plan;
+    }
 
-                String propertyName = propertyDescriptor.getDisplayName();
+    private MergeProperty[] buildMergePlan(Class<?> targetClass) throws MergerException {
+        try {
+            List<MergeProperty> properties = new ArrayList<MergeProperty>();
 
-                if (PropertyUtils.isWriteable(target, propertyName)) {
+            for (PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(targetClass).getPropertyDescriptors()) {
+                Method getter = MethodUtils.getAccessibleMethod(targetClass, propertyDescriptor.getReadMethod());
+                Method setter = MethodUtils.getAccessibleMethod(targetClass, propertyDescriptor.getWriteMethod());
 
-                    //check for mergeCollection
-                    MergeCollection mergeCollection = findAnnotation(MergeCollection.class, getter, setter);
-                    if (Collection.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
-                        PropertyUtils.setProperty(target, propertyName, mergeList(mergeCollection, propertyName, target, source));
+                if (setter != null) {
+                    if (getter == null) {
+                        throw new MergerException("Unable to read property " + propertyDescriptor.getName() + " of " + targetClass.getName());
                     }
-
-                    //check for merge
                     Merge mergeAnnotation = findAnnotation(Merge.class, getter, setter);
-                    PropertyUtils.setProperty(target, propertyName, mergeProperties(mergeAnnotation, propertyName, target, source));
+
+                    properties.add(new MergeProperty(
+                            propertyDescriptor.getPropertyType(),
+                            getter,
+                            setter,
+                            mergeAnnotation == null ? null : mergeAnnotation.value(),
+                            findAnnotation(MergeCollection.class, getter, setter)));
                 }
             }
-        } catch (NoSuchMethodException e) {
-            throw new MergerException("NoSuchMethodException while trying to merge", e);
+
+            return properties.toArray(new MergeProperty[properties.size()]);
         } catch (IntrospectionException e) {
             throw new MergerException("IntrospectionException while trying to merge", e);
-        } catch (IllegalAccessException e) {
-            throw new MergerException("IllegalAccessException while trying to merge", e);
-        } catch (InvocationTargetException e) {
-            throw new MergerException("InvocationTargetException while trying to merge", e);
         }
-
-        return target;
     }
 
     private <T extends Annotation> T findAnnotation(Class<T> annotationClass, Method... methods) {
@@ -101,31 +153,24 @@ public class Merger {
         return annotation;
     }
 
-    private <T extends Mergeable> Object mergeProperties(Merge mergeAnnotation, String propertyName, T target, T source) throws MergerException {
+    private <T extends Mergeable> Object mergeProperties(MergeProperty property, T target, T source) throws MergerException {
 
         try {
+            String tag = property.tag;
 
-            String tag = null;
-            if (mergeAnnotation != null) {
-                tag = mergeAnnotation.value();
-            }
-
-            Object targetProperty = PropertyUtils.getProperty(target, propertyName);
-            Object sourceProperty = PropertyUtils.getProperty(source, propertyName);
-            Class propertyType = PropertyUtils.getPropertyType(target, propertyName);
+            Object targetProperty = property.get(target);
+            Object sourceProperty = property.get(source);
 
             Object merged;
             if (tag != null && target.isGenerated() && target.containsTag(tag)) {
                 merged = sourceProperty;
             } else {
-                merged = merge(propertyType, targetProperty, sourceProperty);
+                merged = merge(property.type, targetProperty, sourceProperty);
             }
 
             updateTag(target, tag, merged == null);
             return merged;
 
-        } catch (NoSuchMethodException e) {
-            throw new MergerException("NoSuchMethodException while trying to merge", e);
         } catch (IllegalAccessException e) {
             throw new MergerException("IllegalAccessException while trying to merge", e);
         } catch (InvocationTargetException e) {
@@ -144,29 +189,28 @@ public class Merger {
         }
     }
 
-    private <T extends Mergeable> List mergeList(MergeCollection mergeCollectionAnnotation, String propertyName, T target, T source) throws MergerException {
+    private <T extends Mergeable> List mergeList(MergeProperty property, T target, T source) throws MergerException {
 
         try {
 
-            List targetCollection = (List) PropertyUtils.getProperty(target, propertyName);
-            List sourceCollection = (List) PropertyUtils.getProperty(source, propertyName);
+            List targetCollection = (List) property.get(target);
+            List sourceCollection = (List) property.get(source);
 
+            MergeCollection mergeCollectionAnnotation = property.mergeCollection;
             if (mergeCollectionAnnotation == null) {
-                return (List) merge(PropertyUtils.getPropertyType(target, propertyName), targetCollection, sourceCollection);
+                return (List) merge(property.type, targetCollection, sourceCollection);
             }
 
             //update collection from source
             Collection<Mergeable> merged = updateFromSource(targetCollection, sourceCollection, mergeCollectionAnnotation.type());
 
-            List targetResult = makeCollection(targetCollection, mergeCollectionAnnotation.collectionType(), target, propertyName);
+            List targetResult = makeCollection(targetCollection, mergeCollectionAnnotation.collectionType(), property.type);
 
             targetResult.clear();
             targetResult.addAll(merged);
 
             return targetResult;
 
-        } catch (NoSuchMethodException e) {
-            throw new MergerException("NoSuchMethodException while trying to merge", e);
         } catch (IllegalAccessException e) {
             throw new MergerException("IllegalAccessException while trying to merge", e);
         } catch (InvocationTargetException e) {
@@ -174,7 +218,7 @@ public class Merger {
         }
     }
 
-    private <T extends Mergeable> List makeCollection(List targetList, Class<? extends List> listType, T target, String propertyName) throws MergerException {
+    private List makeCollection(List targetList, Class<? extends List> listType, Class<?> propertyType) throws MergerException {
 
         try {
             //merger only supports Lists
@@ -184,19 +228,15 @@ public class Merger {
                     return listType.newInstance();
                 } else {
                     //try to instantiate field type
-                    return (List) PropertyUtils.getPropertyType(target, propertyName).newInstance();
+                    return (List) propertyType.newInstance();
                 }
             }
 
             return targetList;
-        } catch (NoSuchMethodException e) {
-            throw new MergerException("NoSuchMethodException while trying to merge", e);
         } catch (IllegalAccessException e) {
             throw new MergerException("IllegalAccessException while trying to merge", e);
         } catch (InstantiationException e) {
             throw new MergerException("InstantiationException while trying to merge", e);
-        } catch (InvocationTargetException e) {
-            throw new MergerException("InvocationTargetException while trying to merge", e);
         }
     }
 
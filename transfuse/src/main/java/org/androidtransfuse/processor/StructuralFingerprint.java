@@ -0,0 +1,281 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.processor;
+
+import org.androidtransfuse.adapter.*;
+import org.androidtransfuse.adapter.element.ASTElementAnnotation;
+import org.androidtransfuse.util.TransfuseRuntimeException;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes a hash of the structure of a type and the types it depends on for code generation: its super types,
+ * interfaces and generic parameters, the types of its annotated members and the classes referenced by annotation
+ * values.  Only declarations are considered, so edits to method bodies do not change the fingerprint.
+ *
+ * Members only annotated by `java.lang` annotations (such as @Deprecated) are not followed, which keeps the closure
+ * of framework types like Activity small.
+ *
+ * @author John Ericksen
+ */
+public class StructuralFingerprint {
+
+    private static final String JAVA_LANG = "java.lang.";
+    private static final String CLASS_TYPE = "java.lang.Class";
+    private static final String ANNOTATION_TYPE = "java.lang.annotation.Annotation";
+
+    private final Map<String, String> descriptors = new HashMap<String, String>();
+
+    /**
+     * Fingerprints the given type and its dependency closure.
+     *
+     * @param root type
+     * @return hex encoded hash
+     */
+    public String fingerprint(ASTType root) {
+        return fingerprint(getClosure(root));
+    }
+
+    /**
+     * Determines the types the given root depends on for code generation, including the root itself.
+     *
+     * @param root type
+     * @return closure of types, ordered by name
+     */
+    public Collection<ASTType> getClosure(ASTType root) {
+        Map<String, ASTType> closure = new TreeMap<String, ASTType>();
+        collect(root, closure);
+        return closure.values();
+    }
+
+    /**
+     * Fingerprints the declarations of the given types only.
+     *
+     * @param types types to hash
+     * @return hex encoded hash
+     */
+    public String fingerprint(Collection<? extends ASTType> types) {
+        List<String> typeDescriptors = new ArrayList<String>();
+        for (ASTType type : types) {
+            typeDescriptors.add(describe(type));
+        }
+        Collections.sort(typeDescriptors);
+        return hash(typeDescriptors);
+    }
+
+    public static String hash(Collection<String> values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (String value : values) {
+                digest.update(value.getBytes("UTF-8"));
+                digest.update((byte) 0);
+            }
+            return String.format("%040x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new TransfuseRuntimeException("Unable to hash structure", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new TransfuseRuntimeException("Unable to hash structure", e);
+        }
+    }
+
+    private void collect(ASTType type, Map<String, ASTType> closure) {
+        if (type == null || type instanceof ASTPrimitiveType || type instanceof ASTVoidType) {
+            return;
+        }
+        if (type instanceof ASTArrayType) {
+            collect(((ASTArrayType) type).getComponentType(), closure);
+            return;
+        }
+        if (closure.containsKey(type.getName())) {
+            return;
+        }
+        closure.put(type.getName(), type);
+
+        collect(type.getSuperClass(), closure);
+        for (ASTType interfaceType : type.getInterfaces()) {
+            collect(interfaceType, closure);
+        }
+        for (ASTType genericParameter : type.getGenericParameters()) {
+            collect(genericParameter, closure);
+        }
+        collectAnnotations(type, closure);
+
+        for (ASTField field : type.getFields()) {
+            if (isFollowed(field)) {
+                collect(field.getASTType(), closure);
+                collectAnnotations(field, closure);
+            }
+        }
+        for (ASTConstructor constructor : type.getConstructors()) {
+            if (isFollowed(constructor, constructor.getParameters())) {
+                collectAnnotations(constructor, closure);
+                collectParameters(constructor.getParameters(), closure);
+            }
+        }
+        for (ASTMethod method : type.getMethods()) {
+            if (isFollowed(method, method.getParameters())) {
+                collect(method.getReturnType(), closure);
+                collectAnnotations(method, closure);
+                collectParameters(method.getParameters(), closure);
+            }
+        }
+    }
+
+    private void collectParameters(List<ASTParameter> parameters, Map<String, ASTType> closure) {
+        for (ASTParameter parameter : parameters) {
+            collect(parameter.getASTType(), closure);
+            collectAnnotations(parameter, closure);
+        }
+    }
+
+    private void collectAnnotations(ASTBase base, Map<String, ASTType> closure) {
+        for (ASTAnnotation annotation : base.getAnnotations()) {
+            collectAnnotation(annotation, closure);
+        }
+    }
+
+    private void collectAnnotation(ASTAnnotation annotation, Map<String, ASTType> closure) {
+        if (annotation == null) {
+            return;
+        }
+        Set<String> propertyNames = annotation.getPropertyNames();
+        for (ASTMethod property : annotation.getASTType().getMethods()) {
+            if (propertyNames.contains(property.getName())) {
+                ASTType propertyType = property.getReturnType();
+                if (propertyType instanceof ASTArrayType) {
+                    ASTType componentType = ((ASTArrayType) propertyType).getComponentType();
+                    if (componentType.getName().equals(CLASS_TYPE)) {
+                        for (ASTType value : annotation.getProperty(property.getName(), ASTType[].class)) {
+                            collect(value, closure);
+                        }
+                    } else if (isAnnotation(componentType)) {
+                        for (ASTAnnotation value : annotation.getProperty(property.getName(), ASTAnnotation[].class)) {
+                            collectAnnotation(value, closure);
+                        }
+                    }
+                } else if (propertyType.getName().equals(CLASS_TYPE)) {
+                    collect(annotation.getProperty(property.getName(), ASTType.class), closure);
+                } else if (isAnnotation(propertyType)) {
+                    collectAnnotation(annotation.getProperty(property.getName(), ASTAnnotation.class), closure);
+                }
+            }
+        }
+    }
+
+    private boolean isAnnotation(ASTType type) {
+        for (ASTType interfaceType : type.getInterfaces()) {
+            if (interfaceType.getName().equals(ANNOTATION_TYPE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFollowed(ASTBase base) {
+        for (ASTAnnotation annotation : base.getAnnotations()) {
+            if (!annotation.getASTType().getName().startsWith(JAVA_LANG)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFollowed(ASTBase base, List<ASTParameter> parameters) {
+        if (isFollowed(base)) {
+            return true;
+        }
+        for (ASTParameter parameter : parameters) {
+            if (isFollowed(parameter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String describe(ASTType type) {
+        if (!descriptors.containsKey(type.getName())) {
+            descriptors.put(type.getName(), buildDescriptor(type));
+        }
+        return descriptors.get(type.getName());
+    }
+
+    private String buildDescriptor(ASTType type) {
+        List<String> members = new ArrayList<String>();
+        for (ASTField field : type.getFields()) {
+            members.add("field " + field.getAccessModifier() + " " + field.getName() + " : " + field.getASTType().getName() + describeAnnotations(field));
+        }
+        for (ASTConstructor constructor : type.getConstructors()) {
+            members.add("constructor " + constructor.getAccessModifier() + describeParameters(constructor.getParameters()) + describeAnnotations(constructor));
+        }
+        for (ASTMethod method : type.getMethods()) {
+            members.add("method " + method.getAccessModifier() + " " + method.getName() + describeParameters(method.getParameters()) +
+                    " : " + method.getReturnType().getName() + describeAnnotations(method));
+        }
+        Collections.sort(members);
+
+        StringBuilder descriptor = new StringBuilder();
+        descriptor.append("type ").append(type.getName())
+                .append(type.isInterface() ? " interface" : "")
+                .append(type.isFinal() ? " final" : "")
+                .append(type.isConcreteClass() ? " concrete" : "");
+        if (type.getSuperClass() != null) {
+            descriptor.append(" extends ").append(type.getSuperClass().getName());
+        }
+        List<String> interfaces = new ArrayList<String>();
+        for (ASTType interfaceType : type.getInterfaces()) {
+            interfaces.add(interfaceType.getName());
+        }
+        Collections.sort(interfaces);
+        descriptor.append(" implements ").append(interfaces);
+        for (ASTType genericParameter : type.getGenericParameters()) {
+            descriptor.append(" <").append(genericParameter.getName()).append('>');
+        }
+        descriptor.append(describeAnnotations(type));
+        for (String member : members) {
+            descriptor.append('\n').append(member);
+        }
+        return descriptor.toString();
+    }
+
+    private String describeParameters(List<ASTParameter> parameters) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (ASTParameter parameter : parameters) {
+            descriptor.append(parameter.getASTType().getName()).append(describeAnnotations(parameter)).append(',');
+        }
+        return descriptor.append(')').toString();
+    }
+
+    private String describeAnnotations(ASTBase base) {
+        List<String> annotations = new ArrayList<String>();
+        for (ASTAnnotation annotation : base.getAnnotations()) {
+            if (annotation instanceof ASTElementAnnotation) {
+                annotations.add(((ASTElementAnnotation) annotation).getAnnotationMirror().toString());
+            } else {
+                annotations.add("@" + annotation.getASTType().getName() + new TreeSet<String>(annotation.getPropertyNames()));
+            }
+        }
+        Collections.sort(annotations);
+        StringBuilder descriptor = new StringBuilder();
+        for (String annotation : annotations) {
+            descriptor.append(' ').append(annotation);
+        }
+        return descriptor.toString();
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.processor;
+
+import org.androidtransfuse.TransfuseAnalysisException;
+import org.androidtransfuse.transaction.TransactionProcessorGraph;
+import org.androidtransfuse.transaction.TransactionProcessorPool;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds TransactionProcessorPools for independent component transactions.  By default the pools run transactions
+ * serially.  If the `transfuseProcessorThreads` annotation processor option is set above 1 the pools share a fixed
+ * size thread pool of that size and run their transactions concurrently, each within its own code generation scope.
+ * Graphs built in that case run independent stages concurrently on a separate, unbounded set of threads, as stages
+ * spend most of their time waiting on their pools.
+ *
+ * @author John Ericksen
+ */
+@Singleton
+public class TransactionProcessorPoolFactory {
+
+    public static final String PROCESSOR_THREADS_OPTION = "transfuseProcessorThreads";
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final Executor executor;
+    private final Executor stageExecutor;
+
+    @Inject
+    public TransactionProcessorPoolFactory(@Named(PROCESSOR_THREADS_OPTION) String processorThreadsOption) {
+        int threads = parseThreads(processorThreadsOption);
+        if (threads > 1) {
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new ProcessorThreadFactory("Transfuse-"));
+            //let idle threads exit between rounds and builds within a long running compiler daemon
+            threadPool.allowCoreThreadTimeOut(true);
+            this.executor = threadPool;
+            this.stageExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(),
+                    new ProcessorThreadFactory("Transfuse-Stage-"));
+        } else {
+            this.executor = null;
+            this.stageExecutor = null;
+        }
+    }
+
+    public <V, R> TransactionProcessorPool<V, R> buildPool() {
+        return new TransactionProcessorPool<V, R>(executor);
+    }
+
+    public TransactionProcessorGraph buildGraph() {
+        return new TransactionProcessorGraph(stageExecutor);
+    }
+
+    private static int parseThreads(String processorThreadsOption) {
+        if (processorThreadsOption == null) {
+            return 1;
+        }
+        try {
+            int threads = Integer.parseInt(processorThreadsOption.trim());
+            if (threads < 1) {
+                throw new TransfuseAnalysisException("Option " + PROCESSOR_THREADS_OPTION + " must be a positive integer: " + processorThreadsOption);
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new TransfuseAnalysisException("Option " + PROCESSOR_THREADS_OPTION + " must be a positive integer: " + processorThreadsOption, e);
+        }
+    }
+
+    private static final class ProcessorThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final String prefix;
+
+        private ProcessorThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -19,8 +19,10 @@ import com.google.common.collect.ImmutableSet;
 import org.androidtransfuse.TransfuseAnalysisException;
 import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.transaction.TransactionProcessorBuilder;
+import org.androidtransfuse.util.Logger;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.lang.annotation.Annotation;
@@ -32,11 +34,19 @@ import java.util.Collection;
 @Singleton
 public class TransfuseProcessor {
 
+    public static final String TIMING_REPORT_OPTION = "transfuseTimingReport";
+
     private final GeneratorRepository generatorRepository;
+    private final Logger logger;
+    private final boolean timingReport;
 
     @Inject
-    public TransfuseProcessor(GeneratorRepository generatorRepository) {
+    public TransfuseProcessor(GeneratorRepository generatorRepository,
+                              Logger logger,
+                              @Named(TIMING_REPORT_OPTION) String timingReportOption) {
         this.generatorRepository = generatorRepository;
+        this.logger = logger;
+        this.timingReport = Boolean.parseBoolean(timingReportOption);
     }
 
     public void submit(Class<? extends Annotation> componentAnnotation, Collection<Provider<ASTType>> astProviders) {
@@ -58,6 +68,15 @@ public class TransfuseProcessor {
         generatorRepository.getProcessor().execute();
     }
 
+    /**
+     * Logs the per-stage timing of the processor graph, if enabled by the `transfuseTimingReport` option.
+     */
+    public void reportTimings() {
+        if (timingReport) {
+            logger.info(generatorRepository.getProcessor().getTimingReport());
+        }
+    }
+
     public void checkForErrors() {
         boolean errored = false;
         ImmutableSet.Builder<Exception> exceptions = ImmutableSet.builder();
@@ -18,40 +18,81 @@ package org.androidtransfuse.util;
 import org.androidtransfuse.model.manifest.Manifest;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Serializes the Manifest to and from xml
  *
+ * Manifests written to or read from a file are cached by path and content hash, so the manifest written by one round
+ * (or one build, within the same processor classloader) is handed to the next read without unmarshalling it again.
+ * Manifests are mutable, so a cached instance is handed out once and the next read of the same content unmarshals it
+ * again unless it was written back in between.  Writing a manifest identical to the file contents leaves the file
+ * untouched, keeping its modification time for downstream build steps.
+ *
  * @author John Ericksen
  */
+@Singleton
 public class ManifestSerializer {
 
+    private static final ConcurrentMap<String, CachedManifest> CACHE = new ConcurrentHashMap<String, CachedManifest>();
+
     private final JAXBContext context;
     private final Logger logger;
+    private final XMLInputFactory inputFactory;
+
+    private static final class CachedManifest {
+        private final byte[] hash;
+        private final Manifest manifest;
+
+        private CachedManifest(byte[] hash, Manifest manifest) {
+            this.hash = hash;
+            this.manifest = manifest;
+        }
+    }
 
     @Inject
     public ManifestSerializer(JAXBContext context, Logger logger) {
         this.context = context;
         this.logger = logger;
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     }
 
     public Manifest readManifest(File manifestFile) {
-        try{
-            return (Manifest) context.createUnmarshaller().unmarshal(manifestFile);
-        } catch (JAXBException e) {
-            throw new TransfuseRuntimeException("JAXBException while unmarshalling manifest", e);
+        byte[] content = readFile(manifestFile);
+        String key = manifestFile.getAbsolutePath();
+
+        CachedManifest cached = CACHE.get(key);
+        if (cached != null && Arrays.equals(cached.hash, hash(content)) && CACHE.remove(key, cached)) {
+            return cached.manifest;
         }
+        return readManifest(new ByteArrayInputStream(content));
     }
 
     public Manifest readManifest(InputStream manifestInputStream) {
         try{
-            return (Manifest) context.createUnmarshaller().unmarshal(manifestInputStream);
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(manifestInputStream);
+            try {
+                return context.createUnmarshaller().unmarshal(reader, Manifest.class).getValue();
+            } finally {
+                reader.close();
+            }
         } catch (JAXBException e) {
             throw new TransfuseRuntimeException("JAXBException while unmarshalling manifest", e);
+        } catch (XMLStreamException e) {
+            throw new TransfuseRuntimeException("XMLStreamException while unmarshalling manifest", e);
         }
     }
 
@@ -63,6 +104,7 @@ public class ManifestSerializer {
 
             marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
             marshaller.marshal(manifest, writer);
+            writer.flush();
         } catch (IOException e) {
             logger.error("IOException while writing manifest", e);
             throw new TransfuseRuntimeException("IOException while writing manifest", e);
@@ -73,11 +115,51 @@ public class ManifestSerializer {
     }
 
     public void writeManifest(Manifest manifest, File manifestFile) {
+        ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+        writeManifest(manifest, manifestBytes);
+        byte[] content = manifestBytes.toByteArray();
+
+        if (!manifestFile.exists() || !Arrays.equals(content, readFile(manifestFile))) {
+            try {
+                OutputStream outputStream = new FileOutputStream(manifestFile);
+                try {
+                    outputStream.write(content);
+                } finally {
+                    outputStream.close();
+                }
+            } catch (IOException e) {
+                logger.error("IOException while writing manifest", e);
+                throw new TransfuseInjectionException("IOException while writing manifest", e);
+            }
+        }
+
+        CACHE.put(manifestFile.getAbsolutePath(), new CachedManifest(hash(content), manifest));
+    }
+
+    private byte[] readFile(File manifestFile) {
         try {
-            writeManifest(manifest, new FileOutputStream(manifestFile));
+            InputStream inputStream = new FileInputStream(manifestFile);
+            try {
+                ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    manifestBytes.write(buffer, 0, read);
+                }
+                return manifestBytes.toByteArray();
+            } finally {
+                inputStream.close();
+            }
         } catch (IOException e) {
-            logger.error("IOException while writing manifest", e);
-            throw new TransfuseInjectionException("IOException while writing manifest", e);
+            throw new TransfuseRuntimeException("IOException while reading manifest " + manifestFile, e);
+        }
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new TransfuseRuntimeException("Unable to hash manifest", e);
         }
     }
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis;
+
+import org.androidtransfuse.adapter.ASTStringType;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.analysis.repository.InjectionNodeBuilderRepository;
+import org.androidtransfuse.model.InjectionNode;
+import org.androidtransfuse.model.InjectionSignature;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author John Ericksen
+ */
+public class AnalysisContextTest {
+
+    private AnalysisContext emptyContext;
+
+    @Before
+    public void setUp() {
+        emptyContext = new AnalysisContext(mock(InjectionNodeBuilderRepository.class));
+    }
+
+    @Test
+    public void testDependencyChains() {
+        for (int depth : new int[]{10, 100, 1000}) {
+            assertChain(depth);
+        }
+    }
+
+    private void assertChain(int depth) {
+        List<InjectionNode> nodes = new ArrayList<InjectionNode>();
+        List<AnalysisContext> contexts = new ArrayList<AnalysisContext>();
+
+        AnalysisContext context = emptyContext;
+        for (int i = 0; i < depth; i++) {
+            InjectionNode node = buildNode("Type" + i);
+            assertFalse(context.isDependent(node.getASTType()));
+            nodes.add(node);
+            contexts.add(context);
+            context = context.addDependent(node);
+        }
+
+        for (InjectionNode node : nodes) {
+            assertTrue(context.isDependent(node.getASTType()));
+            assertSame(node, context.getInjectionNode(node.getASTType()));
+        }
+        assertEquals(nodes, new ArrayList<InjectionNode>(context.getDependencyHistory()));
+
+        //earlier contexts are unchanged by later additions
+        for (int i = 0; i < depth; i++) {
+            AnalysisContext previous = contexts.get(i);
+            assertEquals(i, previous.getDependencyHistory().size());
+            assertFalse(previous.isDependent(nodes.get(i).getASTType()));
+            if (i > 0) {
+                assertSame(nodes.get(i - 1), previous.getInjectionNode(nodes.get(i - 1).getASTType()));
+            }
+        }
+    }
+
+    @Test
+    public void testBranches() {
+        InjectionNode root = buildNode("Root");
+        InjectionNode left = buildNode("Left");
+        InjectionNode right = buildNode("Right");
+
+        AnalysisContext rootContext = emptyContext.addDependent(root);
+        AnalysisContext leftContext = rootContext.addDependent(left);
+        AnalysisContext rightContext = rootContext.addDependent(right);
+
+        assertTrue(leftContext.isDependent(left.getASTType()));
+        assertFalse(leftContext.isDependent(right.getASTType()));
+        assertTrue(rightContext.isDependent(right.getASTType()));
+        assertFalse(rightContext.isDependent(left.getASTType()));
+    }
+
+    @Test
+    public void testDuplicateDependent() {
+        InjectionNode first = buildNode("Loop");
+        InjectionNode second = buildNode("Loop");
+        InjectionNode other = buildNode("Other");
+
+        AnalysisContext context = emptyContext.addDependent(first).addDependent(other).addDependent(second);
+
+        assertSame(first, context.getInjectionNode(first.getASTType()));
+        assertEquals(2, context.getDependencyHistory().size());
+    }
+
+    @Test
+    public void testHashCollision() {
+        //"Aa" and "BB" share a String hashCode
+        InjectionNode aa = buildNode("Aa");
+        InjectionNode bb = buildNode("BB");
+        assertEquals(aa.getASTType().hashCode(), bb.getASTType().hashCode());
+
+        AnalysisContext aaContext = emptyContext.addDependent(aa);
+        assertFalse(aaContext.isDependent(bb.getASTType()));
+
+        AnalysisContext context = aaContext.addDependent(bb);
+        assertSame(aa, context.getInjectionNode(aa.getASTType()));
+        assertSame(bb, context.getInjectionNode(bb.getASTType()));
+    }
+
+    private InjectionNode buildNode(String name) {
+        ASTType type = new ASTStringType(name);
+        return new InjectionNode(new InjectionSignature(type));
+    }
+}
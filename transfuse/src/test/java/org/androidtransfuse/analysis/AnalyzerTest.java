@@ -16,6 +16,8 @@
 package org.androidtransfuse.analysis;
 
 import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.ASTTypeVirtualProxy;
+import org.androidtransfuse.adapter.PackageClass;
 import org.androidtransfuse.adapter.classes.ASTClassFactory;
 import org.androidtransfuse.analysis.astAnalyzer.ASTInjectionAspect;
 import org.androidtransfuse.analysis.astAnalyzer.VirtualProxyAspect;
@@ -28,6 +30,7 @@ import org.androidtransfuse.model.ConstructorInjectionPoint;
 import org.androidtransfuse.model.FieldInjectionPoint;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.model.MethodInjectionPoint;
+import org.androidtransfuse.util.Providers;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -186,6 +189,42 @@ public class AnalyzerTest {
         assertFalse(fInjectionNode.equals(fInjectionNode2));
     }
 
+    @Test
+    public void testRepeatedAnalysis() {
+        ASTType astType = astClassFactory.getType(E.class);
+
+        InjectionNode first = analyzer.analyze(astType, astType, analysisContext);
+        InjectionNode second = analyzer.analyze(astType, astType, analysisContextFactory.buildContext());
+
+        //each analysis builds its own graph
+        assertNotSame(first, second);
+        assertNotSame(first.getAspect(ASTInjectionAspect.class), second.getAspect(ASTInjectionAspect.class));
+
+        assertEquals(first.getAspect(ASTInjectionAspect.class).getGroups().size(), second.getAspect(ASTInjectionAspect.class).getGroups().size());
+        InjectionNode firstF = first.getAspect(ASTInjectionAspect.class).getConstructorInjectionPoint().getInjectionNodes().get(0);
+        InjectionNode secondF = second.getAspect(ASTInjectionAspect.class).getConstructorInjectionPoint().getInjectionNodes().get(0);
+        assertNotSame(firstF, secondF);
+        assertEquals(F.class.getCanonicalName(), secondF.getClassName());
+    }
+
+    @Test
+    public void testRebuiltTypeAnalysis() {
+        PackageClass packageClass = new PackageClass("org.example", "Rebuilt");
+        ASTTypeVirtualProxy original = new ASTTypeVirtualProxy(packageClass);
+        original.load(astClassFactory.getType(E.class));
+        ASTTypeVirtualProxy rebuilt = new ASTTypeVirtualProxy(packageClass);
+        rebuilt.load(astClassFactory.getType(F.class));
+
+        InjectionNode originalNode = analyzer.analyze(original, original, analysisContext);
+        //types are rebuilt between rounds, each round starting with a new hierarchy cache
+        analyzer.setHierarchyCacheProvider(Providers.of(new ClassHierarchyCache()));
+        InjectionNode rebuiltNode = analyzer.analyze(rebuilt, rebuilt, analysisContextFactory.buildContext());
+
+        //same name, but the hierarchy of the rebuilt type must not be reused from the previous round
+        assertEquals(1, originalNode.getAspect(ASTInjectionAspect.class).getConstructorInjectionPoint().getInjectionNodes().size());
+        assertEquals(0, rebuiltNode.getAspect(ASTInjectionAspect.class).getConstructorInjectionPoint().getInjectionNodes().size());
+    }
+
     private int countFieldInjectionPoints(ASTInjectionAspect aspect) {
         int count = 0;
 
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis;
+
+import com.google.common.collect.ImmutableList;
+import org.androidtransfuse.adapter.ASTGenericTypeWrapper;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.LazyTypeParameterBuilder;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class ClassHierarchyCacheTest {
+
+    public static class Base<T> {
+        public void override() {
+        }
+    }
+
+    public static class Target<T> extends Base<T> {
+        private T value;
+
+        @Override
+        public void override() {
+        }
+    }
+
+    @Inject
+    private ASTClassFactory astClassFactory;
+
+    private ClassHierarchyCache cache;
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+
+        cache = new ClassHierarchyCache();
+    }
+
+    @Test
+    public void testHierarchy() {
+        List<ClassHierarchyCache.HierarchyLevel> hierarchy = cache.getHierarchy(astClassFactory.getType(Target.class));
+
+        assertEquals(3, hierarchy.size());
+        assertEquals(astClassFactory.getType(Target.class), hierarchy.get(0).getType());
+        assertEquals(1, hierarchy.get(0).getMethods().size());
+        assertEquals(1, hierarchy.get(0).getFields().size());
+        //overridden
+        assertEquals(0, hierarchy.get(1).getMethods().size());
+    }
+
+    @Test
+    public void testParameterizedTypesShareHierarchy() {
+        ASTType rawType = astClassFactory.getType(Target.class);
+        ASTType stringTarget = new ASTGenericTypeWrapper(rawType, new FixedTypeParameters(astClassFactory.getType(String.class)));
+        ASTType integerTarget = new ASTGenericTypeWrapper(rawType, new FixedTypeParameters(astClassFactory.getType(Integer.class)));
+
+        List<ClassHierarchyCache.HierarchyLevel> stringHierarchy = cache.getHierarchy(stringTarget);
+        List<ClassHierarchyCache.HierarchyLevel> integerHierarchy = cache.getHierarchy(integerTarget);
+
+        //scanned once, the root level reporting the requested type
+        assertEquals(1, cache.size());
+        assertSame(stringTarget, stringHierarchy.get(0).getType());
+        assertSame(integerTarget, integerHierarchy.get(0).getType());
+        assertSame(stringHierarchy.get(0).getMethods(), integerHierarchy.get(0).getMethods());
+        assertSame(stringHierarchy.get(1), integerHierarchy.get(1));
+        assertSame(stringHierarchy.get(1), cache.getHierarchy(rawType).get(1));
+        assertEquals(1, cache.size());
+    }
+
+    private static final class FixedTypeParameters implements LazyTypeParameterBuilder {
+
+        private final ImmutableList<ASTType> parameters;
+
+        private FixedTypeParameters(ASTType... parameters) {
+            this.parameters = ImmutableList.copyOf(parameters);
+        }
+
+        @Override
+        public ImmutableList<ASTType> buildGenericParameters() {
+            return parameters;
+        }
+    }
+}
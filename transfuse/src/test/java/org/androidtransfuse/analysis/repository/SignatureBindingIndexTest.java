@@ -0,0 +1,135 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.analysis.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.androidtransfuse.adapter.ASTAnnotation;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.gen.variableBuilder.InjectionNodeBuilder;
+import org.androidtransfuse.model.InjectionSignature;
+import org.androidtransfuse.util.matcher.InjectionSignatureMatcherBuilder;
+import org.androidtransfuse.util.matcher.Matcher;
+import org.androidtransfuse.util.matcher.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class SignatureBindingIndexTest {
+
+    @Inject
+    private ASTClassFactory astClassFactory;
+    private SignatureBindingIndex index;
+    private ASTType baseType;
+    private ASTType subType;
+    private ASTAnnotation namedOne;
+    private ASTAnnotation namedTwo;
+
+    public static class Base {}
+
+    public static class Sub extends Base {}
+
+    @Named("one")
+    public static class NamedOne {}
+
+    @Named("two")
+    public static class NamedTwo {}
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+        index = new SignatureBindingIndex();
+
+        baseType = astClassFactory.getType(Base.class);
+        subType = astClassFactory.getType(Sub.class);
+        namedOne = astClassFactory.getType(NamedOne.class).getASTAnnotation(Named.class);
+        namedTwo = astClassFactory.getType(NamedTwo.class).getASTAnnotation(Named.class);
+    }
+
+    @Test
+    public void testSignatureLookup() {
+        InjectionNodeBuilder baseBuilder = mock(InjectionNodeBuilder.class);
+        InjectionNodeBuilder namedOneBuilder = mock(InjectionNodeBuilder.class);
+        InjectionNodeBuilder namedTwoBuilder = mock(InjectionNodeBuilder.class);
+
+        index.put(Matchers.signature(new InjectionSignature(baseType)), baseBuilder);
+        index.put(Matchers.type(baseType).annotated().byAnnotation(namedOne).build(), namedOneBuilder);
+        index.put(Matchers.type(baseType).annotated().byAnnotation(namedTwo).build(), namedTwoBuilder);
+
+        assertMatches(index.get(new InjectionSignature(baseType)), baseBuilder);
+        assertMatches(index.get(new InjectionSignature(baseType, ImmutableSet.of(namedOne))), namedOneBuilder);
+        assertMatches(index.get(new InjectionSignature(baseType, ImmutableSet.of(namedTwo))), namedTwoBuilder);
+        assertMatches(index.get(new InjectionSignature(subType)));
+    }
+
+    @Test
+    public void testAnyTypeLookup() {
+        InjectionNodeBuilder annotatedBuilder = mock(InjectionNodeBuilder.class);
+
+        index.put(Matchers.annotated().byType(namedOne.getASTType()).build(), annotatedBuilder);
+
+        assertMatches(index.get(new InjectionSignature(baseType, ImmutableSet.of(namedOne))), annotatedBuilder);
+        assertMatches(index.get(new InjectionSignature(subType, ImmutableSet.of(namedTwo))), annotatedBuilder);
+        assertMatches(index.get(new InjectionSignature(subType)));
+    }
+
+    @Test
+    public void testResidualLookup() {
+        InjectionNodeBuilder inheritsBuilder = mock(InjectionNodeBuilder.class);
+        InjectionNodeBuilder unqualifiedBuilder = mock(InjectionNodeBuilder.class);
+
+        index.put(Matchers.type(baseType).inherits().annotated().byAnnotation().build(), inheritsBuilder);
+        index.put(new InjectionSignatureMatcherBuilder(Matchers.type(subType).build()).build(), unqualifiedBuilder);
+
+        assertMatches(index.get(new InjectionSignature(baseType)), inheritsBuilder);
+        assertMatches(index.get(new InjectionSignature(subType, ImmutableSet.of(namedOne))), unqualifiedBuilder);
+    }
+
+    @Test
+    public void testAmbiguousLookup() {
+        InjectionNodeBuilder first = mock(InjectionNodeBuilder.class);
+        InjectionNodeBuilder second = mock(InjectionNodeBuilder.class);
+        InjectionNodeBuilder annotated = mock(InjectionNodeBuilder.class);
+
+        index.put(Matchers.signature(new InjectionSignature(baseType, ImmutableSet.of(namedOne))), first);
+        SignatureBindingIndex other = new SignatureBindingIndex();
+        other.put(Matchers.signature(new InjectionSignature(baseType, ImmutableSet.of(namedOne))), second);
+        other.put(Matchers.annotated().byAnnotation(namedOne).build(), annotated);
+        index.putAll(other);
+
+        assertMatches(index.get(new InjectionSignature(baseType, ImmutableSet.of(namedOne))), first, second, annotated);
+    }
+
+    private void assertMatches(Map<Matcher<InjectionSignature>, InjectionNodeBuilder> matches, InjectionNodeBuilder... builders) {
+        assertEquals(builders.length, matches.size());
+        for (InjectionNodeBuilder builder : builders) {
+            assertTrue(matches.containsValue(builder));
+        }
+    }
+}
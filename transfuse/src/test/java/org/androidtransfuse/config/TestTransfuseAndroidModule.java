@@ -31,12 +31,14 @@ import org.androidtransfuse.aop.UIThreadMethodInterceptor;
 import org.androidtransfuse.bootstrap.BootstrapModule;
 import org.androidtransfuse.experiment.ScopesGeneration;
 import org.androidtransfuse.experiment.generators.ObservesExpressionGenerator;
+import org.androidtransfuse.experiment.generators.InjectionTimingInstrumentation;
 import org.androidtransfuse.experiment.generators.OnCreateInjectionGenerator;
 import org.androidtransfuse.experiment.generators.SuperGenerator;
 import org.androidtransfuse.gen.ClassGenerationStrategy;
 import org.androidtransfuse.gen.GeneratorFactory;
 import org.androidtransfuse.gen.InjectionBuilderContextFactory;
 import org.androidtransfuse.gen.InstantiationStrategyFactory;
+import org.androidtransfuse.gen.NameCounters;
 import org.androidtransfuse.gen.componentBuilder.ComponentBuilderFactory;
 import org.androidtransfuse.gen.componentBuilder.ListenerRegistrationGenerator;
 import org.androidtransfuse.gen.componentBuilder.NonConfigurationInstanceGenerator;
@@ -53,6 +55,7 @@ import org.androidtransfuse.model.r.RResource;
 import org.androidtransfuse.processor.AnalysisGenerationTransactionProcessorBuilderFactory;
 import org.androidtransfuse.processor.GeneratorRepository;
 import org.androidtransfuse.processor.GeneratorRepositoryProvider;
+import org.androidtransfuse.processor.TransactionProcessorPoolFactory;
 import org.androidtransfuse.util.*;
 import org.androidtransfuse.validation.Validator;
 
@@ -106,7 +109,8 @@ import javax.xml.bind.JAXBContext;
         ScopesGeneration.ScopesGenerationFactory.class,
         ListenerRegistrationGenerator.ListerRegistrationGeneratorFactory.class,
         NonConfigurationInstanceGenerator.NonconfigurationInstanceGeneratorFactory.class,
-        ManualSuperGenerator.Factory.class
+        ManualSuperGenerator.Factory.class,
+        InjectionTimingInstrumentation.InjectionTimingInstrumentationFactory.class
 })
 public class TestTransfuseAndroidModule {
 
@@ -136,6 +140,18 @@ public class TestTransfuseAndroidModule {
         return new Manifest();
     }
 
+    @Provides
+    @Named(TransactionProcessorPoolFactory.PROCESSOR_THREADS_OPTION)
+    public String getProcessorThreads(){
+        return null;
+    }
+
+    @Provides
+    @Named(InjectionTimingInstrumentation.INJECTION_TIMING_OPTION)
+    public String getInjectionTiming(){
+        return null;
+    }
+
     @Provides
     public Logger getLogger(){
         return new JavaUtilLogger(this);
@@ -144,4 +160,10 @@ public class TestTransfuseAndroidModule {
     public JCodeModel getCodeModel(){
         return codeModel;
     }
+
+    @Provides
+    @CodeGenerationScope
+    public NameCounters getNameCounters(){
+        return new NameCounters();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment.generators;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JVar;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.PackageClass;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.annotations.Provides;
+import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.analysis.InjectionPointFactory;
+import org.androidtransfuse.analysis.SimpleAnalysisContextFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.experiment.ComponentBuilder;
+import org.androidtransfuse.experiment.ComponentDescriptor;
+import org.androidtransfuse.experiment.ComponentMethodGenerator;
+import org.androidtransfuse.experiment.GenerationPhase;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.androidtransfuse.gen.CodeGenerationUtil;
+import org.androidtransfuse.gen.ProviderGenerator;
+import org.androidtransfuse.gen.StringCodeWriter;
+import org.androidtransfuse.gen.UniqueVariableNamer;
+import org.androidtransfuse.gen.scopeBuilder.SingletonScopeAspectFactory;
+import org.androidtransfuse.gen.variableBuilder.ProvidesInjectionNodeBuilderFactory;
+import org.androidtransfuse.model.InjectionSignature;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.scope.ConcurrentDoubleLockingScope;
+import org.androidtransfuse.scope.EagerWarmUp;
+import org.androidtransfuse.scope.Scopes;
+import org.androidtransfuse.util.AndroidLiterals;
+import org.androidtransfuse.validation.Validator;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class EagerWarmUpGeneratorTest {
+
+    @Inject
+    private ClassGenerationUtil generationUtil;
+    @Inject
+    private UniqueVariableNamer namer;
+    @Inject
+    private ASTClassFactory astClassFactory;
+    @Inject
+    private CodeGenerationUtil codeGenerationUtil;
+    @Inject
+    private JCodeModel codeModel;
+    @Inject
+    private SimpleAnalysisContextFactory analysisContextFactory;
+    @Inject
+    private InjectionPointFactory injectionPointFactory;
+    @Inject
+    private ProviderGenerator providerGenerator;
+    @Inject
+    private Validator validator;
+    @Inject
+    private SingletonScopeAspectFactory singletonScopeAspectFactory;
+    @Inject
+    private ProvidesInjectionNodeBuilderFactory providesInjectionNodeBuilderFactory;
+
+    private ASTElementFactory astElementFactory;
+    private EagerWarmUpGenerator generator;
+
+    public static class Target {
+        public void onCreate() {
+        }
+    }
+
+    @Singleton
+    public static class WarmDatabase {
+    }
+
+    @Singleton
+    public static class WarmCache {
+        @Inject
+        public WarmCache(WarmDatabase database) {
+        }
+    }
+
+    public static class WarmService {
+        public WarmService(WarmCache cache) {
+        }
+    }
+
+    public static class WarmModule {
+        @Provides
+        @Singleton
+        public WarmService getService(WarmCache cache) {
+            return new WarmService(cache);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+
+        astElementFactory = mock(ASTElementFactory.class);
+        generator = new EagerWarmUpGenerator(astElementFactory, injectionPointFactory, providerGenerator, generationUtil, validator);
+    }
+
+    @Test
+    public void testDependenciesWarmedFirst() throws Exception {
+        ASTType targetType = astClassFactory.getType(Target.class);
+        ASTMethod onCreate = targetType.getMethods().iterator().next();
+        when(astElementFactory.findMethod(AndroidLiterals.APPLICATION, "onCreate")).thenReturn(onCreate);
+
+        AnalysisContext context = analysisContextFactory.buildContext();
+        context.getInjectionNodeBuilders().putScopeAspectFactory(astClassFactory.getType(Singleton.class),
+                astClassFactory.getType(ConcurrentDoubleLockingScope.class), singletonScopeAspectFactory);
+        // declared dependent first
+        context.getInjectionNodeBuilders().putEager(new InjectionSignature(astClassFactory.getType(WarmCache.class)));
+        context.getInjectionNodeBuilders().putEager(new InjectionSignature(astClassFactory.getType(WarmDatabase.class)));
+
+        ComponentBuilder builder = buildComponent(context, onCreate, "EagerWarmUpTarget");
+        String source = getSource("EagerWarmUpTarget");
+
+        int start = source.indexOf(EagerWarmUp.class.getSimpleName() + "." + EagerWarmUp.START_METHOD + "(");
+        int database = source.indexOf(WarmDatabase.class.getSimpleName(), start);
+        int cache = source.indexOf(WarmCache.class.getSimpleName(), start);
+        assertTrue(start > source.indexOf(Scopes.ADD_SCOPE));
+        assertTrue(database > start);
+        assertTrue(cache > database);
+
+        ClassLoader classLoader = codeGenerationUtil.build();
+        Class<?> generatedClass = classLoader.loadClass(builder.getDefinedClass().fullName());
+        ((Target) generatedClass.newInstance()).onCreate();
+
+        EagerWarmUp warmUp = EagerWarmUp.getCurrent();
+        assertTrue(warmUp.await(5, TimeUnit.SECONDS));
+        assertEquals(2, warmUp.getCount());
+        assertEquals(2, warmUp.getCompletedCount());
+    }
+
+    @Test
+    public void testProvidesDependenciesWarmedFirst() throws Exception {
+        ASTType targetType = astClassFactory.getType(Target.class);
+        ASTMethod onCreate = targetType.getMethods().iterator().next();
+        when(astElementFactory.findMethod(AndroidLiterals.APPLICATION, "onCreate")).thenReturn(onCreate);
+
+        AnalysisContext context = analysisContextFactory.buildContext();
+        context.getInjectionNodeBuilders().putScopeAspectFactory(astClassFactory.getType(Singleton.class),
+                astClassFactory.getType(ConcurrentDoubleLockingScope.class), singletonScopeAspectFactory);
+        ASTType moduleType = astClassFactory.getType(WarmModule.class);
+        ASTMethod providesMethod = moduleType.getMethods().iterator().next();
+        context.getInjectionNodeBuilders().putType(astClassFactory.getType(WarmService.class),
+                providesInjectionNodeBuilderFactory.buildProvidesBuilder(moduleType, providesMethod, providesMethod.getASTAnnotation(Singleton.class)));
+        // the @Provides binding is declared before its eager parameter
+        context.getInjectionNodeBuilders().putEager(new InjectionSignature(astClassFactory.getType(WarmService.class)));
+        context.getInjectionNodeBuilders().putEager(new InjectionSignature(astClassFactory.getType(WarmCache.class)));
+
+        ComponentBuilder builder = buildComponent(context, onCreate, "EagerWarmUpProvides");
+        String source = getSource("EagerWarmUpProvides");
+
+        int start = source.indexOf(EagerWarmUp.class.getSimpleName() + "." + EagerWarmUp.START_METHOD + "(");
+        int cache = source.indexOf(WarmCache.class.getSimpleName(), start);
+        int service = source.indexOf(WarmService.class.getSimpleName(), start);
+        assertTrue(cache > start);
+        assertTrue(service > cache);
+
+        ClassLoader classLoader = codeGenerationUtil.build();
+        Class<?> generatedClass = classLoader.loadClass(builder.getDefinedClass().fullName());
+        ((Target) generatedClass.newInstance()).onCreate();
+
+        EagerWarmUp warmUp = EagerWarmUp.getCurrent();
+        assertTrue(warmUp.await(5, TimeUnit.SECONDS));
+        assertEquals(2, warmUp.getCompletedCount());
+    }
+
+    private ComponentBuilder buildComponent(AnalysisContext context, ASTMethod onCreate, String className) {
+        ASTType targetType = astClassFactory.getType(Target.class);
+        ComponentDescriptor descriptor = new ComponentDescriptor(targetType, targetType,
+                new PackageClass(Target.class.getPackage().getName(), className), context);
+        final ComponentBuilder builder = new ComponentBuilder(generationUtil, descriptor, namer);
+
+        builder.add(onCreate, GenerationPhase.SCOPES, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                JVar scopes = block.decl(generationUtil.ref(Scopes.class), namer.generateName(Scopes.class),
+                        JExpr._new(generationUtil.ref(Scopes.class)).invoke(Scopes.ADD_SCOPE)
+                                .arg(generationUtil.ref(Singleton.class).dotclass())
+                                .arg(JExpr._new(generationUtil.ref(ConcurrentDoubleLockingScope.class))));
+                builder.setScopes(scopes);
+            }
+        });
+        generator.schedule(builder, descriptor);
+        builder.build();
+        return builder;
+    }
+
+    private String getSource(String className) throws IOException {
+        StringCodeWriter codeWriter = new StringCodeWriter();
+        codeModel.build(codeWriter);
+        return codeWriter.getValue(new PackageClass(Target.class.getPackage().getName(), className + ".java"));
+    }
+
+    @Test
+    public void testNoEagerBindings() {
+        ASTType targetType = astClassFactory.getType(Target.class);
+        ComponentDescriptor descriptor = new ComponentDescriptor(targetType, targetType,
+                new PackageClass(Target.class.getPackage().getName(), "EagerWarmUpNone"), analysisContextFactory.buildContext());
+        ComponentBuilder builder = new ComponentBuilder(generationUtil, descriptor, namer);
+
+        generator.schedule(builder, descriptor);
+        builder.build();
+
+        assertNull(builder.getDefinedClass().getMethod("onCreate", new com.sun.codemodel.JType[0]));
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.experiment.generators;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JVar;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.PackageClass;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.experiment.ComponentBuilder;
+import org.androidtransfuse.experiment.ComponentDescriptor;
+import org.androidtransfuse.experiment.ComponentMethodGenerator;
+import org.androidtransfuse.experiment.GenerationPhase;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.androidtransfuse.gen.CodeGenerationUtil;
+import org.androidtransfuse.gen.UniqueVariableNamer;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.scope.*;
+import org.androidtransfuse.util.Providers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class InjectionTimingInstrumentationTest {
+
+    @Inject
+    private ClassGenerationUtil generationUtil;
+    @Inject
+    private UniqueVariableNamer namer;
+    @Inject
+    private ASTClassFactory astClassFactory;
+    @Inject
+    private CodeGenerationUtil codeGenerationUtil;
+    @Inject
+    private InjectionTimingInstrumentation.InjectionTimingInstrumentationFactory instrumentationFactory;
+
+    private final List<String> phases = new ArrayList<String>();
+    private final List<Map<Class<? extends Annotation>, Integer>> injections = new ArrayList<Map<Class<? extends Annotation>, Integer>>();
+
+    public static class Target {
+        public void onCreate() {
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+
+        InjectionTimings.setListener(new InjectionTimingListener() {
+            @Override
+            public void onInjection(Class<?> component, long nanos, Map<Class<? extends Annotation>, Integer> scopedConstructions) {
+                injections.add(scopedConstructions);
+            }
+
+            @Override
+            public void onPhase(Class<?> component, String method, String phase, long nanos) {
+                phases.add(method + ":" + phase);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        InjectionTimings.setListener(null);
+    }
+
+    @Test
+    public void testInstrumentedPhases() throws Exception {
+        ASTType targetType = astClassFactory.getType(Target.class);
+        ASTMethod onCreate = targetType.getMethods().iterator().next();
+        ComponentDescriptor descriptor = new ComponentDescriptor(targetType, targetType,
+                new PackageClass(Target.class.getPackage().getName(), "InjectionTimingTarget"));
+
+        final ComponentBuilder builder = new ComponentBuilder(generationUtil, descriptor, namer);
+        builder.setInstrumentation(instrumentationFactory.build(builder));
+
+        builder.add(onCreate, GenerationPhase.SCOPES, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                JVar scopes = block.decl(generationUtil.ref(Scopes.class), namer.generateName(Scopes.class),
+                        JExpr._new(generationUtil.ref(Scopes.class)).invoke(Scopes.ADD_SCOPE)
+                                .arg(generationUtil.ref(Singleton.class).dotclass())
+                                .arg(JExpr._new(generationUtil.ref(ConcurrentDoubleLockingScope.class))));
+                builder.setScopes(scopes);
+            }
+        });
+        builder.add(onCreate, GenerationPhase.INJECTION, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                // the second lookup is served by the scope
+                for (int i = 0; i < 2; i++) {
+                    block.add(builder.getScopes().invoke(Scopes.GET_SCOPE).arg(generationUtil.ref(Singleton.class).dotclass())
+                            .invoke(Scope.GET_SCOPED_OBJECT)
+                            .arg(generationUtil.ref(ScopeKey.class).staticInvoke("of").arg(generationUtil.ref(Object.class).dotclass()))
+                            .arg(generationUtil.ref(Providers.class).staticInvoke(Providers.OF_METHOD).arg(JExpr._new(generationUtil.ref(Object.class)))));
+                }
+            }
+        });
+        builder.build();
+
+        ClassLoader classLoader = codeGenerationUtil.build();
+        Class<?> generatedClass = classLoader.loadClass(builder.getDefinedClass().fullName());
+        ((Target) generatedClass.newInstance()).onCreate();
+
+        assertEquals(2, phases.size());
+        assertEquals("onCreate:SCOPES", phases.get(0));
+        assertEquals("onCreate:INJECTION", phases.get(1));
+        assertEquals(1, injections.size());
+        assertEquals(Integer.valueOf(1), injections.get(0).get(Singleton.class));
+    }
+}
@@ -36,7 +36,9 @@ import org.junit.Test;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 
 import static org.junit.Assert.*;
 
@@ -137,16 +139,45 @@ public class AOPProxyGeneratorTest {
         buildAndTest(delegateInjectionNode);
     }
 
+    @Test
+    public void testMethodResolvedPerProxyClass() throws ClassNotFoundException, JClassAlreadyExistsException, IOException, IllegalAccessException, InstantiationException {
+        aopProxyAspect.addInterceptor(buildASTClassMethod(delegateAST, EXECUTE_METHOD), buildMethodInterceptorInjectionNode());
+        delegateInjectionNode.addAspect(AOPProxyAspect.class, aopProxyAspect);
+
+        Provider<MockDelegate> provider = buildProvider(delegateInjectionNode);
+
+        MockDelegate first = provider.get();
+        MockDelegate second = provider.get();
+        first.execute();
+        second.execute();
+
+        Method firstMethod = getInterceptor(first).getMethod();
+        assertEquals(EXECUTE_METHOD, firstMethod.getName());
+        assertSame(firstMethod, getInterceptor(second).getMethod());
+    }
+
+    private MockMethodInterceptor getInterceptor(MockDelegate proxy) throws IllegalAccessException {
+        for (Field field : proxy.getClass().getDeclaredFields()) {
+            if (field.getType().equals(MockMethodInterceptor.class)) {
+                field.setAccessible(true);
+                return (MockMethodInterceptor) field.get(proxy);
+            }
+        }
+        throw new AssertionError("interceptor field not found");
+    }
+
     private void buildAndTest(InjectionNode delegateInjectionNode) throws ClassNotFoundException, JClassAlreadyExistsException, IOException, IllegalAccessException, InstantiationException {
+        runMockDelegateTests(buildProvider(delegateInjectionNode).get());
+    }
+
+    private Provider<MockDelegate> buildProvider(InjectionNode delegateInjectionNode) throws ClassNotFoundException, JClassAlreadyExistsException, IOException, IllegalAccessException, InstantiationException {
         fragmentGeneratorHarness.buildProvider(delegateInjectionNode, TEST_PACKAGE_FILENAME);
 
         ClassLoader classLoader = codeGenerationUtil.build();
         Class<Provider<MockDelegate>> generatedFactoryClass = (Class<Provider<MockDelegate>>) classLoader.loadClass(TEST_PACKAGE_FILENAME.getCanonicalName());
 
         assertNotNull(generatedFactoryClass);
-        Provider<MockDelegate> provider = generatedFactoryClass.newInstance();
-
-        runMockDelegateTests(provider.get());
+        return generatedFactoryClass.newInstance();
     }
 
     private ASTMethod buildASTClassMethod(ASTType delegateAST, String methodName) {
@@ -16,6 +16,7 @@
 package org.androidtransfuse.gen;
 
 import com.sun.codemodel.JDefinedClass;
+import org.androidtransfuse.Factories;
 import org.androidtransfuse.adapter.ASTType;
 import org.androidtransfuse.adapter.classes.ASTClassFactory;
 import org.androidtransfuse.bootstrap.Bootstrap;
@@ -23,14 +24,13 @@ import org.androidtransfuse.bootstrap.Bootstraps;
 import org.androidtransfuse.scope.Scopes;
 import org.androidtransfuse.util.Repository;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.Collections;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 /**
  * @author John Ericksen
@@ -47,7 +47,8 @@ public class FactoriesGeneratorTest {
     @Inject
     private CodeGenerationUtil codeGenerationUtil;
 
-    private Class factoryClass;
+    private ClassLoader classLoader;
+    private JDefinedClass factoryGeneratedClass;
 
     public interface Factory {
     }
@@ -69,22 +70,30 @@ public class FactoriesGeneratorTest {
         Bootstraps.inject(this);
 
         ASTType factoryType = astClassFactory.getType(Factory.class);
-        JDefinedClass factoryGeneratedClass = factoryGenerator.generate(factoryType);
+        factoryGeneratedClass = factoryGenerator.generate(factoryType);
 
-        JDefinedClass factoriesDefinedClass = factoriesGenerator.generate(
+        factoriesGenerator.generate(
                 Collections.<Provider<ASTType>, JDefinedClass>singletonMap(
                         new SingletonProvider<ASTType>(factoryType), factoryGeneratedClass));
 
-        ClassLoader classLoader = codeGenerationUtil.build();
+        classLoader = codeGenerationUtil.build();
+    }
+
+    @Test
+    public void testBuilder() throws Exception {
+        // loaded by name, as Factories does for factories missing from its repository
+        Class builderClass = classLoader.loadClass(factoryGeneratedClass.binaryName() + "$" + Factories.BUILDER_NAME);
+        Factories.FactoryBuilder builder = (Factories.FactoryBuilder) builderClass.newInstance();
 
-        factoryClass = classLoader.loadClass(factoriesDefinedClass.fullName());
+        assertTrue(builder.get(new Scopes()) instanceof Factory);
     }
 
     @Test
-    @Ignore
-    public void test() throws Exception {
-        Repository factoryRepository = (Repository) factoryClass.newInstance();
-        assertNotNull(factoryClass.getMethod("get", Class.class).invoke(factoryRepository, Factory.class));
-        assertNotNull(factoryClass.getMethod("get", Class.class, Scopes.class).invoke(factoryRepository, Factory.class, new Scopes()));
+    public void testUnregisteredLookup() throws Exception {
+        // the test classpath repository shadows the one generated here
+        Class repositoryClass = classLoader.loadClass(Factories.FACTORIES_PACKAGE + "." + Factories.FACTORIES_REPOSITORY_NAME);
+        Repository<Factories.FactoryBuilder> factoryRepository = (Repository<Factories.FactoryBuilder>) repositoryClass.newInstance();
+
+        assertNull(factoryRepository.get(Object.class));
     }
 }
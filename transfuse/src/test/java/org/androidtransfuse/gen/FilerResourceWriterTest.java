@@ -25,7 +25,6 @@ import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.OutputStream;
 
-import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,9 +33,11 @@ import static org.mockito.Mockito.*;
 public class FilerResourceWriterTest {
 
     private static final String TEST_PACKAGE = "org.test";
+    private static final byte[] CONTENT = {1, 2, 3};
     private static final String TEST_FILENAME = "Tester";
 
     private FilerResourceWriter resourceWriter;
+    private FilerWriteQueue writeQueue;
     private Filer mockFiler;
     private FileObject mockFile;
     private OutputStream mockOutputStream;
@@ -47,8 +48,9 @@ public class FilerResourceWriterTest {
         mockFiler = mock(Filer.class);
         mockFile = mock(FileObject.class);
         mockOutputStream = mock(OutputStream.class);
+        writeQueue = new FilerWriteQueue(mockFiler);
 
-        resourceWriter = new FilerResourceWriter(mockFiler);
+        resourceWriter = new FilerResourceWriter(writeQueue);
         codeModel = new JCodeModel();
     }
 
@@ -58,10 +60,28 @@ public class FilerResourceWriterTest {
         when(mockFiler.createResource(StandardLocation.SOURCE_OUTPUT, TEST_PACKAGE, TEST_FILENAME)).thenReturn(mockFile);
         when(mockFile.openOutputStream()).thenReturn(mockOutputStream);
 
-        assertEquals(mockOutputStream, resourceWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_FILENAME));
+        OutputStream outputStream = resourceWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_FILENAME);
+        outputStream.write(CONTENT);
+
+        verifyZeroInteractions(mockFiler);
 
         resourceWriter.close();
-        verify(mockOutputStream).flush();
+        writeQueue.flush();
+        verify(mockFiler).createResource(StandardLocation.SOURCE_OUTPUT, TEST_PACKAGE, TEST_FILENAME);
+        verify(mockOutputStream).write(CONTENT);
         verify(mockOutputStream).close();
     }
+
+    @Test
+    public void testClosedStreamReleased() throws IOException {
+
+        when(mockFiler.createResource(StandardLocation.SOURCE_OUTPUT, TEST_PACKAGE, TEST_FILENAME)).thenReturn(mockFile);
+        when(mockFile.openOutputStream()).thenReturn(mockOutputStream);
+
+        resourceWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_FILENAME).close();
+
+        resourceWriter.close();
+        writeQueue.flush();
+        verify(mockOutputStream, times(1)).close();
+    }
 }
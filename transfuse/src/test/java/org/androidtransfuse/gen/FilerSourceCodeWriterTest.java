@@ -24,7 +24,6 @@ import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.io.OutputStream;
 
-import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,9 +32,11 @@ import static org.mockito.Mockito.*;
 public class FilerSourceCodeWriterTest {
 
     private static final String TEST_PACKAGE = "org.test";
+    private static final byte[] CONTENT = {1, 2, 3};
     private static final String TEST_CLASS = "Tester";
 
     private FilerSourceCodeWriter codeWriter;
+    private FilerWriteQueue writeQueue;
     private Filer mockFiler;
     private JavaFileObject mockFile;
     private OutputStream mockOutputStream;
@@ -46,8 +47,9 @@ public class FilerSourceCodeWriterTest {
         mockFiler = mock(Filer.class);
         mockFile = mock(JavaFileObject.class);
         mockOutputStream = mock(OutputStream.class);
+        writeQueue = new FilerWriteQueue(mockFiler);
 
-        codeWriter = new FilerSourceCodeWriter(mockFiler);
+        codeWriter = new FilerSourceCodeWriter(writeQueue);
         codeModel = new JCodeModel();
     }
 
@@ -57,10 +59,28 @@ public class FilerSourceCodeWriterTest {
         when(mockFiler.createSourceFile(TEST_PACKAGE + "." + TEST_CLASS)).thenReturn(mockFile);
         when(mockFile.openOutputStream()).thenReturn(mockOutputStream);
 
-        assertEquals(mockOutputStream, codeWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_CLASS));
+        OutputStream outputStream = codeWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_CLASS);
+        outputStream.write(CONTENT);
+
+        verifyZeroInteractions(mockFiler);
 
         codeWriter.close();
-        verify(mockOutputStream).flush();
+        writeQueue.flush();
+        verify(mockFiler).createSourceFile(TEST_PACKAGE + "." + TEST_CLASS);
+        verify(mockOutputStream).write(CONTENT);
         verify(mockOutputStream).close();
     }
+
+    @Test
+    public void testClosedStreamReleased() throws IOException {
+
+        when(mockFiler.createSourceFile(TEST_PACKAGE + "." + TEST_CLASS)).thenReturn(mockFile);
+        when(mockFile.openOutputStream()).thenReturn(mockOutputStream);
+
+        codeWriter.openBinary(codeModel._package(TEST_PACKAGE), TEST_CLASS).close();
+
+        codeWriter.close();
+        writeQueue.flush();
+        verify(mockOutputStream, times(1)).close();
+    }
 }
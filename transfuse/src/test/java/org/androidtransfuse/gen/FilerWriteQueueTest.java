@@ -0,0 +1,174 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author John Ericksen
+ */
+public class FilerWriteQueueTest {
+
+    private static final int THREADS = 8;
+    private static final int FILES_PER_THREAD = 50;
+    private static final String TEST_CLASS = "org.test.Tester";
+
+    private Filer mockFiler;
+    private FilerWriteQueue writeQueue;
+    private Map<String, ByteArrayOutputStream> written;
+    private Set<Thread> filerThreads;
+
+    @Before
+    public void setUp() throws IOException {
+        mockFiler = mock(Filer.class);
+        writeQueue = new FilerWriteQueue(mockFiler);
+        written = new ConcurrentHashMap<String, ByteArrayOutputStream>();
+        filerThreads = Collections.synchronizedSet(new HashSet<Thread>());
+
+        when(mockFiler.createSourceFile(anyString(), (Element[]) anyVararg())).thenAnswer(new Answer<JavaFileObject>() {
+            @Override
+            public JavaFileObject answer(InvocationOnMock invocation) throws Throwable {
+                filerThreads.add(Thread.currentThread());
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                written.put((String) invocation.getArguments()[0], outputStream);
+
+                JavaFileObject sourceFile = mock(JavaFileObject.class);
+                when(sourceFile.openOutputStream()).thenReturn(outputStream);
+                return sourceFile;
+            }
+        });
+    }
+
+    @Test
+    public void testWrittenOnClose() throws IOException {
+        OutputStream outputStream = writeQueue.openSource(TEST_CLASS);
+        outputStream.write(TEST_CLASS.getBytes("UTF-8"));
+        writeQueue.flush();
+
+        assertTrue(written.isEmpty());
+
+        outputStream.close();
+        outputStream.close();
+        writeQueue.flush();
+
+        assertEquals(1, written.size());
+        assertEquals(TEST_CLASS, written.get(TEST_CLASS).toString("UTF-8"));
+    }
+
+    @Test
+    public void testConcurrentSubmissions() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(THREADS);
+        Set<Thread> submittingThreads = new HashSet<Thread>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            Thread submittingThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < FILES_PER_THREAD; j++) {
+                            String className = TEST_CLASS + thread + "_" + j;
+                            OutputStream outputStream = writeQueue.openSource(className);
+                            outputStream.write(className.getBytes("UTF-8"));
+                            outputStream.close();
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        finished.countDown();
+                    }
+                }
+            });
+            submittingThreads.add(submittingThread);
+            submittingThread.start();
+        }
+        submittingThreads.add(Thread.currentThread());
+        start.countDown();
+        finished.await();
+        writeQueue.flush();
+
+        assertEquals(THREADS * FILES_PER_THREAD, written.size());
+        for (Map.Entry<String, ByteArrayOutputStream> writtenEntry : written.entrySet()) {
+            assertEquals(writtenEntry.getKey(), writtenEntry.getValue().toString("UTF-8"));
+        }
+        // only the writer thread calls the Filer
+        assertTrue(Collections.disjoint(submittingThreads, filerThreads));
+    }
+
+    @Test
+    public void testFailureReportedOnFlush() throws IOException {
+        IOException failure = new IOException("duplicate class");
+        doThrow(failure).when(mockFiler).createSourceFile(TEST_CLASS);
+
+        writeQueue.openSource(TEST_CLASS).close();
+
+        try {
+            writeQueue.flush();
+            fail("expected write failure");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(TEST_CLASS));
+            assertSame(failure, e.getCause());
+        }
+
+        // reported once
+        writeQueue.flush();
+    }
+
+    @Test
+    public void testFailuresByFile() throws IOException {
+        IOException failure = new IOException("duplicate class");
+        IOException otherFailure = new IOException("duplicate class");
+        doThrow(failure).when(mockFiler).createSourceFile(TEST_CLASS + "1");
+        doThrow(otherFailure).when(mockFiler).createSourceFile(TEST_CLASS + "3");
+
+        for (int i = 0; i < 4; i++) {
+            writeQueue.openSource(TEST_CLASS + i).close();
+        }
+
+        Map<String, IOException> failures = writeQueue.flushFailures();
+
+        assertEquals(2, failures.size());
+        assertSame(failure, failures.get(TEST_CLASS + "1"));
+        assertSame(otherFailure, failures.get(TEST_CLASS + "3"));
+        // the remaining files are still written
+        assertEquals(2, written.size());
+        assertTrue(writeQueue.flushFailures().isEmpty());
+    }
+}
@@ -17,6 +17,7 @@ package org.androidtransfuse.gen;
 
 import com.sun.codemodel.*;
 import org.androidtransfuse.adapter.PackageClass;
+import org.androidtransfuse.gen.invocationBuilder.PackageHelperGenerator;
 import org.androidtransfuse.gen.proxy.VirtualProxyGenerator;
 import org.androidtransfuse.model.InjectionNode;
 import org.androidtransfuse.model.TypedExpression;
@@ -42,6 +43,8 @@ public class InjectionFragmentGeneratorHarness {
     private UniqueVariableNamer namer;
     @Inject
     private VirtualProxyGenerator virtualProxyGenerator;
+    @Inject
+    private PackageHelperGenerator packageHelperGenerator;
 
     public void buildProvider(InjectionNode injectionNode, PackageClass providerPackageClass) throws JClassAlreadyExistsException {
         JDefinedClass definedClass = generationUtil.defineClass(providerPackageClass);
@@ -66,6 +69,7 @@ public class InjectionFragmentGeneratorHarness {
                 scopes);
 
         virtualProxyGenerator.generateProxies();
+        packageHelperGenerator.generate();
 
         block._return(expressionMap.get(injectionNode).getExpression());
     }
@@ -19,16 +19,20 @@ package org.androidtransfuse.gen;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import java.lang.reflect.Method;
+
 /**
  * @author John Ericksen
  */
 public class MockMethodInterceptor implements MethodInterceptor {
 
     private boolean triggered = false;
+    private Method method;
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         triggered = true;
+        method = invocation.getMethod();
 
         return invocation.proceed();
     }
@@ -36,4 +40,8 @@ public class MockMethodInterceptor implements MethodInterceptor {
     public boolean isTriggered() {
         return triggered;
     }
+
+    public Method getMethod() {
+        return method;
+    }
 }
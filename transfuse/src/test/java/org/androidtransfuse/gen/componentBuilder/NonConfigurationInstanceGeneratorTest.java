@@ -0,0 +1,231 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen.componentBuilder;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JVar;
+import org.androidtransfuse.adapter.ASTMethod;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.MethodSignature;
+import org.androidtransfuse.adapter.PackageClass;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.analysis.AnalysisContext;
+import org.androidtransfuse.analysis.SimpleAnalysisContextFactory;
+import org.androidtransfuse.annotations.Retained;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.experiment.ComponentBuilder;
+import org.androidtransfuse.experiment.ComponentDescriptor;
+import org.androidtransfuse.experiment.ComponentMethodGenerator;
+import org.androidtransfuse.experiment.GenerationPhase;
+import org.androidtransfuse.gen.*;
+import org.androidtransfuse.gen.scopeBuilder.RetainedScopeAspectFactory;
+import org.androidtransfuse.gen.scopeBuilder.ScopeAspectFactory;
+import org.androidtransfuse.gen.variableDecorator.TypedExpressionFactory;
+import org.androidtransfuse.model.MethodDescriptor;
+import org.androidtransfuse.scope.RetainedScope;
+import org.androidtransfuse.scope.Scope;
+import org.androidtransfuse.scope.ScopeKey;
+import org.androidtransfuse.scope.Scopes;
+import org.androidtransfuse.util.AndroidLiterals;
+import org.androidtransfuse.util.Providers;
+import org.androidtransfuse.validation.Validator;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.processing.Messager;
+import javax.inject.Inject;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class NonConfigurationInstanceGeneratorTest {
+
+    private static final String ON_RETAIN = "onRetainNonConfigurationInstance";
+
+    @Inject
+    private ClassGenerationUtil generationUtil;
+    @Inject
+    private UniqueVariableNamer namer;
+    @Inject
+    private ClassNamer classNamer;
+    @Inject
+    private InvocationBuilder invocationBuilder;
+    @Inject
+    private TypedExpressionFactory typedExpressionFactory;
+    @Inject
+    private ASTClassFactory astClassFactory;
+    @Inject
+    private CodeGenerationUtil codeGenerationUtil;
+    @Inject
+    private SimpleAnalysisContextFactory analysisContextFactory;
+
+    private ASTElementFactory astElementFactory;
+    private Validator validator;
+
+    public static class Target {
+        public Object retained;
+        public Object lastNonConfigurationInstance;
+        public boolean finishing;
+
+        public void onCreate() {
+        }
+
+        public Object onRetainNonConfigurationInstance() {
+            return null;
+        }
+
+        public Object getLastNonConfigurationInstance() {
+            return lastNonConfigurationInstance;
+        }
+
+        public boolean isFinishing() {
+            return finishing;
+        }
+
+        public void onDestroy() {
+        }
+    }
+
+    public static class FinalTarget extends Target {
+        @Override
+        public final Object onRetainNonConfigurationInstance() {
+            return null;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+
+        astElementFactory = mock(ASTElementFactory.class);
+        when(astElementFactory.getType(Retained.class)).thenReturn(astClassFactory.getType(Retained.class));
+        when(astElementFactory.findMethod(AndroidLiterals.ACTIVITY, ON_RETAIN)).thenReturn(getMethod(Target.class, ON_RETAIN));
+        when(astElementFactory.findMethod(AndroidLiterals.ACTIVITY, "onDestroy")).thenReturn(getMethod(Target.class, "onDestroy"));
+        when(astElementFactory.findMethod(astClassFactory.getType(Target.class), ON_RETAIN)).thenReturn(getMethod(Target.class, ON_RETAIN));
+        when(astElementFactory.findMethod(astClassFactory.getType(FinalTarget.class), ON_RETAIN)).thenReturn(getMethod(FinalTarget.class, ON_RETAIN));
+
+        validator = new Validator("Test: ", mock(Messager.class));
+    }
+
+    @Test
+    public void testRetainedScopeCarriedAcrossInstances() throws Exception {
+        ComponentBuilder builder = buildComponent(Target.class, "RetainedTarget");
+
+        assertFalse(validator.isInError());
+
+        ClassLoader classLoader = codeGenerationUtil.build();
+        Class<? extends Target> generatedClass = (Class<? extends Target>) classLoader.loadClass(builder.getDefinedClass().fullName());
+
+        // onCreate() creates the scope for a new Activity
+        Target first = generatedClass.newInstance();
+        first.onCreate();
+        assertNotNull(first.retained);
+
+        // onRetainNonConfigurationInstance() hands it to the next instance
+        Object nonConfigurationInstance = first.onRetainNonConfigurationInstance();
+        assertNotNull(nonConfigurationInstance);
+        first.onDestroy();
+
+        Target second = generatedClass.newInstance();
+        second.lastNonConfigurationInstance = nonConfigurationInstance;
+        second.onCreate();
+        assertSame(first.retained, second.retained);
+
+        // onDestroy() releases the scope once finishing
+        Object secondNonConfigurationInstance = second.onRetainNonConfigurationInstance();
+        second.finishing = true;
+        second.onDestroy();
+
+        Target third = generatedClass.newInstance();
+        third.lastNonConfigurationInstance = secondNonConfigurationInstance;
+        third.onCreate();
+        assertNotNull(third.retained);
+        assertNotSame(second.retained, third.retained);
+    }
+
+    @Test
+    public void testFinalOnRetainNonConfigurationInstance() {
+        ComponentBuilder builder = buildComponent(FinalTarget.class, "FinalRetainedTarget");
+
+        assertTrue(validator.isInError());
+        JDefinedClass definedClass = builder.getDefinedClass();
+        assertEquals(0, definedClass.listClasses().length);
+        for (com.sun.codemodel.JMethod method : definedClass.methods()) {
+            assertFalse(method.name().equals(ON_RETAIN));
+        }
+    }
+
+    private ComponentBuilder buildComponent(Class<? extends Target> targetClass, String className) {
+        ASTType targetType = astClassFactory.getType(targetClass);
+        ASTMethod onCreate = getMethod(Target.class, "onCreate");
+
+        final AnalysisContext context = analysisContextFactory.buildContext();
+        final RetainedScopeAspectFactory retainedScopeAspectFactory = new RetainedScopeAspectFactory(mock(ScopeAspectFactory.class));
+        context.getInjectionNodeBuilders().putScopeAspectFactory(astClassFactory.getType(Retained.class),
+                astClassFactory.getType(RetainedScope.class), retainedScopeAspectFactory);
+
+        ComponentDescriptor descriptor = new ComponentDescriptor(targetType, targetType,
+                new PackageClass(Target.class.getPackage().getName(), className), context);
+        // registration method, as set up by ComponentAnalysis
+        descriptor.getGenerateFirst().add(new MethodSignature(onCreate));
+        final ComponentBuilder builder = new ComponentBuilder(generationUtil, descriptor, namer);
+
+        builder.add(onCreate, GenerationPhase.SCOPES, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                JVar scopes = block.decl(generationUtil.ref(Scopes.class), namer.generateName(Scopes.class),
+                        JExpr._new(generationUtil.ref(Scopes.class)));
+                builder.setScopes(scopes);
+                // stands in for the analysis of an injection graph using @Retained
+                retainedScopeAspectFactory.buildAspect(context);
+            }
+        });
+        builder.add(onCreate, GenerationPhase.INJECTION, new ComponentMethodGenerator() {
+            @Override
+            public void generate(MethodDescriptor methodDescriptor, JBlock block) {
+                block.assign(JExpr.ref("retained"), builder.getScopes().invoke(Scopes.GET_SCOPE).arg(generationUtil.ref(Retained.class).dotclass())
+                        .invoke(Scope.GET_SCOPED_OBJECT)
+                        .arg(generationUtil.ref(ScopeKey.class).staticInvoke("of").arg(generationUtil.ref(Object.class).dotclass()))
+                        .arg(generationUtil.ref(Providers.class).staticInvoke(Providers.OF_METHOD).arg(JExpr._new(generationUtil.ref(Object.class)))));
+            }
+        });
+
+        NonConfigurationInstanceGenerator generator = new NonConfigurationInstanceGenerator(onCreate, namer, classNamer,
+                generationUtil, invocationBuilder, typedExpressionFactory, astElementFactory, validator);
+        generator.schedule(builder, descriptor);
+        builder.build();
+
+        return builder;
+    }
+
+    private ASTMethod getMethod(Class<?> type, String name) {
+        for (ASTMethod method : astClassFactory.getType(type).getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
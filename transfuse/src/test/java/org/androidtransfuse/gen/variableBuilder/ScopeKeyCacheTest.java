@@ -0,0 +1,81 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.gen.variableBuilder;
+
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JFieldVar;
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.gen.ClassGenerationUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class ScopeKeyCacheTest {
+
+    @Inject
+    private ClassGenerationUtil generationUtil;
+    @Inject
+    private ASTClassFactory astClassFactory;
+
+    private CustomScopeVariableBuilder.ScopeKeyCache scopeKeyCache;
+    private JDefinedClass holder;
+    private ASTType type;
+
+    public static class Target {}
+
+    @Before
+    public void setUp() throws JClassAlreadyExistsException {
+        Bootstraps.inject(this);
+
+        scopeKeyCache = new CustomScopeVariableBuilder.ScopeKeyCache();
+        holder = new JCodeModel()._class("org.androidtransfuse.gen.variableBuilder.Holder");
+        type = astClassFactory.getType(Target.class);
+    }
+
+    @Test
+    public void testSameSignatureSharesField() {
+        JFieldVar first = scopeKeyCache.getCached(holder, type, "signature", generationUtil);
+        JFieldVar second = scopeKeyCache.getCached(holder, type, "signature", generationUtil);
+
+        assertSame(first, second);
+        assertEquals(1, holder.fields().size());
+    }
+
+    @Test
+    public void testCollidingSignaturesGetSeparateFields() {
+        // "Aa" and "BB" share a String hashCode
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        JFieldVar first = scopeKeyCache.getCached(holder, type, "Aa", generationUtil);
+        JFieldVar second = scopeKeyCache.getCached(holder, type, "BB", generationUtil);
+
+        assertNotSame(first, second);
+        assertFalse(first.name().equals(second.name()));
+        assertEquals(2, holder.fields().size());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.model.r;
+
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class RResourceMappingTest {
+
+    private static final int RESOURCES = 5000;
+    private static final int LAYOUT_BASE = 0x7f030000;
+    private static final int ID_BASE = 0x7f080000;
+
+    @Inject
+    private ASTClassFactory astClassFactory;
+    private ASTType layoutType;
+    private ASTType idType;
+    private RResourceMapping mapping;
+
+    public static class RTest {
+        public static final class layout {}
+        public static final class id {}
+    }
+
+    @Before
+    public void setup() {
+        Bootstraps.inject(this);
+
+        layoutType = astClassFactory.getType(RTest.layout.class);
+        idType = astClassFactory.getType(RTest.id.class);
+
+        mapping = new RResourceMapping();
+        // ids only differing by their type byte, as in generated R classes
+        for (int i = 0; i < RESOURCES; i++) {
+            mapping.addResource(layoutType, "resource" + i, LAYOUT_BASE + i);
+            mapping.addResource(idType, "resource" + i, ID_BASE + i);
+        }
+    }
+
+    @Test
+    public void testLookup() {
+        assertEquals(2 * RESOURCES, mapping.size());
+        for (int i = 0; i < RESOURCES; i++) {
+            assertEquals(new ResourceIdentifier(layoutType, "resource" + i), mapping.getResourceIdentifier(LAYOUT_BASE + i));
+            assertEquals(new ResourceIdentifier(idType, "resource" + i), mapping.getResourceIdentifier(ID_BASE + i));
+        }
+        assertNull(mapping.getResourceIdentifier(LAYOUT_BASE + RESOURCES));
+        assertNull(mapping.getResourceIdentifier(null));
+    }
+
+    @Test
+    public void testReverseLookup() {
+        for (int i = 0; i < RESOURCES; i++) {
+            assertEquals(Integer.valueOf(LAYOUT_BASE + i), mapping.getResourceId("layout", "resource" + i));
+            assertEquals(Integer.valueOf(ID_BASE + i), mapping.getResourceId("id", "resource" + i));
+        }
+        assertNull(mapping.getResourceId("drawable", "resource0"));
+        assertNull(mapping.getResourceId("layout", "resource" + RESOURCES));
+    }
+
+    @Test
+    public void testReplacement() {
+        mapping.addResource(idType, "replacement", LAYOUT_BASE);
+        mapping.addResource(idType, "resource0", 1);
+
+        assertEquals(2 * RESOURCES + 1, mapping.size());
+        assertEquals(new ResourceIdentifier(idType, "replacement"), mapping.getResourceIdentifier(LAYOUT_BASE));
+        assertEquals(Integer.valueOf(1), mapping.getResourceId("id", "resource0"));
+    }
+
+    @Test
+    public void testNonConstantSkipped() {
+        mapping.addResource(idType, "styleable", null);
+
+        assertEquals(2 * RESOURCES, mapping.size());
+        assertNull(mapping.getResourceId("id", "styleable"));
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.processor;
+
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.element.ASTElementFactory;
+import org.androidtransfuse.annotations.Activity;
+import org.androidtransfuse.annotations.TransfuseModule;
+import org.androidtransfuse.config.RecordingFiler;
+import org.androidtransfuse.util.Logger;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.inject.Provider;
+import javax.lang.model.util.Elements;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author John Ericksen
+ */
+public class IncrementalCacheTest {
+
+    private static final String R_CLASS = "org.example.R";
+
+    private File indexFile;
+    private File manifestFile;
+    private File outputFile;
+    private RecordingFiler recordingFiler;
+    private StructuralFingerprint fingerprint;
+    private ProcessingEnvironment processingEnvironment;
+    private Provider<ASTType> activity;
+    private Provider<ASTType> module;
+
+    @Before
+    public void setUp() throws IOException {
+        indexFile = File.createTempFile("transfuseIndex", ".properties");
+        FileUtils.deleteQuietly(indexFile);
+        manifestFile = File.createTempFile("AndroidManifest", ".xml");
+        FileUtils.writeStringToFile(manifestFile, "<manifest/>");
+        outputFile = File.createTempFile("Generated", ".java");
+
+        recordingFiler = mock(RecordingFiler.class);
+        when(recordingFiler.getCreated()).thenReturn(Collections.singleton(outputFile.toURI()));
+        processingEnvironment = mock(ProcessingEnvironment.class);
+        when(processingEnvironment.getOptions()).thenReturn(Collections.<String, String>emptyMap());
+        fingerprint = mock(StructuralFingerprint.class);
+
+        activity = root("org.example.ExampleActivity");
+        module = root("org.example.ExampleModule");
+        when(fingerprint.fingerprint(activity.get())).thenReturn("activity");
+        when(fingerprint.fingerprint(module.get())).thenReturn("module");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(indexFile);
+        FileUtils.deleteQuietly(manifestFile);
+        FileUtils.deleteQuietly(outputFile);
+    }
+
+    @Test
+    public void testFirstBuildProcessed() {
+        IncrementalCache cache = buildCache();
+
+        assertFalse(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+        assertFalse(cache.skipRound(manifestFile, roots(TransfuseModule.class, module), true));
+        assertTrue(cache.takeSkippedRoots().isEmpty());
+    }
+
+    @Test
+    public void testUnchangedRoundSkipped() {
+        build();
+
+        IncrementalCache cache = buildCache();
+
+        assertTrue(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+        assertTrue(cache.skipRound(manifestFile, roots(TransfuseModule.class, module), true));
+
+        Map<Class<? extends Annotation>, List<Provider<ASTType>>> skipped = cache.takeSkippedRoots();
+        assertEquals(Collections.singletonList(activity), skipped.get(Activity.class));
+        assertEquals(Collections.singletonList(module), skipped.get(TransfuseModule.class));
+    }
+
+    @Test
+    public void testChangeAfterSkippedRound() {
+        build();
+
+        when(fingerprint.fingerprint(module.get())).thenReturn("changed module");
+        IncrementalCache cache = buildCache();
+
+        assertTrue(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+        assertFalse(cache.skipRound(manifestFile, roots(TransfuseModule.class, module), true));
+
+        Map<Class<? extends Annotation>, List<Provider<ASTType>>> skipped = cache.takeSkippedRoots();
+        assertEquals(1, skipped.size());
+        assertEquals(Collections.singletonList(activity), skipped.get(Activity.class));
+        assertTrue(cache.takeSkippedRoots().isEmpty());
+    }
+
+    @Test
+    public void testIndexRoundTrip() throws IOException {
+        build();
+
+        Properties index = new Properties();
+        InputStream inputStream = new FileInputStream(indexFile);
+        try {
+            index.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        assertEquals(R_CLASS, index.getProperty("r"));
+        assertEquals("activity", index.getProperty("root.1.Activity.org.example.ExampleActivity"));
+        assertEquals("module", index.getProperty("root.2.TransfuseModule.org.example.ExampleModule"));
+        assertEquals(outputFile.toURI().toString(), index.getProperty("output.0"));
+
+        //the index read back by the next build matches, so the next build writes nothing
+        IncrementalCache cache = buildCache();
+        assertTrue(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+        assertTrue(cache.skipRound(manifestFile, roots(TransfuseModule.class, module), true));
+        FileUtils.deleteQuietly(indexFile);
+        cache.write(manifestFile, R_CLASS);
+        assertFalse(indexFile.exists());
+    }
+
+    @Test
+    public void testMissingOutputProcessed() {
+        build();
+        FileUtils.deleteQuietly(outputFile);
+
+        IncrementalCache cache = buildCache();
+
+        assertFalse(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+        assertFalse(indexFile.exists());
+    }
+
+    @Test
+    public void testChangedManifestProcessed() throws IOException {
+        build();
+        FileUtils.writeStringToFile(manifestFile, "<manifest package=\"org.example\"/>");
+
+        IncrementalCache cache = buildCache();
+
+        assertFalse(cache.skipRound(manifestFile, roots(Activity.class, activity), false));
+    }
+
+    private void build() {
+        IncrementalCache cache = buildCache();
+        cache.skipRound(manifestFile, roots(Activity.class, activity), false);
+        cache.skipRound(manifestFile, roots(TransfuseModule.class, module), true);
+        cache.write(manifestFile, R_CLASS);
+        assertTrue(indexFile.exists());
+    }
+
+    private IncrementalCache buildCache() {
+        return new IncrementalCache(indexFile.getPath(),
+                recordingFiler,
+                new Provider<StructuralFingerprint>() {
+                    @Override
+                    public StructuralFingerprint get() {
+                        return fingerprint;
+                    }
+                },
+                mock(ASTElementFactory.class),
+                mock(Elements.class),
+                processingEnvironment,
+                mock(Logger.class));
+    }
+
+    private Provider<ASTType> root(String name) {
+        final ASTType rootType = mock(ASTType.class);
+        when(rootType.getName()).thenReturn(name);
+        return new Provider<ASTType>() {
+            @Override
+            public ASTType get() {
+                return rootType;
+            }
+        };
+    }
+
+    private Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> roots(Class<? extends Annotation> annotation, Provider<ASTType> root) {
+        Map<Class<? extends Annotation>, Collection<Provider<ASTType>>> roots = new HashMap<Class<? extends Annotation>, Collection<Provider<ASTType>>>();
+        roots.put(annotation, Collections.singletonList(root));
+        return roots;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.processor;
+
+import org.androidtransfuse.adapter.ASTType;
+import org.androidtransfuse.adapter.classes.ASTClassFactory;
+import org.androidtransfuse.annotations.ImplementedBy;
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class StructuralFingerprintTest {
+
+    @Inject
+    private ASTClassFactory astClassFactory;
+    private StructuralFingerprint fingerprint;
+
+    public static class Root {
+        @Inject
+        Dependency dependency;
+        Unrelated unrelated;
+
+        @Inject
+        public void setValue(@Named("value") MethodDependency methodDependency) {}
+
+        @Deprecated
+        public DeprecatedDependency getDeprecated() {
+            return null;
+        }
+    }
+
+    public static class Dependency {
+        @Inject
+        TransitiveDependency transitiveDependency;
+    }
+
+    public static class TransitiveDependency {}
+
+    @ImplementedBy(Implementation.class)
+    public interface MethodDependency {}
+
+    public static class Implementation implements MethodDependency {}
+
+    public static class Unrelated {}
+
+    public static class DeprecatedDependency {}
+
+    public static class SameStructure {
+        @Inject
+        Dependency dependency;
+    }
+
+    public static class OtherStructure {
+        @Inject
+        TransitiveDependency transitiveDependency;
+    }
+
+    @Before
+    public void setUp() {
+        Bootstraps.inject(this);
+        fingerprint = new StructuralFingerprint();
+    }
+
+    @Test
+    public void testClosure() {
+        Set<String> closure = new HashSet<String>();
+        for (ASTType type : fingerprint.getClosure(astClassFactory.getType(Root.class))) {
+            closure.add(type.getName());
+        }
+
+        assertTrue(closure.contains(name(Root.class)));
+        assertTrue(closure.contains(name(Dependency.class)));
+        assertTrue(closure.contains(name(TransitiveDependency.class)));
+        assertTrue(closure.contains(name(MethodDependency.class)));
+        assertTrue(closure.contains(name(Implementation.class)));
+        assertTrue(closure.contains(name(Object.class)));
+        assertFalse(closure.contains(name(Unrelated.class)));
+        assertFalse(closure.contains(name(DeprecatedDependency.class)));
+    }
+
+    @Test
+    public void testDeterministic() {
+        String first = fingerprint.fingerprint(astClassFactory.getType(Root.class));
+        String second = new StructuralFingerprint().fingerprint(astClassFactory.getType(Root.class));
+
+        assertEquals(40, first.length());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testStructureChange() {
+        String same = fingerprint.fingerprint(astClassFactory.getType(SameStructure.class));
+        String other = fingerprint.fingerprint(astClassFactory.getType(OtherStructure.class));
+
+        assertFalse(same.equals(other));
+    }
+
+    private String name(Class<?> type) {
+        return astClassFactory.getType(type).getName();
+    }
+}
@@ -27,4 +27,9 @@ public class EmptyRResource implements RResource {
     public ResourceIdentifier getResourceIdentifier(Integer id) {
         return null;
     }
+
+    @Override
+    public Integer getResourceId(String type, String name) {
+        return null;
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2013 John Ericksen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.androidtransfuse.util;
+
+import org.androidtransfuse.bootstrap.Bootstrap;
+import org.androidtransfuse.bootstrap.Bootstraps;
+import org.androidtransfuse.model.manifest.Manifest;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author John Ericksen
+ */
+@Bootstrap
+public class ManifestSerializerTest {
+
+    private static final long OLD_TIMESTAMP = 1000000000000L;
+
+    @Inject
+    private ManifestSerializer manifestSerializer;
+    private File manifestFile;
+
+    @Before
+    public void setUp() throws IOException {
+        Bootstraps.inject(this);
+
+        manifestFile = File.createTempFile("AndroidManifest", ".xml");
+        InputStream manifestStream = getClass().getClassLoader().getResourceAsStream("AndroidManifest.xml");
+        try {
+            FileUtils.writeByteArrayToFile(manifestFile, IOUtils.toByteArray(manifestStream));
+        } finally {
+            manifestStream.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        manifestFile.delete();
+    }
+
+    @Test
+    public void testWrittenManifestReused() {
+        Manifest manifest = manifestSerializer.readManifest(manifestFile);
+        manifestSerializer.writeManifest(manifest, manifestFile);
+
+        assertSame(manifest, manifestSerializer.readManifest(manifestFile));
+        // handed out once, as the caller may modify it
+        Manifest reread = manifestSerializer.readManifest(manifestFile);
+        assertNotSame(manifest, reread);
+        assertEquals("android.permission.VIBRATE", reread.getUsesPermissions().get(0).getName());
+    }
+
+    @Test
+    public void testChangedContentReparsed() throws IOException {
+        Manifest manifest = manifestSerializer.readManifest(manifestFile);
+        manifestSerializer.writeManifest(manifest, manifestFile);
+
+        FileUtils.writeStringToFile(manifestFile, FileUtils.readFileToString(manifestFile, "UTF-8")
+                .replace("android.permission.VIBRATE", "android.permission.CAMERA"), "UTF-8");
+
+        Manifest reread = manifestSerializer.readManifest(manifestFile);
+        assertNotSame(manifest, reread);
+        assertEquals("android.permission.CAMERA", reread.getUsesPermissions().get(0).getName());
+    }
+
+    @Test
+    public void testIdenticalWriteSkipped() {
+        Manifest manifest = manifestSerializer.readManifest(manifestFile);
+        manifestSerializer.writeManifest(manifest, manifestFile);
+        assertTrue(manifestFile.setLastModified(OLD_TIMESTAMP));
+
+        manifestSerializer.writeManifest(manifestSerializer.readManifest(manifestFile), manifestFile);
+        assertEquals(OLD_TIMESTAMP, manifestFile.lastModified());
+
+        Manifest updated = manifestSerializer.readManifest(manifestFile);
+        updated.getUsesPermissions().get(0).setName("android.permission.CAMERA");
+        manifestSerializer.writeManifest(updated, manifestFile);
+        assertTrue(manifestFile.lastModified() != OLD_TIMESTAMP);
+    }
+}